@@ -1,16 +1,9 @@
 package games.strategy.engine.data;
 
-import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.function.Predicate;
-
-import games.strategy.triplea.delegate.Matches;
-import games.strategy.util.CollectionUtils;
+import java.util.function.ToIntFunction;
 
 /**
  * This class can find composite routes between two territories.
@@ -29,7 +22,8 @@ public class CompositeRouteFinder {
    * Initializes a new instance of the CompositeRouteFinder class.
    *
    * @param map - Game map found through &lt;gamedata>.getMap()
-   * @param matches - Set of matches and scores. The lower a match is scored, the more favorable it is.
+   * @param matches - Set of matches and scores. The lower a match is scored, the more favorable it is. Scores must not
+   *        be negative.
    */
   public CompositeRouteFinder(final GameMap map, final Map<Predicate<Territory>, Integer> matches) {
     this.map = map;
@@ -37,71 +31,12 @@ public class CompositeRouteFinder {
   }
 
   Route findRoute(final Territory start, final Territory end) {
-    final Set<Territory> allMatchingTers = new HashSet<>(
-        CollectionUtils.getMatches(map.getTerritories(), t -> matches.keySet().stream().anyMatch(p -> p.test(t))));
-    final Map<Territory, Integer> terScoreMap = createScoreMap();
-    final Map<Territory, Integer> routeScoreMap = new HashMap<>();
-    final Map<Territory, Territory> previous = new HashMap<>();
-    List<Territory> routeLeadersToProcess = new ArrayList<>();
-    for (final Territory ter : map.getNeighbors(start, Matches.territoryIsInList(allMatchingTers))) {
-      final int routeScore = terScoreMap.get(start) + terScoreMap.get(ter);
-      routeScoreMap.put(ter, routeScore);
-      routeLeadersToProcess.add(ter);
-      previous.put(ter, start);
-    }
-    int bestRouteToEndScore = Integer.MAX_VALUE;
-    while (routeLeadersToProcess.size() > 0) {
-      final List<Territory> newLeaders = new ArrayList<>();
-      for (final Territory oldLeader : routeLeadersToProcess) {
-        for (final Territory ter : map.getNeighbors(oldLeader, Matches.territoryIsInList(allMatchingTers))) {
-          final int routeScore = routeScoreMap.get(oldLeader) + terScoreMap.get(ter);
-          if (routeLeadersToProcess.contains(ter) || ter.equals(start)) {
-            continue;
-          }
-          if (previous.containsKey(ter)) { // If we're bumping into an existing route
-            if (routeScore >= routeScoreMap.get(ter)) {
-              continue;
-            }
-          }
-          if (bestRouteToEndScore <= routeScore) {
-            // Ignore this route leader, as we know we already have a better route
-            continue;
-          }
-          routeScoreMap.put(ter, routeScore);
-          newLeaders.add(ter);
-          previous.put(ter, oldLeader);
-          if (ter.equals(end)) {
-            bestRouteToEndScore = routeScore;
-          }
-        }
-      }
-      routeLeadersToProcess = newLeaders;
-    }
-    if (bestRouteToEndScore == Integer.MAX_VALUE) {
-      return null;
-    }
-    return assembleRoute(start, end, previous);
-  }
-
-  private static Route assembleRoute(final Territory start, final Territory end,
-      final Map<Territory, Territory> previous) {
-    final List<Territory> routeTers = new ArrayList<>();
-    Territory curTer = end;
-    while (previous.containsKey(curTer)) {
-      routeTers.add(curTer);
-      curTer = previous.get(curTer);
-    }
-    routeTers.add(start);
-    Collections.reverse(routeTers);
-    return new Route(routeTers);
-  }
-
-  private Map<Territory, Integer> createScoreMap() {
-    final Map<Territory, Integer> result = new HashMap<>();
-    for (final Territory ter : map.getTerritories()) {
-      result.put(ter, getTerScore(ter));
-    }
-    return result;
+    final int minScore = matches.values().stream().mapToInt(Integer::intValue).min().orElse(0);
+    final ToIntFunction<Territory> stepCost = t -> {
+      final int score = getTerScore(t);
+      return score == Integer.MAX_VALUE ? RouteFinder.IMPASSABLE : score;
+    };
+    return new RouteFinder(map, stepCost, minScore, Collections.emptyList(), null).findRoute(start, end);
   }
 
   /*
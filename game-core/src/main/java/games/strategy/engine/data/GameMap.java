@@ -4,6 +4,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -12,6 +13,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntPredicate;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -37,6 +40,10 @@ public class GameMap extends GameDataComponent implements Iterable<Territory> {
   // otherwise, m_gridDimensions.length is the number of dimensions,
   // and each element is the size of a dimension
   private int[] m_gridDimensions = null;
+  // the connections by territory id and the distance indexes for the territory type conditions, both built when
+  // first needed and dropped when the map changes
+  private transient volatile @Nullable TerritoryAdjacency adjacency;
+  private transient volatile @Nullable Map<Predicate<Territory>, TerritoryDistanceIndex> distanceIndexes;
 
   GameMap(final GameData data) {
     super(data);
@@ -88,6 +95,8 @@ public class GameMap extends GameDataComponent implements Iterable<Territory> {
     m_territories.add(t1);
     m_connections.put(t1, Collections.emptySet());
     m_territoryLookup.put(t1.getName(), t1);
+    adjacency = null;
+    distanceIndexes = null;
   }
 
   /**
@@ -102,6 +111,8 @@ public class GameMap extends GameDataComponent implements Iterable<Territory> {
     }
     setConnection(t1, t2);
     setConnection(t2, t1);
+    adjacency = null;
+    distanceIndexes = null;
   }
 
   private void setConnection(final Territory from, final Territory to) {
@@ -112,6 +123,64 @@ public class GameMap extends GameDataComponent implements Iterable<Territory> {
     m_connections.put(from, Collections.unmodifiableSet(modified));
   }
 
+  /**
+   * Returns the connections of this map by territory id, numbering the territories first if needed.
+   */
+  TerritoryAdjacency getAdjacency() {
+    TerritoryAdjacency current = adjacency;
+    if (current == null) {
+      // territory ids are not serialized, so they are (re)assigned here, which also covers copies of the game data
+      for (int id = 0; id < m_territories.size(); id++) {
+        m_territories.get(id).setId(id);
+      }
+      current = new TerritoryAdjacency(m_territories, m_connections);
+      adjacency = current;
+    }
+    return current;
+  }
+
+  /**
+   * Returns the dense integer id of the specified territory, between 0 and the number of territories on this map, or
+   * -1 if the territory is not on this map.
+   */
+  public int getTerritoryId(final Territory territory) {
+    getAdjacency();
+    final int id = territory.getId();
+    if (id >= 0 && id < m_territories.size() && m_territories.get(id) == territory) {
+      return id;
+    }
+    // the territory may be an equal territory from a copy of the game data
+    final Territory territoryOnMap = m_territoryLookup.get(territory.getName());
+    return territoryOnMap == null ? -1 : territoryOnMap.getId();
+  }
+
+  /**
+   * Returns the territory with the specified id.
+   *
+   * @see #getTerritoryId(Territory)
+   */
+  public Territory getTerritoryById(final int id) {
+    return m_territories.get(id);
+  }
+
+  /**
+   * Returns the distance index for the specified condition, or null if the condition is not one whose distances are
+   * indexed. Only the territory type conditions are indexed, since they never change during a game.
+   */
+  @Nullable
+  TerritoryDistanceIndex getDistanceIndex(final @Nullable Predicate<Territory> cond) {
+    if (cond != Matches.territoryIsLandOrWater() && cond != Matches.territoryIsLand()
+        && cond != Matches.territoryIsWater()) {
+      return null;
+    }
+    Map<Predicate<Territory>, TerritoryDistanceIndex> indexes = distanceIndexes;
+    if (indexes == null) {
+      indexes = new ConcurrentHashMap<>();
+      distanceIndexes = indexes;
+    }
+    return indexes.computeIfAbsent(cond, c -> new TerritoryDistanceIndex(this, c));
+  }
+
   /**
    * Returns the territory with the given name, or null if no territory can be found (case sensitive).
    *
@@ -164,13 +233,16 @@ public class GameMap extends GameDataComponent implements Iterable<Territory> {
     if (distance == 0) {
       return Collections.emptySet();
     }
-    final Set<Territory> start = getNeighbors(territory);
     if (distance == 1) {
-      return start;
+      return getNeighbors(territory);
     }
-    final Set<Territory> neighbors = getNeighbors(start, new HashSet<>(start), distance - 1);
-    neighbors.remove(territory);
-    return neighbors;
+    final int id = getTerritoryId(territory);
+    if (id < 0) {
+      throw new IllegalArgumentException("No neighbors for:" + territory);
+    }
+    final BitSet start = new BitSet();
+    start.set(id);
+    return getNeighbors(start, distance, null);
   }
 
   /**
@@ -184,13 +256,15 @@ public class GameMap extends GameDataComponent implements Iterable<Territory> {
     if (distance == 0) {
       return Collections.emptySet();
     }
-    final Set<Territory> start = getNeighbors(territory, cond);
     if (distance == 1) {
-      return start;
+      return getNeighbors(territory, cond);
     }
-    final Set<Territory> neighbors = getNeighbors(start, new HashSet<>(start), distance - 1, cond);
-    neighbors.remove(territory);
-    return neighbors;
+    final BitSet start = new BitSet();
+    final int id = getTerritoryId(territory);
+    if (id >= 0) {
+      start.set(id);
+    }
+    return getNeighbors(start, distance, cond);
   }
 
   /**
@@ -200,28 +274,39 @@ public class GameMap extends GameDataComponent implements Iterable<Territory> {
    */
   public Set<Territory> getNeighbors(final Set<Territory> frontier, final int distance,
       final Predicate<Territory> cond) {
-    final Set<Territory> neighbors = getNeighbors(frontier, new HashSet<>(frontier), distance, cond);
-    neighbors.removeAll(frontier);
-    return neighbors;
+    final BitSet start = new BitSet();
+    for (final Territory territory : frontier) {
+      final int id = getTerritoryId(territory);
+      if (id >= 0) {
+        start.set(id);
+      }
+    }
+    return getNeighbors(start, distance, cond);
   }
 
-  private Set<Territory> getNeighbors(final Set<Territory> frontier, final Set<Territory> searched, final int distance,
+  /**
+   * Returns all territories within a certain distance of the start territories, excluding the start territories,
+   * where each territory of the path to them matches the condition.
+   */
+  private Set<Territory> getNeighbors(final BitSet start, final int distance,
       @Nullable final Predicate<Territory> cond) {
-    if (distance == 0) {
-      return searched;
+    final TerritoryAdjacency adjacency = getAdjacency();
+    final BitSet visited = (BitSet) start.clone();
+    final BitSet neighbors = new BitSet(adjacency.getTerritoryCount());
+    BitSet frontier = start;
+    for (int i = 0; i < distance && !frontier.isEmpty(); i++) {
+      frontier = adjacency.expand(frontier, visited, toIdCondition(cond));
+      neighbors.or(frontier);
     }
-    final Set<Territory> newFrontier = frontier.stream()
-        .map(t -> getNeighbors(t, cond))
-        .flatMap(Collection::stream)
-        .filter(t -> !searched.contains(t))
-        .collect(Collectors.toSet());
-    searched.addAll(newFrontier);
-    return getNeighbors(newFrontier, searched, distance - 1, cond);
+    final Set<Territory> territories = new HashSet<>(neighbors.cardinality() * 2);
+    for (int id = neighbors.nextSetBit(0); id >= 0; id = neighbors.nextSetBit(id + 1)) {
+      territories.add(m_territories.get(id));
+    }
+    return territories;
   }
 
-  private Set<Territory> getNeighbors(final Set<Territory> frontier, final Set<Territory> searched,
-      final int distance) {
-    return getNeighbors(frontier, searched, distance, null);
+  private IntPredicate toIdCondition(@Nullable final Predicate<Territory> cond) {
+    return cond == null ? id -> true : id -> cond.test(m_territories.get(id));
   }
 
   Set<Territory> getNeighborsValidatingCanals(final Territory territory, final Predicate<Territory> neighborFilter,
@@ -260,6 +345,10 @@ public class GameMap extends GameDataComponent implements Iterable<Territory> {
     if (t1.equals(t2)) {
       return new Route(t1);
     }
+    final TerritoryDistanceIndex distanceIndex = getDistanceIndex(cond);
+    if (distanceIndex != null) {
+      return distanceIndex.getRoute(t1, t2);
+    }
     if (getNeighbors(t1, cond).contains(t2)) {
       return new Route(t1, t2);
     }
@@ -292,12 +381,22 @@ public class GameMap extends GameDataComponent implements Iterable<Territory> {
 
   public Route getRouteIgnoreEndValidatingCanals(final Territory t1, final Territory t2,
       final Predicate<Territory> cond, final Collection<Unit> units, final PlayerID player) {
+    return getRouteIgnoreEndValidatingCanals(t1, t2, cond, units, player, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Same as {@link #getRouteIgnoreEndValidatingCanals(Territory, Territory, Predicate, Collection, PlayerID)}, but
+   * only returns routes of at most the specified number of steps. This lets the search give up early when a longer
+   * route would be of no use.
+   */
+  public Route getRouteIgnoreEndValidatingCanals(final Territory t1, final Territory t2,
+      final Predicate<Territory> cond, final Collection<Unit> units, final PlayerID player, final int maxSteps) {
     checkNotNull(t1);
     checkNotNull(t2);
     if (t1.equals(t2)) {
       return new Route(t1);
     }
-    return new RouteFinder(this, Matches.territoryIs(t2).or(cond), units, player).findRoute(t1, t2);
+    return new RouteFinder(this, Matches.territoryIs(t2).or(cond), units, player).findRoute(t1, t2, maxSteps);
   }
 
   /**
@@ -353,33 +452,29 @@ public class GameMap extends GameDataComponent implements Iterable<Territory> {
     if (t1.equals(t2)) {
       return 0;
     }
-    return getDistance(0, new HashSet<>(), Collections.singleton(t1), t2, cond);
-  }
-
-  /**
-   * Guaranteed that frontier doesn't contain target.
-   * Territories on the frontier are not target. They represent the extent of paths already searched.
-   * Territories in searched have already been on the frontier.
-   */
-  private int getDistance(final int distance, final Set<Territory> searched, final Set<Territory> frontier,
-      final Territory target, @Nullable final Predicate<Territory> cond) {
-    // add the frontier to the searched
-    searched.addAll(frontier);
-    // find the new frontier
-
-    final Set<Territory> newFrontier = frontier.stream()
-        .map(m_connections::get)
-        .flatMap(Collection::stream)
-        .filter(f -> cond == null || cond.test(f))
-        .collect(Collectors.toSet());
-    if (newFrontier.contains(target)) {
-      return distance + 1;
+    final TerritoryDistanceIndex distanceIndex = getDistanceIndex(cond);
+    if (distanceIndex != null) {
+      return distanceIndex.getDistance(t1, t2);
     }
-    newFrontier.removeAll(searched);
-    if (newFrontier.isEmpty()) {
+    final int startId = getTerritoryId(t1);
+    final int targetId = getTerritoryId(t2);
+    if (startId < 0 || targetId < 0) {
       return -1;
     }
-    return getDistance(distance + 1, searched, newFrontier, target, cond);
+    final TerritoryAdjacency adjacency = getAdjacency();
+    final IntPredicate idCondition = toIdCondition(cond);
+    final BitSet visited = new BitSet(adjacency.getTerritoryCount());
+    visited.set(startId);
+    BitSet frontier = (BitSet) visited.clone();
+    for (int distance = 1; ; distance++) {
+      frontier = adjacency.expand(frontier, visited, idCondition);
+      if (frontier.get(targetId)) {
+        return distance;
+      }
+      if (frontier.isEmpty()) {
+        return -1;
+      }
+    }
   }
 
   public IntegerMap<Territory> getDistance(final Territory target, final Collection<Territory> territories,
@@ -424,6 +519,10 @@ public class GameMap extends GameDataComponent implements Iterable<Territory> {
    */
   public int getDistance_IgnoreEndForCondition(final Territory t1, final Territory t2,
       final Predicate<Territory> cond) {
+    final TerritoryDistanceIndex distanceIndex = getDistanceIndex(cond);
+    if (distanceIndex != null) {
+      return distanceIndex.getDistanceIgnoringEnd(t1, t2);
+    }
     return getDistance(t1, t2, Matches.territoryIs(t2).or(cond));
   }
 
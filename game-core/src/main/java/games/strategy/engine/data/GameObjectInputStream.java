@@ -2,18 +2,29 @@ package games.strategy.engine.data;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.ObjectInputStream;
+
+import javax.annotation.Nullable;
 
 import games.strategy.engine.framework.GameObjectStreamFactory;
+import games.strategy.net.ClassSchema;
+import games.strategy.net.SchemaObjectInputStream;
 
 /**
  * Please refer to the comments on GameObjectOutputStream.
  */
-public class GameObjectInputStream extends ObjectInputStream {
+public class GameObjectInputStream extends SchemaObjectInputStream {
   private final GameObjectStreamFactory dataSource;
 
   public GameObjectInputStream(final GameObjectStreamFactory dataSource, final InputStream input) throws IOException {
-    super(input);
+    this(dataSource, input, null);
+  }
+
+  /**
+   * @param schema The schema the stream was written with, or null if it only has full descriptors.
+   */
+  public GameObjectInputStream(final GameObjectStreamFactory dataSource, final InputStream input,
+      final @Nullable ClassSchema schema) throws IOException {
+    super(input, schema);
     this.dataSource = dataSource;
     enableResolveObject(true);
   }
@@ -1,9 +1,13 @@
 package games.strategy.engine.data;
 
 import java.io.IOException;
-import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 
+import javax.annotation.Nullable;
+
+import games.strategy.net.ClassSchema;
+import games.strategy.net.SchemaObjectOutputStream;
+
 /**
  * To maintain == relationships and the singleton nature of many classes in GameData
  * we do some work in the ObjectSteam.
@@ -15,10 +19,18 @@ import java.io.OutputStream;
  * with the GameObjectInputStream.
  * This ensures the state of the territory remains consistent.
  */
-public class GameObjectOutputStream extends ObjectOutputStream {
+public class GameObjectOutputStream extends SchemaObjectOutputStream {
 
   public GameObjectOutputStream(final OutputStream output) throws IOException {
-    super(output);
+    this(output, null);
+  }
+
+  /**
+   * @param schema The classes whose descriptors may be written as ids once the schema is enabled, or null if this
+   *        stream always writes full descriptors.
+   */
+  public GameObjectOutputStream(final OutputStream output, final @Nullable ClassSchema schema) throws IOException {
+    super(output, schema);
     enableReplaceObject(true);
   }
 
@@ -1,5 +1,6 @@
 package games.strategy.engine.data;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -125,4 +126,47 @@ public class GameSequence extends GameDataComponent implements Iterable<GameStep
   public int size() {
     return m_steps.size();
   }
+
+  /**
+   * Returns where in the game this sequence is, which unlike the rest of the game data is not changed by
+   * {@link Change}s. Used by incremental save games to restore the sequence after replaying changes.
+   */
+  public synchronized Position getPosition() {
+    final int[] runCounts = new int[m_steps.size()];
+    for (int i = 0; i < runCounts.length; i++) {
+      runCounts[i] = m_steps.get(i).getRunCount();
+    }
+    return new Position(m_round, m_roundOffset, m_currentIndex, runCounts);
+  }
+
+  /**
+   * Moves this sequence to the specified position, as returned by {@link #getPosition()}.
+   */
+  public synchronized void setPosition(final Position position) {
+    m_round = position.round;
+    m_roundOffset = position.roundOffset;
+    m_currentIndex = position.stepIndex;
+    // steps may have been removed since, so only restore the run counts of the steps both have
+    for (int i = 0; i < Math.min(m_steps.size(), position.runCounts.length); i++) {
+      m_steps.get(i).setRunCount(position.runCounts[i]);
+    }
+  }
+
+  /**
+   * The round, step and step run counts of a game sequence.
+   */
+  public static final class Position implements Serializable {
+    private static final long serialVersionUID = 4196232627934958036L;
+    private final int round;
+    private final int roundOffset;
+    private final int stepIndex;
+    private final int[] runCounts;
+
+    private Position(final int round, final int roundOffset, final int stepIndex, final int[] runCounts) {
+      this.round = round;
+      this.roundOffset = roundOffset;
+      this.stepIndex = stepIndex;
+      this.runCounts = runCounts;
+    }
+  }
 }
@@ -95,6 +95,14 @@ public class GameStep extends GameDataComponent {
     m_runCount++;
   }
 
+  int getRunCount() {
+    return m_runCount;
+  }
+
+  void setRunCount(final int runCount) {
+    m_runCount = runCount;
+  }
+
   public void setMaxRunCount(final int count) {
     m_maxRunCount = count;
   }
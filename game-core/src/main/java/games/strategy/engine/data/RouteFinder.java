@@ -1,78 +1,264 @@
 package games.strategy.engine.data;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
 import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
 
-// TODO this class doesn't take movementcost into account... typically the shortest route is the fastest route, but not
-// always...
+import javax.annotation.Nullable;
+
+import games.strategy.triplea.delegate.Matches;
+import games.strategy.triplea.delegate.MoveValidator;
+
+/**
+ * Finds the cheapest route between two territories, where entering each territory of the route has a cost.
+ *
+ * <p>
+ * The search is an A* search over the territory ids of the map. Its heuristic is the unrestricted distance to the end
+ * from the map's distance index times the cheapest possible step, which never overestimates, so the first route found
+ * to the end is a cheapest one. Each territory's step cost, and so its condition, is evaluated at most once per
+ * search, and canals are checked at most once per connection. The search state lives in per-thread buffers that are
+ * reused by later searches instead of being allocated for each one.
+ * </p>
+ */
 class RouteFinder {
+  /**
+   * Step cost of a territory that may not be entered.
+   */
+  static final int IMPASSABLE = -1;
+
+  private static final ThreadLocal<SearchBuffers> threadBuffers = ThreadLocal.withInitial(SearchBuffers::new);
 
   private final GameMap map;
-  private final Predicate<Territory> condition;
-  private final Map<Territory, Territory> previous;
+  private final ToIntFunction<Territory> stepCost;
+  private final int minStepCost;
   private final Collection<Unit> units;
-  private final PlayerID player;
+  private final @Nullable PlayerID player;
 
   RouteFinder(final GameMap map, final Predicate<Territory> condition) {
     this(map, condition, new HashSet<>(), null);
   }
 
   RouteFinder(final GameMap map, final Predicate<Territory> condition, final Collection<Unit> units,
-      final PlayerID player) {
+      final @Nullable PlayerID player) {
+    this(map, t -> condition.test(t) ? 1 : IMPASSABLE, 1, units, player);
+  }
+
+  /**
+   * @param stepCost The cost of entering a territory, which may not be negative, or {@link #IMPASSABLE}.
+   * @param minStepCost A lower bound of all step costs, used by the search heuristic.
+   * @param units The units to check canals for.
+   * @param player The player to check canals for, or null if canals should not be checked.
+   */
+  RouteFinder(final GameMap map, final ToIntFunction<Territory> stepCost, final int minStepCost,
+      final Collection<Unit> units, final @Nullable PlayerID player) {
     this.map = map;
-    this.condition = condition;
-    previous = new HashMap<>();
+    this.stepCost = stepCost;
+    this.minStepCost = Math.max(0, minStepCost);
     this.units = units;
     this.player = player;
   }
 
+  @Nullable
   Route findRoute(final Territory start, final Territory end) {
-    final Set<Territory> startSet = map.getNeighborsValidatingCanals(start, condition, units, player);
-    for (final Territory t : startSet) {
-      previous.put(t, start);
-    }
-    if (calculate(startSet, end)) {
-      return getRoute(start, end);
-    }
-    return null;
+    return findRoute(start, end, Integer.MAX_VALUE);
   }
 
-  private boolean calculate(final Set<Territory> startSet, final Territory end) {
-    final Set<Territory> nextSet = new HashSet<>();
-    for (final Territory t : startSet) {
-      final Set<Territory> neighbors = map.getNeighborsValidatingCanals(t, condition, units, player);
-      for (final Territory neighbor : neighbors) {
-        if (!previous.containsKey(neighbor)) {
-          previous.put(neighbor, t);
-          if (neighbor.equals(end)) {
-            return true;
+  /**
+   * Returns a cheapest route between two territories, or null if there is none that costs at most the specified
+   * maximum. A tight maximum lets the search give up early instead of exploring the whole map.
+   */
+  @Nullable
+  Route findRoute(final Territory start, final Territory end, final int maxCost) {
+    final int startId = map.getTerritoryId(start);
+    final int endId = map.getTerritoryId(end);
+    if (startId < 0 || endId < 0) {
+      return null;
+    }
+    final TerritoryAdjacency adjacency = map.getAdjacency();
+    // the unrestricted distances are symmetric, so the distances from the end are also the distances to the end
+    final int[] distancesToEnd = map.getDistanceIndex(Matches.territoryIsLandOrWater()).getDistancesFrom(endId);
+    if (distancesToEnd[startId] < 0) {
+      return null;
+    }
+    SearchBuffers buffers = threadBuffers.get();
+    if (buffers.inUse) {
+      // a condition is searching for a route itself, so this search needs its own buffers
+      buffers = new SearchBuffers();
+    }
+    buffers.inUse = true;
+    try {
+      buffers.reset(adjacency.getTerritoryCount());
+      buffers.open(startId, 0, -1, minStepCost * distancesToEnd[startId]);
+      for (int current = buffers.poll(); current >= 0; current = buffers.poll()) {
+        if (current == endId) {
+          return buffers.getRoute(map, endId);
+        }
+        final Territory from = map.getTerritoryById(current);
+        for (int i = adjacency.getNeighborsStart(current); i < adjacency.getNeighborsEnd(current); i++) {
+          final int neighbor = adjacency.getNeighbor(i);
+          if (buffers.isClosed(neighbor) || distancesToEnd[neighbor] < 0) {
+            continue;
+          }
+          final int neighborStepCost = buffers.getStepCost(neighbor, map, stepCost);
+          if (neighborStepCost == IMPASSABLE) {
+            continue;
           }
-          nextSet.add(neighbor);
+          final long cost = (long) buffers.getCost(current) + neighborStepCost;
+          final long estimate = cost + (long) minStepCost * distancesToEnd[neighbor];
+          if (cost >= buffers.getCost(neighbor) || estimate > maxCost) {
+            continue;
+          }
+          if (player != null && !MoveValidator.canAnyUnitsPassCanal(from, map.getTerritoryById(neighbor), units,
+              player, map.getData())) {
+            continue;
+          }
+          buffers.open(neighbor, (int) cost, current, (int) estimate);
         }
       }
+      return null;
+    } finally {
+      buffers.inUse = false;
     }
-    return !nextSet.isEmpty() && calculate(nextSet, end);
   }
 
-  private Route getRoute(final Territory start, final Territory destination) {
-    final List<Territory> route = new ArrayList<>();
-    Territory current = destination;
-    while (!start.equals(current)) {
-      if (current == null) {
-        return null;
+  /**
+   * The state of one search by territory id. A territory's entries are only valid if it was touched during the
+   * current search, which saves clearing the arrays between searches.
+   */
+  private static final class SearchBuffers {
+    private static final byte CLOSED = 1;
+    private static final byte STEP_COST_KNOWN = 2;
+
+    private boolean inUse = false;
+    private int search = 0;
+    private int[] touchedBySearch = new int[0];
+    private byte[] flags = new byte[0];
+    private int[] stepCosts = new int[0];
+    private int[] costs = new int[0];
+    private int[] previous = new int[0];
+    // binary min-heap of open territories ordered by estimated total cost; a territory whose cost improves is simply
+    // added again, and its outdated entries are skipped once it is closed
+    private int[] heapIds = new int[16];
+    private int[] heapEstimates = new int[16];
+    private int heapSize = 0;
+
+    void reset(final int territoryCount) {
+      if (touchedBySearch.length < territoryCount) {
+        touchedBySearch = new int[territoryCount];
+        flags = new byte[territoryCount];
+        stepCosts = new int[territoryCount];
+        costs = new int[territoryCount];
+        previous = new int[territoryCount];
+        search = 0;
+      }
+      search++;
+      if (search == 0) {
+        // wrapped around after ~4 billion searches, so old entries could look current
+        Arrays.fill(touchedBySearch, 0);
+        search = 1;
+      }
+      heapSize = 0;
+    }
+
+    private void touch(final int id) {
+      if (touchedBySearch[id] != search) {
+        touchedBySearch[id] = search;
+        flags[id] = 0;
+        costs[id] = Integer.MAX_VALUE;
+        previous[id] = -1;
+      }
+    }
+
+    boolean isClosed(final int id) {
+      return touchedBySearch[id] == search && (flags[id] & CLOSED) != 0;
+    }
+
+    int getCost(final int id) {
+      return touchedBySearch[id] == search ? costs[id] : Integer.MAX_VALUE;
+    }
+
+    int getStepCost(final int id, final GameMap map, final ToIntFunction<Territory> stepCost) {
+      touch(id);
+      if ((flags[id] & STEP_COST_KNOWN) == 0) {
+        stepCosts[id] = stepCost.applyAsInt(map.getTerritoryById(id));
+        flags[id] |= STEP_COST_KNOWN;
+      }
+      return stepCosts[id];
+    }
+
+    void open(final int id, final int cost, final int previousId, final int estimate) {
+      touch(id);
+      costs[id] = cost;
+      previous[id] = previousId;
+      if (heapSize == heapIds.length) {
+        heapIds = Arrays.copyOf(heapIds, heapSize * 2);
+        heapEstimates = Arrays.copyOf(heapEstimates, heapSize * 2);
+      }
+      int position = heapSize++;
+      while (position > 0) {
+        final int parent = (position - 1) / 2;
+        if (heapEstimates[parent] <= estimate) {
+          break;
+        }
+        heapIds[position] = heapIds[parent];
+        heapEstimates[position] = heapEstimates[parent];
+        position = parent;
+      }
+      heapIds[position] = id;
+      heapEstimates[position] = estimate;
+    }
+
+    /**
+     * Closes and returns the open territory with the lowest estimated total cost, or -1 if there is none.
+     */
+    int poll() {
+      while (heapSize > 0) {
+        final int id = heapIds[0];
+        removeHeapTop();
+        if (!isClosed(id)) {
+          flags[id] |= CLOSED;
+          return id;
+        }
+      }
+      return -1;
+    }
+
+    private void removeHeapTop() {
+      heapSize--;
+      final int lastId = heapIds[heapSize];
+      final int lastEstimate = heapEstimates[heapSize];
+      int position = 0;
+      while (true) {
+        int child = position * 2 + 1;
+        if (child >= heapSize) {
+          break;
+        }
+        if (child + 1 < heapSize && heapEstimates[child + 1] < heapEstimates[child]) {
+          child++;
+        }
+        if (lastEstimate <= heapEstimates[child]) {
+          break;
+        }
+        heapIds[position] = heapIds[child];
+        heapEstimates[position] = heapEstimates[child];
+        position = child;
+      }
+      heapIds[position] = lastId;
+      heapEstimates[position] = lastEstimate;
+    }
+
+    Route getRoute(final GameMap map, final int endId) {
+      int length = 0;
+      for (int id = endId; id >= 0; id = previous[id]) {
+        length++;
+      }
+      final Territory[] route = new Territory[length];
+      for (int id = endId; id >= 0; id = previous[id]) {
+        route[--length] = map.getTerritoryById(id);
       }
-      route.add(current);
-      current = previous.get(current);
+      return new Route(Arrays.asList(route));
     }
-    route.add(start);
-    Collections.reverse(route);
-    return new Route(route);
   }
 }
@@ -15,6 +15,8 @@ public class Territory extends NamedAttachable implements NamedUnitHolder, Compa
   // In a grid-based game, stores the coordinate of the Territory
   @SuppressWarnings("unused")
   private final int[] m_coordinate;
+  // position of this territory on its map, assigned by the map
+  private transient int id = -1;
 
   public Territory(final String name, final GameData data) {
     this(name, false, data);
@@ -40,6 +42,18 @@ public class Territory extends NamedAttachable implements NamedUnitHolder, Compa
     }
   }
 
+  /**
+   * Returns the dense integer id of this territory on its map. Only meaningful once the map has numbered its
+   * territories; use {@link GameMap#getTerritoryId(Territory)} to be sure of that.
+   */
+  int getId() {
+    return id;
+  }
+
+  void setId(final int id) {
+    this.id = id;
+  }
+
   public boolean isWater() {
     return m_water;
   }
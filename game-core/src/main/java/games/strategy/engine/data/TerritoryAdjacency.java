@@ -0,0 +1,78 @@
+package games.strategy.engine.data;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+/**
+ * The connections of a {@link GameMap} in compressed sparse row form: the neighbors of the territory with id
+ * {@code i} are the ids {@code neighbors[offsets[i]]} up to, but not including, {@code neighbors[offsets[i + 1]]}.
+ *
+ * <p>
+ * Sets of territories are represented by bit sets indexed by territory id, so searches over the map neither box
+ * nor hash.
+ * </p>
+ */
+final class TerritoryAdjacency {
+  private final int[] offsets;
+  private final int[] neighbors;
+
+  TerritoryAdjacency(final List<Territory> territories, final Map<Territory, Set<Territory>> connections) {
+    final int territoryCount = territories.size();
+    offsets = new int[territoryCount + 1];
+    for (int id = 0; id < territoryCount; id++) {
+      offsets[id + 1] = offsets[id] + connections.get(territories.get(id)).size();
+    }
+    neighbors = new int[offsets[territoryCount]];
+    for (int id = 0; id < territoryCount; id++) {
+      int i = offsets[id];
+      for (final Territory neighbor : connections.get(territories.get(id))) {
+        neighbors[i++] = neighbor.getId();
+      }
+    }
+  }
+
+  int getTerritoryCount() {
+    return offsets.length - 1;
+  }
+
+  /**
+   * Returns the position of the first neighbor of the specified territory.
+   */
+  int getNeighborsStart(final int id) {
+    return offsets[id];
+  }
+
+  /**
+   * Returns the position after the last neighbor of the specified territory.
+   */
+  int getNeighborsEnd(final int id) {
+    return offsets[id + 1];
+  }
+
+  int getNeighbor(final int position) {
+    return neighbors[position];
+  }
+
+  /**
+   * Returns the territories next to the frontier that have not been visited yet and that match the condition. Every
+   * territory tested is marked as visited, so each territory is tested at most once per search.
+   */
+  BitSet expand(final BitSet frontier, final BitSet visited, final IntPredicate condition) {
+    final BitSet next = new BitSet(getTerritoryCount());
+    for (int id = frontier.nextSetBit(0); id >= 0; id = frontier.nextSetBit(id + 1)) {
+      for (int i = offsets[id]; i < offsets[id + 1]; i++) {
+        final int neighbor = neighbors[i];
+        if (!visited.get(neighbor)) {
+          visited.set(neighbor);
+          if (condition.test(neighbor)) {
+            next.set(neighbor);
+          }
+        }
+      }
+    }
+    return next;
+  }
+}
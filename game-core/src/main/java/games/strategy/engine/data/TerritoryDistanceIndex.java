@@ -0,0 +1,142 @@
+package games.strategy.engine.data;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+import javax.annotation.Nullable;
+
+/**
+ * Shortest distances between the territories of a {@link GameMap} for one fixed territory condition, such as "is
+ * land". The condition must only depend on what never changes during a game, since the index is never updated.
+ *
+ * <p>
+ * The distances from a territory are computed by a single breadth-first search over the territory ids of the map,
+ * the first time that territory is asked about. Later queries from the same territory, including routes, are simple
+ * array lookups.
+ * </p>
+ */
+final class TerritoryDistanceIndex {
+  private static final int UNREACHABLE = -1;
+
+  private final GameMap map;
+  private final TerritoryAdjacency adjacency;
+  private final boolean[] matches;
+  private final AtomicReferenceArray<int[]> distancesFrom;
+
+  TerritoryDistanceIndex(final GameMap map, final Predicate<Territory> condition) {
+    this.map = map;
+    adjacency = map.getAdjacency();
+    final int territoryCount = adjacency.getTerritoryCount();
+    matches = new boolean[territoryCount];
+    for (int id = 0; id < territoryCount; id++) {
+      matches[id] = condition.test(map.getTerritoryById(id));
+    }
+    distancesFrom = new AtomicReferenceArray<>(territoryCount);
+  }
+
+  /**
+   * Returns the distance between two territories where the covered territories of the route satisfy the condition
+   * of this index or -1 if they are not connected.
+   */
+  int getDistance(final Territory start, final Territory end) {
+    final int startId = map.getTerritoryId(start);
+    final int endId = map.getTerritoryId(end);
+    if (startId < 0 || endId < 0) {
+      return UNREACHABLE;
+    }
+    return getDistancesFrom(startId)[endId];
+  }
+
+  /**
+   * Same as {@link #getDistance(Territory, Territory)}, except the end territory does not have to satisfy the
+   * condition of this index.
+   */
+  int getDistanceIgnoringEnd(final Territory start, final Territory end) {
+    final int startId = map.getTerritoryId(start);
+    final int endId = map.getTerritoryId(end);
+    if (startId < 0 || endId < 0) {
+      return UNREACHABLE;
+    }
+    if (startId == endId) {
+      return 0;
+    }
+    final int[] distances = getDistancesFrom(startId);
+    int distance = UNREACHABLE;
+    for (int i = adjacency.getNeighborsStart(endId); i < adjacency.getNeighborsEnd(endId); i++) {
+      final int neighbor = adjacency.getNeighbor(i);
+      if (distances[neighbor] != UNREACHABLE && (distance == UNREACHABLE || distances[neighbor] + 1 < distance)) {
+        distance = distances[neighbor] + 1;
+      }
+    }
+    return distance;
+  }
+
+  /**
+   * Returns a shortest route between two territories where the covered territories of the route satisfy the
+   * condition of this index or null if they are not connected.
+   */
+  @Nullable
+  Route getRoute(final Territory start, final Territory end) {
+    final int startId = map.getTerritoryId(start);
+    final int endId = map.getTerritoryId(end);
+    if (startId < 0 || endId < 0) {
+      return null;
+    }
+    final int[] distances = getDistancesFrom(startId);
+    if (distances[endId] == UNREACHABLE) {
+      return null;
+    }
+    // walk back from the end, each step to a neighbor one step closer to the start
+    final Territory[] route = new Territory[distances[endId] + 1];
+    int current = endId;
+    for (int step = distances[endId]; step > 0; step--) {
+      route[step] = map.getTerritoryById(current);
+      for (int i = adjacency.getNeighborsStart(current); i < adjacency.getNeighborsEnd(current); i++) {
+        final int neighbor = adjacency.getNeighbor(i);
+        if (distances[neighbor] == step - 1) {
+          current = neighbor;
+          break;
+        }
+      }
+    }
+    route[0] = map.getTerritoryById(current);
+    return new Route(Arrays.asList(route));
+  }
+
+  /**
+   * Returns the distances from the specified territory to every territory by id, where -1 means unreachable. The
+   * returned array is shared and must not be modified.
+   */
+  int[] getDistancesFrom(final int startId) {
+    final int[] cached = distancesFrom.get(startId);
+    if (cached != null) {
+      return cached;
+    }
+    // concurrent callers may both compute the same row, which is harmless since the result is identical
+    final int[] distances = computeDistancesFrom(startId);
+    distancesFrom.compareAndSet(startId, null, distances);
+    return distances;
+  }
+
+  private int[] computeDistancesFrom(final int startId) {
+    final int[] distances = new int[adjacency.getTerritoryCount()];
+    Arrays.fill(distances, UNREACHABLE);
+    final int[] queue = new int[distances.length];
+    int head = 0;
+    int tail = 0;
+    distances[startId] = 0;
+    queue[tail++] = startId;
+    while (head < tail) {
+      final int current = queue[head++];
+      for (int i = adjacency.getNeighborsStart(current); i < adjacency.getNeighborsEnd(current); i++) {
+        final int neighbor = adjacency.getNeighbor(i);
+        if (matches[neighbor] && distances[neighbor] == UNREACHABLE) {
+          distances[neighbor] = distances[current] + 1;
+          queue[tail++] = neighbor;
+        }
+      }
+    }
+    return distances;
+  }
+}
@@ -1,6 +1,7 @@
 package games.strategy.engine.data.changefactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
@@ -65,6 +66,40 @@ public class ChangeFactory {
     }
   };
 
+  /**
+   * Returns the types of the changes created by this factory, always in the same order, so they can be part of a
+   * {@link games.strategy.net.ClassSchema}.
+   */
+  public static List<Class<? extends Change>> getChangeTypes() {
+    return Arrays.asList(
+        EMPTY_CHANGE.getClass(),
+        AddAttachmentChange.class,
+        AddAvailableTech.class,
+        AddBattleRecordsChange.class,
+        AddProductionRule.class,
+        AddUnits.class,
+        AttachmentPropertyReset.class,
+        AttachmentPropertyResetUndo.class,
+        BombingUnitDamageChange.class,
+        ChangeAttachmentChange.class,
+        ChangeResourceChange.class,
+        CompositeChange.class,
+        GenericTechChange.class,
+        ObjectPropertyChange.class,
+        OwnerChange.class,
+        PlayerOwnerChange.class,
+        PlayerWhoAmIChange.class,
+        ProductionFrontierChange.class,
+        RelationshipChange.class,
+        RemoveAttachmentChange.class,
+        RemoveAvailableTech.class,
+        RemoveBattleRecordsChange.class,
+        RemoveProductionRule.class,
+        RemoveUnits.class,
+        SetPropertyChange.class,
+        UnitHitsChange.class);
+  }
+
   public static Change changeOwner(final Territory territory, final PlayerID owner) {
     return new OwnerChange(territory, owner);
   }
@@ -0,0 +1,25 @@
+package games.strategy.engine.framework;
+
+import lombok.Value;
+
+/**
+ * How long the autosaves of a {@link ServerGame} hold the game still, compared to how long they take.
+ */
+@Value
+public class AutoSaveStatistics {
+  /**
+   * The number of autosaves taken but not written to disk yet.
+   */
+  private final int pendingSaveCount;
+  private final long saveCount;
+  /**
+   * The average time delegate execution was blocked to take the snapshot of an autosave.
+   */
+  private final long averageLockMillis;
+  private final long maxLockMillis;
+  /**
+   * The average time from starting an autosave to having written it to disk.
+   */
+  private final long averageSaveMillis;
+  private final long maxSaveMillis;
+}
@@ -0,0 +1,115 @@
+package games.strategy.engine.framework;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+import games.strategy.util.Interruptibles;
+import lombok.extern.java.Log;
+
+/**
+ * Writes the snapshots of autosaves to disk on a thread of its own, so the game is only held still while taking
+ * them.
+ *
+ * <p>
+ * Snapshots are written in the order they were handed over. At most {@link #MAX_PENDING_SAVES} of them wait to be
+ * written; handing over another one blocks until the oldest is written, so a slow disk can not make the snapshots
+ * use up the memory.
+ * </p>
+ */
+@Log
+final class AutoSaveWriter {
+  private static final int MAX_PENDING_SAVES = 4;
+
+  private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+    final Thread thread = new Thread(r, "Autosave writer");
+    thread.setDaemon(true);
+    return thread;
+  });
+  private final Semaphore pendingSaves = new Semaphore(MAX_PENDING_SAVES);
+  private final AtomicLong saveCount = new AtomicLong();
+  private final AtomicLong totalLockNanos = new AtomicLong();
+  private final AtomicLong maxLockNanos = new AtomicLong();
+  private final AtomicLong totalSaveNanos = new AtomicLong();
+  private final AtomicLong maxSaveNanos = new AtomicLong();
+
+  /**
+   * Writes the specified snapshot in the background.
+   *
+   * @param startNanos The {@link System#nanoTime()} the save started at, before waiting to hold the game still.
+   * @param lockNanos How long the game was held still to take the snapshot.
+   */
+  void write(final IncrementalSaveGame.Snapshot snapshot, final long startNanos, final long lockNanos) {
+    if (!Interruptibles.await(pendingSaves::acquire)) {
+      log.warning("Interrupted while waiting to write the autosave " + snapshot.getFile());
+      return;
+    }
+    try {
+      executor.execute(() -> {
+        try {
+          writeNow(snapshot, startNanos, lockNanos);
+        } finally {
+          pendingSaves.release();
+        }
+      });
+    } catch (final RejectedExecutionException e) {
+      // an autosave racing with shutDown(), which the caller writes once the snapshots handed over before are written
+      pendingSaves.release();
+      awaitPendingSaves();
+      writeNow(snapshot, startNanos, lockNanos);
+    } catch (final RuntimeException e) {
+      pendingSaves.release();
+      throw e;
+    }
+  }
+
+  private void writeNow(final IncrementalSaveGame.Snapshot snapshot, final long startNanos, final long lockNanos) {
+    try {
+      IncrementalSaveGame.write(snapshot);
+      recordSave(snapshot, System.nanoTime() - startNanos, lockNanos);
+    } catch (final IOException | RuntimeException e) {
+      log.log(Level.SEVERE, "Failed to save game to file: " + snapshot.getFile(), e);
+    }
+  }
+
+  private void recordSave(final IncrementalSaveGame.Snapshot snapshot, final long saveNanos, final long lockNanos) {
+    saveCount.incrementAndGet();
+    totalLockNanos.addAndGet(lockNanos);
+    maxLockNanos.accumulateAndGet(lockNanos, Math::max);
+    totalSaveNanos.addAndGet(saveNanos);
+    maxSaveNanos.accumulateAndGet(saveNanos, Math::max);
+    log.fine(() -> "Autosaved " + snapshot.getFile() + " in " + TimeUnit.NANOSECONDS.toMillis(saveNanos)
+        + " ms, holding the game for " + TimeUnit.NANOSECONDS.toMillis(lockNanos) + " ms");
+  }
+
+  AutoSaveStatistics getStatistics() {
+    final long count = saveCount.get();
+    return new AutoSaveStatistics(
+        MAX_PENDING_SAVES - pendingSaves.availablePermits(),
+        count,
+        count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalLockNanos.get() / count),
+        TimeUnit.NANOSECONDS.toMillis(maxLockNanos.get()),
+        count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalSaveNanos.get() / count),
+        TimeUnit.NANOSECONDS.toMillis(maxSaveNanos.get()));
+  }
+
+  /**
+   * Writes the pending snapshots and stops the thread writing them. Snapshots handed over afterwards are written on
+   * the calling thread.
+   */
+  void shutDown() {
+    executor.shutdown();
+    awaitPendingSaves();
+  }
+
+  private void awaitPendingSaves() {
+    if (!Interruptibles.awaitResult(() -> executor.awaitTermination(1, TimeUnit.MINUTES)).result.orElse(false)) {
+      log.warning("Could not write the pending autosaves");
+    }
+  }
+}
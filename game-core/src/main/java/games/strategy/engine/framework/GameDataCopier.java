@@ -0,0 +1,115 @@
+package games.strategy.engine.framework;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import games.strategy.engine.data.GameData;
+
+/**
+ * Creates in-memory deep copies of {@link GameData}.
+ *
+ * <p>
+ * A copy made through {@link GameDataManager#saveGame(java.io.OutputStream, GameData)} and
+ * {@link GameDataManager#loadGame(InputStream)} pays for an engine version handshake, GZIP compression and
+ * decompression, and an extra defensive copy of the serialized bytes. None of that is needed when the copy never
+ * leaves the JVM, so this class writes the object graph straight into a growable buffer and reads it back from that
+ * same buffer.
+ * </p>
+ */
+public final class GameDataCopier {
+  private static final int MIN_BUFFER_SIZE = 64 * 1024;
+
+  // games tend to be copied repeatedly, so remember how big the last one was to avoid growing the buffer each time
+  private static volatile int lastCopySize = MIN_BUFFER_SIZE;
+
+  private GameDataCopier() {}
+
+  /**
+   * Creates a deep copy of the specified game data.
+   * <strong>You should have the game data's read or write lock before calling this method</strong>
+   *
+   * @param data The game data to copy.
+   * @param copyDelegates {@code true} if the delegates and their state should be copied; otherwise {@code false}.
+   *
+   * @return The copy of the game data.
+   *
+   * @throws IOException If the game data cannot be copied.
+   */
+  public static GameData copy(final GameData data, final boolean copyDelegates) throws IOException {
+    return snapshot(data, copyDelegates).newCopy();
+  }
+
+  /**
+   * Captures an immutable snapshot of the specified game data from which any number of independent copies can later be
+   * made, possibly concurrently, without touching the original game data again.
+   * <strong>You should have the game data's read or write lock before calling this method</strong>
+   *
+   * @param data The game data to capture.
+   * @param copyDelegates {@code true} if the delegates and their state should be captured; otherwise {@code false}.
+   *
+   * @return The snapshot of the game data.
+   *
+   * @throws IOException If the game data cannot be captured.
+   */
+  public static Snapshot snapshot(final GameData data, final boolean copyDelegates) throws IOException {
+    checkNotNull(data);
+
+    final CopyBuffer buffer = new CopyBuffer(lastCopySize);
+    try (ObjectOutputStream out = new ObjectOutputStream(buffer)) {
+      GameDataManager.writeGameData(out, data, copyDelegates);
+    }
+    lastCopySize = Math.max(MIN_BUFFER_SIZE, buffer.size());
+    return new Snapshot(buffer);
+  }
+
+  /**
+   * The serialized form of a game data at some point in time. A snapshot is never modified after it is captured, so it
+   * may be shared between threads.
+   */
+  public static final class Snapshot {
+    private final CopyBuffer buffer;
+
+    private Snapshot(final CopyBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    /**
+     * Returns the size of this snapshot in bytes.
+     */
+    public int size() {
+      return buffer.size();
+    }
+
+    /**
+     * Creates a new game data equal to the one from which this snapshot was captured.
+     *
+     * @throws IOException If the game data cannot be recreated.
+     */
+    public GameData newCopy() throws IOException {
+      try (ObjectInputStream in = new ObjectInputStream(buffer.toInputStream())) {
+        return GameDataManager.readGameData(in);
+      } catch (final ClassNotFoundException e) {
+        throw new IOException(e);
+      }
+    }
+  }
+
+  /**
+   * A byte array output stream whose contents can be read back without copying the underlying array.
+   */
+  private static final class CopyBuffer extends ByteArrayOutputStream {
+    CopyBuffer(final int size) {
+      super(size);
+    }
+
+    InputStream toInputStream() {
+      return new ByteArrayInputStream(buf, 0, count);
+    }
+  }
+}
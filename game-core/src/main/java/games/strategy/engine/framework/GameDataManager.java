@@ -3,6 +3,7 @@ package games.strategy.engine.framework;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.io.BufferedInputStream;
+import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -22,6 +23,7 @@ import games.strategy.engine.GameEngineVersion;
 import games.strategy.engine.data.GameData;
 import games.strategy.engine.delegate.IDelegate;
 import games.strategy.engine.framework.headlessGameServer.HeadlessGameServer;
+import games.strategy.engine.history.HistorySegment;
 import games.strategy.io.IoUtils;
 import games.strategy.triplea.UrlConstants;
 import games.strategy.util.Version;
@@ -35,6 +37,14 @@ public final class GameDataManager {
   private static final String DELEGATE_START = "<DelegateStart>";
   private static final String DELEGATE_DATA_NEXT = "<DelegateData>";
   private static final String DELEGATE_LIST_END = "<EndDelegateList>";
+  private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+  /**
+   * The codec of save games written to disk or sent over the network. Save games compressed with
+   * {@link SaveGameContainer.Codec#GZIP} are written without the container, so that engines from before it, which are
+   * otherwise compatible, can still read them. The default can only become a faster codec once no compatible engine
+   * without the container is in use.
+   */
+  static final SaveGameContainer.Codec DEFAULT_CODEC = SaveGameContainer.Codec.GZIP;
 
   private GameDataManager() {}
 
@@ -57,7 +67,8 @@ public final class GameDataManager {
   }
 
   /**
-   * Loads game data from the specified stream.
+   * Loads game data from the specified stream, which holds either a regular or an incremental save game. Regular save
+   * games written before they were put in a {@link SaveGameContainer} are plain gzip streams.
    *
    * @param is The stream from which the game data will be loaded. The caller is responsible for closing this stream; it
    *        will not be closed when this method returns.
@@ -69,7 +80,25 @@ public final class GameDataManager {
   public static GameData loadGame(final InputStream is) throws IOException {
     checkNotNull(is);
 
-    final ObjectInputStream input = new ObjectInputStream(new GZIPInputStream(is));
+    final InputStream input = is.markSupported() ? is : new BufferedInputStream(is);
+    input.mark(Integer.BYTES);
+    final int magic = new DataInputStream(input).readInt();
+    input.reset();
+    if (magic == IncrementalSaveGame.MAGIC) {
+      return IncrementalSaveGame.load(input);
+    } else if (magic == SaveGameContainer.MAGIC) {
+      return readVersionedGameData(new ObjectInputStream(SaveGameContainer.read(input)));
+    }
+    return readVersionedGameData(new ObjectInputStream(new GZIPInputStream(input, GZIP_BUFFER_SIZE)));
+  }
+
+  /**
+   * Reads the engine version and, if it is compatible with this engine, the game data and its delegates from the
+   * specified stream.
+   *
+   * @return The game data, or null if it can or should not be loaded by this engine.
+   */
+  static GameData readVersionedGameData(final ObjectInputStream input) throws IOException {
     try {
       final Version readVersion = (Version) input.readObject();
       final boolean headless = HeadlessGameServer.headless();
@@ -108,15 +137,23 @@ public final class GameDataManager {
           return null;
         }
       }
-      final GameData data = (GameData) input.readObject();
-      loadDelegates(input, data);
-      data.postDeSerialize();
-      return data;
+      return readGameData(input);
     } catch (final ClassNotFoundException cnfe) {
       throw new IOException(cnfe.getMessage());
     }
   }
 
+  /**
+   * Reads a game data and its delegates, as written by {@link #writeGameData(ObjectOutputStream, GameData, boolean)},
+   * from the specified stream.
+   */
+  static GameData readGameData(final ObjectInputStream input) throws ClassNotFoundException, IOException {
+    final GameData data = (GameData) input.readObject();
+    loadDelegates(input, data);
+    data.postDeSerialize();
+    return data;
+  }
+
   private static void loadDelegates(final ObjectInputStream input, final GameData data)
       throws ClassNotFoundException, IOException {
     for (Object endMarker = input.readObject(); !endMarker.equals(DELEGATE_LIST_END); endMarker = input.readObject()) {
@@ -151,35 +188,88 @@ public final class GameDataManager {
     checkNotNull(os);
     checkNotNull(gameData);
 
-    saveGame(os, gameData, true);
+    saveGame(os, gameData, true, DEFAULT_CODEC);
   }
 
   static void saveGame(
       final OutputStream sink,
       final GameData data,
-      final boolean saveDelegateInfo)
+      final boolean saveDelegateInfo,
+      final SaveGameContainer.Codec codec)
       throws IOException {
     // write internally first in case of error
     final byte[] bytes = IoUtils.writeToMemory(os -> {
       try (ObjectOutputStream outStream = new ObjectOutputStream(os)) {
         outStream.writeObject(ClientContext.engineVersion());
-        data.acquireReadLock();
-        try {
-          outStream.writeObject(data);
-          if (saveDelegateInfo) {
-            writeDelegates(data, outStream);
-          } else {
-            outStream.writeObject(DELEGATE_LIST_END);
-          }
-        } finally {
-          data.releaseReadLock();
-        }
+        writeGameData(outStream, data, saveDelegateInfo);
       }
     });
 
     // now write to file
-    try (OutputStream zippedOut = new GZIPOutputStream(sink)) {
-      zippedOut.write(bytes);
+    try (OutputStream out = sink) {
+      if (codec == SaveGameContainer.Codec.GZIP) {
+        final GZIPOutputStream gzipOut = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+        gzipOut.write(bytes);
+        gzipOut.finish();
+      } else {
+        SaveGameContainer.write(out, codec, bytes);
+      }
+    }
+  }
+
+  /**
+   * Saves the specified game data to the specified stream like {@link #saveGame(OutputStream, GameData)}, but without
+   * serializing it into memory first, so a large game can be saved without holding all of it in memory. A failure
+   * leaves a partial save game in the stream.
+   *
+   * @param sink The stream to which the game data will be saved. Note that this stream will be closed if this method
+   *        returns successfully.
+   */
+  static void streamGame(final OutputStream sink, final GameData data) throws IOException {
+    try (ObjectOutputStream out = new ObjectOutputStream(new GZIPOutputStream(sink, GZIP_BUFFER_SIZE))) {
+      out.writeObject(ClientContext.engineVersion());
+      writeGameData(out, data, true);
+    }
+  }
+
+  /**
+   * Saves the changes made to the specified game data by the specified segment of its history, together with the
+   * position of its game sequence and the state of its delegates. The caller must make sure the game is not changed
+   * meanwhile.
+   */
+  static byte[] saveChanges(final HistorySegment segment, final GameData data) throws IOException {
+    return IncrementalSaveGame.writeDelta(segment, data);
+  }
+
+  /**
+   * Applies the changes saved by {@link #saveChanges(HistorySegment, GameData)} to the specified game data, which must
+   * have been saved at the start of the history segment of the changes.
+   *
+   * @throws IOException If an error occurs while loading the changes.
+   */
+  public static void loadChanges(final byte[] changes, final GameData data) throws IOException {
+    checkNotNull(changes);
+    checkNotNull(data);
+
+    IncrementalSaveGame.applyDelta(changes, data);
+  }
+
+  /**
+   * Writes the specified game data and, optionally, its delegates to the specified stream while holding the game data's
+   * read lock.
+   */
+  static void writeGameData(final ObjectOutputStream out, final GameData data, final boolean saveDelegateInfo)
+      throws IOException {
+    data.acquireReadLock();
+    try {
+      out.writeObject(data);
+      if (saveDelegateInfo) {
+        writeDelegates(data, out);
+      } else {
+        out.writeObject(DELEGATE_LIST_END);
+      }
+    } finally {
+      data.releaseReadLock();
     }
   }
 
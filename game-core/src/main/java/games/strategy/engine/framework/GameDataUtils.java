@@ -30,6 +30,21 @@ public final class GameDataUtils {
     return dataCopy;
   }
 
+  /**
+   * Captures a snapshot of GameData without history from which any number of independent copies can be made.
+   * <strong>You should have the game data's write lock before calling this method</strong>
+   */
+  public static GameDataCopier.Snapshot snapshotGameDataWithoutHistory(final GameData data, final boolean copyDelegates)
+      throws IOException {
+    final History temp = data.getHistory();
+    data.resetHistory();
+    try {
+      return GameDataCopier.snapshot(data, copyDelegates);
+    } finally {
+      data.setHistory(temp);
+    }
+  }
+
   public static GameData cloneGameData(final GameData data) {
     return cloneGameData(data, false);
   }
@@ -40,8 +55,7 @@ public final class GameDataUtils {
    */
   public static GameData cloneGameData(final GameData data, final boolean copyDelegates) {
     try {
-      final byte[] bytes = IoUtils.writeToMemory(os -> GameDataManager.saveGame(os, data, copyDelegates));
-      return IoUtils.readFromMemory(bytes, GameDataManager::loadGame);
+      return GameDataCopier.copy(data, copyDelegates);
     } catch (final IOException e) {
       log.log(Level.SEVERE, "Failed to clone game data", e);
       return null;
@@ -5,13 +5,73 @@ import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
 
+import com.google.common.collect.ImmutableList;
+
+import games.strategy.engine.data.Change;
 import games.strategy.engine.data.GameData;
+import games.strategy.engine.data.GameDataComponent;
 import games.strategy.engine.data.GameObjectInputStream;
 import games.strategy.engine.data.GameObjectOutputStream;
+import games.strategy.engine.data.GameObjectStreamData;
+import games.strategy.engine.data.Unit;
+import games.strategy.engine.data.changefactory.ChangeFactory;
+import games.strategy.engine.message.RemoteMethodCallResults;
+import games.strategy.net.ClassSchema;
+import games.strategy.net.GUID;
 import games.strategy.net.IObjectStreamFactory;
+import games.strategy.net.Node;
+import games.strategy.triplea.TripleAUnit;
+import games.strategy.triplea.delegate.DiceRoll;
+import games.strategy.triplea.delegate.Die;
+import games.strategy.util.IntegerMap;
+import games.strategy.util.Triple;
+import games.strategy.util.Tuple;
 
 public class GameObjectStreamFactory implements IObjectStreamFactory {
+  /**
+   * The classes that make up most game messages, whose descriptors are written as ids once a stream enables its
+   * schema. Host and clients compare the fingerprints of their schemas at login and only use the schema with each
+   * other if they match, so changing the list, or a class in it, makes the peers fall back to full descriptors.
+   */
+  private static final ClassSchema MESSAGE_SCHEMA = ClassSchema.of(ImmutableList.<Class<?>>builder()
+      .add(
+          Object[].class,
+          String[].class,
+          Number.class,
+          Integer.class,
+          Long.class,
+          Double.class,
+          Boolean.class,
+          Enum.class,
+          ArrayList.class,
+          LinkedList.class,
+          HashMap.class,
+          LinkedHashMap.class,
+          HashSet.class,
+          LinkedHashSet.class,
+          GUID.class,
+          Node.class,
+          RemoteMethodCallResults.class,
+          GameObjectStreamData.class,
+          GameDataComponent.class,
+          Unit.class,
+          TripleAUnit.class,
+          IntegerMap.class,
+          Tuple.class,
+          Triple.class,
+          Die.class,
+          DiceRoll.class,
+          Change.class)
+      .addAll(ChangeFactory.getChangeTypes())
+      .build());
+
   private GameData gameData;
 
   public GameObjectStreamFactory(final GameData data) {
@@ -20,12 +80,17 @@ public class GameObjectStreamFactory implements IObjectStreamFactory {
 
   @Override
   public ObjectInputStream create(final InputStream stream) throws IOException {
-    return new GameObjectInputStream(this, stream);
+    return new GameObjectInputStream(this, stream, MESSAGE_SCHEMA);
   }
 
   @Override
   public ObjectOutputStream create(final OutputStream stream) throws IOException {
-    return new GameObjectOutputStream(stream);
+    return new GameObjectOutputStream(stream, MESSAGE_SCHEMA);
+  }
+
+  @Override
+  public ClassSchema getClassSchema() {
+    return MESSAGE_SCHEMA;
   }
 
   public void setData(final GameData data) {
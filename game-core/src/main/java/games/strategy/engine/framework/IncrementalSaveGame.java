@@ -0,0 +1,342 @@
+package games.strategy.engine.framework;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import games.strategy.engine.ClientContext;
+import games.strategy.engine.data.GameData;
+import games.strategy.engine.data.GameObjectInputStream;
+import games.strategy.engine.data.GameObjectOutputStream;
+import games.strategy.engine.data.GameSequence;
+import games.strategy.engine.delegate.IDelegate;
+import games.strategy.engine.history.HistoryCheckpoint;
+import games.strategy.engine.history.HistorySegment;
+import games.strategy.io.IoUtils;
+import games.strategy.util.function.ThrowingConsumer;
+import games.strategy.util.function.ThrowingFunction;
+import lombok.extern.java.Log;
+
+/**
+ * An append-only save game format, used for autosaves so that saving late in a long game does not write the
+ * entire game each time.
+ *
+ * <p>
+ * A file starts with {@link #MAGIC}, followed by frames of a type byte, the length of the frame content and the
+ * content compressed in a {@link SaveGameContainer}. The first frame holds a base snapshot of the game in the same
+ * form as a regular save game. Each following frame holds a delta: the history written since the previous frame, the
+ * position of the game sequence and the state of the delegates. Deltas are written with a
+ * {@link GameObjectOutputStream}, so they refer to the objects of the game instead of copying them. Loading reads the
+ * base and replays the deltas onto it.
+ * </p>
+ *
+ * <p>
+ * Saving is split in two, so the game only has to be held still for the first part: {@link #snapshot(File, GameData)}
+ * serializes the game into memory, and {@link #write(Snapshot)} compresses the snapshot and writes it to disk, which
+ * may happen on another thread. A base replaces the file by an atomic rename, so a crash never leaves a half written
+ * base behind; a delta is appended, and an incomplete last delta is ignored when loading.
+ * </p>
+ *
+ * <p>
+ * An instance keeps track of the files it saved to, so it can append a delta to a file it wrote before. A new base
+ * is written instead if the file was changed by anyone else, if writing to it failed, if the history was changed
+ * other than by adding to it, or if the deltas of the file would get larger than its base. Snapshots must be taken
+ * by one thread, and the snapshots of a file must be written in the order they were taken.
+ * </p>
+ */
+@Log
+final class IncrementalSaveGame {
+  /**
+   * The first bytes of an incremental save game, which can not be mistaken for the start of a regular save.
+   */
+  static final int MAGIC = 0x54_41_49_53;
+  private static final int BASE_FRAME = 1;
+  private static final int DELTA_FRAME = 2;
+  private static final int MAX_DELTA_COUNT = 32;
+
+  private final Map<File, SavedFile> savedFiles = new HashMap<>();
+
+  /**
+   * Saves the specified game to the specified file on the calling thread, by appending a delta if this instance saved
+   * it there before. The caller must make sure the game is not changed while saving.
+   */
+  void save(final File file, final GameData data) throws IOException {
+    write(snapshot(file, data));
+  }
+
+  /**
+   * Serializes the part of the specified game to be saved to the specified file into memory, which is a delta if this
+   * instance saved the game there before. The caller must make sure the game is not changed while taking the
+   * snapshot, but not while writing it.
+   */
+  Snapshot snapshot(final File file, final GameData data) throws IOException {
+    final File absoluteFile = file.getAbsoluteFile();
+    // forget the file first, so it gets a new base if this snapshot fails halfway
+    final @Nullable SavedFile savedFile = savedFiles.remove(absoluteFile);
+    data.acquireReadLock();
+    try {
+      final HistoryCheckpoint checkpoint = data.getHistory().getCheckpoint();
+      final @Nullable HistorySegment segment = savedFile != null
+          && !savedFile.fileState.failed
+          && savedFile.deltaCount < MAX_DELTA_COUNT
+              ? data.getHistory().getSegmentSince(savedFile.checkpoint)
+              : null;
+      if (segment != null) {
+        final byte[] delta = serialize(GameObjectOutputStream::new, out -> writeDelta(out, segment, data));
+        if (savedFile.deltaLength + delta.length <= savedFile.baseLength) {
+          savedFiles.put(absoluteFile, new SavedFile(savedFile.fileState, checkpoint, savedFile.baseLength,
+              savedFile.deltaCount + 1, savedFile.deltaLength + delta.length));
+          return new Snapshot(absoluteFile, savedFile.fileState, DELTA_FRAME, delta);
+        }
+      }
+      final byte[] base = serialize(ObjectOutputStream::new, out -> {
+        out.writeObject(ClientContext.engineVersion());
+        GameDataManager.writeGameData(out, data, true);
+      });
+      final FileState fileState = new FileState();
+      savedFiles.put(absoluteFile, new SavedFile(fileState, checkpoint, base.length, 0, 0));
+      return new Snapshot(absoluteFile, fileState, BASE_FRAME, base);
+    } finally {
+      data.releaseReadLock();
+    }
+  }
+
+  /**
+   * Compresses the specified snapshot and writes it to its file, forcing it to the disk. If this fails, or if the
+   * file of a delta was changed since the previous snapshot was written, the next snapshot of the file is a base.
+   */
+  static void write(final Snapshot snapshot) throws IOException {
+    final FileState fileState = snapshot.fileState;
+    try {
+      final byte[] frame = compress(snapshot.content);
+      if (snapshot.frameType == BASE_FRAME) {
+        writeBase(snapshot.file, frame);
+      } else {
+        if (fileState.failed || snapshot.file.length() != fileState.length) {
+          fileState.failed = true;
+          log.warning("Not appending to the changed autosave " + snapshot.file + ", the next one will replace it");
+          return;
+        }
+        try (FileOutputStream os = new FileOutputStream(snapshot.file, true)) {
+          writeFrame(os, DELTA_FRAME, frame);
+          os.getFD().sync();
+        }
+      }
+      fileState.length = snapshot.file.length();
+    } catch (final IOException | RuntimeException e) {
+      fileState.failed = true;
+      throw e;
+    }
+  }
+
+  private static void writeBase(final File file, final byte[] frame) throws IOException {
+    final Path tempFile = Files.createTempFile(file.getParentFile().toPath(), file.getName(), ".tmp");
+    try {
+      try (FileOutputStream os = new FileOutputStream(tempFile.toFile())) {
+        new DataOutputStream(os).writeInt(MAGIC);
+        writeFrame(os, BASE_FRAME, frame);
+        os.getFD().sync();
+      }
+      try {
+        Files.move(tempFile, file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } catch (final AtomicMoveNotSupportedException e) {
+        Files.move(tempFile, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  private static byte[] serialize(
+      final ThrowingFunction<OutputStream, ObjectOutputStream, IOException> streamFactory,
+      final ThrowingConsumer<ObjectOutputStream, IOException> writer)
+      throws IOException {
+    return IoUtils.writeToMemory(os -> {
+      try (ObjectOutputStream out = streamFactory.apply(os)) {
+        writer.accept(out);
+      }
+    });
+  }
+
+  private static byte[] compress(final byte[] content) throws IOException {
+    // older engines can not read incremental save games anyway, so they use the fastest codec
+    return IoUtils.writeToMemory(os -> SaveGameContainer.write(os, SaveGameContainer.Codec.DEFLATE_BLOCKS, content));
+  }
+
+  private static void writeFrame(final OutputStream os, final int type, final byte[] content) throws IOException {
+    final DataOutputStream out = new DataOutputStream(os);
+    out.writeByte(type);
+    out.writeInt(content.length);
+    out.write(content);
+    out.flush();
+  }
+
+  private static void writeDelta(final ObjectOutputStream out, final HistorySegment segment, final GameData data)
+      throws IOException {
+    out.writeObject(ClientContext.engineVersion());
+    out.writeObject(segment);
+    out.writeObject(data.getSequence().getPosition());
+    final LinkedHashMap<String, Serializable> delegateStates = new LinkedHashMap<>();
+    for (final IDelegate delegate : data.getDelegateList()) {
+      delegateStates.put(delegate.getName(), delegate.saveState());
+    }
+    out.writeObject(delegateStates);
+  }
+
+  /**
+   * Loads the game from the specified stream, which is positioned at the start of {@link #MAGIC}.
+   *
+   * @return The loaded game, or null if the base snapshot was made by an incompatible engine.
+   */
+  static @Nullable GameData load(final InputStream is) throws IOException {
+    final DataInputStream input = new DataInputStream(is);
+    if (input.readInt() != MAGIC || input.read() != BASE_FRAME) {
+      throw new IOException("Not an incremental save game");
+    }
+    final @Nullable GameData data =
+        readFrame(readFrameContent(input), ObjectInputStream::new, GameDataManager::readVersionedGameData);
+    if (data == null) {
+      return null;
+    }
+    for (int type = input.read(); type != -1; type = input.read()) {
+      if (type != DELTA_FRAME) {
+        throw new IOException("Unknown save game frame type: " + type);
+      }
+      final byte[] content;
+      try {
+        content = readFrameContent(input);
+      } catch (final EOFException e) {
+        // the game stopped while appending this delta, the ones before are complete
+        log.warning("Ignoring the incomplete last part of an incremental save game");
+        break;
+      }
+      applyDelta(content, data);
+    }
+    return data;
+  }
+
+  /**
+   * Serializes and compresses a delta of the specified game, which holds the specified segment of its history, as
+   * written to an incremental save game. The caller must make sure the game is not changed meanwhile.
+   */
+  static byte[] writeDelta(final HistorySegment segment, final GameData data) throws IOException {
+    data.acquireReadLock();
+    try {
+      return compress(serialize(GameObjectOutputStream::new, out -> writeDelta(out, segment, data)));
+    } finally {
+      data.releaseReadLock();
+    }
+  }
+
+  /**
+   * Applies a delta written by {@link #writeDelta(HistorySegment, GameData)} to the specified game, which must be at
+   * the start of the history segment of the delta.
+   */
+  static void applyDelta(final byte[] delta, final GameData data) throws IOException {
+    // the changes of a delta refer to the objects of the game data instead of holding copies of them
+    final GameObjectStreamFactory streamFactory = new GameObjectStreamFactory(data);
+    readFrame(delta, stream -> new GameObjectInputStream(streamFactory, stream), in -> {
+      readDelta(in, data);
+      return null;
+    });
+  }
+
+  private static byte[] readFrameContent(final DataInputStream input) throws IOException {
+    final byte[] content = new byte[input.readInt()];
+    input.readFully(content);
+    return content;
+  }
+
+  private static <T> T readFrame(final byte[] content,
+      final ThrowingFunction<InputStream, ObjectInputStream, IOException> streamFactory,
+      final ThrowingFunction<ObjectInputStream, T, IOException> reader) throws IOException {
+    try (ObjectInputStream in = streamFactory.apply(SaveGameContainer.read(new ByteArrayInputStream(content)))) {
+      return reader.apply(in);
+    }
+  }
+
+  private static void readDelta(final ObjectInputStream in, final GameData data) throws IOException {
+    try {
+      // the version of a delta is that of its base, it was written by the same engine
+      in.readObject();
+      ((HistorySegment) in.readObject()).applyTo(data);
+      data.getSequence().setPosition((GameSequence.Position) in.readObject());
+      @SuppressWarnings("unchecked")
+      final Map<String, Serializable> delegateStates = (Map<String, Serializable>) in.readObject();
+      for (final Map.Entry<String, Serializable> entry : delegateStates.entrySet()) {
+        final @Nullable IDelegate delegate = data.getDelegateList().getDelegate(entry.getKey());
+        if (delegate != null) {
+          delegate.loadState(entry.getValue());
+        }
+      }
+    } catch (final ClassNotFoundException e) {
+      throw new IOException(e);
+    }
+  }
+
+  /**
+   * A part of a game serialized into memory, to be written to a file.
+   */
+  static final class Snapshot {
+    private final File file;
+    private final FileState fileState;
+    private final int frameType;
+    private final byte[] content;
+
+    private Snapshot(final File file, final FileState fileState, final int frameType, final byte[] content) {
+      this.file = file;
+      this.fileState = fileState;
+      this.frameType = frameType;
+      this.content = content;
+    }
+
+    File getFile() {
+      return file;
+    }
+  }
+
+  /**
+   * What the thread writing the snapshots of a file knows about it, from the base written last.
+   */
+  private static final class FileState {
+    private volatile boolean failed;
+    // only used by the thread writing the snapshots
+    private long length = -1;
+  }
+
+  private static final class SavedFile {
+    private final FileState fileState;
+    private final HistoryCheckpoint checkpoint;
+    // the uncompressed lengths, which are known when taking a snapshot
+    private final long baseLength;
+    private final int deltaCount;
+    private final long deltaLength;
+
+    SavedFile(final FileState fileState, final HistoryCheckpoint checkpoint, final long baseLength,
+        final int deltaCount, final long deltaLength) {
+      this.fileState = fileState;
+      this.checkpoint = checkpoint;
+      this.baseLength = baseLength;
+      this.deltaCount = deltaCount;
+      this.deltaLength = deltaLength;
+    }
+  }
+}
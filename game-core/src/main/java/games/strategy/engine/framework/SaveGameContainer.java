@@ -0,0 +1,223 @@
+package games.strategy.engine.framework;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+
+/**
+ * The compressed form of a serialized save game, which names the codec it was compressed with.
+ *
+ * <p>
+ * A container starts with {@link #MAGIC}, which can not be mistaken for the start of a gzip stream, followed by a
+ * format version byte and a codec byte. What follows depends on the codec:
+ * </p>
+ * <ul>
+ * <li>{@link Codec#NONE}: the content itself.</li>
+ * <li>{@link Codec#GZIP}: a gzip stream of the content.</li>
+ * <li>{@link Codec#DEFLATE_BLOCKS}: the number of blocks, then for each block its uncompressed length, its compressed
+ * length and the content of the block compressed by a {@link Deflater} of its own. The blocks are compressed and
+ * decompressed in parallel.</li>
+ * </ul>
+ *
+ * <p>
+ * Save games written before this container existed are plain gzip streams, see
+ * {@link GameDataManager#loadGame(InputStream)}. So are the save games {@link GameDataManager} compresses with
+ * {@link Codec#GZIP}, which older engines can read.
+ * </p>
+ */
+final class SaveGameContainer {
+  static final int MAGIC = 0x54_41_53_56;
+  private static final int FORMAT_VERSION = 1;
+  private static final int BLOCK_SIZE = 1024 * 1024;
+  private static final int BUFFER_SIZE = 64 * 1024;
+  // an int indexed byte array can not be larger than this on most virtual machines
+  private static final int MAX_CONTENT_LENGTH = Integer.MAX_VALUE - 8;
+
+  /**
+   * The ways the content of a container can be compressed.
+   */
+  enum Codec {
+    /**
+     * No compression, for save games that never leave the memory.
+     */
+    NONE(0),
+    /**
+     * The compression of the save games written before this container existed, which is the slowest.
+     */
+    GZIP(1),
+    /**
+     * Fast deflate compression of independent blocks, which makes use of all processors.
+     */
+    DEFLATE_BLOCKS(2);
+
+    private final int id;
+
+    Codec(final int id) {
+      this.id = id;
+    }
+
+    private static Codec of(final int id) throws IOException {
+      for (final Codec codec : values()) {
+        if (codec.id == id) {
+          return codec;
+        }
+      }
+      throw new IOException("Unknown save game codec: " + id);
+    }
+  }
+
+  private SaveGameContainer() {}
+
+  /**
+   * Writes the specified content, compressed with the specified codec, to the specified stream, which is left open.
+   */
+  static void write(final OutputStream sink, final Codec codec, final byte[] content) throws IOException {
+    final DataOutputStream out = writeHeader(sink, codec);
+    switch (codec) {
+      case NONE:
+        out.write(content);
+        break;
+      case GZIP:
+        final GZIPOutputStream gzipOut = new GZIPOutputStream(out, BUFFER_SIZE);
+        gzipOut.write(content);
+        gzipOut.finish();
+        break;
+      case DEFLATE_BLOCKS:
+        writeBlocks(out, content);
+        break;
+      default:
+        throw new AssertionError("Unknown codec: " + codec);
+    }
+    out.flush();
+  }
+
+  private static DataOutputStream writeHeader(final OutputStream sink, final Codec codec) throws IOException {
+    final DataOutputStream out = new DataOutputStream(sink);
+    out.writeInt(MAGIC);
+    out.writeByte(FORMAT_VERSION);
+    out.writeByte(codec.id);
+    return out;
+  }
+
+  private static void writeBlocks(final DataOutputStream out, final byte[] content) throws IOException {
+    final int blockCount = (content.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+    final List<byte[]> blocks = IntStream.range(0, blockCount)
+        .parallel()
+        .mapToObj(i -> deflate(content, i * BLOCK_SIZE, Math.min(BLOCK_SIZE, content.length - i * BLOCK_SIZE)))
+        .collect(Collectors.toList());
+    out.writeInt(blockCount);
+    for (int i = 0; i < blockCount; i++) {
+      final byte[] block = blocks.get(i);
+      out.writeInt(Math.min(BLOCK_SIZE, content.length - i * BLOCK_SIZE));
+      out.writeInt(block.length);
+      out.write(block);
+    }
+  }
+
+  private static byte[] deflate(final byte[] content, final int offset, final int length) {
+    final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try {
+      deflater.setInput(content, offset, length);
+      deflater.finish();
+      final ByteArrayOutputStream out = new ByteArrayOutputStream(length / 2 + 64);
+      final byte[] buffer = new byte[BUFFER_SIZE];
+      while (!deflater.finished()) {
+        out.write(buffer, 0, deflater.deflate(buffer));
+      }
+      return out.toByteArray();
+    } finally {
+      deflater.end();
+    }
+  }
+
+  /**
+   * Returns a stream of the content of the container the specified stream is positioned at.
+   */
+  static InputStream read(final InputStream is) throws IOException {
+    final DataInputStream in = new DataInputStream(is);
+    if (in.readInt() != MAGIC) {
+      throw new IOException("Not a save game container");
+    }
+    final int formatVersion = in.readUnsignedByte();
+    if (formatVersion != FORMAT_VERSION) {
+      throw new IOException("Unknown save game container version: " + formatVersion);
+    }
+    final Codec codec = Codec.of(in.readUnsignedByte());
+    switch (codec) {
+      case NONE:
+        return in;
+      case GZIP:
+        return new GZIPInputStream(in, BUFFER_SIZE);
+      case DEFLATE_BLOCKS:
+        return new ByteArrayInputStream(readBlocks(in));
+      default:
+        throw new AssertionError("Unknown codec: " + codec);
+    }
+  }
+
+  private static byte[] readBlocks(final DataInputStream in) throws IOException {
+    final int blockCount = in.readInt();
+    if (blockCount < 0) {
+      throw new IOException("Invalid save game block count: " + blockCount);
+    }
+    final List<byte[]> blocks = new ArrayList<>();
+    final int[] offsets = new int[blockCount + 1];
+    for (int i = 0; i < blockCount; i++) {
+      final int length = in.readInt();
+      final int compressedLength = in.readInt();
+      if (length < 0 || compressedLength < 0 || length > MAX_CONTENT_LENGTH - offsets[i]) {
+        throw new IOException("Invalid save game block length: " + length + ", compressed: " + compressedLength);
+      }
+      final byte[] block = new byte[compressedLength];
+      in.readFully(block);
+      blocks.add(block);
+      offsets[i + 1] = offsets[i] + length;
+    }
+    final byte[] content = new byte[offsets[blockCount]];
+    try {
+      IntStream.range(0, blockCount)
+          .parallel()
+          .forEach(i -> inflate(blocks.get(i), content, offsets[i], offsets[i + 1] - offsets[i]));
+    } catch (final UncheckedIOException e) {
+      throw e.getCause();
+    }
+    return content;
+  }
+
+  private static void inflate(final byte[] block, final byte[] content, final int offset, final int length) {
+    final Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(block);
+      int inflated = 0;
+      while (inflated < length) {
+        final int count = inflater.inflate(content, offset + inflated, length - inflated);
+        if (count == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+          throw new DataFormatException("Save game block shorter than its length");
+        }
+        inflated += count;
+      }
+      // reads the checksum at the end of the block
+      if (!inflater.finished() && (inflater.inflate(new byte[1]) != 0 || !inflater.finished())) {
+        throw new DataFormatException("Save game block longer than its length");
+      }
+    } catch (final DataFormatException e) {
+      throw new UncheckedIOException(new IOException(e));
+    } finally {
+      inflater.end();
+    }
+  }
+}
@@ -5,15 +5,24 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
 
+import javax.annotation.Nullable;
+
 import games.strategy.engine.GameOverException;
 import games.strategy.engine.data.Change;
 import games.strategy.engine.data.CompositeChange;
@@ -30,13 +39,16 @@ import games.strategy.engine.delegate.IDelegateBridge;
 import games.strategy.engine.delegate.IPersistentDelegate;
 import games.strategy.engine.framework.headlessGameServer.HeadlessGameServer;
 import games.strategy.engine.framework.startup.mc.IObserverWaitingToJoin;
+import games.strategy.engine.framework.startup.mc.ServerModel;
 import games.strategy.engine.framework.startup.ui.InGameLobbyWatcherWrapper;
 import games.strategy.engine.framework.ui.SaveGameFileChooser;
 import games.strategy.engine.gamePlayer.IGamePlayer;
 import games.strategy.engine.history.DelegateHistoryWriter;
 import games.strategy.engine.history.Event;
 import games.strategy.engine.history.EventChild;
+import games.strategy.engine.history.HistoryCheckpoint;
 import games.strategy.engine.history.HistoryNode;
+import games.strategy.engine.history.HistorySegment;
 import games.strategy.engine.history.Step;
 import games.strategy.engine.message.ConnectionLostException;
 import games.strategy.engine.message.IRemote;
@@ -46,6 +58,7 @@ import games.strategy.engine.random.IRandomSource;
 import games.strategy.engine.random.IRemoteRandom;
 import games.strategy.engine.random.PlainRandomSource;
 import games.strategy.engine.random.RandomStats;
+import games.strategy.io.ChunkedOutputStream;
 import games.strategy.io.IoUtils;
 import games.strategy.net.INode;
 import games.strategy.net.Messengers;
@@ -54,6 +67,8 @@ import games.strategy.triplea.delegate.DiceRoll;
 import games.strategy.triplea.settings.ClientSetting;
 import games.strategy.util.ExitStatus;
 import games.strategy.util.Interruptibles;
+import games.strategy.util.function.ThrowingRunnable;
+import games.strategy.util.function.ThrowingSupplier;
 import lombok.extern.java.Log;
 
 /**
@@ -68,10 +83,19 @@ public class ServerGame extends AbstractGame {
   public static final String GAME_HAS_BEEN_SAVED_PROPERTY =
       "games.strategy.engine.framework.ServerGame.GameHasBeenSaved";
 
+  private static final int OBSERVER_JOIN_PART_SIZE = 256 * 1024;
+  // the parts of the game that may be on their way to a joining observer at once
+  private static final int OBSERVER_JOIN_PARTS_IN_FLIGHT = 4;
+  // how often the game is sent to a joining observer before giving up, if its history is rewritten while it is sent
+  private static final int OBSERVER_JOIN_ATTEMPTS = 3;
+
   private final RandomStats randomStats;
   private IRandomSource randomSource = new PlainRandomSource();
   private IRandomSource delegateRandomSource;
   private final DelegateExecutionManager delegateExecutionManager = new DelegateExecutionManager();
+  // only used by the game thread, which takes the snapshots of all autosaves
+  private final IncrementalSaveGame autoSaves = new IncrementalSaveGame();
+  private final AutoSaveWriter autoSaveWriter = new AutoSaveWriter();
   private InGameLobbyWatcherWrapper inGameLobbyWatcher;
   private boolean needToInitialize = true;
   /**
@@ -185,44 +209,141 @@ public class ServerGame extends AbstractGame {
     }
   }
 
-  public void addObserver(final IObserverWaitingToJoin blockingObserver,
-      final IObserverWaitingToJoin nonBlockingObserver, final INode newNode) {
+  /**
+   * Sends the current game to a joining observer and lets it join the game, or tells it why it can not join.
+   *
+   * <p>
+   * The game is saved to a temporary file while delegate execution is blocked, and sent from that file in parts while
+   * the game goes on, so neither is delegate execution held across the network nor the save game held in memory as a
+   * whole. Delegate execution is then blocked again to send the changes made to the game since it was saved along with
+   * the call that lets the observer join, so the observer does not miss any change. Each wait on the observer is
+   * bounded by the observer join wait time, after which delegate execution is resumed and the join is given up.
+   * </p>
+   */
+  public void addObserver(final IObserverWaitingToJoin observer, final INode newNode) {
     try {
-      if (!delegateExecutionManager.blockDelegateExecution(2000)) {
-        nonBlockingObserver.cannotJoinGame("Could not block delegate execution");
-        return;
-      }
+      sendGame(ServerModel.getObserverWaitingToStartName(newNode));
+    } catch (final ConnectionLostException cle) {
+      log.log(Level.SEVERE, "Connection lost to observer while joining: " + newNode.getName(), cle);
     } catch (final InterruptedException e) {
       Thread.currentThread().interrupt();
-      nonBlockingObserver.cannotJoinGame(e.getMessage());
-      return;
+      observer.cannotJoinGame(e.getMessage());
+    } catch (final Exception e) {
+      log.log(Level.SEVERE, "Failed to join game", e);
+      observer.cannotJoinGame(e.getMessage());
     }
-    try {
-      final CountDownLatch waitOnObserver = new CountDownLatch(1);
-      final byte[] bytes = IoUtils.writeToMemory(this::saveGame);
-      new Thread(() -> {
+  }
+
+  private void sendGame(final RemoteName observerName) throws IOException, InterruptedException {
+    for (int attempt = 1;; attempt++) {
+      final GameSnapshot snapshot = takeSnapshotWhileDelegateExecutionBlocked();
+      try {
+        sendGameParts(observerName, snapshot.file);
+        blockDelegateExecutionForObserver();
         try {
-          blockingObserver.joinGame(bytes, playerManager.getPlayerMapping());
-          waitOnObserver.countDown();
-        } catch (final ConnectionLostException cle) {
-          log.log(Level.SEVERE, "Connection lost to observer while joining: " + newNode.getName(), cle);
-        } catch (final Exception e) {
-          log.log(Level.SEVERE, "Failed to join game", e);
+          final @Nullable HistorySegment segment = gameData.getHistory().getSegmentSince(snapshot.checkpoint);
+          if (segment != null) {
+            final byte[] changes = GameDataManager.saveChanges(segment, gameData);
+            final Map<String, INode> players = playerManager.getPlayerMapping();
+            awaitObserver(remoteMessenger.invokeAsync(observerName, (IObserverWaitingToJoin observer) -> {
+              observer.joinGame(changes, players);
+              return null;
+            }));
+            return;
+          }
+        } finally {
+          delegateExecutionManager.resumeDelegateExecution();
         }
-      }, "Waiting on observer to finish joining: " + newNode.getName()).start();
+      } finally {
+        deleteSnapshotFile(snapshot.file);
+      }
+      // the history was rewritten since the snapshot, e.g. by undoing a move, so the changes can not be caught up with
+      if (attempt == OBSERVER_JOIN_ATTEMPTS) {
+        throw new IOException("The game kept changing while it was sent");
+      }
+      awaitObserver(remoteMessenger.invokeAsync(observerName, (IObserverWaitingToJoin observer) -> {
+        observer.discardGameParts();
+        return null;
+      }));
+    }
+  }
+
+  private void sendGameParts(final RemoteName observerName, final File file) throws IOException {
+    // the parts are pipelined, the observer receives them one after the other in the order they were sent
+    final Queue<CompletableFuture<?>> partsInFlight = new ArrayDeque<>();
+    try (OutputStream os = new ChunkedOutputStream(OBSERVER_JOIN_PART_SIZE, part -> {
+      if (partsInFlight.size() == OBSERVER_JOIN_PARTS_IN_FLIGHT) {
+        awaitObserver(partsInFlight.remove());
+      }
+      partsInFlight.add(remoteMessenger.invokeAsync(observerName, (IObserverWaitingToJoin observer) -> {
+        observer.receiveGamePart(part);
+        return null;
+      }));
+    })) {
+      Files.copy(file.toPath(), os);
+    }
+    while (!partsInFlight.isEmpty()) {
+      awaitObserver(partsInFlight.remove());
+    }
+  }
+
+  private static void awaitObserver(final CompletableFuture<?> call) throws IOException {
+    try {
+      call.get(ClientSetting.SERVER_OBSERVER_JOIN_WAIT_TIME.intValue(), TimeUnit.SECONDS);
+    } catch (final ExecutionException e) {
+      // rethrow what a blocking call of the observer would have thrown
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    } catch (final TimeoutException e) {
+      throw new IOException("Taking too long to join.", e);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException(e.getMessage());
+    }
+  }
+
+  private GameSnapshot takeSnapshotWhileDelegateExecutionBlocked() throws IOException, InterruptedException {
+    final File file = File.createTempFile("triplea-observer-join", GameDataFileUtils.getExtension());
+    try {
+      blockDelegateExecutionForObserver();
       try {
-        if (!waitOnObserver.await(ClientSetting.SERVER_OBSERVER_JOIN_WAIT_TIME.intValue(), TimeUnit.SECONDS)) {
-          nonBlockingObserver.cannotJoinGame("Taking too long to join.");
+        // the checkpoint is taken before the save game, so a change made in between is seen as a change since then
+        final HistoryCheckpoint checkpoint = gameData.getHistory().getCheckpoint();
+        // the save game is handed to the file in parts, so it is never held in memory as a whole
+        try (OutputStream os = new FileOutputStream(file)) {
+          GameDataManager.streamGame(new ChunkedOutputStream(OBSERVER_JOIN_PART_SIZE, os::write), gameData);
         }
-      } catch (final InterruptedException e) {
-        Thread.currentThread().interrupt();
-        nonBlockingObserver.cannotJoinGame(e.getMessage());
+        return new GameSnapshot(file, checkpoint);
+      } finally {
+        delegateExecutionManager.resumeDelegateExecution();
       }
-    } catch (final Exception e) {
-      log.log(Level.SEVERE, "Failed to join game", e);
-      nonBlockingObserver.cannotJoinGame(e.getMessage());
-    } finally {
-      delegateExecutionManager.resumeDelegateExecution();
+    } catch (final IOException | InterruptedException | RuntimeException e) {
+      deleteSnapshotFile(file);
+      throw e;
+    }
+  }
+
+  private static void deleteSnapshotFile(final File file) {
+    if (!file.delete()) {
+      log.warning("Failed to delete the game saved for a joining observer: " + file);
+    }
+  }
+
+  private void blockDelegateExecutionForObserver() throws IOException, InterruptedException {
+    if (!delegateExecutionManager.blockDelegateExecution(2000)) {
+      throw new IOException("Could not block delegate execution");
+    }
+  }
+
+  private static final class GameSnapshot {
+    final File file;
+    final HistoryCheckpoint checkpoint;
+
+    GameSnapshot(final File file, final HistoryCheckpoint checkpoint) {
+      this.file = file;
+      this.checkpoint = checkpoint;
     }
   }
 
@@ -348,22 +469,19 @@ public class ServerGame extends AbstractGame {
     } finally {
       delegateExecutionManager.resumeDelegateExecution();
     }
+    autoSaveWriter.shutDown();
     gameData.getGameLoader().shutDown();
   }
 
   private void autoSaveBefore(final IDelegate delegate) {
-    saveGame(SaveGameFileChooser.getBeforeStepAutoSaveFile(delegate.getName()));
+    autoSave(SaveGameFileChooser.getBeforeStepAutoSaveFile(delegate.getName()));
   }
 
   @Override
   public void saveGame(final File file) {
     checkNotNull(file);
 
-    final File parentDir = file.getParentFile();
-    if (!parentDir.exists() && !parentDir.mkdirs()) {
-      log.severe("Failed to create save game directory (or one of its ancestors): " + parentDir.getAbsolutePath());
-    }
-
+    createParentDirectory(file);
     try (OutputStream fout = new FileOutputStream(file)) {
       saveGame(fout);
     } catch (final IOException e) {
@@ -371,7 +489,62 @@ public class ServerGame extends AbstractGame {
     }
   }
 
+  /**
+   * Saves the game in the incremental format, which only appends what changed since the last autosave to the same
+   * file. Delegate execution is only blocked while taking a snapshot of the game, which is written in the background.
+   */
+  private void autoSave(final File file) {
+    createParentDirectory(file);
+    final long startNanos = System.nanoTime();
+    try {
+      final long[] lockNanos = new long[1];
+      final @Nullable IncrementalSaveGame.Snapshot snapshot = whileDelegateExecutionBlocked(() -> {
+        final long lockStartNanos = System.nanoTime();
+        try {
+          return autoSaves.snapshot(file, gameData);
+        } finally {
+          lockNanos[0] = System.nanoTime() - lockStartNanos;
+        }
+      });
+      if (snapshot != null) {
+        // outside of the blocked delegate execution, since this waits while the writer is behind
+        autoSaveWriter.write(snapshot, startNanos, lockNanos[0]);
+      }
+    } catch (final IOException e) {
+      log.log(Level.SEVERE, "Failed to save game to file: " + file.getAbsolutePath(), e);
+    }
+  }
+
+  /**
+   * Returns how long autosaves held the game still, compared to how long they took to write.
+   */
+  public AutoSaveStatistics getAutoSaveStatistics() {
+    return autoSaveWriter.getStatistics();
+  }
+
+  private static void createParentDirectory(final File file) {
+    final File parentDir = file.getParentFile();
+    if (!parentDir.exists() && !parentDir.mkdirs()) {
+      log.severe("Failed to create save game directory (or one of its ancestors): " + parentDir.getAbsolutePath());
+    }
+  }
+
   private void saveGame(final OutputStream out) throws IOException {
+    whileDelegateExecutionBlocked(() -> GameDataManager.saveGame(out, gameData));
+  }
+
+  private void whileDelegateExecutionBlocked(final ThrowingRunnable<IOException> save) throws IOException {
+    whileDelegateExecutionBlocked(() -> {
+      save.run();
+      return null;
+    });
+  }
+
+  /**
+   * Returns the result of the specified save, or null if delegate execution could not be blocked to run it.
+   */
+  private @Nullable <T> T whileDelegateExecutionBlocked(final ThrowingSupplier<T, IOException> save)
+      throws IOException {
     final String errorMessage = "Error saving game.. ";
 
     try {
@@ -380,22 +553,23 @@ public class ServerGame extends AbstractGame {
         // try again
         if (!delegateExecutionManager.blockDelegateExecution(6000)) {
           log.log(Level.SEVERE, errorMessage + " could not lock delegate execution");
-          return;
+          return null;
         }
       }
     } catch (final InterruptedException e) {
       Thread.currentThread().interrupt();
-      return;
+      return null;
     }
 
     try {
-      GameDataManager.saveGame(out, gameData);
+      return save.get();
     } finally {
       delegateExecutionManager.resumeDelegateExecution();
     }
   }
 
 
+
   private void runStep(final boolean stepIsRestoredFromSavedGame) {
     if (getCurrentStep().hasReachedMaxRunCount()) {
       gameData.getSequence().next();
@@ -437,7 +611,7 @@ public class ServerGame extends AbstractGame {
     }
     if (gameData.getSequence().next()) {
       gameData.getHistory().getHistoryWriter().startNextRound(gameData.getSequence().getRound());
-      saveGame(gameData.getSequence().getRound() % 2 == 0
+      autoSave(gameData.getSequence().getRound() % 2 == 0
           ? SaveGameFileChooser.getEvenRoundAutoSaveFile(HeadlessGameServer.headless())
           : SaveGameFileChooser.getOddRoundAutoSaveFile(HeadlessGameServer.headless()));
     }
@@ -447,13 +621,13 @@ public class ServerGame extends AbstractGame {
   }
 
   private void autoSaveAfter(final GameStep gameStep) {
-    saveGame(SaveGameFileChooser.getAfterStepAutoSaveFile(gameStep.getName()));
+    autoSave(SaveGameFileChooser.getAfterStepAutoSaveFile(gameStep.getName()));
   }
 
   private void autoSaveAfter(final IDelegate delegate) {
     final String typeName = delegate.getClass().getTypeName();
     final String stepName = typeName.substring(typeName.lastIndexOf('.') + 1).replaceFirst("Delegate$", "");
-    saveGame(SaveGameFileChooser.getAfterStepAutoSaveFile(stepName));
+    autoSave(SaveGameFileChooser.getAfterStepAutoSaveFile(stepName));
   }
 
   private void endStep() {
@@ -260,14 +260,13 @@ public class ServerLauncher extends AbstractLauncher {
     }, "Warming up crypto random source").start();
   }
 
-  public void addObserver(final IObserverWaitingToJoin blockingObserver,
-      final IObserverWaitingToJoin nonBlockingObserver, final INode newNode) {
+  public void addObserver(final IObserverWaitingToJoin observer, final INode newNode) {
     if (isLaunching) {
       observersThatTriedToJoinDuringStartup.add(newNode);
-      nonBlockingObserver.cannotJoinGame("Game is launching, try again soon");
+      observer.cannotJoinGame("Game is launching, try again soon");
       return;
     }
-    serverGame.addObserver(blockingObserver, nonBlockingObserver, newNode);
+    serverGame.addObserver(observer, newNode);
   }
 
   public void connectionLost(final INode node) {
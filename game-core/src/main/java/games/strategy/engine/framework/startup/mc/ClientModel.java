@@ -6,7 +6,10 @@ import static games.strategy.engine.framework.CliProperties.TRIPLEA_NAME;
 import static games.strategy.engine.framework.CliProperties.TRIPLEA_PORT;
 
 import java.awt.Component;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -22,6 +25,7 @@ import java.util.logging.Level;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.swing.Action;
 import javax.swing.JOptionPane;
 import javax.swing.SwingUtilities;
@@ -33,6 +37,7 @@ import games.strategy.engine.chat.ChatPanel;
 import games.strategy.engine.chat.IChatPanel;
 import games.strategy.engine.data.GameData;
 import games.strategy.engine.framework.ClientGame;
+import games.strategy.engine.framework.GameDataFileUtils;
 import games.strategy.engine.framework.GameDataManager;
 import games.strategy.engine.framework.GameObjectStreamFactory;
 import games.strategy.engine.framework.GameRunner;
@@ -68,6 +73,7 @@ import games.strategy.triplea.settings.ClientSetting;
 import games.strategy.ui.SwingAction;
 import games.strategy.util.EventThreadJOptionPane;
 import games.strategy.util.Interruptibles;
+import games.strategy.util.function.ThrowingSupplier;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.java.Log;
@@ -98,11 +104,69 @@ public class ClientModel implements IMessengerErrorListener {
   private GameData gameDataOnStartup;
   private Map<String, String> playersToNodes = new HashMap<>();
   private final IObserverWaitingToJoin observerWaitingToJoin = new IObserverWaitingToJoin() {
+    // the save game received so far, which is kept on disk rather than in memory until it is loaded
+    private @Nullable File gameFile;
+    private long receivedLength;
+
+    @Override
+    public synchronized void receiveGamePart(final byte[] part) {
+      try {
+        if (gameFile == null) {
+          gameFile = File.createTempFile("triplea-observer-join", GameDataFileUtils.getExtension());
+          gameFile.deleteOnExit();
+          receivedLength = 0;
+        }
+        try (OutputStream os = new FileOutputStream(gameFile, true)) {
+          os.write(part);
+        }
+      } catch (final IOException e) {
+        discardGameFile();
+        throw new IllegalStateException("Failed to store the game to join", e);
+      }
+      receivedLength += part.length;
+      gameLoadingWindow.showProgress(
+          String.format("Receiving game, %.1f MB so far...", receivedLength / (1024.0 * 1024.0)));
+    }
+
+    @Override
+    public void discardGameParts() {
+      discardGameFile();
+    }
+
+    private synchronized @Nullable File takeGameFile() {
+      final @Nullable File file = gameFile;
+      gameFile = null;
+      return file;
+    }
+
+    private void discardGameFile() {
+      final @Nullable File file = takeGameFile();
+      if (file != null && !file.delete()) {
+        log.warning("Failed to delete the game received for joining: " + file);
+      }
+    }
+
     @Override
-    public void joinGame(final byte[] gameData, final Map<String, INode> players) {
+    public void joinGame(final byte[] changes, final Map<String, INode> players) {
+      final @Nullable File file = takeGameFile();
+      if (file == null) {
+        throw new IllegalStateException("No game received to join");
+      }
       remoteMessenger.unregisterRemote(ServerModel.getObserverWaitingToStartName(messenger.getLocalNode()));
       final CountDownLatch latch = new CountDownLatch(1);
-      startGame(gameData, players, latch, true);
+      startGame(() -> {
+        try {
+          final GameData data = GameDataManager.loadGame(file);
+          if (data != null) {
+            GameDataManager.loadChanges(changes, data);
+          }
+          return data;
+        } finally {
+          if (!file.delete()) {
+            log.warning("Failed to delete the game received for joining: " + file);
+          }
+        }
+      }, players, latch, true);
       try {
         latch.await(GameRunner.MINIMUM_CLIENT_GAMEDATA_LOAD_GRACE_TIME, TimeUnit.SECONDS);
       } catch (final InterruptedException e) {
@@ -112,7 +176,9 @@ public class ClientModel implements IMessengerErrorListener {
 
     @Override
     public void cannotJoinGame(final String reason) {
+      discardGameFile();
       SwingUtilities.invokeLater(() -> {
+        gameLoadingWindow.setVisible(false);
         typePanelModel.showSelectType();
         EventThreadJOptionPane.showMessageDialog(ui, "Could not join game: " + reason);
       });
@@ -136,7 +202,7 @@ public class ClientModel implements IMessengerErrorListener {
     @Override
     public void doneSelectingPlayers(final byte[] gameData, final Map<String, INode> players) {
       final CountDownLatch latch = new CountDownLatch(1);
-      startGame(gameData, players, latch, false);
+      startGame(() -> IoUtils.readFromMemory(gameData, GameDataManager::loadGame), players, latch, false);
       try {
         latch.await(GameRunner.MINIMUM_CLIENT_GAMEDATA_LOAD_GRACE_TIME, TimeUnit.SECONDS);
       } catch (final InterruptedException e) {
@@ -284,15 +350,15 @@ public class ClientModel implements IMessengerErrorListener {
     messenger.removeErrorListener(this);
   }
 
-  private void startGame(final byte[] gameData, final Map<String, INode> players, final CountDownLatch onDone,
-      final boolean gameRunning) {
+  private void startGame(final ThrowingSupplier<GameData, IOException> gameDataLoader,
+      final Map<String, INode> players, final CountDownLatch onDone, final boolean gameRunning) {
     SwingUtilities.invokeLater(() -> {
       gameLoadingWindow.setVisible(true);
       gameLoadingWindow.setLocationRelativeTo(JOptionPane.getFrameForComponent(ui));
       gameLoadingWindow.showWait();
     });
     try {
-      startGameInNewThread(gameData, players, gameRunning);
+      startGameInNewThread(gameDataLoader, players, gameRunning);
     } catch (final RuntimeException e) {
       gameLoadingWindow.doneWait();
       throw e;
@@ -303,13 +369,13 @@ public class ClientModel implements IMessengerErrorListener {
     }
   }
 
-  private void startGameInNewThread(final byte[] gameData, final Map<String, INode> players,
-      final boolean gameRunning) {
+  private void startGameInNewThread(final ThrowingSupplier<GameData, IOException> gameDataLoader,
+      final Map<String, INode> players, final boolean gameRunning) {
     final GameData data;
     try {
       // this normally takes a couple seconds, but can take
       // up to 60 seconds for a freaking huge game
-      data = IoUtils.readFromMemory(gameData, GameDataManager::loadGame);
+      data = gameDataLoader.get();
     } catch (final IOException ex) {
       log.log(Level.SEVERE, "Failed to load game", ex);
       return;
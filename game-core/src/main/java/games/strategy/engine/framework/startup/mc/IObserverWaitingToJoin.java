@@ -11,10 +11,27 @@ import games.strategy.net.INode;
  */
 public interface IObserverWaitingToJoin extends IRemote {
   /**
+   * Receives the next part of the save game of the game to join. The save game is sent in parts, in order, so that
+   * neither side has to hold all of it in memory, before {@link #joinGame(byte[], Map)} is called.
+   */
+  void receiveGamePart(byte[] part);
+
+  /**
+   * Discards the parts of the save game received so far, because the game changed in a way that can not be caught up
+   * with while they were sent. The save game of the current game is sent again afterwards.
+   */
+  void discardGameParts();
+
+  /**
+   * Joins the game whose save game was received by {@link #receiveGamePart(byte[])}, after applying the changes made
+   * to the game while it was sent.
    * This method should not return until the client is ready to start the game.
    * This includes the display running, with all remote and channel listeners set up.
+   *
+   * @param changes The changes made to the game since its save game was taken, as saved by
+   *        {@code GameDataManager.saveChanges}.
    */
-  void joinGame(byte[] gameData, Map<String, INode> players);
+  void joinGame(byte[] changes, Map<String, INode> players);
 
   /**
    * You could not join the game, usually this is due to an error.
@@ -78,7 +78,7 @@ public class ServerModel extends Observable implements IMessengerErrorListener,
 
   static final String CHAT_NAME = "games.strategy.engine.framework.ui.ServerStartup.CHAT_NAME";
 
-  static RemoteName getObserverWaitingToStartName(final INode node) {
+  public static RemoteName getObserverWaitingToStartName(final INode node) {
     return new RemoteName("games.strategy.engine.framework.startup.mc.ServerModel.OBSERVER" + node.getName(),
         IObserverWaitingToJoin.class);
   }
@@ -303,12 +303,9 @@ public class ServerModel extends Observable implements IMessengerErrorListener,
     @Override
     public boolean isGameStarted(final INode newNode) {
       if (serverLauncher != null) {
-        final RemoteName remoteName = getObserverWaitingToStartName(newNode);
-        final IObserverWaitingToJoin observerWaitingToJoinBlocking =
-            (IObserverWaitingToJoin) remoteMessenger.getRemote(remoteName);
-        final IObserverWaitingToJoin observerWaitingToJoinNonBlocking =
-            (IObserverWaitingToJoin) remoteMessenger.getRemote(remoteName, true);
-        serverLauncher.addObserver(observerWaitingToJoinBlocking, observerWaitingToJoinNonBlocking, newNode);
+        final IObserverWaitingToJoin observerWaitingToJoin =
+            (IObserverWaitingToJoin) remoteMessenger.getRemote(getObserverWaitingToStartName(newNode), true);
+        serverLauncher.addObserver(observerWaitingToJoin, newNode);
         return true;
       }
       return false;
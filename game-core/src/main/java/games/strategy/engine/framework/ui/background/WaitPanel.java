@@ -10,9 +10,11 @@ import javax.swing.border.EmptyBorder;
 class WaitPanel extends JPanel {
   private static final long serialVersionUID = -8625021554802312498L;
 
+  private final JLabel label;
+
   WaitPanel(final String waitMessage) {
     setLayout(new BorderLayout());
-    final JLabel label = new JLabel(waitMessage);
+    label = new JLabel(waitMessage);
     label.setBorder(new EmptyBorder(10, 10, 10, 10));
     add(BorderLayout.NORTH, label);
     final int min = 0;
@@ -22,4 +24,8 @@ class WaitPanel extends JPanel {
     add(progress, BorderLayout.CENTER);
     progress.setIndeterminate(true);
   }
+
+  void setMessage(final String waitMessage) {
+    label.setText(waitMessage);
+  }
 }
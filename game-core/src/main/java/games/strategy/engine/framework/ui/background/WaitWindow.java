@@ -13,12 +13,15 @@ import javax.swing.border.LineBorder;
  */
 public final class WaitWindow extends JWindow {
   private static final long serialVersionUID = -8134956690669346954L;
+  private static final String DEFAULT_MESSAGE = "Loading game, please wait...";
+
+  private final WaitPanel mainPanel;
 
   public WaitWindow() {
     setAlwaysOnTop(true);
     setLocationRelativeTo(null);
 
-    final WaitPanel mainPanel = new WaitPanel("Loading game, please wait...");
+    mainPanel = new WaitPanel(DEFAULT_MESSAGE);
     mainPanel.setBorder(new LineBorder(Color.BLACK));
     setLayout(new BorderLayout());
     add(mainPanel, BorderLayout.CENTER);
@@ -31,7 +34,17 @@ public final class WaitWindow extends JWindow {
    * Shows the wait window.
    */
   public void showWait() {
-    SwingUtilities.invokeLater(() -> setVisible(true));
+    showProgress(DEFAULT_MESSAGE);
+  }
+
+  /**
+   * Shows the wait window with the specified message, which tells how far the wait progressed.
+   */
+  public void showProgress(final String message) {
+    SwingUtilities.invokeLater(() -> {
+      mainPanel.setMessage(message);
+      setVisible(true);
+    });
   }
 
   /**
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.List;
 
+import javax.annotation.Nullable;
 import javax.swing.SwingUtilities;
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.DefaultTreeModel;
@@ -33,6 +34,8 @@ public class History extends DefaultTreeModel {
   private final GameData gameData;
   private HistoryNode currentNode;
   private HistoryPanel panel = null;
+  // how often history was removed, after which it no longer only grew since an earlier checkpoint
+  private int truncationCount = 0;
 
   private void assertCorrectThread() {
     if (gameData.areChangesOnlyInSwingEventThread() && !SwingUtilities.isEventDispatchThread()) {
@@ -132,6 +135,7 @@ public class History extends DefaultTreeModel {
     assertCorrectThread();
     getGameData().acquireWriteLock();
     try {
+      truncationCount++;
       final int lastChange = getLastChange(removeAfterNode) + 1;
       while (changes.size() > lastChange) {
         changes.remove(lastChange);
@@ -160,6 +164,38 @@ public class History extends DefaultTreeModel {
     }
   }
 
+  /**
+   * Returns how far this history has been written, so what is written after can be taken with
+   * {@link #getSegmentSince(HistoryCheckpoint)}.
+   */
+  public synchronized HistoryCheckpoint getCheckpoint() {
+    int nodeCount = 0;
+    for (final Enumeration<?> enumeration = ((DefaultMutableTreeNode) getRoot()).preorderEnumeration();
+        enumeration.hasMoreElements(); enumeration.nextElement()) {
+      nodeCount++;
+    }
+    final HistoryNode lastNode = getLastChildInternal((HistoryNode) getRoot());
+    return new HistoryCheckpoint(this, nodeCount - 1, changes.size(), truncationCount, lastNode,
+        lastNode instanceof Event ? ((Event) lastNode).getRenderingData() : null);
+  }
+
+  /**
+   * Returns the nodes and changes written to this history since the specified checkpoint, or null if this history
+   * was changed in any other way than by writing to its end since then.
+   */
+  public synchronized @Nullable HistorySegment getSegmentSince(final HistoryCheckpoint checkpoint) {
+    if (checkpoint.getHistory() != this
+        || checkpoint.getTruncationCount() != truncationCount
+        || checkpoint.getChangeCount() > changes.size()
+        || checkpoint.getLastNode().getRoot() != getRoot()
+        || (checkpoint.getLastNode() instanceof Event
+            && ((Event) checkpoint.getLastNode()).getRenderingData() != checkpoint.getLastRenderingData())) {
+      return null;
+    }
+    return new HistorySegment(
+        SerializedHistory.newWriters(this, changes, checkpoint.getNodeCount(), checkpoint.getChangeCount()));
+  }
+
   synchronized void changeAdded(final Change change) {
     changes.add(change);
     if (currentNode == null) {
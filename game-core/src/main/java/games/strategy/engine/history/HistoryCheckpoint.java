@@ -0,0 +1,48 @@
+package games.strategy.engine.history;
+
+/**
+ * How far a {@link History} had been written at some point, as returned by {@link History#getCheckpoint()}.
+ */
+public final class HistoryCheckpoint {
+  private final History history;
+  private final int nodeCount;
+  private final int changeCount;
+  private final int truncationCount;
+  private final HistoryNode lastNode;
+  // the rendering data of the last node if it is an event, which may still be set after the checkpoint
+  private final Object lastRenderingData;
+
+  HistoryCheckpoint(final History history, final int nodeCount, final int changeCount, final int truncationCount,
+      final HistoryNode lastNode, final Object lastRenderingData) {
+    this.history = history;
+    this.nodeCount = nodeCount;
+    this.changeCount = changeCount;
+    this.truncationCount = truncationCount;
+    this.lastNode = lastNode;
+    this.lastRenderingData = lastRenderingData;
+  }
+
+  History getHistory() {
+    return history;
+  }
+
+  int getNodeCount() {
+    return nodeCount;
+  }
+
+  int getChangeCount() {
+    return changeCount;
+  }
+
+  int getTruncationCount() {
+    return truncationCount;
+  }
+
+  HistoryNode getLastNode() {
+    return lastNode;
+  }
+
+  Object getLastRenderingData() {
+    return lastRenderingData;
+  }
+}
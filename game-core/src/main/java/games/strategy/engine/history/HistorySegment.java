@@ -0,0 +1,53 @@
+package games.strategy.engine.history;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import games.strategy.engine.data.Change;
+import games.strategy.engine.data.CompositeChange;
+import games.strategy.engine.data.GameData;
+
+/**
+ * The nodes and changes written to a {@link History} after a {@link HistoryCheckpoint}, in the order in which
+ * they are written to a history.
+ */
+public final class HistorySegment implements Serializable {
+  private static final long serialVersionUID = -2390411839716315642L;
+  private final List<SerializationWriter> writers;
+
+  HistorySegment(final List<SerializationWriter> writers) {
+    this.writers = new ArrayList<>(writers);
+  }
+
+  public boolean isEmpty() {
+    return writers.isEmpty();
+  }
+
+  /**
+   * Returns the changes of this segment as one change, which performs them in the order in which they were written.
+   */
+  public Change getChange() {
+    final CompositeChange change = new CompositeChange();
+    for (final SerializationWriter writer : writers) {
+      if (writer instanceof ChangeSerializationWriter) {
+        change.add(((ChangeSerializationWriter) writer).getChange());
+      }
+    }
+    return change;
+  }
+
+  /**
+   * Writes this segment to the end of the history of the specified game data and performs its changes on the game
+   * data, which must be in the state it was in at the checkpoint this segment starts at.
+   */
+  public void applyTo(final GameData data) {
+    final HistoryWriter historyWriter = data.getHistory().getHistoryWriter();
+    for (final SerializationWriter writer : writers) {
+      writer.write(historyWriter);
+      if (writer instanceof ChangeSerializationWriter) {
+        data.performChange(((ChangeSerializationWriter) writer).getChange());
+      }
+    }
+  }
+}
@@ -21,26 +21,42 @@ class SerializedHistory implements Serializable {
 
   public SerializedHistory(final History history, final GameData data, final List<Change> changes) {
     m_data = data;
+    m_Writers.addAll(newWriters(history, changes, 0, 0));
+  }
+
+  /**
+   * Returns the writers that recreate the specified history, leaving out its first nodes in preorder, not counting
+   * the root, and its first changes. As nodes are only ever added to the last path of the tree, the writers of a
+   * history that only grew since it had those nodes and changes append exactly what was added since.
+   */
+  static List<SerializationWriter> newWriters(final History history, final List<Change> changes,
+      final int skippedNodeCount, final int skippedChangeCount) {
+    final List<SerializationWriter> writers = new ArrayList<>();
     final Enumeration<?> enumeration = ((DefaultMutableTreeNode) history.getRoot()).preorderEnumeration();
     enumeration.nextElement();
-    int changeIndex = 0;
+    int nodeIndex = 0;
+    int changeIndex = skippedChangeCount;
     while (enumeration.hasMoreElements()) {
       final HistoryNode node = (HistoryNode) enumeration.nextElement();
+      if (nodeIndex++ < skippedNodeCount) {
+        continue;
+      }
       // write the changes to the start of the node
       if (node instanceof IndexedHistoryNode) {
         while (changeIndex < ((IndexedHistoryNode) node).getChangeStartIndex()) {
-          m_Writers.add(new ChangeSerializationWriter(changes.get(changeIndex)));
+          writers.add(new ChangeSerializationWriter(changes.get(changeIndex)));
           changeIndex++;
         }
       }
       // write the node itself
-      m_Writers.add(node.getWriter());
+      writers.add(node.getWriter());
     }
     // write out remaining changes
     while (changeIndex < changes.size()) {
-      m_Writers.add(new ChangeSerializationWriter(changes.get(changeIndex)));
+      writers.add(new ChangeSerializationWriter(changes.get(changeIndex)));
       changeIndex++;
     }
+    return writers;
   }
 
   public Object readResolve() {
@@ -11,4 +11,9 @@ public class HubInvoke extends Invoke {
   public HubInvoke(final GUID methodCallId, final boolean needReturnValues, final RemoteMethodCall call) {
     super(methodCallId, needReturnValues, call);
   }
+
+  public HubInvoke(final GUID methodCallId, final boolean needReturnValues, final boolean ordered,
+      final RemoteMethodCall call) {
+    super(methodCallId, needReturnValues, ordered, call);
+  }
 }
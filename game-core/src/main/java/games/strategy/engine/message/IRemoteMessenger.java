@@ -1,5 +1,8 @@
 package games.strategy.engine.message;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
 /**
  * Very similar to RMI.
  *
@@ -66,6 +69,8 @@ package games.strategy.engine.message;
  *
  * <p>
  * Remotes are multithreaded. Method calls may arrive out of order that methods were called.
+ * The exception are calls made with invokeAsync(...), which the remote runs one after the other in the order
+ * they were made by the calling vm.
  * </p>
  */
 public interface IRemoteMessenger {
@@ -84,6 +89,23 @@ public interface IRemoteMessenger {
    */
   IRemote getRemote(RemoteName name, boolean ignoreResults);
 
+  /**
+   * Calls a method of the registered remote without waiting for it to return, so many calls can be in flight at
+   * once. The calls made this way by one vm are run by the remote in the order they were made.
+   *
+   * <pre>
+   * CompletableFuture&lt;String&gt; error = aRemoteMessenger.invokeAsync(FOO, (IFoo foo) -&gt; foo.fee());
+   * </pre>
+   *
+   * @param name the name the remote is registered under.
+   * @param call Calls exactly one method of the remote passed to it, which only records the method and its
+   *        arguments, and returns what that method returns.
+   *
+   * @return A future that completes with the return value of the method, or exceptionally with a
+   *         {@link RuntimeException} caused by the exception it threw.
+   */
+  <T extends IRemote, R> CompletableFuture<R> invokeAsync(RemoteName name, Function<T, R> call);
+
   /**
    * Registers the specified remote under the given name.
    *
@@ -0,0 +1,38 @@
+package games.strategy.engine.message;
+
+import java.lang.reflect.Method;
+
+import com.google.common.base.Defaults;
+import com.google.common.base.Preconditions;
+
+import games.strategy.triplea.util.WrappedInvocationHandler;
+
+/**
+ * Invocation handler which records the one method called on a remote, so it can be sent by
+ * {@link IRemoteMessenger#invokeAsync(RemoteName, java.util.function.Function)}. The recorded method returns the
+ * default value of its return type.
+ */
+class RemoteCallRecorder extends WrappedInvocationHandler {
+  private final RemoteName remoteName;
+  private RemoteMethodCall call;
+
+  RemoteCallRecorder(final RemoteName remoteName) {
+    super(remoteName.getName());
+    this.remoteName = remoteName;
+  }
+
+  @Override
+  public Object invoke(final Object proxy, final Method method, final Object[] args) {
+    if (super.shouldHandle(method, args)) {
+      return super.handle(method, args);
+    }
+    Preconditions.checkState(call == null, "Only one method may be called, already called:" + call);
+    call = UnifiedInvocationHandler.newRemoteMethodCall(remoteName.getName(), method, args, remoteName.getClazz());
+    return Defaults.defaultValue(method.getReturnType());
+  }
+
+  RemoteMethodCall getCall() {
+    Preconditions.checkState(call != null, "No method called on " + remoteName.getName());
+    return call;
+  }
+}
@@ -2,6 +2,9 @@ package games.strategy.engine.message;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Proxy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 
 import games.strategy.engine.message.unifiedmessenger.UnifiedMessenger;
 
@@ -28,6 +31,21 @@ public class RemoteMessenger implements IRemoteMessenger {
         new Class<?>[] {remoteName.getClazz()}, ih);
   }
 
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T extends IRemote, R> CompletableFuture<R> invokeAsync(final RemoteName remoteName,
+      final Function<T, R> call) {
+    final RemoteCallRecorder recorder = new RemoteCallRecorder(remoteName);
+    call.apply((T) Proxy.newProxyInstance(Thread.currentThread().getContextClassLoader(),
+        new Class<?>[] {remoteName.getClazz()}, recorder));
+    return unifiedMessenger.invokeAsync(remoteName.getName(), recorder.getCall()).thenApply(response -> {
+      if (response.getException() != null) {
+        throw new CompletionException(new RuntimeException("Exception on remote", response.getException()));
+      }
+      return (R) response.getRVal();
+    });
+  }
+
   @Override
   public void registerRemote(final Object implementor, final RemoteName name) {
     unifiedMessenger.addImplementor(name, implementor, false);
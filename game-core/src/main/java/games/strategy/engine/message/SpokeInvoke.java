@@ -17,7 +17,12 @@ public class SpokeInvoke extends Invoke {
 
   public SpokeInvoke(final GUID methodCallId, final boolean needReturnValues, final RemoteMethodCall call,
       final INode invoker) {
-    super(methodCallId, needReturnValues, call);
+    this(methodCallId, needReturnValues, false, call, invoker);
+  }
+
+  public SpokeInvoke(final GUID methodCallId, final boolean needReturnValues, final boolean ordered,
+      final RemoteMethodCall call, final INode invoker) {
+    super(methodCallId, needReturnValues, ordered, call);
     this.invoker = invoker;
   }
 
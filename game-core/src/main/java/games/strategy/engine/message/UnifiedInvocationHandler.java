@@ -34,16 +34,7 @@ class UnifiedInvocationHandler extends WrappedInvocationHandler {
     if (super.shouldHandle(method, args)) {
       return super.handle(method, args);
     }
-    if (args != null) {
-      for (final Object o : args) {
-        if (o != null && !(o instanceof Serializable)) {
-          throw new IllegalArgumentException(
-              o + " is not serializable, all remote method args must be serializable.  method:" + method);
-        }
-      }
-    }
-    final RemoteMethodCall remoteMethodMsg =
-        new RemoteMethodCall(endPointName, method.getName(), args, method.getParameterTypes(), remoteType);
+    final RemoteMethodCall remoteMethodMsg = newRemoteMethodCall(endPointName, method, args, remoteType);
     if (ignoreResults) {
       messenger.invoke(endPointName, remoteMethodMsg);
       return null;
@@ -55,4 +46,17 @@ class UnifiedInvocationHandler extends WrappedInvocationHandler {
     }
     return response.getRVal();
   }
+
+  static RemoteMethodCall newRemoteMethodCall(final String endPointName, final Method method, final Object[] args,
+      final Class<?> remoteType) {
+    if (args != null) {
+      for (final Object o : args) {
+        if (o != null && !(o instanceof Serializable)) {
+          throw new IllegalArgumentException(
+              o + " is not serializable, all remote method args must be serializable.  method:" + method);
+        }
+      }
+    }
+    return new RemoteMethodCall(endPointName, method.getName(), args, method.getParameterTypes(), remoteType);
+  }
 }
@@ -130,7 +130,7 @@ public class UnifiedMessengerHub implements IMessageListener, IConnectionChangeL
     }
     // invoke remotely
     final SpokeInvoke invoke =
-        new SpokeInvoke(hubInvoke.methodCallId, hubInvoke.needReturnValues, hubInvoke.call, from);
+        new SpokeInvoke(hubInvoke.methodCallId, hubInvoke.needReturnValues, hubInvoke.ordered, hubInvoke.call, from);
     for (final INode node : remote) {
       send(invoke, node);
     }
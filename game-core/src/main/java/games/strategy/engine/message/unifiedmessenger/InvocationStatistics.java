@@ -0,0 +1,31 @@
+package games.strategy.engine.message.unifiedmessenger;
+
+import lombok.Value;
+
+/**
+ * How busy a {@link UnifiedMessenger} is with invocations, both its own ones waiting for other nodes and those of
+ * other nodes waiting to be run.
+ */
+@Value
+public class InvocationStatistics {
+  /**
+   * The number of invocations of this node waiting for their results from other nodes.
+   */
+  private final int pendingInvocationCount;
+  private final int maxPendingInvocationCount;
+  private final long completedInvocationCount;
+  /**
+   * The average time from sending an invocation to receiving its results.
+   */
+  private final long averageInvocationMillis;
+  /**
+   * The number of invocations of other nodes waiting for a thread of the executor.
+   */
+  private final int queuedDeliveryCount;
+  private final long deliveredCount;
+  /**
+   * The average time an invocation of another node waited for a thread of the executor.
+   */
+  private final long averageDeliveryDelayMillis;
+  private final long maxDeliveryDelayMillis;
+}
@@ -15,6 +15,9 @@ public abstract class Invoke implements Externalizable {
   private static final long serialVersionUID = -5453883962199970896L;
   public GUID methodCallId;
   public boolean needReturnValues;
+  // whether this must run after the earlier ordered invocations of the same invoker on the same end point; not part
+  // of the external form, which older engines read, but of the type the network layer writes for the message
+  public boolean ordered;
   public RemoteMethodCall call;
 
   public Invoke() {}
@@ -26,6 +29,11 @@ public abstract class Invoke implements Externalizable {
   }
 
   public Invoke(final GUID methodCallId, final boolean needReturnValues, final RemoteMethodCall call) {
+    this(methodCallId, needReturnValues, false, call);
+  }
+
+  public Invoke(final GUID methodCallId, final boolean needReturnValues, final boolean ordered,
+      final RemoteMethodCall call) {
     if (needReturnValues && methodCallId == null) {
       throw new IllegalArgumentException("Cant have no id and need return values");
     }
@@ -34,6 +42,7 @@ public abstract class Invoke implements Externalizable {
     }
     this.methodCallId = methodCallId;
     this.needReturnValues = needReturnValues;
+    this.ordered = ordered;
     this.call = call;
   }
 
@@ -1,14 +1,27 @@
 package games.strategy.engine.message.unifiedmessenger;
 
 import java.io.Serializable;
-import java.util.HashMap;
+import java.util.ArrayDeque;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CountDownLatch;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 
+import javax.annotation.Nullable;
+
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 
@@ -25,40 +38,63 @@ import games.strategy.net.GUID;
 import games.strategy.net.IMessenger;
 import games.strategy.net.INode;
 import games.strategy.util.Interruptibles;
+import games.strategy.util.Tuple;
 import lombok.extern.java.Log;
 
 /**
  * A messenger general enough that both Channel and Remote messenger can be
  * based on it.
+ *
+ * <p>
+ * Neither invoking nor delivering takes a lock shared by all calls: pending remote invocations are futures in a
+ * concurrent table, completed by whichever thread receives their results, and local end points are looked up in a
+ * concurrent map. Invocations received from other nodes are run by an executor, the shared default one unless
+ * another is given.
+ * </p>
  */
 @Log
 public class UnifiedMessenger {
-  private static final ExecutorService threadPool = Executors.newFixedThreadPool(15);
+  private static final ExecutorService defaultExecutor = Executors.newFixedThreadPool(15, newThreadFactory());
   // the messenger we are based on
   private final IMessenger messenger;
-  // lock on this for modifications to create or remove local end points
+  private final Executor executor;
+  // lock on this for modifications to create or remove local end points, lookups do not need it
   private final Object endPointMutex = new Object();
   // maps String -> EndPoint
   // these are the end points that
   // have local implementors
-  private final Map<String, EndPoint> localEndPoints = new HashMap<>();
-  private final Object pendingLock = new Object();
-  // threads wait on these latches for the hub to return invocations
-  // the latch should be removed from the map when you countdown the last result
-  // access should be synchronized on pendingLock
-  // TODO: how do these get shutdown when we exit a game or close triplea?
-  private final Map<GUID, CountDownLatch> pendingInvocations = new HashMap<>();
-  // after the remote has invoked, the results are placed here
-  // access should be synchronized on pendingLock
-  private final Map<GUID, RemoteMethodCallResults> results = new HashMap<>();
+  private final Map<String, EndPoint> localEndPoints = new ConcurrentHashMap<>();
+  // the invocations waiting for the hub to return their results, each removed by whoever completes it
+  private final Map<GUID, PendingInvocation> pendingInvocations = new ConcurrentHashMap<>();
+  // the ordered invocations received from each invoker for each end point, the head of each queue is running
+  private final Map<Tuple<String, INode>, Queue<Runnable>> orderedInvocations = new ConcurrentHashMap<>();
+  // set once the messenger fails, after which invocations complete with this cause right away
+  private volatile @Nullable Throwable invalidCause;
+  private final AtomicInteger maxPendingInvocationCount = new AtomicInteger();
+  private final AtomicLong completedInvocationCount = new AtomicLong();
+  private final AtomicLong totalInvocationNanos = new AtomicLong();
+  private final AtomicInteger queuedDeliveryCount = new AtomicInteger();
+  private final AtomicLong deliveredCount = new AtomicLong();
+  private final AtomicLong totalDeliveryDelayNanos = new AtomicLong();
+  private final AtomicLong maxDeliveryDelayNanos = new AtomicLong();
   // only non null for the server
   private UnifiedMessengerHub hub;
 
   /**
-   * Creates a new instance of UnifiedMessanger.
+   * Creates a new instance of UnifiedMessanger which runs the invocations of other nodes on a shared pool of 15
+   * threads.
    */
   public UnifiedMessenger(final IMessenger messenger) {
+    this(messenger, defaultExecutor);
+  }
+
+  /**
+   * Creates a new instance of UnifiedMessanger which runs the invocations of other nodes on the specified executor.
+   * The executor must not run them on the calling thread, which is the thread reading the messages of a connection.
+   */
+  public UnifiedMessenger(final IMessenger messenger, final Executor executor) {
     this.messenger = messenger;
+    this.executor = Preconditions.checkNotNull(executor);
     this.messenger.addMessageListener(this::messageReceived);
     this.messenger.addErrorListener((reason) -> messengerInvalid(reason));
     if (this.messenger.isServer()) {
@@ -66,34 +102,90 @@ public class UnifiedMessenger {
     }
   }
 
+  private static ThreadFactory newThreadFactory() {
+    final AtomicInteger threadNumber = new AtomicInteger();
+    return r -> new Thread(r, "Unified Messenger " + threadNumber.incrementAndGet());
+  }
+
   @VisibleForTesting
   UnifiedMessengerHub getHub() {
     return hub;
   }
 
   private void messengerInvalid(final Throwable cause) {
-    synchronized (pendingLock) {
-      for (final GUID id : pendingInvocations.keySet()) {
-        final CountDownLatch latch = pendingInvocations.remove(id);
-        latch.countDown();
-        results.put(id, new RemoteMethodCallResults(cause));
+    invalidCause = cause;
+    for (final GUID id : pendingInvocations.keySet()) {
+      completeInvocation(id, new RemoteMethodCallResults(cause));
+    }
+  }
+
+  /**
+   * Completes the pending invocation with the specified id, unless it was completed already.
+   *
+   * @return true if the invocation was pending.
+   */
+  private boolean completeInvocation(final GUID id, final RemoteMethodCallResults methodCallResults) {
+    final @Nullable PendingInvocation invocation = pendingInvocations.remove(id);
+    if (invocation == null) {
+      return false;
+    }
+    completedInvocationCount.incrementAndGet();
+    totalInvocationNanos.addAndGet(System.nanoTime() - invocation.start);
+    if (invocation.async) {
+      // the caller may chain work on the future, which must not run on the thread reading the messages
+      try {
+        executor.execute(() -> invocation.complete(methodCallResults));
+        return true;
+      } catch (final RejectedExecutionException e) {
+        log.log(Level.FINE, "Completing invocation on the calling thread, the executor is shut down", e);
       }
     }
+    invocation.complete(methodCallResults);
+    return true;
   }
 
   /**
    * Invoke and wait for all implementors on all vms to finish executing.
    */
   public RemoteMethodCallResults invokeAndWait(final String endPointName, final RemoteMethodCall remoteCall) {
-    final EndPoint local;
-    synchronized (endPointMutex) {
-      local = localEndPoints.get(endPointName);
-    }
+    final EndPoint local = localEndPoints.get(endPointName);
     if (local == null) {
       return invokeAndWaitRemote(remoteCall);
-      // we have the implementor here, just invoke it
     }
+    // we have the implementor here, just invoke it
+    return invokeLocal(endPointName, local, remoteCall);
+  }
 
+  /**
+   * Invokes the implementor of the specified end point without waiting for it to finish executing. The returned
+   * future completes with the results, which hold any exception thrown.
+   *
+   * <p>
+   * Invocations made this way are pipelined: each is sent right away, but the implementor runs them one after the
+   * other in the order this node made them, so many of them cost a single round trip. If the implementor is local,
+   * it is invoked before this method returns.
+   * </p>
+   *
+   * <p>
+   * The future of a remote invocation is completed by the executor of this messenger, never by the thread reading
+   * the messages of a connection, so work chained on it does not hold up the messages that follow.
+   * </p>
+   */
+  public CompletableFuture<RemoteMethodCallResults> invokeAsync(final String endPointName,
+      final RemoteMethodCall remoteCall) {
+    final EndPoint local = localEndPoints.get(endPointName);
+    if (local == null) {
+      return invokeRemote(remoteCall, true);
+    }
+    try {
+      return CompletableFuture.completedFuture(invokeLocal(endPointName, local, remoteCall));
+    } catch (final RuntimeException e) {
+      return CompletableFuture.completedFuture(new RemoteMethodCallResults(e));
+    }
+  }
+
+  private RemoteMethodCallResults invokeLocal(final String endPointName, final EndPoint local,
+      final RemoteMethodCall remoteCall) {
     final long number = local.takeANumber();
     final List<RemoteMethodCallResults> results = local.invokeLocal(remoteCall, number, getLocalNode());
     if (results.size() == 0) {
@@ -106,26 +198,36 @@ public class UnifiedMessenger {
   }
 
   private RemoteMethodCallResults invokeAndWaitRemote(final RemoteMethodCall remoteCall) {
-    final GUID methodCallId = new GUID();
-    final CountDownLatch latch = new CountDownLatch(1);
-    synchronized (pendingLock) {
-      pendingInvocations.put(methodCallId, latch);
+    final PendingInvocation invocation = invokeRemote(remoteCall, false);
+    final @Nullable RemoteMethodCallResults methodCallResults = Interruptibles.awaitResult(() -> {
+      try {
+        return invocation.get();
+      } catch (final ExecutionException e) {
+        return new RemoteMethodCallResults(e.getCause());
+      }
+    }).result.orElse(null);
+    if (methodCallResults == null) {
+      pendingInvocations.remove(invocation.methodCallId);
+      throw new IllegalStateException(
+          "No results from remote call. Method returned:" + remoteCall.getMethodName() + " for remote name:"
+              + remoteCall.getRemoteName() + " with id:" + invocation.methodCallId);
     }
-    // invoke remotely
-    final Invoke invoke = new HubInvoke(methodCallId, true, remoteCall);
-    send(invoke, messenger.getServerNode());
-
-    Interruptibles.await(latch);
+    return methodCallResults;
+  }
 
-    synchronized (pendingLock) {
-      final RemoteMethodCallResults methodCallResults = results.remove(methodCallId);
-      if (methodCallResults == null) {
-        throw new IllegalStateException(
-            "No results from remote call. Method returned:" + remoteCall.getMethodName() + " for remote name:"
-                + remoteCall.getRemoteName() + " with id:" + methodCallId);
-      }
-      return methodCallResults;
+  private PendingInvocation invokeRemote(final RemoteMethodCall remoteCall, final boolean ordered) {
+    final PendingInvocation invocation = new PendingInvocation(new GUID(), ordered);
+    pendingInvocations.put(invocation.methodCallId, invocation);
+    maxPendingInvocationCount.accumulateAndGet(pendingInvocations.size(), Math::max);
+    // the messenger may have failed before the invocation was pending
+    final @Nullable Throwable cause = invalidCause;
+    if (cause != null) {
+      completeInvocation(invocation.methodCallId, new RemoteMethodCallResults(cause));
     }
+    // invoke remotely
+    final Invoke invoke = new HubInvoke(invocation.methodCallId, true, ordered, remoteCall);
+    send(invoke, messenger.getServerNode());
+    return invocation;
   }
 
   /**
@@ -136,10 +238,7 @@ public class UnifiedMessenger {
     final Invoke invoke = new HubInvoke(null, false, call);
     send(invoke, messenger.getServerNode());
     // invoke locally
-    final EndPoint endPoint;
-    synchronized (endPointMutex) {
-      endPoint = localEndPoints.get(endPointName);
-    }
+    final EndPoint endPoint = localEndPoints.get(endPointName);
     if (endPoint != null) {
       final long number = endPoint.takeANumber();
       final List<RemoteMethodCallResults> results = endPoint.invokeLocal(call, number, getLocalNode());
@@ -169,12 +268,10 @@ public class UnifiedMessenger {
    * Get the 1 and only implementor for the endpoint. throws an exception if there are not exctly 1 implementors
    */
   public Object getImplementor(final String name) {
-    synchronized (endPointMutex) {
-      final EndPoint endPoint = localEndPoints.get(name);
-      Preconditions.checkNotNull(endPoint, "local endpoints: "
-          + localEndPoints + " did not contain: " + name + ", messenger addr: " + super.toString());
-      return endPoint.getFirstImplementor();
-    }
+    final EndPoint endPoint = localEndPoints.get(name);
+    Preconditions.checkNotNull(endPoint, "local endpoints: "
+        + localEndPoints + " did not contain: " + name + ", messenger addr: " + super.toString());
+    return endPoint.getFirstImplementor();
   }
 
   public void removeImplementor(final String name, final Object implementor) {
@@ -221,12 +318,26 @@ public class UnifiedMessenger {
   }
 
   public int getLocalEndPointCount(final RemoteName descriptor) {
-    synchronized (endPointMutex) {
-      if (!localEndPoints.containsKey(descriptor.getName())) {
-        return 0;
-      }
-      return localEndPoints.get(descriptor.getName()).getLocalImplementorCount();
-    }
+    final @Nullable EndPoint endPoint = localEndPoints.get(descriptor.getName());
+    return endPoint == null ? 0 : endPoint.getLocalImplementorCount();
+  }
+
+  /**
+   * Returns how many invocations are waiting for other nodes and how long the invocations of other nodes wait for a
+   * thread to run on.
+   */
+  public InvocationStatistics getStatistics() {
+    final long completed = completedInvocationCount.get();
+    final long delivered = deliveredCount.get();
+    return new InvocationStatistics(
+        pendingInvocations.size(),
+        maxPendingInvocationCount.get(),
+        completed,
+        completed == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalInvocationNanos.get() / completed),
+        queuedDeliveryCount.get(),
+        delivered,
+        delivered == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalDeliveryDelayNanos.get() / delivered),
+        TimeUnit.NANOSECONDS.toMillis(maxDeliveryDelayNanos.get()));
   }
 
 
@@ -236,10 +347,7 @@ public class UnifiedMessenger {
       // maybe an attempt to spoof a message
       assertIsServer(from);
       final SpokeInvoke invoke = (SpokeInvoke) msg;
-      final EndPoint local;
-      synchronized (endPointMutex) {
-        local = localEndPoints.get(invoke.call.getRemoteName());
-      }
+      final EndPoint local = localEndPoints.get(invoke.call.getRemoteName());
       // something a bit strange here, it may be the case
       // that the endpoint was deleted locally
       // regardless, the other side is expecting our reply
@@ -263,7 +371,14 @@ public class UnifiedMessenger {
       // we don't want to block the message thread, only one thread is
       // reading messages per connection, so run with out thread pool
       final EndPoint localFinal = local;
-      threadPool.execute(() -> {
+      final long queued = System.nanoTime();
+      queuedDeliveryCount.incrementAndGet();
+      final Runnable task = () -> {
+        final long delay = System.nanoTime() - queued;
+        queuedDeliveryCount.decrementAndGet();
+        deliveredCount.incrementAndGet();
+        totalDeliveryDelayNanos.addAndGet(delay);
+        maxDeliveryDelayNanos.accumulateAndGet(delay, Math::max);
         final List<RemoteMethodCallResults> results =
             localFinal.invokeLocal(invoke.call, methodRunNumber, invoke.getInvoker());
         if (invoke.needReturnValues) {
@@ -276,23 +391,56 @@ public class UnifiedMessenger {
           }
           send(new HubInvocationResults(result, invoke.methodCallId), from);
         }
-      });
+      };
+      if (invoke.ordered) {
+        executeOrdered(Tuple.of(invoke.call.getRemoteName(), invoke.getInvoker()), task);
+      } else {
+        executor.execute(task);
+      }
     } else if (msg instanceof SpokeInvocationResults) { // a remote machine is returning results
       // if this isn't the server, something is wrong
       // maybe an attempt to spoof a message
       assertIsServer(from);
       final SpokeInvocationResults spokeInvocationResults = (SpokeInvocationResults) msg;
       final GUID methodId = spokeInvocationResults.methodCallId;
-      // both of these should already be populated
-      // this list should be a synchronized list so we can do the add
-      // all
-      synchronized (pendingLock) {
-        results.put(methodId, spokeInvocationResults.results);
-        final CountDownLatch latch = pendingInvocations.remove(methodId);
-        Preconditions.checkNotNull(latch, String.format(
-            "method id: %s, was not present in pending invocations: %s, unified messenger addr: %s",
-            methodId, pendingInvocations, super.toString()));
-        latch.countDown();
+      Preconditions.checkState(completeInvocation(methodId, spokeInvocationResults.results), String.format(
+          "method id: %s, was not present in pending invocations: %s, unified messenger addr: %s",
+          methodId, pendingInvocations.keySet(), super.toString()));
+    }
+  }
+
+  /**
+   * Runs the specified task once the ordered invocations received before it with the same key have run.
+   */
+  private void executeOrdered(final Tuple<String, INode> key, final Runnable task) {
+    final AtomicBoolean idle = new AtomicBoolean();
+    orderedInvocations.compute(key, (k, queue) -> {
+      final Queue<Runnable> tasks = queue != null ? queue : new ArrayDeque<>();
+      idle.set(tasks.isEmpty());
+      tasks.add(task);
+      return tasks;
+    });
+    if (idle.get()) {
+      executor.execute(() -> runOrdered(key, task));
+    }
+  }
+
+  private void runOrdered(final Tuple<String, INode> key, final Runnable task) {
+    try {
+      task.run();
+    } finally {
+      final AtomicReference<Runnable> next = new AtomicReference<>();
+      orderedInvocations.computeIfPresent(key, (k, tasks) -> {
+        tasks.remove();
+        if (tasks.isEmpty()) {
+          return null;
+        }
+        next.set(tasks.element());
+        return tasks;
+      });
+      final @Nullable Runnable nextTask = next.get();
+      if (nextTask != null) {
+        executor.execute(() -> runOrdered(key, nextTask));
       }
     }
   }
@@ -306,6 +454,18 @@ public class UnifiedMessenger {
   public String toString() {
     return "Server:" + messenger.isServer() + " EndPoints:" + localEndPoints;
   }
+
+  private static final class PendingInvocation extends CompletableFuture<RemoteMethodCallResults> {
+    private final GUID methodCallId;
+    // whether the caller does not wait on the future, but may chain work on it
+    private final boolean async;
+    private final long start = System.nanoTime();
+
+    PendingInvocation(final GUID methodCallId, final boolean async) {
+      this.methodCallId = methodCallId;
+      this.async = async;
+    }
+  }
 }
 
 
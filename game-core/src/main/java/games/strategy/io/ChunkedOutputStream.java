@@ -0,0 +1,87 @@
+package games.strategy.io;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import games.strategy.util.function.ThrowingConsumer;
+
+/**
+ * An output stream that hands what is written to it to a consumer in chunks of a fixed size, so a large stream can
+ * be sent in parts without holding all of it in memory. Only the last chunk, handed over when the stream is closed,
+ * may be smaller.
+ *
+ * <p>
+ * Flushing the stream does not hand over a partial chunk.
+ * </p>
+ */
+public final class ChunkedOutputStream extends OutputStream {
+  private final ThrowingConsumer<byte[], IOException> consumer;
+  private final byte[] chunk;
+  private int chunkLength;
+  private long length;
+  private boolean closed;
+
+  /**
+   * @param chunkSize The size of the chunks handed to the consumer.
+   * @param consumer The consumer of the chunks, which owns each chunk it is handed.
+   */
+  public ChunkedOutputStream(final int chunkSize, final ThrowingConsumer<byte[], IOException> consumer) {
+    checkArgument(chunkSize > 0, "chunk size must be positive: " + chunkSize);
+    checkNotNull(consumer);
+
+    this.consumer = consumer;
+    chunk = new byte[chunkSize];
+  }
+
+  @Override
+  public void write(final int b) throws IOException {
+    write(new byte[] {(byte) b}, 0, 1);
+  }
+
+  @Override
+  public void write(final byte[] b, final int off, final int len) throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+    for (int written = 0; written < len;) {
+      final int count = Math.min(len - written, chunk.length - chunkLength);
+      System.arraycopy(b, off + written, chunk, chunkLength, count);
+      chunkLength += count;
+      written += count;
+      if (chunkLength == chunk.length) {
+        handOverChunk();
+      }
+    }
+  }
+
+  private void handOverChunk() throws IOException {
+    final byte[] full = Arrays.copyOf(chunk, chunkLength);
+    chunkLength = 0;
+    length += full.length;
+    consumer.accept(full);
+  }
+
+  /**
+   * Returns the number of bytes handed to the consumer so far.
+   */
+  public long getLength() {
+    return length;
+  }
+
+  /**
+   * Hands the rest of the stream to the consumer, if there is any.
+   */
+  @Override
+  public void close() throws IOException {
+    if (!closed) {
+      closed = true;
+      if (chunkLength > 0) {
+        handOverChunk();
+      }
+    }
+  }
+}
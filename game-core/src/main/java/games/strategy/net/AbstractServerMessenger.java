@@ -426,11 +426,8 @@ public abstract class AbstractServerMessenger implements IServerMessenger, NioSo
     final SocketChannel fromChannel = nodeToChannel.get(msg.getFrom());
     final List<SocketChannel> nodes = new ArrayList<>(nodeToChannel.values());
     log.finest(() -> "broadcasting to" + nodes);
-    for (final SocketChannel channel : nodes) {
-      if (channel != fromChannel) {
-        nioSocket.send(channel, msg);
-      }
-    }
+    nodes.remove(fromChannel);
+    nioSocket.send(nodes, msg);
   }
 
   private boolean isNameTaken(final String nodeName) {
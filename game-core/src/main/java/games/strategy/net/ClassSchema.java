@@ -0,0 +1,98 @@
+package games.strategy.net;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.ObjectStreamClass;
+import java.io.ObjectStreamField;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * A fixed list of serializable classes that both ends of a connection know, identified by their position in the
+ * list. Streams that share a schema write the id of a class instead of its full class descriptor, see
+ * {@link SchemaObjectOutputStream}.
+ *
+ * <p>
+ * The ids are only meaningful between peers built from the same code, since adding, removing or reordering a class
+ * changes them. Peers compare the {@link #getFingerprint() fingerprints} of their schemas before using them.
+ * </p>
+ */
+public final class ClassSchema {
+  private final List<ObjectStreamClass> descriptors = new ArrayList<>();
+  private final Map<Class<?>, Integer> ids = new HashMap<>();
+  private final String fingerprint;
+
+  private ClassSchema(final Collection<? extends Class<?>> types) {
+    for (final Class<?> type : types) {
+      checkNotNull(type);
+      checkArgument(!ids.containsKey(type), "duplicate class: " + type.getName());
+      final @Nullable ObjectStreamClass descriptor = ObjectStreamClass.lookup(type);
+      checkArgument(descriptor != null, "not serializable: " + type.getName());
+      ids.put(type, descriptors.size());
+      descriptors.add(descriptor);
+    }
+    fingerprint = newFingerprint(descriptors);
+  }
+
+  private static String newFingerprint(final List<ObjectStreamClass> descriptors) {
+    final Hasher hasher = Hashing.sha256().newHasher();
+    for (final ObjectStreamClass descriptor : descriptors) {
+      hasher.putString(descriptor.getName(), StandardCharsets.UTF_8)
+          .putLong(descriptor.getSerialVersionUID())
+          .putInt(descriptor.getFields().length);
+      for (final ObjectStreamField field : descriptor.getFields()) {
+        final @Nullable String typeString = field.getTypeString();
+        hasher.putString(field.getName(), StandardCharsets.UTF_8)
+            .putChar(field.getTypeCode())
+            .putString(typeString == null ? "" : typeString, StandardCharsets.UTF_8);
+      }
+    }
+    return hasher.hash().toString();
+  }
+
+  /**
+   * Creates a schema of the specified classes, which must be serializable and distinct.
+   */
+  public static ClassSchema of(final Collection<? extends Class<?>> types) {
+    return new ClassSchema(types);
+  }
+
+  /**
+   * Returns the id of the specified class, or -1 if it is not part of this schema.
+   */
+  int getId(final Class<?> type) {
+    final @Nullable Integer id = ids.get(type);
+    return id == null ? -1 : id;
+  }
+
+  ObjectStreamClass getDescriptor(final int id) throws StreamCorruptedException {
+    if (id < 0 || id >= descriptors.size()) {
+      throw new StreamCorruptedException("Unknown class id: " + id);
+    }
+    return descriptors.get(id);
+  }
+
+  /**
+   * Returns a digest of the names, serial versions and serializable fields of the classes of this schema, in their
+   * order. Two peers may only use their schemas with each other if their fingerprints are equal, which catches the
+   * differences between builds that their engine versions do not tell apart.
+   */
+  public String getFingerprint() {
+    return fingerprint;
+  }
+
+  public int size() {
+    return descriptors.size();
+  }
+}
@@ -6,8 +6,18 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 
+import javax.annotation.Nullable;
+
 public interface IObjectStreamFactory {
   ObjectInputStream create(InputStream stream) throws IOException;
 
   ObjectOutputStream create(OutputStream stream) throws IOException;
+
+  /**
+   * Returns the class schema of the streams this factory creates, or null if they always write full class
+   * descriptors. The schema is only used with peers that have the same schema, which is checked at login.
+   */
+  default @Nullable ClassSchema getClassSchema() {
+    return null;
+  }
 }
@@ -0,0 +1,71 @@
+package games.strategy.net;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInput;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.io.StreamCorruptedException;
+
+import javax.annotation.Nullable;
+
+/**
+ * Reads what a {@link SchemaObjectOutputStream} with the same {@link ClassSchema} writes. The schema must be enabled
+ * at the same point of the stream as it was when writing.
+ */
+public class SchemaObjectInputStream extends ObjectInputStream {
+  private final @Nullable ClassSchema schema;
+  private boolean schemaEnabled = false;
+
+  /**
+   * @param schema The schema of this stream, or null to always read full descriptors.
+   */
+  public SchemaObjectInputStream(final InputStream input, final @Nullable ClassSchema schema) throws IOException {
+    super(input);
+    this.schema = schema;
+  }
+
+  /**
+   * Reads the class descriptors from now on using the schema of this stream, if it has one.
+   */
+  public void enableSchema() {
+    schemaEnabled = schema != null;
+  }
+
+  /**
+   * Enables the schema of the specified stream if it is a {@link SchemaObjectInputStream}.
+   */
+  public static void enableSchema(final ObjectInput input) {
+    if (input instanceof SchemaObjectInputStream) {
+      ((SchemaObjectInputStream) input).enableSchema();
+    }
+  }
+
+  @Override
+  protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException {
+    if (!schemaEnabled) {
+      return super.readClassDescriptor();
+    }
+    final int idPlusOne = readVarInt();
+    return idPlusOne == 0 ? super.readClassDescriptor() : schema.getDescriptor(idPlusOne - 1);
+  }
+
+  @Override
+  protected Class<?> resolveClass(final ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+    // descriptors from the schema already know their class, only fully read ones need to be looked up by name
+    final @Nullable Class<?> type = desc.forClass();
+    return type != null ? type : super.resolveClass(desc);
+  }
+
+  private int readVarInt() throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+      final int b = readUnsignedByte();
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new StreamCorruptedException("Malformed class id");
+  }
+}
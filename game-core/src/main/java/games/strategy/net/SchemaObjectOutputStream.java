@@ -0,0 +1,77 @@
+package games.strategy.net;
+
+import java.io.IOException;
+import java.io.ObjectOutput;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+
+import javax.annotation.Nullable;
+
+/**
+ * An object output stream that writes the class descriptors of the classes of a {@link ClassSchema} as small ids.
+ *
+ * <p>
+ * Java serialization writes the full descriptor of a class, with its name, serial version and fields and those of
+ * its serializable superclasses, the first time the class appears in a stream. Network messages are each written to
+ * a fresh stream, so every message repeats the descriptors of everything it contains. Once the schema is enabled, a
+ * descriptor is written as a varint instead: the id + 1 of a class in the schema, or 0 followed by the full
+ * descriptor of any other class.
+ * </p>
+ *
+ * <p>
+ * Until then the stream writes exactly what an {@link ObjectOutputStream} writes, so peers can still exchange
+ * messages before they know they share a schema. Both ends must enable the schema at the same point of the stream,
+ * see {@link SchemaObjectInputStream}.
+ * </p>
+ */
+public class SchemaObjectOutputStream extends ObjectOutputStream {
+  private final @Nullable ClassSchema schema;
+  private boolean schemaEnabled = false;
+
+  /**
+   * @param schema The schema of this stream, or null to always write full descriptors.
+   */
+  public SchemaObjectOutputStream(final OutputStream output, final @Nullable ClassSchema schema) throws IOException {
+    super(output);
+    this.schema = schema;
+  }
+
+  /**
+   * Writes the class descriptors from now on using the schema of this stream, if it has one.
+   */
+  public void enableSchema() {
+    schemaEnabled = schema != null;
+  }
+
+  /**
+   * Enables the schema of the specified stream if it is a {@link SchemaObjectOutputStream}.
+   */
+  public static void enableSchema(final ObjectOutput output) {
+    if (output instanceof SchemaObjectOutputStream) {
+      ((SchemaObjectOutputStream) output).enableSchema();
+    }
+  }
+
+  @Override
+  protected void writeClassDescriptor(final ObjectStreamClass desc) throws IOException {
+    if (!schemaEnabled) {
+      super.writeClassDescriptor(desc);
+      return;
+    }
+    final int id = schema.getId(desc.forClass());
+    writeVarInt(id + 1);
+    if (id < 0) {
+      super.writeClassDescriptor(desc);
+    }
+  }
+
+  private void writeVarInt(final int value) throws IOException {
+    int remaining = value;
+    while ((remaining & ~0x7F) != 0) {
+      writeByte((remaining & 0x7F) | 0x80);
+      remaining >>>= 7;
+    }
+    writeByte(remaining);
+  }
+}
@@ -0,0 +1,189 @@
+package games.strategy.net.nio;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+
+import lombok.extern.java.Log;
+
+/**
+ * A pool of direct byte buffers for the messages read and written by a {@link NioSocket}, so the garbage created by
+ * the network layer does not grow with its traffic.
+ *
+ * <p>
+ * Buffers come in size classes of powers of two from 512 bytes to 1 MB, and a request is served from the smallest
+ * class that fits. Each class keeps at most 4 MB of free buffers. Larger requests get plain heap buffers, which are
+ * left to the garbage collector when released.
+ * </p>
+ *
+ * <p>
+ * Buffers are handed out as reference counted {@link PooledBuffer}s and go back to the pool once their last
+ * reference is released. To find buffers that are never released, every {@code leakSampleInterval}-th buffer is
+ * tracked by a weak reference; a tracked buffer that is garbage collected before it was released is logged as a leak.
+ * </p>
+ */
+@Log
+final class ByteBufferPool {
+  private static final int MIN_SIZE_CLASS_SHIFT = 9;
+  private static final int MAX_SIZE_CLASS_SHIFT = 20;
+  private static final int MAX_FREE_BYTES_PER_CLASS = 4 * 1024 * 1024;
+  private static final int DEFAULT_LEAK_SAMPLE_INTERVAL = 128;
+
+  // array backed queues, since the nodes of a linked queue would be garbage of their own
+  private final List<ArrayBlockingQueue<ByteBuffer>> freeBuffers = new ArrayList<>();
+  private final int leakSampleInterval;
+  private final AtomicInteger leaseCount = new AtomicInteger();
+  private final AtomicInteger leasedCount = new AtomicInteger();
+  private final AtomicLong leakCount = new AtomicLong();
+  private final ReferenceQueue<PooledBuffer> collectedBuffers = new ReferenceQueue<>();
+  private final Set<LeakTracker> trackers = ConcurrentHashMap.newKeySet();
+
+  ByteBufferPool() {
+    this(DEFAULT_LEAK_SAMPLE_INTERVAL);
+  }
+
+  /**
+   * @param leakSampleInterval Every how many buffers one is tracked for leaks, or 0 to track none.
+   */
+  ByteBufferPool(final int leakSampleInterval) {
+    checkArgument(leakSampleInterval >= 0, "negative leak sample interval: " + leakSampleInterval);
+    this.leakSampleInterval = leakSampleInterval;
+    for (int shift = MIN_SIZE_CLASS_SHIFT; shift <= MAX_SIZE_CLASS_SHIFT; shift++) {
+      freeBuffers.add(new ArrayBlockingQueue<>(Math.max(1, MAX_FREE_BYTES_PER_CLASS >> shift)));
+    }
+  }
+
+  /**
+   * Returns a buffer with a position of 0 and a limit of the specified capacity. The buffer may be larger than that,
+   * and its content is undefined.
+   */
+  PooledBuffer acquire(final int capacity) {
+    checkArgument(capacity >= 0, "negative capacity: " + capacity);
+    reportLeaks();
+    final int shift = capacity <= (1 << MIN_SIZE_CLASS_SHIFT)
+        ? MIN_SIZE_CLASS_SHIFT
+        : Integer.SIZE - Integer.numberOfLeadingZeros(capacity - 1);
+    final ByteBuffer buffer;
+    if (shift <= MAX_SIZE_CLASS_SHIFT) {
+      final @Nullable ByteBuffer free = freeBuffers.get(shift - MIN_SIZE_CLASS_SHIFT).poll();
+      buffer = free != null ? free : ByteBuffer.allocateDirect(1 << shift);
+      buffer.clear();
+    } else {
+      buffer = ByteBuffer.allocate(capacity);
+    }
+    buffer.limit(capacity);
+    leasedCount.incrementAndGet();
+    final PooledBuffer pooledBuffer = new PooledBuffer(this, buffer);
+    if (leakSampleInterval > 0 && leaseCount.incrementAndGet() % leakSampleInterval == 0) {
+      final LeakTracker tracker = new LeakTracker(pooledBuffer, collectedBuffers);
+      trackers.add(tracker);
+      pooledBuffer.tracker = tracker;
+    }
+    return pooledBuffer;
+  }
+
+  private void recycle(final PooledBuffer pooledBuffer) {
+    leasedCount.decrementAndGet();
+    final @Nullable LeakTracker tracker = pooledBuffer.tracker;
+    if (tracker != null) {
+      trackers.remove(tracker);
+      tracker.clear();
+    }
+    final ByteBuffer buffer = pooledBuffer.buffer;
+    if (buffer.isDirect()) {
+      // a full class drops the buffer, its memory is freed once it is garbage collected
+      freeBuffers.get(Integer.numberOfTrailingZeros(buffer.capacity()) - MIN_SIZE_CLASS_SHIFT).offer(buffer);
+    }
+  }
+
+  private void reportLeaks() {
+    for (Reference<? extends PooledBuffer> collected = collectedBuffers.poll(); collected != null;
+        collected = collectedBuffers.poll()) {
+      final LeakTracker tracker = (LeakTracker) collected;
+      if (trackers.remove(tracker)) {
+        leasedCount.decrementAndGet();
+        leakCount.incrementAndGet();
+        log.warning("A buffer of " + tracker.capacity + " bytes was garbage collected without being released; "
+            + leakCount.get() + " leaks so far");
+      }
+    }
+  }
+
+  /**
+   * Returns the number of buffers acquired but not released yet, including shared ones only once.
+   */
+  int getLeasedCount() {
+    reportLeaks();
+    return leasedCount.get();
+  }
+
+  /**
+   * Returns the number of tracked buffers that were found to be garbage collected without being released.
+   */
+  long getLeakCount() {
+    reportLeaks();
+    return leakCount.get();
+  }
+
+  /**
+   * A buffer from a pool with a count of references to it. The buffer is returned to the pool when the count drops
+   * to zero, after which it must no longer be used, not even through a view created by
+   * {@link ByteBuffer#duplicate()}.
+   */
+  static final class PooledBuffer {
+    private final ByteBufferPool pool;
+    private final ByteBuffer buffer;
+    private final AtomicInteger references = new AtomicInteger(1);
+    private @Nullable LeakTracker tracker;
+
+    private PooledBuffer(final ByteBufferPool pool, final ByteBuffer buffer) {
+      this.pool = pool;
+      this.buffer = buffer;
+    }
+
+    ByteBuffer getBuffer() {
+      return buffer;
+    }
+
+    /**
+     * Adds the specified number of references to this buffer, each of which must be released.
+     */
+    PooledBuffer retain(final int count) {
+      checkArgument(count >= 0, "negative count: " + count);
+      if (references.getAndAdd(count) <= 0) {
+        throw new IllegalStateException("Buffer already released");
+      }
+      return this;
+    }
+
+    void release() {
+      final int remaining = references.decrementAndGet();
+      if (remaining == 0) {
+        pool.recycle(this);
+      } else if (remaining < 0) {
+        throw new IllegalStateException("Buffer released more often than retained");
+      }
+    }
+  }
+
+  private static final class LeakTracker extends WeakReference<PooledBuffer> {
+    private final int capacity;
+
+    LeakTracker(final PooledBuffer pooledBuffer, final ReferenceQueue<PooledBuffer> queue) {
+      super(pooledBuffer, queue);
+      capacity = pooledBuffer.buffer.capacity();
+    }
+  }
+}
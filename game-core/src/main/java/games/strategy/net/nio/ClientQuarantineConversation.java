@@ -3,10 +3,13 @@ package games.strategy.net.nio;
 import java.io.Serializable;
 import java.net.InetSocketAddress;
 import java.nio.channels.SocketChannel;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.logging.Level;
 
+import javax.annotation.Nullable;
+
 import games.strategy.net.IConnectionLogin;
 import games.strategy.net.MessageHeader;
 import games.strategy.net.Node;
@@ -101,10 +104,10 @@ public class ClientQuarantineConversation extends QuarantineConversation {
             if (isClosed) {
               return Action.NONE;
             }
-            send((Serializable) challengeResponse);
+            send(withClassSchemaFingerprint(challengeResponse));
           } else {
             showLatch.countDown();
-            send(null);
+            send(withClassSchemaFingerprint(null));
           }
           step = Step.READ_ERROR;
           return Action.NONE;
@@ -121,6 +124,10 @@ public class ClientQuarantineConversation extends QuarantineConversation {
           final String[] strings = ((String[]) o);
           localName = strings[0];
           serverName = strings[1];
+          // older servers do not send a fingerprint, and a server with a different schema sends none either
+          if (strings.length > 2 && strings[2] != null && strings[2].equals(socket.getClassSchemaFingerprint())) {
+            socket.setSharesClassSchema(channel);
+          }
           step = Step.READ_ADDRESS;
           return Action.NONE;
         case READ_ADDRESS:
@@ -142,6 +149,21 @@ public class ClientQuarantineConversation extends QuarantineConversation {
     }
   }
 
+  /**
+   * Adds the fingerprint of the class schema of the socket, if it has one, to the specified challenge response, so the
+   * server can tell whether both use the same schema.
+   */
+  private @Nullable HashMap<String, String> withClassSchemaFingerprint(final @Nullable Map<String, String> response) {
+    final @Nullable String fingerprint = socket.getClassSchemaFingerprint();
+    if (fingerprint == null) {
+      return response == null ? null : new HashMap<>(response);
+    }
+    final HashMap<String, String> responseWithFingerprint =
+        response == null ? new HashMap<>() : new HashMap<>(response);
+    responseWithFingerprint.put(CLASS_SCHEMA_FINGERPRINT_PROPERTY, fingerprint);
+    return responseWithFingerprint;
+  }
+
   private void send(final Serializable object) {
     // this messenger is quarantined, so to and from dont matter
     final MessageHeader header = new MessageHeader(Node.NULL_NODE, Node.NULL_NODE, object);
@@ -0,0 +1,24 @@
+package games.strategy.net.nio;
+
+import lombok.Value;
+
+/**
+ * How well a {@link NioSocket} keeps up with decoding the messages read from one connection.
+ */
+@Value
+public class DecodeStatistics {
+  /**
+   * The number of messages read but not decoded yet.
+   */
+  private final int queueDepth;
+  private final long decodedCount;
+  /**
+   * The average time from reading a message completely to having decoded and delivered it.
+   */
+  private final long averageLatencyMillis;
+  private final long maxLatencyMillis;
+  /**
+   * The average time spent decoding and delivering a message, without the time it waited in the queue.
+   */
+  private final long averageDecodeMillis;
+}
@@ -6,27 +6,48 @@ import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.net.Socket;
 import java.nio.channels.SocketChannel;
+import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 
+import javax.annotation.Nullable;
+
 import games.strategy.engine.message.HubInvocationResults;
 import games.strategy.engine.message.HubInvoke;
 import games.strategy.engine.message.SpokeInvocationResults;
 import games.strategy.engine.message.SpokeInvoke;
-import games.strategy.io.IoUtils;
 import games.strategy.net.CouldNotLogInException;
 import games.strategy.net.INode;
 import games.strategy.net.IObjectStreamFactory;
 import games.strategy.net.MessageHeader;
 import games.strategy.net.Node;
+import games.strategy.net.SchemaObjectInputStream;
 import games.strategy.net.nio.QuarantineConversation.Action;
 import lombok.extern.java.Log;
 
 /**
- * A thread to Decode messages from a reader.
+ * Decodes messages from a reader.
+ *
+ * <p>
+ * A dispatching thread hands the packets read from each channel to that channel's queue. The queues are drained by a
+ * pool of decoding threads, each queue by at most one thread at a time, so the messages of a channel are still
+ * decoded and delivered in the order they were read, while a huge message from one channel no longer holds up the
+ * messages of the others.
+ * </p>
  */
 @Log
 class Decoder {
+  // how many messages a channel may decode before it lets the other channels have the thread
+  private static final int MAX_MESSAGES_PER_TURN = 16;
   private final NioReader reader;
   private volatile boolean running = true;
   private final ErrorReporter errorReporter;
@@ -38,6 +59,8 @@ class Decoder {
    */
   private final ConcurrentHashMap<SocketChannel, QuarantineConversation> quarantine =
       new ConcurrentHashMap<>();
+  private final Map<SocketChannel, ChannelDecoder> channelDecoders = new ConcurrentHashMap<>();
+  private final ThreadPoolExecutor decodingThreads;
   private final Thread thread;
 
   Decoder(final NioSocket nioSocket, final NioReader reader, final ErrorReporter reporter,
@@ -46,6 +69,13 @@ class Decoder {
     errorReporter = reporter;
     this.objectStreamFactory = objectStreamFactory;
     this.nioSocket = nioSocket;
+    final int threadCount = Math.max(2, Runtime.getRuntime().availableProcessors());
+    final AtomicInteger threadNumber = new AtomicInteger();
+    decodingThreads = new ThreadPoolExecutor(threadCount, threadCount, 60, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(),
+        r -> new Thread(r, "Decoder -" + threadSuffix + " " + threadNumber.incrementAndGet()));
+    // a client only has one channel, so it should not keep threads it rarely uses
+    decodingThreads.allowCoreThreadTimeOut(true);
     thread = new Thread(this::loop, "Decoder -" + threadSuffix);
     thread.start();
   }
@@ -53,47 +83,21 @@ class Decoder {
   void shutDown() {
     running = false;
     thread.interrupt();
+    decodingThreads.shutdown();
   }
 
   private void loop() {
     while (running) {
       try {
         final SocketReadData data = reader.take();
-        if (data == null || !running) {
+        if (data == null) {
           continue;
         }
-
-        try {
-          final MessageHeader header = IoUtils.readFromMemory(data.getData(), is -> {
-            try {
-              return readMessageHeader(data.getChannel(), objectStreamFactory.create(is));
-            } catch (final ClassNotFoundException e) {
-              throw new IOException(e);
-            }
-          });
-          // make sure we are still open
-          final Socket s = data.getChannel().socket();
-          if (!running || s == null || s.isInputShutdown()) {
-            continue;
-          }
-          final QuarantineConversation conversation = quarantine.get(data.getChannel());
-          if (conversation != null) {
-            sendQuarantine(data.getChannel(), conversation, header);
-          } else {
-            if (nioSocket.getLocalNode() == null) {
-              throw new IllegalStateException("we are writing messages, but no local node");
-            }
-            if (header.getFrom() == null) {
-              throw new IllegalArgumentException("Null from:" + header);
-            }
-            nioSocket.messageReceived(header, data.getChannel());
-          }
-        } catch (final IOException | RuntimeException e) {
-          // we are reading from memory here
-          // there should be no network errors, something is odd
-          log.log(Level.SEVERE, "error reading object", e);
-          errorReporter.error(data.getChannel(), e);
+        if (!running || !data.getChannel().isOpen()) {
+          data.release();
+          continue;
         }
+        channelDecoders.computeIfAbsent(data.getChannel(), ChannelDecoder::new).add(data);
       } catch (final InterruptedException e) {
         // Do nothing if we were interrupted due to an explicit shutdown because the thread will terminate normally;
         // otherwise re-interrupt this thread and keep running
@@ -104,6 +108,44 @@ class Decoder {
     }
   }
 
+  private void decodeAndDeliver(final SocketReadData data) {
+    try {
+      final MessageHeader header = decode(data);
+      // make sure we are still open
+      final Socket s = data.getChannel().socket();
+      if (!running || s == null || s.isInputShutdown()) {
+        return;
+      }
+      final QuarantineConversation conversation = quarantine.get(data.getChannel());
+      if (conversation != null) {
+        sendQuarantine(data.getChannel(), conversation, header);
+      } else {
+        if (nioSocket.getLocalNode() == null) {
+          throw new IllegalStateException("we are writing messages, but no local node");
+        }
+        if (header.getFrom() == null) {
+          throw new IllegalArgumentException("Null from:" + header);
+        }
+        nioSocket.messageReceived(header, data.getChannel());
+      }
+    } catch (final IOException | RuntimeException e) {
+      // we are reading from memory here
+      // there should be no network errors, something is odd
+      log.log(Level.SEVERE, "error reading object", e);
+      errorReporter.error(data.getChannel(), e);
+    }
+  }
+
+  private MessageHeader decode(final SocketReadData data) throws IOException {
+    try {
+      return readMessageHeader(data.getChannel(), objectStreamFactory.create(data.openContent()));
+    } catch (final ClassNotFoundException e) {
+      throw new IOException(e);
+    } finally {
+      data.release();
+    }
+  }
+
   private void sendQuarantine(final SocketChannel channel, final QuarantineConversation conversation,
       final MessageHeader header) {
     final Action a = conversation.message(header.getMessage());
@@ -145,6 +187,9 @@ class Decoder {
     final Serializable message;
     final byte type = (byte) objectInput.read();
     if (type != Byte.MAX_VALUE) {
+      if (nioSocket.sharesClassSchema(channel)) {
+        SchemaObjectInputStream.enableSchema(objectInput);
+      }
       final Externalizable template = getTemplate(type);
       template.readExternal(objectInput);
       message = template;
@@ -164,6 +209,14 @@ class Decoder {
         return new HubInvocationResults();
       case 4:
         return new SpokeInvocationResults();
+      case 5:
+        final HubInvoke orderedHubInvoke = new HubInvoke();
+        orderedHubInvoke.ordered = true;
+        return orderedHubInvoke;
+      case 6:
+        final SpokeInvoke orderedSpokeInvoke = new SpokeInvoke();
+        orderedSpokeInvoke.ordered = true;
+        return orderedSpokeInvoke;
       default:
         throw new IllegalStateException("not recognized, " + type);
     }
@@ -175,12 +228,16 @@ class Decoder {
    * reduce network traffic considerably by skipping the
    * writing of the full identifiers, and simply write a single
    * byte to show the type.
+   * The objects within them are written with the class schema of
+   * the stream factory, if it has one and the peer has the same one.
+   * Ordered invocations have types of their own, so an engine that
+   * does not know them fails to read them rather than misreading them.
    */
   static byte getType(final Object msg) {
     if (msg instanceof HubInvoke) {
-      return 1;
+      return ((HubInvoke) msg).ordered ? (byte) 5 : 1;
     } else if (msg instanceof SpokeInvoke) {
-      return 2;
+      return ((SpokeInvoke) msg).ordered ? (byte) 6 : 2;
     } else if (msg instanceof HubInvocationResults) {
       return 3;
     } else if (msg instanceof SpokeInvocationResults) {
@@ -199,5 +256,109 @@ class Decoder {
     if (conversation != null) {
       conversation.close();
     }
+    final ChannelDecoder channelDecoder = channelDecoders.remove(channel);
+    if (channelDecoder != null) {
+      channelDecoder.discardPending();
+    }
+  }
+
+  /**
+   * Returns the decoding statistics of the specified channel, or null if no message was read from it yet.
+   */
+  @Nullable
+  DecodeStatistics getStatistics(final SocketChannel channel) {
+    final ChannelDecoder channelDecoder = channelDecoders.get(channel);
+    return channelDecoder == null ? null : channelDecoder.getStatistics();
+  }
+
+  /**
+   * The queue of the packets read from one channel that still have to be decoded, along with its statistics.
+   */
+  private final class ChannelDecoder {
+    private final SocketChannel channel;
+    private final Queue<SocketReadData> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    // true while a decoding thread is draining this queue, or is about to
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicLong decodedCount = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private final AtomicLong totalDecodeNanos = new AtomicLong();
+
+    ChannelDecoder(final SocketChannel channel) {
+      this.channel = channel;
+    }
+
+    void add(final SocketReadData data) {
+      pending.add(data);
+      pendingCount.incrementAndGet();
+      schedule();
+    }
+
+    private void schedule() {
+      if (scheduled.compareAndSet(false, true)) {
+        try {
+          decodingThreads.execute(this::drain);
+        } catch (final RejectedExecutionException e) {
+          // the decoding threads were shut down, so nothing will decode what is queued, or is queued from now on
+          log.log(Level.FINE, "decoder shut down", e);
+          scheduled.set(false);
+          channelDecoders.remove(channel, this);
+          discardPending();
+        }
+      }
+    }
+
+    private void drain() {
+      try {
+        for (int i = 0; i < MAX_MESSAGES_PER_TURN; i++) {
+          final SocketReadData data = pending.poll();
+          if (data == null) {
+            break;
+          }
+          pendingCount.decrementAndGet();
+          final long start = System.nanoTime();
+          decodeAndDeliver(data);
+          record(start, System.nanoTime(), data);
+        }
+      } finally {
+        scheduled.set(false);
+      }
+      if (!channel.isOpen() || !running) {
+        channelDecoders.remove(channel, this);
+        discardPending();
+      } else if (!pending.isEmpty()) {
+        schedule();
+      }
+    }
+
+    private void record(final long start, final long end, final SocketReadData data) {
+      final long latency = end - data.getReadNanos();
+      decodedCount.incrementAndGet();
+      totalLatencyNanos.addAndGet(latency);
+      totalDecodeNanos.addAndGet(end - start);
+      maxLatencyNanos.accumulateAndGet(latency, Math::max);
+      if (log.isLoggable(Level.FINE) && end - start > TimeUnit.SECONDS.toNanos(1)) {
+        log.fine("decoding " + data + " from:" + channel.socket().getRemoteSocketAddress() + " took:"
+            + TimeUnit.NANOSECONDS.toMillis(end - start) + "ms");
+      }
+    }
+
+    void discardPending() {
+      for (SocketReadData data = pending.poll(); data != null; data = pending.poll()) {
+        pendingCount.decrementAndGet();
+        data.release();
+      }
+    }
+
+    DecodeStatistics getStatistics() {
+      final long count = decodedCount.get();
+      return new DecodeStatistics(
+          pendingCount.get(),
+          count,
+          count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalLatencyNanos.get() / count),
+          TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get()),
+          count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalDecodeNanos.get() / count));
+    }
   }
 }
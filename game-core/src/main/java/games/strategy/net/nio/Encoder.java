@@ -4,12 +4,18 @@ import java.io.Externalizable;
 import java.io.IOException;
 import java.io.ObjectOutputStream;
 import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.logging.Level;
 
-import games.strategy.io.IoUtils;
+import javax.annotation.Nullable;
+
 import games.strategy.net.IObjectStreamFactory;
 import games.strategy.net.MessageHeader;
 import games.strategy.net.Node;
+import games.strategy.net.SchemaObjectOutputStream;
+import games.strategy.net.nio.ByteBufferPool.PooledBuffer;
 import lombok.extern.java.Log;
 
 /**
@@ -20,11 +26,14 @@ class Encoder {
   private final NioWriter writer;
   private final IObjectStreamFactory objectStreamFactory;
   private final NioSocket nioSocket;
+  private final ByteBufferPool bufferPool;
 
-  Encoder(final NioSocket nioSocket, final NioWriter writer, final IObjectStreamFactory objectStreamFactory) {
+  Encoder(final NioSocket nioSocket, final NioWriter writer, final IObjectStreamFactory objectStreamFactory,
+      final ByteBufferPool bufferPool) {
     this.nioSocket = nioSocket;
     this.writer = writer;
     this.objectStreamFactory = objectStreamFactory;
+    this.bufferPool = bufferPool;
   }
 
   void write(final SocketChannel to, final MessageHeader header) {
@@ -35,9 +44,33 @@ class Encoder {
       throw new IllegalArgumentException("No to channel!");
     }
     try {
-      final byte[] bytes = IoUtils.writeToMemory(os -> write(header, objectStreamFactory.create(os), to));
-      final SocketWriteData data = new SocketWriteData(bytes, bytes.length);
-      writer.enque(data, to);
+      writer.enque(new SocketWriteData(encode(header, to, nioSocket.sharesClassSchema(to))), to);
+    } catch (final IOException e) {
+      // we arent doing any io, just writing in memory
+      // so something is very wrong
+      log.log(Level.SEVERE, "Error writing object:" + header, e);
+    }
+  }
+
+  /**
+   * Writes a broadcast to several channels. The encoding of a broadcast only depends on whether the channel it is
+   * written to shares the class schema, so it is encoded once for the channels that do and once for the others.
+   */
+  void writeBroadcast(final Collection<SocketChannel> to, final MessageHeader header) {
+    if (header.getFrom() == null) {
+      throw new IllegalArgumentException("No from node");
+    }
+    if (header.getFor() != null) {
+      throw new IllegalArgumentException("Not a broadcast:" + header);
+    }
+    final List<SocketChannel> sharingSchema = new ArrayList<>();
+    final List<SocketChannel> notSharingSchema = new ArrayList<>();
+    for (final SocketChannel channel : to) {
+      (nioSocket.sharesClassSchema(channel) ? sharingSchema : notSharingSchema).add(channel);
+    }
+    try {
+      writeBroadcast(sharingSchema, header, true);
+      writeBroadcast(notSharingSchema, header, false);
     } catch (final IOException e) {
       // we arent doing any io, just writing in memory
       // so something is very wrong
@@ -45,8 +78,42 @@ class Encoder {
     }
   }
 
-  private void write(final MessageHeader header, final ObjectOutputStream out, final SocketChannel remote)
+  private void writeBroadcast(final List<SocketChannel> to, final MessageHeader header, final boolean useSchema)
       throws IOException {
+    if (to.isEmpty()) {
+      return;
+    }
+    final PooledBuffer frame = encode(header, null, useSchema);
+    // one reference for each channel, each released once its packet is written
+    for (final SocketChannel channel : to) {
+      writer.enque(new SocketWriteData(frame.retain(1)), channel);
+    }
+    frame.release();
+  }
+
+  /**
+   * Encodes the header into a pooled frame, ready to be written by packets.
+   *
+   * @param useSchema Whether the peers the frame is written to share the class schema of the stream factory.
+   */
+  private PooledBuffer encode(final MessageHeader header, final @Nullable SocketChannel remote,
+      final boolean useSchema) throws IOException {
+    try (PooledOutputStream os = new PooledOutputStream(bufferPool, SocketWriteData.HEADER_SIZE,
+        SocketWriteData.HEADER_SIZE + SocketReadData.MAX_MESSAGE_SIZE)) {
+      write(header, objectStreamFactory.create(os), remote, useSchema);
+      final PooledBuffer frame = os.finish();
+      SocketWriteData.writeHeader(frame.getBuffer());
+      return frame;
+    }
+  }
+
+  /**
+   * Writes the header to the stream.
+   *
+   * @param remote The channel the header is written to; may only be null for a broadcast.
+   */
+  private void write(final MessageHeader header, final ObjectOutputStream out, final @Nullable SocketChannel remote,
+      final boolean useSchema) throws IOException {
     if (header.getFrom() == null) {
       throw new IllegalArgumentException("null from");
     }
@@ -76,6 +143,10 @@ class Encoder {
     final byte type = Decoder.getType(header.getMessage());
     out.write(type);
     if (type != Byte.MAX_VALUE) {
+      // only peers past login exchange these, and login tells whether they share the schema of the stream factory
+      if (useSchema) {
+        SchemaObjectOutputStream.enableSchema(out);
+      }
       ((Externalizable) header.getMessage()).writeExternal(out);
     } else {
       out.writeObject(header.getMessage());
@@ -33,10 +33,12 @@ class NioReader {
   private final Selector selector;
   private final Object socketsToAddMutex = new Object();
   private final List<SocketChannel> socketsToAdd = new ArrayList<>();
+  private final ByteBufferPool bufferPool;
   private long totalBytes;
 
-  NioReader(final ErrorReporter reporter, final String threadSuffix) {
+  NioReader(final ErrorReporter reporter, final String threadSuffix, final ByteBufferPool bufferPool) {
     errorReporter = reporter;
+    this.bufferPool = bufferPool;
     try {
       selector = Selector.open();
     } catch (final IOException e) {
@@ -53,6 +55,10 @@ class NioReader {
     } catch (final Exception e) {
       log.log(Level.WARNING, "error closing selector", e);
     }
+    // nobody will decode these anymore
+    for (SocketReadData packet = outputQueue.poll(); packet != null; packet = outputQueue.poll()) {
+      packet.release();
+    }
   }
 
   void add(final SocketChannel channel) {
@@ -144,7 +150,7 @@ class NioReader {
     if (reading.containsKey(channel)) {
       return reading.get(channel);
     }
-    final SocketReadData packet = new SocketReadData(channel);
+    final SocketReadData packet = new SocketReadData(channel, bufferPool);
     reading.put(channel, packet);
     return packet;
   }
@@ -154,6 +160,9 @@ class NioReader {
   }
 
   void closed(final SocketChannel channel) {
-    reading.remove(channel);
+    final SocketReadData packet = reading.remove(channel);
+    if (packet != null) {
+      packet.release();
+    }
   }
 }
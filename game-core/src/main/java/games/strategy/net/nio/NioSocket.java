@@ -3,8 +3,14 @@ package games.strategy.net.nio;
 import java.io.IOException;
 import java.net.Socket;
 import java.nio.channels.SocketChannel;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
+import javax.annotation.Nullable;
+
+import games.strategy.net.ClassSchema;
 import games.strategy.net.INode;
 import games.strategy.net.IObjectStreamFactory;
 import games.strategy.net.MessageHeader;
@@ -13,10 +19,11 @@ import lombok.extern.java.Log;
 /**
  * The threads needed for a group of sockets using NIO.
  * One thread reds socket data, one thread writes socket data
- * and one thread deserializes (decodes) packets read by the read
- * thread.
+ * and a pool of threads deserializes (decodes) packets read by the read
+ * thread, keeping the packets of each socket in order.
  * serializing (encoding) objects to be written across the network is done
  * by threads calling this object.
+ * The buffers of the packets read and written come from a pool shared by these threads.
  */
 @Log
 public class NioSocket implements ErrorReporter {
@@ -25,13 +32,18 @@ public class NioSocket implements ErrorReporter {
   private final NioWriter writer;
   private final NioReader reader;
   private final NioSocketListener listener;
+  private final ByteBufferPool bufferPool = new ByteBufferPool();
+  private final @Nullable ClassSchema classSchema;
+  // the channels whose peer showed at login that it has the same class schema
+  private final Set<SocketChannel> channelsSharingClassSchema = ConcurrentHashMap.newKeySet();
 
   public NioSocket(final IObjectStreamFactory factory, final NioSocketListener listener, final String name) {
     this.listener = listener;
+    classSchema = factory.getClassSchema();
     writer = new NioWriter(this, name);
-    reader = new NioReader(this, name);
+    reader = new NioReader(this, name, bufferPool);
     decoder = new Decoder(this, reader, this, factory, name);
-    encoder = new Encoder(this, writer, factory);
+    encoder = new Encoder(this, writer, factory, bufferPool);
   }
 
   INode getLocalNode() {
@@ -42,6 +54,26 @@ public class NioSocket implements ErrorReporter {
     return listener.getRemoteNode(channel);
   }
 
+  /**
+   * Returns the fingerprint of the class schema of the streams of this socket, or null if they have none.
+   */
+  @Nullable
+  String getClassSchemaFingerprint() {
+    return classSchema == null ? null : classSchema.getFingerprint();
+  }
+
+  /**
+   * Lets the messages exchanged through the specified channel use the class schema, once the peer across it showed
+   * that it has the same schema.
+   */
+  void setSharesClassSchema(final SocketChannel channel) {
+    channelsSharingClassSchema.add(channel);
+  }
+
+  boolean sharesClassSchema(final SocketChannel channel) {
+    return channelsSharingClassSchema.contains(channel);
+  }
+
   /**
    * Stop our threads.
    * This does not close the sockets we are connected to.
@@ -68,6 +100,22 @@ public class NioSocket implements ErrorReporter {
     encoder.write(to, header);
   }
 
+  /**
+   * Sends the specified broadcast through each of the specified channels, encoding it only once.
+   *
+   * @param to The destination channels.
+   * @param header The broadcast to send.
+   */
+  public void send(final Collection<SocketChannel> to, final MessageHeader header) {
+    if (to == null) {
+      throw new IllegalArgumentException("to cant be null!");
+    }
+    if (header == null) {
+      throw new IllegalArgumentException("header cant be null");
+    }
+    encoder.writeBroadcast(to, header);
+  }
+
   /**
    * Add this channel.
    * The channel will either be unquarantined, or an error will be reported
@@ -113,6 +161,14 @@ public class NioSocket implements ErrorReporter {
     decoder.closed(channel);
     writer.closed(channel);
     reader.closed(channel);
+    channelsSharingClassSchema.remove(channel);
+  }
+
+  /**
+   * Returns the decoding statistics of the specified channel, or null if no message was read from it yet.
+   */
+  public @Nullable DecodeStatistics getDecodeStatistics(final SocketChannel channel) {
+    return decoder.getStatistics(channel);
   }
 
   void messageReceived(final MessageHeader header, final SocketChannel channel) {
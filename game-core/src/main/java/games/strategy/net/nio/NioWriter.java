@@ -3,11 +3,15 @@ package games.strategy.net.nio;
 import java.io.IOException;
 import java.net.Socket;
 import java.net.SocketAddress;
+import java.nio.ByteBuffer;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -21,13 +25,20 @@ import lombok.extern.java.Log;
  * A thread that writes socket data using NIO .
  * Data is written in packets that are enqueued on our buffer.
  * Packets are sent to the sockets in the order that they are received.
+ * Whenever a socket can be written to, as many of its queued packets as possible are sent with one gathering write.
  */
 @Log
 class NioWriter {
+  private static final int MAX_BATCH_SIZE = 64;
   private final Selector selector;
   private final ErrorReporter errorReporter;
   // this is the data we are writing
-  private final Map<SocketChannel, List<SocketWriteData>> writing = new HashMap<>();
+  private final Map<SocketChannel, Deque<SocketWriteData>> writing = new HashMap<>();
+  // packets of closed channels, released by the writing thread since it may still be writing them
+  private List<SocketWriteData> discarded = new ArrayList<>();
+  // the packets of one gathering write and their buffers, only used by the writing thread
+  private final SocketWriteData[] batch = new SocketWriteData[MAX_BATCH_SIZE];
+  private final ByteBuffer[] batchBuffers = new ByteBuffer[MAX_BATCH_SIZE];
   // these are the sockets we arent selecting on, but should now
   private List<SocketChannel> socketsToWake = new ArrayList<>();
   // the writing thread and threads adding data to write synchronize on this lock
@@ -81,6 +92,7 @@ class NioWriter {
         if (!running) {
           continue;
         }
+        releaseDiscarded();
         // select any new sockets that can be written to
         addNewSocketsToSelector();
         final Set<SelectionKey> selected = selector.selectedKeys();
@@ -90,40 +102,7 @@ class NioWriter {
           final SelectionKey key = iter.next();
           iter.remove();
           if (key.isValid() && key.isWritable()) {
-            final SocketChannel channel = (SocketChannel) key.channel();
-            final SocketWriteData packet = getData(channel);
-            if (packet != null) {
-              try {
-                log.finest(() -> "writing packet:" + packet + " to:" + channel.socket().getRemoteSocketAddress());
-                final boolean done = packet.write(channel);
-                if (done) {
-                  totalBytes += packet.size();
-                  if (log.isLoggable(Level.FINE)) {
-                    final Socket s = channel.socket();
-                    SocketAddress sa = null;
-                    if (s != null) {
-                      sa = s.getRemoteSocketAddress();
-                    }
-                    String remote = "null";
-                    if (sa != null) {
-                      remote = sa.toString();
-                    }
-                    log.fine(" done writing to:" + remote + " size:" + packet.size() + " writeCalls;"
-                        + packet.getWriteCalls() + " total:" + totalBytes);
-                  }
-                  removeLast(channel);
-                }
-              } catch (final Exception e) {
-                log.log(Level.FINER, "exception writing", e);
-                errorReporter.error(channel, e);
-                key.cancel();
-              }
-            } else {
-              // nothing to write
-              // cancel the key, otherwise we will
-              // spin forever as the socket will always be writable
-              key.cancel();
-            }
+            write(key);
           }
         }
       } catch (final Exception e) {
@@ -132,58 +111,139 @@ class NioWriter {
         log.log(Level.WARNING, "error in writer", e);
       }
     }
+    releaseAll();
   }
 
   /**
-   * Remove the data for this channel.
+   * Writes as many of the packets queued for the channel of the key as the channel accepts, with a single gathering
+   * write.
    */
-  void closed(final SocketChannel channel) {
-    removeAll(channel);
+  private void write(final SelectionKey key) {
+    final SocketChannel channel = (SocketChannel) key.channel();
+    final Deque<SocketWriteData> packets;
+    final int count;
+    synchronized (mutex) {
+      packets = writing.get(channel);
+      if (packets == null) {
+        // nothing to write
+        // cancel the key, otherwise we will
+        // spin forever as the socket will always be writable
+        key.cancel();
+        return;
+      }
+      count = fillBatch(packets);
+    }
+    try {
+      log.finest(() -> "writing " + count + " packets, starting with:" + batch[0] + " to:"
+          + channel.socket().getRemoteSocketAddress());
+      final long written = channel.write(batchBuffers, 0, count);
+      log.finest(() -> "wrote bytes:" + written);
+      int done = 0;
+      while (done < count && batch[done].isWritten()) {
+        totalBytes += batch[done].size();
+        if (log.isLoggable(Level.FINE)) {
+          final Socket s = channel.socket();
+          SocketAddress sa = null;
+          if (s != null) {
+            sa = s.getRemoteSocketAddress();
+          }
+          String remote = "null";
+          if (sa != null) {
+            remote = sa.toString();
+          }
+          log.fine(" done writing to:" + remote + " size:" + batch[done].size() + " writeCalls;"
+              + batch[done].getWriteCalls() + " total:" + totalBytes);
+        }
+        done++;
+      }
+      removeWritten(channel, packets, done);
+    } catch (final Exception e) {
+      log.log(Level.FINER, "exception writing", e);
+      errorReporter.error(channel, e);
+      key.cancel();
+    } finally {
+      Arrays.fill(batch, 0, count, null);
+      Arrays.fill(batchBuffers, 0, count, null);
+    }
   }
 
-  private void removeAll(final SocketChannel to) {
-    synchronized (mutex) {
-      writing.remove(to);
+  private int fillBatch(final Deque<SocketWriteData> packets) {
+    int count = 0;
+    for (final SocketWriteData packet : packets) {
+      if (count == MAX_BATCH_SIZE) {
+        break;
+      }
+      batch[count] = packet;
+      batchBuffers[count] = packet.startWrite();
+      count++;
     }
+    return count;
   }
 
-  private void removeLast(final SocketChannel to) {
+  /**
+   * Releases the packets written from the head of the queue of a channel, unless the queue was discarded meanwhile
+   * because the channel was closed.
+   */
+  private void removeWritten(final SocketChannel to, final Deque<SocketWriteData> packets, final int count) {
     synchronized (mutex) {
-      final List<SocketWriteData> values = writing.get(to);
-      if (values == null) {
-        log.severe("NO socket data to:" + to + " all:" + values);
+      if (writing.get(to) != packets) {
         return;
       }
-      values.remove(0);
-      // remove empty lists, so we can detect that we need to wake up the socket
-      if (values.isEmpty()) {
+      for (int i = 0; i < count; i++) {
+        packets.removeFirst().release();
+      }
+      // remove empty queues, so we can detect that we need to wake up the socket
+      if (packets.isEmpty()) {
         writing.remove(to);
       }
     }
   }
 
-  private SocketWriteData getData(final SocketChannel to) {
+  /**
+   * Remove the data for this channel.
+   */
+  void closed(final SocketChannel channel) {
     synchronized (mutex) {
-      if (!writing.containsKey(to)) {
-        return null;
+      final Deque<SocketWriteData> packets = writing.remove(channel);
+      if (packets != null) {
+        // the writer thread may be writing some of these packets right now, so it releases them
+        discarded.addAll(packets);
+        selector.wakeup();
       }
-      final List<SocketWriteData> values = writing.get(to);
-      if (values.isEmpty()) {
-        return null;
+    }
+  }
+
+  private void releaseDiscarded() {
+    final List<SocketWriteData> toRelease;
+    synchronized (mutex) {
+      if (discarded.isEmpty()) {
+        return;
       }
-      return values.get(0);
+      toRelease = discarded;
+      discarded = new ArrayList<>();
+    }
+    toRelease.forEach(SocketWriteData::release);
+  }
+
+  private void releaseAll() {
+    synchronized (mutex) {
+      writing.values().forEach(packets -> packets.forEach(SocketWriteData::release));
+      writing.clear();
+      discarded.forEach(SocketWriteData::release);
+      discarded.clear();
     }
   }
 
   void enque(final SocketWriteData data, final SocketChannel channel) {
     synchronized (mutex) {
       if (!running) {
+        data.release();
         return;
       }
       if (writing.containsKey(channel)) {
         writing.get(channel).add(data);
       } else {
-        final List<SocketWriteData> values = new ArrayList<>();
+        final Deque<SocketWriteData> values = new ArrayDeque<>();
         values.add(data);
         writing.put(channel, values);
         socketsToWake.add(channel);
@@ -0,0 +1,89 @@
+package games.strategy.net.nio;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import javax.annotation.Nullable;
+
+import games.strategy.net.nio.ByteBufferPool.PooledBuffer;
+
+/**
+ * An output stream that writes into a buffer from a {@link ByteBufferPool}, moving to a buffer twice the size
+ * whenever the current one is full.
+ *
+ * <p>
+ * The first bytes of the buffer may be reserved for a header, which is written once the size of the content is
+ * known. Whoever creates the stream must either take its buffer with {@link #finish()} or {@link #close()} it.
+ * </p>
+ */
+final class PooledOutputStream extends OutputStream {
+  private static final int INITIAL_CAPACITY = 512;
+
+  private final ByteBufferPool pool;
+  private final int maxSize;
+  private @Nullable PooledBuffer pooledBuffer;
+
+  /**
+   * @param headerSize The number of bytes reserved at the start of the buffer.
+   * @param maxSize The maximum number of bytes, including the header; writing more throws an
+   *        {@link IllegalStateException}.
+   */
+  PooledOutputStream(final ByteBufferPool pool, final int headerSize, final int maxSize) {
+    this.pool = pool;
+    this.maxSize = maxSize;
+    pooledBuffer = pool.acquire(Math.max(INITIAL_CAPACITY, headerSize));
+    pooledBuffer.getBuffer().position(headerSize);
+  }
+
+  private ByteBuffer ensureRemaining(final int count) {
+    if (pooledBuffer == null) {
+      throw new IllegalStateException("Stream already finished");
+    }
+    final ByteBuffer buffer = pooledBuffer.getBuffer();
+    if (buffer.remaining() >= count) {
+      return buffer;
+    }
+    final long required = (long) buffer.position() + count;
+    if (required > maxSize) {
+      throw new IllegalStateException("Invalid message size:" + required);
+    }
+    final PooledBuffer larger = pool.acquire((int) Math.min(maxSize, Math.max(required, 2L * buffer.capacity())));
+    buffer.flip();
+    larger.getBuffer().put(buffer);
+    pooledBuffer.release();
+    pooledBuffer = larger;
+    return larger.getBuffer();
+  }
+
+  @Override
+  public void write(final int b) {
+    ensureRemaining(1).put((byte) b);
+  }
+
+  @Override
+  public void write(final byte[] b, final int off, final int len) {
+    ensureRemaining(len).put(b, off, len);
+  }
+
+  /**
+   * Returns the buffer written to, with its position at the start of the header and its limit after the last byte
+   * written. The caller becomes responsible for releasing it.
+   */
+  PooledBuffer finish() {
+    ensureRemaining(0).flip();
+    final PooledBuffer finished = pooledBuffer;
+    pooledBuffer = null;
+    return finished;
+  }
+
+  /**
+   * Releases the buffer, unless it was already taken by {@link #finish()}.
+   */
+  @Override
+  public void close() {
+    if (pooledBuffer != null) {
+      pooledBuffer.release();
+      pooledBuffer = null;
+    }
+  }
+}
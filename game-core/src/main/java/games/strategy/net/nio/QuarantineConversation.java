@@ -16,6 +16,12 @@ package games.strategy.net.nio;
  * </p>
  */
 public abstract class QuarantineConversation {
+  /**
+   * The property of the challenge response in which the client sends the fingerprint of its class schema, if it has
+   * one. The server sends the fingerprint back, with the names it sends on success, if it has the same schema.
+   */
+  static final String CLASS_SCHEMA_FINGERPRINT_PROPERTY = "Class Schema Fingerprint";
+
   /**
    * The action to be performed after reading a message.
    */
@@ -6,6 +6,8 @@ import java.nio.channels.SocketChannel;
 import java.util.Map;
 import java.util.logging.Level;
 
+import javax.annotation.Nullable;
+
 import games.strategy.net.AbstractServerMessenger;
 import games.strategy.net.ILoginValidator;
 import games.strategy.net.MessageHeader;
@@ -22,7 +24,8 @@ public class ServerQuarantineConversation extends QuarantineConversation {
    * 1) server reads client name
    * 2) server sends challenge (or null if no challenge is to be made)
    * 3) server reads response (or null if no challenge)
-   * 4) server send null then client name and node info on success, or an error message if there is an error
+   * 4) server send null then client name, server name, the class schema fingerprint if it matches the one in the
+   * response, and node info on success, or an error message if there is an error
    * 5) if the client reads an error message, the client sends an acknowledgment (we need to make sur the client gets
    * the message before
    * closing the socket).
@@ -74,6 +77,7 @@ public class ServerQuarantineConversation extends QuarantineConversation {
         case CHALLENGE:
           @SuppressWarnings("unchecked")
           final Map<String, String> response = (Map<String, String>) o;
+          final @Nullable String classSchemaFingerprint = getSharedClassSchemaFingerprint(response);
           if (validator != null) {
             final String error = validator.verifyConnection(challenge, response, remoteName, remoteMac,
                 channel.socket().getRemoteSocketAddress());
@@ -87,8 +91,11 @@ public class ServerQuarantineConversation extends QuarantineConversation {
           }
           // get a unique name
           remoteName = serverMessenger.getUniqueName(remoteName);
-          // send the node its name and our name
-          send(new String[] {remoteName, serverMessenger.getLocalNode().getName()});
+          // send the node its name and our name, and whether we share the class schema
+          if (classSchemaFingerprint != null) {
+            socket.setSharesClassSchema(channel);
+          }
+          send(new String[] {remoteName, serverMessenger.getLocalNode().getName(), classSchemaFingerprint});
           // send the node its and our address as we see it
           send(new InetSocketAddress[] {(InetSocketAddress) channel.socket().getRemoteSocketAddress(),
               serverMessenger.getLocalNode().getSocketAddress()});
@@ -107,6 +114,18 @@ public class ServerQuarantineConversation extends QuarantineConversation {
     }
   }
 
+  /**
+   * Returns the fingerprint of the class schema of the socket if the client sent the same one, or null if it did not
+   * or the streams of the socket have no schema, in which case full class descriptors are exchanged with the client.
+   */
+  private @Nullable String getSharedClassSchemaFingerprint(final @Nullable Map<String, String> response) {
+    final @Nullable String fingerprint = socket.getClassSchemaFingerprint();
+    if (fingerprint == null || response == null) {
+      return null;
+    }
+    return fingerprint.equals(response.get(CLASS_SCHEMA_FINGERPRINT_PROPERTY)) ? fingerprint : null;
+  }
+
   private void send(final Serializable object) {
     // this messenger is quarantined, so to and from dont matter
     final MessageHeader header = new MessageHeader(Node.NULL_NODE, Node.NULL_NODE, object);
@@ -1,10 +1,13 @@
 package games.strategy.net.nio;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import games.strategy.net.nio.ByteBufferPool.PooledBuffer;
+
 import lombok.extern.java.Log;
 
 /**
@@ -12,6 +15,7 @@ import lombok.extern.java.Log;
  *
  * <p>
  * A Packet does not correspond to a network packet, rather it is the bytes for 1 serialized java object.
+ * The bytes are read into a pooled buffer, which is returned to its pool when the packet is released.
  * </p>
  */
 @Log
@@ -28,13 +32,17 @@ class SocketReadData {
   // bytes to find out size
   private ByteBuffer sizeBuffer;
   // we read into here after knowing out size
-  private ByteBuffer contentBuffer;
+  private PooledBuffer contentBuffer;
+  private boolean released = false;
   private final SocketChannel channel;
+  private final ByteBufferPool bufferPool;
   private final int number = counter.incrementAndGet();
   private int readCalls;
+  private long readNanos;
 
-  public SocketReadData(final SocketChannel channel) {
+  public SocketReadData(final SocketChannel channel, final ByteBufferPool bufferPool) {
     this.channel = channel;
+    this.bufferPool = bufferPool;
   }
 
   /**
@@ -44,7 +52,10 @@ class SocketReadData {
    * If we detect the socket is closed, we will throw an IOExcpetion
    * </p>
    */
-  public boolean read(final SocketChannel channel) throws IOException {
+  public synchronized boolean read(final SocketChannel channel) throws IOException {
+    if (released) {
+      throw new IOException("Socket closed");
+    }
     readCalls++;
     // we dont know our size, read it
     if (targetSize < 0) {
@@ -70,7 +81,7 @@ class SocketReadData {
         if (targetSize <= 0 || targetSize > MAX_MESSAGE_SIZE) {
           throw new IOException("Invalid triplea packet size:" + targetSize);
         }
-        contentBuffer = ByteBuffer.allocate(targetSize);
+        contentBuffer = bufferPool.acquire(targetSize);
         sizeBuffer = null;
       } else {
         // we ddnt read all 4 bytes, return
@@ -78,12 +89,16 @@ class SocketReadData {
       }
     }
     // http://javaalmanac.com/egs/java.nio/DetectClosed.html
-    final int size = channel.read(contentBuffer);
+    final int size = channel.read(contentBuffer.getBuffer());
     log.finest(() -> "read content bytes:" + size);
     if (size == -1) {
       throw new IOException("Socket closed");
     }
-    return !contentBuffer.hasRemaining();
+    if (contentBuffer.getBuffer().hasRemaining()) {
+      return false;
+    }
+    readNanos = System.nanoTime();
+    return true;
   }
 
   public SocketChannel getChannel() {
@@ -91,15 +106,25 @@ class SocketReadData {
   }
 
   /**
-   * Get the data as a byte[].
-   * This method can only be called once.
+   * Returns a stream over the data of this packet once it is done. The stream is only valid until the packet is
+   * released.
+   */
+  public synchronized InputStream openContent() {
+    final ByteBuffer content = contentBuffer.getBuffer().duplicate();
+    content.flip();
+    return new ContentInputStream(content);
+  }
+
+  /**
+   * Returns the buffer of this packet to the pool. The packet must be released once it is decoded or no longer
+   * needed, and a packet still being read fails its next read.
    */
-  public byte[] getData() {
-    final byte[] data = new byte[contentBuffer.capacity()];
-    contentBuffer.flip();
-    contentBuffer.get(data);
-    contentBuffer = null;
-    return data;
+  public synchronized void release() {
+    if (contentBuffer != null) {
+      contentBuffer.release();
+      contentBuffer = null;
+    }
+    released = true;
   }
 
   public int size() {
@@ -107,6 +132,13 @@ class SocketReadData {
     return targetSize + 4;
   }
 
+  /**
+   * Returns the {@link System#nanoTime()} at which this packet was read completely.
+   */
+  public synchronized long getReadNanos() {
+    return readNanos;
+  }
+
   public int getReadCalls() {
     return readCalls;
   }
@@ -115,4 +147,42 @@ class SocketReadData {
   public String toString() {
     return "<id:" + number + " size:" + targetSize + ">";
   }
+
+  private static final class ContentInputStream extends InputStream {
+    private final ByteBuffer content;
+
+    ContentInputStream(final ByteBuffer content) {
+      this.content = content;
+    }
+
+    @Override
+    public int read() {
+      return content.hasRemaining() ? content.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) {
+      if (len == 0) {
+        return 0;
+      }
+      if (!content.hasRemaining()) {
+        return -1;
+      }
+      final int count = Math.min(len, content.remaining());
+      content.get(b, off, count);
+      return count;
+    }
+
+    @Override
+    public long skip(final long n) {
+      final int count = (int) Math.max(0, Math.min(n, content.remaining()));
+      content.position(content.position() + count);
+      return count;
+    }
+
+    @Override
+    public int available() {
+      return content.remaining();
+    }
+  }
 }
@@ -1,11 +1,9 @@
 package games.strategy.net.nio;
 
-import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.nio.channels.SocketChannel;
 import java.util.concurrent.atomic.AtomicInteger;
 
-import lombok.extern.java.Log;
+import games.strategy.net.nio.ByteBufferPool.PooledBuffer;
 
 /**
  * A packet of data to be written over the network.
@@ -15,32 +13,44 @@ import lombok.extern.java.Log;
  * </p>
  *
  * <p>
- * The packet is written over the network as 32 bits indicating the size in bytes, then the data itself.
+ * The packet is written over the network as 32 bits indicating the size in bytes, then the data itself. Both are
+ * kept in one pooled frame, so a packet can be written with a single buffer. The frame is not copied, so one frame
+ * can be shared by the packets of a message written to several channels, each of which releases it once.
  * </p>
  */
-@Log
 class SocketWriteData {
+  static final int HEADER_SIZE = 4;
   private static final AtomicInteger counter = new AtomicInteger();
-  private final ByteBuffer size;
-  private final ByteBuffer content;
+  private final PooledBuffer frame;
+  // this packet's view of the frame, which tracks how much of it was written
+  private final ByteBuffer data;
   private final int number = counter.incrementAndGet();
   // how many times we called write before we finished writing ourselves
   private int writeCalls = 0;
 
-  SocketWriteData(final byte[] data, final int count) {
-    content = ByteBuffer.allocate(count);
-    content.put(data, 0, count);
-    size = ByteBuffer.allocate(4);
-    if (count < 0 || count > SocketReadData.MAX_MESSAGE_SIZE) {
+  /**
+   * Creates a packet for the specified frame, whose header must have been written by {@link #writeHeader(ByteBuffer)}.
+   * The packet takes over one reference to the frame.
+   */
+  SocketWriteData(final PooledBuffer frame) {
+    this.frame = frame;
+    data = frame.getBuffer().duplicate();
+  }
+
+  /**
+   * Writes the size of the content into the header of a frame, whose position is at the start of the header and
+   * whose limit is at the end of the content.
+   */
+  static void writeHeader(final ByteBuffer frame) {
+    final int count = frame.remaining() - HEADER_SIZE;
+    if (count > SocketReadData.MAX_MESSAGE_SIZE) {
       throw new IllegalStateException("Invalid message size:" + count);
     }
-    size.putInt(count ^ SocketReadData.MAGIC);
-    size.flip();
-    content.flip();
+    frame.putInt(frame.position(), count ^ SocketReadData.MAGIC);
   }
 
   int size() {
-    return size.capacity() + content.capacity();
+    return data.limit();
   }
 
   int getWriteCalls() {
@@ -48,33 +58,29 @@ class SocketWriteData {
   }
 
   /**
-   * Writes any pending data to the specified channel.
-   *
-   * @return true if the write has written the entire message.
+   * Returns the buffer holding the pending data of this packet, to be written to its channel.
    */
-  boolean write(final SocketChannel channel) throws IOException {
+  ByteBuffer startWrite() {
     writeCalls++;
-    if (size.hasRemaining()) {
-      final int count = channel.write(size);
-      if (count == -1) {
-        throw new IOException("triplea: end of stream detected");
-      }
-      log.finest(() -> "wrote size_buffer bytes:" + count);
-      // we could not write everything
-      if (size.hasRemaining()) {
-        return false;
-      }
-    }
-    final int count = channel.write(content);
-    if (count == -1) {
-      throw new IOException("triplea: end of stream detected");
-    }
-    log.finest(() -> "wrote content bytes:" + count);
-    return !content.hasRemaining();
+    return data;
+  }
+
+  /**
+   * Returns true if the entire packet has been written.
+   */
+  boolean isWritten() {
+    return !data.hasRemaining();
+  }
+
+  /**
+   * Releases the frame of this packet. The packet must not be written afterwards.
+   */
+  void release() {
+    frame.release();
   }
 
   @Override
   public String toString() {
-    return "<id:" + number + " size:" + content.capacity() + ">";
+    return "<id:" + number + " size:" + (data.limit() - HEADER_SIZE) + ">";
   }
 }
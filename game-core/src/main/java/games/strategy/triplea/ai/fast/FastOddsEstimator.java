@@ -3,6 +3,7 @@ package games.strategy.triplea.ai.fast;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 import games.strategy.engine.data.GameData;
 import games.strategy.engine.data.PlayerID;
@@ -13,6 +14,7 @@ import games.strategy.triplea.ai.pro.util.ProBattleUtils;
 import games.strategy.triplea.ai.pro.util.ProPurchaseUtils;
 import games.strategy.triplea.odds.calculator.AggregateResults;
 import games.strategy.triplea.odds.calculator.IOddsCalculator;
+import games.strategy.triplea.odds.calculator.OddsEstimate;
 
 class FastOddsEstimator implements IOddsCalculator {
 
@@ -93,6 +95,15 @@ class FastOddsEstimator implements IOddsCalculator {
   @Override
   public void setDefenderOrderOfLosses(final String defenderOrderOfLosses) {}
 
+  @Override
+  public void setUseBattleSimulator(final boolean useBattleSimulator) {}
+
+  @Override
+  public void setTargetMarginOfError(final double marginOfError) {}
+
+  @Override
+  public void setEstimateListener(final Consumer<OddsEstimate> listener) {}
+
   @Override
   public void cancel() {}
 
@@ -1,5 +1,6 @@
 package games.strategy.triplea.ai.pro;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -14,7 +15,6 @@ import games.strategy.engine.data.PlayerID;
 import games.strategy.engine.data.Territory;
 import games.strategy.engine.data.Unit;
 import games.strategy.engine.delegate.IDelegateBridge;
-import games.strategy.engine.framework.GameDataUtils;
 import games.strategy.engine.framework.startup.ui.PlayerType;
 import games.strategy.net.GUID;
 import games.strategy.triplea.Properties;
@@ -26,6 +26,7 @@ import games.strategy.triplea.ai.pro.logging.ProLogUi;
 import games.strategy.triplea.ai.pro.logging.ProLogger;
 import games.strategy.triplea.ai.pro.simulate.ProDummyDelegateBridge;
 import games.strategy.triplea.ai.pro.simulate.ProSimulateTurnUtils;
+import games.strategy.triplea.ai.pro.simulate.ProSimulationData;
 import games.strategy.triplea.ai.pro.util.ProBattleUtils;
 import games.strategy.triplea.ai.pro.util.ProMatches;
 import games.strategy.triplea.ai.pro.util.ProOddsCalculator;
@@ -45,8 +46,7 @@ import games.strategy.triplea.delegate.remote.IAbstractPlaceDelegate;
 import games.strategy.triplea.delegate.remote.IMoveDelegate;
 import games.strategy.triplea.delegate.remote.IPurchaseDelegate;
 import games.strategy.triplea.delegate.remote.ITechDelegate;
-import games.strategy.triplea.odds.calculator.ConcurrentOddsCalculator;
-import games.strategy.triplea.odds.calculator.IOddsCalculator;
+import games.strategy.triplea.odds.calculator.OddsCalculatorRegistry;
 import games.strategy.triplea.ui.TripleAFrame;
 import games.strategy.util.CollectionUtils;
 import games.strategy.util.Tuple;
@@ -57,7 +57,6 @@ import games.strategy.util.Tuple;
 public class ProAi extends AbstractAi {
 
   // Odds calculator
-  private static final IOddsCalculator concurrentCalc = new ConcurrentOddsCalculator("ProAi");
   protected ProOddsCalculator calc;
 
   // Phases
@@ -97,7 +96,8 @@ public class ProAi extends AbstractAi {
   }
 
   protected void initializeCalc() {
-    calc = new ProOddsCalculator(concurrentCalc);
+    // the game is not known until the calculator is first used, and every player of every game gets its own
+    calc = new ProOddsCalculator(() -> OddsCalculatorRegistry.getCalculator(getGameData(), getName()));
   }
 
   public ProOddsCalculator getCalc() {
@@ -115,8 +115,8 @@ public class ProAi extends AbstractAi {
   }
 
   public static void gameOverClearCache() {
-    // Are static, clear so that we don't keep the data around after a game is exited
-    concurrentCalc.setGameData(null);
+    // Are static, clear so that we don't keep the data around after a game is exited; the odds calculators and the
+    // simulation copy are released by the players of the game when it stops
     ProLogUi.clearCachedInstances();
   }
 
@@ -124,6 +124,11 @@ public class ProAi extends AbstractAi {
   public void stopGame() {
     super.stopGame(); // absolutely MUST call super.stopGame() first
     calc.cancelCalcs();
+    if (getPlayerBridge() != null) {
+      OddsCalculatorRegistry.releaseCalculator(getGameData(), getName());
+      // shared by all Pro AI players of the game, and copied again should one of them still need it
+      ProSimulationData.release(getGameData());
+    }
   }
 
   private void initializeData() {
@@ -183,71 +188,74 @@ public class ProAi extends AbstractAi {
       }
       ProLogger.info("Starting simulation for purchase phase");
 
-      // Setup data copy and delegates
-      final GameData dataCopy;
+      // Simulate the next phases on a copy of the game data, which is kept up to date between turns
       try {
-        data.acquireWriteLock();
-        dataCopy = GameDataUtils.cloneGameDataWithoutHistory(data, true);
-      } catch (final Throwable t) {
-        ProLogger.log(Level.WARNING, "Error trying to clone game data for simulating phases", t);
+        ProSimulationData.forGame(data)
+            .simulate(dataCopy -> simulatePhases(dataCopy, purchaseDelegate, data, player));
+      } catch (final IOException e) {
+        ProLogger.log(Level.WARNING, "Error trying to copy game data for simulating phases", e);
         return;
-      } finally {
-        data.releaseWriteLock();
-      }
-      calc.setData(dataCopy);
-      final PlayerID playerCopy = dataCopy.getPlayerList().getPlayerId(player.getName());
-      final IMoveDelegate moveDel = DelegateFinder.moveDelegate(dataCopy);
-      final IDelegateBridge bridge = new ProDummyDelegateBridge(this, playerCopy, dataCopy);
-      moveDel.setDelegateBridgeAndPlayer(bridge);
-
-      // Determine turn sequence
-      final List<GameStep> gameSteps = new ArrayList<>();
-      for (final GameStep gameStep : dataCopy.getSequence()) {
-        gameSteps.add(gameStep);
       }
+    }
+    ProLogger.info(player.getName() + " time for purchase=" + (System.currentTimeMillis() - start));
+  }
+
+  private void simulatePhases(final GameData dataCopy, final IPurchaseDelegate purchaseDelegate, final GameData data,
+      final PlayerID player) {
 
-      // Simulate the next phases until place/end of turn is reached then use simulated data for purchase
-      final int nextStepIndex = dataCopy.getSequence().getStepIndex() + 1;
-      for (int i = nextStepIndex; i < gameSteps.size(); i++) {
-        final GameStep step = gameSteps.get(i);
-        if (!playerCopy.equals(step.getPlayerId())) {
-          continue;
+    // Setup delegates
+    calc.setData(dataCopy);
+    final PlayerID playerCopy = dataCopy.getPlayerList().getPlayerId(player.getName());
+    final IMoveDelegate moveDel = DelegateFinder.moveDelegate(dataCopy);
+    final IDelegateBridge bridge = new ProDummyDelegateBridge(this, playerCopy, dataCopy);
+    moveDel.setDelegateBridgeAndPlayer(bridge);
+
+    // Determine turn sequence
+    final List<GameStep> gameSteps = new ArrayList<>();
+    for (final GameStep gameStep : dataCopy.getSequence()) {
+      gameSteps.add(gameStep);
+    }
+
+    // Simulate the next phases until place/end of turn is reached then use simulated data for purchase
+    final int nextStepIndex = dataCopy.getSequence().getStepIndex() + 1;
+    for (int i = nextStepIndex; i < gameSteps.size(); i++) {
+      final GameStep step = gameSteps.get(i);
+      if (!playerCopy.equals(step.getPlayerId())) {
+        continue;
+      }
+      dataCopy.getSequence().setRoundAndStep(dataCopy.getSequence().getRound(), step.getDisplayName(),
+          step.getPlayerId());
+      final String stepName = step.getName();
+      ProLogger.info("Simulating phase: " + stepName);
+      if (stepName.endsWith("NonCombatMove")) {
+        ProData.initializeSimulation(this, dataCopy, playerCopy);
+        final Map<Territory, ProTerritory> factoryMoveMap = nonCombatMoveAi.simulateNonCombatMove(moveDel);
+        if (storedFactoryMoveMap == null) {
+          storedFactoryMoveMap = ProSimulateTurnUtils.transferMoveMap(factoryMoveMap, data, player);
         }
-        dataCopy.getSequence().setRoundAndStep(dataCopy.getSequence().getRound(), step.getDisplayName(),
-            step.getPlayerId());
-        final String stepName = step.getName();
-        ProLogger.info("Simulating phase: " + stepName);
-        if (stepName.endsWith("NonCombatMove")) {
-          ProData.initializeSimulation(this, dataCopy, playerCopy);
-          final Map<Territory, ProTerritory> factoryMoveMap = nonCombatMoveAi.simulateNonCombatMove(moveDel);
-          if (storedFactoryMoveMap == null) {
-            storedFactoryMoveMap = ProSimulateTurnUtils.transferMoveMap(factoryMoveMap, data, player);
-          }
-        } else if (stepName.endsWith("CombatMove") && !stepName.endsWith("AirborneCombatMove")) {
-          ProData.initializeSimulation(this, dataCopy, playerCopy);
-          final Map<Territory, ProTerritory> moveMap = combatMoveAi.doCombatMove(moveDel);
-          if (storedCombatMoveMap == null) {
-            storedCombatMoveMap = ProSimulateTurnUtils.transferMoveMap(moveMap, data, player);
-          }
-        } else if (stepName.endsWith("Battle")) {
-          ProData.initializeSimulation(this, dataCopy, playerCopy);
-          ProSimulateTurnUtils.simulateBattles(dataCopy, playerCopy, bridge, calc);
-        } else if (stepName.endsWith("Place") || stepName.endsWith("EndTurn")) {
-          ProData.initializeSimulation(this, dataCopy, player);
-          storedPurchaseTerritories = purchaseAi.purchase(purchaseDelegate, data);
-          break;
-        } else if (stepName.endsWith("Politics")) {
-          ProData.initializeSimulation(this, dataCopy, player);
-          final PoliticsDelegate politicsDelegate = DelegateFinder.politicsDelegate(dataCopy);
-          politicsDelegate.setDelegateBridgeAndPlayer(bridge);
-          final List<PoliticalActionAttachment> actions = politicsAi.politicalActions();
-          if (storedPoliticalActions == null) {
-            storedPoliticalActions = actions;
-          }
+      } else if (stepName.endsWith("CombatMove") && !stepName.endsWith("AirborneCombatMove")) {
+        ProData.initializeSimulation(this, dataCopy, playerCopy);
+        final Map<Territory, ProTerritory> moveMap = combatMoveAi.doCombatMove(moveDel);
+        if (storedCombatMoveMap == null) {
+          storedCombatMoveMap = ProSimulateTurnUtils.transferMoveMap(moveMap, data, player);
+        }
+      } else if (stepName.endsWith("Battle")) {
+        ProData.initializeSimulation(this, dataCopy, playerCopy);
+        ProSimulateTurnUtils.simulateBattles(dataCopy, playerCopy, bridge, calc);
+      } else if (stepName.endsWith("Place") || stepName.endsWith("EndTurn")) {
+        ProData.initializeSimulation(this, dataCopy, player);
+        storedPurchaseTerritories = purchaseAi.purchase(purchaseDelegate, data);
+        break;
+      } else if (stepName.endsWith("Politics")) {
+        ProData.initializeSimulation(this, dataCopy, player);
+        final PoliticsDelegate politicsDelegate = DelegateFinder.politicsDelegate(dataCopy);
+        politicsDelegate.setDelegateBridgeAndPlayer(bridge);
+        final List<PoliticalActionAttachment> actions = politicsAi.politicalActions();
+        if (storedPoliticalActions == null) {
+          storedPoliticalActions = actions;
         }
       }
     }
-    ProLogger.info(player.getName() + " time for purchase=" + (System.currentTimeMillis() - start));
   }
 
   @Override
@@ -9,7 +9,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import games.strategy.engine.data.GameData;
@@ -39,6 +42,8 @@ import games.strategy.util.PredicateBuilder;
  * Manages info about territories.
  */
 public class ProTerritoryManager {
+  // below this many unit territories the move options are not worth searching in parallel
+  private static final int MIN_PARALLEL_TERRITORIES = 4;
 
   private final ProOddsCalculator calc;
   private final PlayerID player;
@@ -72,33 +77,49 @@ public class ProTerritoryManager {
   }
 
   public void populateAttackOptions() {
+    final long start = System.currentTimeMillis();
     findAttackOptions(player, ProData.myUnitTerritories, attackOptions.getTerritoryMap(),
         attackOptions.getUnitMoveMap(), attackOptions.getTransportMoveMap(), attackOptions.getBombardMap(),
         attackOptions.getTransportList(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), false, false);
     findBombingOptions();
+    logTime("attack options", start);
+    final long alliedStart = System.currentTimeMillis();
     alliedAttackOptions = findAlliedAttackOptions(player);
+    logTime("allied attack options", alliedStart);
   }
 
   public void populatePotentialAttackOptions() {
+    final long start = System.currentTimeMillis();
     findPotentialAttackOptions(player, ProData.myUnitTerritories, potentialAttackOptions.getTerritoryMap(),
         potentialAttackOptions.getUnitMoveMap(), potentialAttackOptions.getTransportMoveMap(),
         potentialAttackOptions.getBombardMap(), potentialAttackOptions.getTransportList());
+    logTime("potential attack options", start);
   }
 
   public void populateDefenseOptions(final List<Territory> clearedTerritories) {
+    final long start = System.currentTimeMillis();
     findDefendOptions(player, ProData.myUnitTerritories, defendOptions.getTerritoryMap(),
         defendOptions.getUnitMoveMap(), defendOptions.getTransportMoveMap(), defendOptions.getTransportList(),
         clearedTerritories, false);
+    logTime("defense options", start);
   }
 
   public void populateEnemyAttackOptions(final List<Territory> clearedTerritories,
       final List<Territory> territoriesToCheck) {
+    final long start = System.currentTimeMillis();
     enemyAttackOptions = findEnemyAttackOptions(player, clearedTerritories, territoriesToCheck);
+    logTime("enemy attack options", start);
   }
 
   public void populateEnemyDefenseOptions() {
+    final long start = System.currentTimeMillis();
     findScrambleOptions(player, attackOptions.getTerritoryMap());
     enemyDefendOptions = findEnemyDefendOptions(player);
+    logTime("enemy defense options", start);
+  }
+
+  private void logTime(final String options, final long start) {
+    ProLogger.debug(player.getName() + " time for " + options + "=" + (System.currentTimeMillis() - start));
   }
 
   public List<ProTerritory> removeTerritoriesThatCantBeConquered() {
@@ -416,21 +437,22 @@ public class ProTerritoryManager {
 
     // Get enemy players in order of turn
     final List<PlayerID> alliedPlayers = ProUtils.getAlliedPlayersInTurnOrder(player);
-    final List<Map<Territory, ProTerritory>> alliedAttackMaps = new ArrayList<>();
 
-    // Loop through each enemy to determine the maximum number of enemy units that can attack each territory
-    for (final PlayerID alliedPlayer : alliedPlayers) {
-      final List<Territory> alliedUnitTerritories =
-          CollectionUtils.getMatches(data.getMap().getTerritories(), Matches.territoryHasUnitsOwnedBy(alliedPlayer));
-      final Map<Territory, ProTerritory> attackMap = new HashMap<>();
-      final Map<Unit, Set<Territory>> unitAttackMap = new HashMap<>();
-      final Map<Unit, Set<Territory>> transportAttackMap = new HashMap<>();
-      final Map<Unit, Set<Territory>> bombardMap = new HashMap<>();
-      final List<ProTransport> transportMapList = new ArrayList<>();
-      alliedAttackMaps.add(attackMap);
-      findAttackOptions(alliedPlayer, alliedUnitTerritories, attackMap, unitAttackMap, transportAttackMap, bombardMap,
-          transportMapList, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), false, false);
-    }
+    // Determine the maximum number of units each ally can attack each territory with, the allies being independent
+    final List<Map<Territory, ProTerritory>> alliedAttackMaps = alliedPlayers.parallelStream()
+        .map(alliedPlayer -> {
+          final List<Territory> alliedUnitTerritories = CollectionUtils.getMatches(data.getMap().getTerritories(),
+              Matches.territoryHasUnitsOwnedBy(alliedPlayer));
+          final Map<Territory, ProTerritory> attackMap = new HashMap<>();
+          final Map<Unit, Set<Territory>> unitAttackMap = new HashMap<>();
+          final Map<Unit, Set<Territory>> transportAttackMap = new HashMap<>();
+          final Map<Unit, Set<Territory>> bombardMap = new HashMap<>();
+          final List<ProTransport> transportMapList = new ArrayList<>();
+          findAttackOptions(alliedPlayer, alliedUnitTerritories, attackMap, unitAttackMap, transportAttackMap,
+              bombardMap, transportMapList, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), false, false);
+          return attackMap;
+        })
+        .collect(Collectors.toList());
     return new ProOtherMoveOptions(alliedAttackMaps, player, true);
   }
 
@@ -510,22 +532,23 @@ public class ProTerritoryManager {
 
     // Get enemy players in order of turn
     final List<PlayerID> enemyPlayers = ProUtils.getEnemyPlayersInTurnOrder(player);
-    final List<Map<Territory, ProTerritory>> enemyMoveMaps = new ArrayList<>();
     final List<Territory> clearedTerritories =
         CollectionUtils.getMatches(data.getMap().getTerritories(), Matches.isTerritoryAllied(player, data));
 
-    // Loop through each enemy to determine the maximum number of enemy units that can defend each territory
-    for (final PlayerID enemyPlayer : enemyPlayers) {
-      final List<Territory> enemyUnitTerritories =
-          CollectionUtils.getMatches(data.getMap().getTerritories(), Matches.territoryHasUnitsOwnedBy(enemyPlayer));
-      final Map<Territory, ProTerritory> moveMap = new HashMap<>();
-      final Map<Unit, Set<Territory>> unitMoveMap = new HashMap<>();
-      final Map<Unit, Set<Territory>> transportMoveMap = new HashMap<>();
-      final List<ProTransport> transportMapList = new ArrayList<>();
-      enemyMoveMaps.add(moveMap);
-      findDefendOptions(enemyPlayer, enemyUnitTerritories, moveMap, unitMoveMap, transportMoveMap, transportMapList,
-          clearedTerritories, true);
-    }
+    // Determine the maximum number of units each enemy can defend each territory with, the enemies being independent
+    final List<Map<Territory, ProTerritory>> enemyMoveMaps = enemyPlayers.parallelStream()
+        .map(enemyPlayer -> {
+          final List<Territory> enemyUnitTerritories = CollectionUtils.getMatches(data.getMap().getTerritories(),
+              Matches.territoryHasUnitsOwnedBy(enemyPlayer));
+          final Map<Territory, ProTerritory> moveMap = new HashMap<>();
+          final Map<Unit, Set<Territory>> unitMoveMap = new HashMap<>();
+          final Map<Unit, Set<Territory>> transportMoveMap = new HashMap<>();
+          final List<ProTransport> transportMapList = new ArrayList<>();
+          findDefendOptions(enemyPlayer, enemyUnitTerritories, moveMap, unitMoveMap, transportMoveMap,
+              transportMapList, clearedTerritories, true);
+          return moveMap;
+        })
+        .collect(Collectors.toList());
 
     return new ProOtherMoveOptions(enemyMoveMaps, player, false);
   }
@@ -534,197 +557,224 @@ public class ProTerritoryManager {
       final Map<Territory, ProTerritory> moveMap, final Map<Unit, Set<Territory>> unitMoveMap,
       final Map<Unit, Set<Territory>> transportMoveMap, final Predicate<Territory> moveToTerritoryMatch,
       final List<Territory> clearedTerritories, final boolean isCombatMove, final boolean isCheckingEnemyAttacks) {
-    final GameData data = ProData.getData();
-
-    for (final Territory myUnitTerritory : myUnitTerritories) {
-
-      // Find my naval units that have movement left
-      final List<Unit> mySeaUnits =
-          myUnitTerritory.getUnits().getMatches(ProMatches.unitCanBeMovedAndIsOwnedSea(player, isCombatMove));
-
-      // Check each sea unit individually since they can have different ranges
-      for (final Unit mySeaUnit : mySeaUnits) {
-
-        // If my combat move and carrier has dependent allied fighters then skip it
-        if (isCombatMove && !isCheckingEnemyAttacks) {
-          final Map<Unit, Collection<Unit>> carrierMustMoveWith =
-              MoveValidator.carrierMustMoveWith(myUnitTerritory.getUnits().getUnits(), myUnitTerritory, data, player);
-          if (carrierMustMoveWith.containsKey(mySeaUnit) && !carrierMustMoveWith.get(mySeaUnit).isEmpty()) {
-            continue;
-          }
-        }
-
-        // Find range
-        int range = TripleAUnit.get(mySeaUnit).getMovementLeft();
-        if (isCheckingEnemyAttacks) {
-          range = UnitAttachment.get(mySeaUnit.getType()).getMovement(player);
-          if (Matches.unitCanBeGivenBonusMovementByFacilitiesInItsTerritory(myUnitTerritory, player, data)
-              .test(mySeaUnit)) {
-            range++; // assumes bonus of +1 for now
-          }
-        }
+    final List<MoveOption> moveOptions = findInParallel(myUnitTerritories,
+        myUnitTerritory -> findNavalMoveOptions(player, myUnitTerritory, moveToTerritoryMatch, clearedTerritories,
+            isCombatMove, isCheckingEnemyAttacks));
+    for (final MoveOption moveOption : moveOptions) {
+      final Unit mySeaUnit = moveOption.unit;
+      final Territory potentialTerritory = moveOption.to;
+
+      // Populate territories with sea unit
+      if (moveMap.containsKey(potentialTerritory)) {
+        moveMap.get(potentialTerritory).addMaxUnit(mySeaUnit);
+      } else {
+        final ProTerritory moveTerritoryData = new ProTerritory(potentialTerritory);
+        moveTerritoryData.addMaxUnit(mySeaUnit);
+        moveMap.put(potentialTerritory, moveTerritoryData);
+      }
 
-        // Find list of potential territories to move to
-        final Set<Territory> possibleMoveTerritories = data.getMap().getNeighbors(myUnitTerritory, range,
-            ProMatches.territoryCanMoveSeaUnits(player, data, isCombatMove));
-        possibleMoveTerritories.add(myUnitTerritory);
-        final Set<Territory> potentialTerritories =
-            new HashSet<>(CollectionUtils.getMatches(possibleMoveTerritories, moveToTerritoryMatch));
-        if (!isCombatMove) {
-          potentialTerritories.add(myUnitTerritory);
+      // Populate appropriate unit move options map
+      if (Matches.unitIsTransport().test(mySeaUnit)) {
+        if (transportMoveMap.containsKey(mySeaUnit)) {
+          transportMoveMap.get(mySeaUnit).add(potentialTerritory);
+        } else {
+          final Set<Territory> unitMoveTerritories = new HashSet<>();
+          unitMoveTerritories.add(potentialTerritory);
+          transportMoveMap.put(mySeaUnit, unitMoveTerritories);
         }
-        for (final Territory potentialTerritory : potentialTerritories) {
-
-          // Find route over water
-          boolean hasNoRoute = true;
-          final List<Territory> eliminatedTerritories = new ArrayList<>();
-          while (true) { // Need a loop to consider different route combinations to avoid canals
-            Route myRoute = data.getMap().getRoute_IgnoreEnd(myUnitTerritory, potentialTerritory,
-                ProMatches.territoryCanMoveSeaUnitsThroughOrClearedAndNotInList(player, data, isCombatMove,
-                    clearedTerritories, eliminatedTerritories));
-            if (isCheckingEnemyAttacks) {
-              myRoute = data.getMap().getRoute_IgnoreEnd(myUnitTerritory, potentialTerritory,
-                  ProMatches.territoryCanMoveSeaUnitsAndNotInList(player, data, isCombatMove, eliminatedTerritories));
-            }
-            if (myRoute == null) {
-              break;
-            }
-            if (MoveValidator.validateCanal(myRoute, Collections.singletonList(mySeaUnit), player, data) != null) {
-              if (!myRoute.getMiddleSteps().isEmpty()) {
-                eliminatedTerritories.addAll(myRoute.getMiddleSteps()); // Add failed canal territories to list
-                continue;
-              }
-              break;
-            }
-            final int myRouteLength = myRoute.numberOfSteps();
-            if (myRouteLength > range) {
-              break;
-            }
-            hasNoRoute = false;
-            break;
-          }
-          if (hasNoRoute) {
-            continue;
-          }
-
-          // Populate territories with sea unit
-          if (moveMap.containsKey(potentialTerritory)) {
-            moveMap.get(potentialTerritory).addMaxUnit(mySeaUnit);
-          } else {
-            final ProTerritory moveTerritoryData = new ProTerritory(potentialTerritory);
-            moveTerritoryData.addMaxUnit(mySeaUnit);
-            moveMap.put(potentialTerritory, moveTerritoryData);
-          }
-
-          // Populate appropriate unit move options map
-          if (Matches.unitIsTransport().test(mySeaUnit)) {
-            if (transportMoveMap.containsKey(mySeaUnit)) {
-              transportMoveMap.get(mySeaUnit).add(potentialTerritory);
-            } else {
-              final Set<Territory> unitMoveTerritories = new HashSet<>();
-              unitMoveTerritories.add(potentialTerritory);
-              transportMoveMap.put(mySeaUnit, unitMoveTerritories);
-            }
-          } else {
-            if (unitMoveMap.containsKey(mySeaUnit)) {
-              unitMoveMap.get(mySeaUnit).add(potentialTerritory);
-            } else {
-              final Set<Territory> unitMoveTerritories = new HashSet<>();
-              unitMoveTerritories.add(potentialTerritory);
-              unitMoveMap.put(mySeaUnit, unitMoveTerritories);
-            }
-          }
+      } else {
+        if (unitMoveMap.containsKey(mySeaUnit)) {
+          unitMoveMap.get(mySeaUnit).add(potentialTerritory);
+        } else {
+          final Set<Territory> unitMoveTerritories = new HashSet<>();
+          unitMoveTerritories.add(potentialTerritory);
+          unitMoveMap.put(mySeaUnit, unitMoveTerritories);
         }
       }
     }
   }
 
-  private static void findLandMoveOptions(final PlayerID player, final List<Territory> myUnitTerritories,
-      final Map<Territory, ProTerritory> moveMap, final Map<Unit, Set<Territory>> unitMoveMap,
-      final Map<Territory, Set<Territory>> landRoutesMap, final Predicate<Territory> moveToTerritoryMatch,
-      final List<Territory> enemyTerritories, final List<Territory> clearedTerritories, final boolean isCombatMove,
-      final boolean isCheckingEnemyAttacks, final boolean isIgnoringRelationships) {
+  private static List<MoveOption> findNavalMoveOptions(final PlayerID player, final Territory myUnitTerritory,
+      final Predicate<Territory> moveToTerritoryMatch, final List<Territory> clearedTerritories,
+      final boolean isCombatMove, final boolean isCheckingEnemyAttacks) {
     final GameData data = ProData.getData();
+    final List<MoveOption> moveOptions = new ArrayList<>();
 
-    for (final Territory myUnitTerritory : myUnitTerritories) {
+    // Find my naval units that have movement left
+    final List<Unit> mySeaUnits =
+        myUnitTerritory.getUnits().getMatches(ProMatches.unitCanBeMovedAndIsOwnedSea(player, isCombatMove));
+
+    // Check each sea unit individually since they can have different ranges
+    for (final Unit mySeaUnit : mySeaUnits) {
 
-      // Find my land units that have movement left
-      final List<Unit> myLandUnits =
-          myUnitTerritory.getUnits().getMatches(ProMatches.unitCanBeMovedAndIsOwnedLand(player, isCombatMove));
-
-      // Check each land unit individually since they can have different ranges
-      for (final Unit myLandUnit : myLandUnits) {
-        final Territory startTerritory = ProData.unitTerritoryMap.get(myLandUnit);
-        final int range = TripleAUnit.get(myLandUnit).getMovementLeft();
-        Set<Territory> possibleMoveTerritories = data.getMap().getNeighbors(myUnitTerritory, range,
-            ProMatches.territoryCanMoveSpecificLandUnit(player, data, isCombatMove, myLandUnit));
-        if (isIgnoringRelationships) {
-          possibleMoveTerritories = data.getMap().getNeighbors(myUnitTerritory, range,
-              ProMatches.territoryCanPotentiallyMoveSpecificLandUnit(player, data, myLandUnit));
+      // If my combat move and carrier has dependent allied fighters then skip it
+      if (isCombatMove && !isCheckingEnemyAttacks) {
+        final Map<Unit, Collection<Unit>> carrierMustMoveWith =
+            MoveValidator.carrierMustMoveWith(myUnitTerritory.getUnits().getUnits(), myUnitTerritory, data, player);
+        if (carrierMustMoveWith.containsKey(mySeaUnit) && !carrierMustMoveWith.get(mySeaUnit).isEmpty()) {
+          continue;
         }
-        possibleMoveTerritories.add(myUnitTerritory);
-        final Set<Territory> potentialTerritories =
-            new HashSet<>(CollectionUtils.getMatches(possibleMoveTerritories, moveToTerritoryMatch));
-        if (!isCombatMove) {
-          potentialTerritories.add(myUnitTerritory);
+      }
+
+      // Find range
+      int range = TripleAUnit.get(mySeaUnit).getMovementLeft();
+      if (isCheckingEnemyAttacks) {
+        range = UnitAttachment.get(mySeaUnit.getType()).getMovement(player);
+        if (Matches.unitCanBeGivenBonusMovementByFacilitiesInItsTerritory(myUnitTerritory, player, data)
+            .test(mySeaUnit)) {
+          range++; // assumes bonus of +1 for now
         }
-        for (final Territory potentialTerritory : potentialTerritories) {
+      }
+
+      // Find list of potential territories to move to
+      final Set<Territory> possibleMoveTerritories = data.getMap().getNeighbors(myUnitTerritory, range,
+          ProMatches.territoryCanMoveSeaUnits(player, data, isCombatMove));
+      possibleMoveTerritories.add(myUnitTerritory);
+      final Set<Territory> potentialTerritories =
+          new HashSet<>(CollectionUtils.getMatches(possibleMoveTerritories, moveToTerritoryMatch));
+      if (!isCombatMove) {
+        potentialTerritories.add(myUnitTerritory);
+      }
+      for (final Territory potentialTerritory : potentialTerritories) {
 
-          // Find route over land checking whether unit can blitz
+        // Find route over water
+        boolean hasNoRoute = true;
+        final List<Territory> eliminatedTerritories = new ArrayList<>();
+        while (true) { // Need a loop to consider different route combinations to avoid canals
           Route myRoute = data.getMap().getRoute_IgnoreEnd(myUnitTerritory, potentialTerritory,
-              ProMatches.territoryCanMoveLandUnitsThrough(player, data, myLandUnit, startTerritory, isCombatMove,
-                  enemyTerritories));
+              ProMatches.territoryCanMoveSeaUnitsThroughOrClearedAndNotInList(player, data, isCombatMove,
+                  clearedTerritories, eliminatedTerritories));
           if (isCheckingEnemyAttacks) {
             myRoute = data.getMap().getRoute_IgnoreEnd(myUnitTerritory, potentialTerritory,
-                ProMatches.territoryCanMoveLandUnitsThroughIgnoreEnemyUnits(player, data, myLandUnit, startTerritory,
-                    isCombatMove, enemyTerritories, clearedTerritories));
+                ProMatches.territoryCanMoveSeaUnitsAndNotInList(player, data, isCombatMove, eliminatedTerritories));
           }
           if (myRoute == null) {
-            continue;
+            break;
           }
-          if (myRoute.hasMoreThenOneStep()
-              && myRoute.getMiddleSteps().stream().anyMatch(Matches.isTerritoryEnemy(player, data))
-              && Matches.unitIsOfTypes(TerritoryEffectHelper.getUnitTypesThatLostBlitz(myRoute.getAllTerritories()))
-                  .test(myLandUnit)) {
-            continue; // If blitzing then make sure none of the territories cause blitz ability to be lost
+          if (MoveValidator.validateCanal(myRoute, Collections.singletonList(mySeaUnit), player, data) != null) {
+            if (!myRoute.getMiddleSteps().isEmpty()) {
+              eliminatedTerritories.addAll(myRoute.getMiddleSteps()); // Add failed canal territories to list
+              continue;
+            }
+            break;
           }
           final int myRouteLength = myRoute.numberOfSteps();
           if (myRouteLength > range) {
-            continue;
+            break;
           }
+          hasNoRoute = false;
+          break;
+        }
+        if (hasNoRoute) {
+          continue;
+        }
+        moveOptions.add(new MoveOption(mySeaUnit, myUnitTerritory, potentialTerritory));
+      }
+    }
+    return moveOptions;
+  }
 
-          // Add to route map
-          if (landRoutesMap.containsKey(potentialTerritory)) {
-            landRoutesMap.get(potentialTerritory).add(myUnitTerritory);
-          } else {
-            final Set<Territory> territories = new HashSet<>();
-            territories.add(myUnitTerritory);
-            landRoutesMap.put(potentialTerritory, territories);
-          }
+  private static void findLandMoveOptions(final PlayerID player, final List<Territory> myUnitTerritories,
+      final Map<Territory, ProTerritory> moveMap, final Map<Unit, Set<Territory>> unitMoveMap,
+      final Map<Territory, Set<Territory>> landRoutesMap, final Predicate<Territory> moveToTerritoryMatch,
+      final List<Territory> enemyTerritories, final List<Territory> clearedTerritories, final boolean isCombatMove,
+      final boolean isCheckingEnemyAttacks, final boolean isIgnoringRelationships) {
+    final List<MoveOption> moveOptions = findInParallel(myUnitTerritories,
+        myUnitTerritory -> findLandMoveOptions(player, myUnitTerritory, moveToTerritoryMatch, enemyTerritories,
+            clearedTerritories, isCombatMove, isCheckingEnemyAttacks, isIgnoringRelationships));
+    for (final MoveOption moveOption : moveOptions) {
+      final Unit myLandUnit = moveOption.unit;
+      final Territory myUnitTerritory = moveOption.from;
+      final Territory potentialTerritory = moveOption.to;
+      final Territory startTerritory = ProData.unitTerritoryMap.get(myLandUnit);
+
+      // Add to route map
+      if (landRoutesMap.containsKey(potentialTerritory)) {
+        landRoutesMap.get(potentialTerritory).add(myUnitTerritory);
+      } else {
+        final Set<Territory> territories = new HashSet<>();
+        territories.add(myUnitTerritory);
+        landRoutesMap.put(potentialTerritory, territories);
+      }
 
-          // Populate territories with land units
-          if (moveMap.containsKey(potentialTerritory)) {
-            final List<Unit> unitsToAdd = ProTransportUtils.findBestUnitsToLandTransport(myLandUnit, startTerritory,
-                moveMap.get(potentialTerritory).getMaxUnits());
-            moveMap.get(potentialTerritory).addMaxUnits(unitsToAdd);
-          } else {
-            final ProTerritory moveTerritoryData = new ProTerritory(potentialTerritory);
-            final List<Unit> unitsToAdd = ProTransportUtils.findBestUnitsToLandTransport(myLandUnit, startTerritory);
-            moveTerritoryData.addMaxUnits(unitsToAdd);
-            moveMap.put(potentialTerritory, moveTerritoryData);
-          }
+      // Populate territories with land units
+      if (moveMap.containsKey(potentialTerritory)) {
+        final List<Unit> unitsToAdd = ProTransportUtils.findBestUnitsToLandTransport(myLandUnit, startTerritory,
+            moveMap.get(potentialTerritory).getMaxUnits());
+        moveMap.get(potentialTerritory).addMaxUnits(unitsToAdd);
+      } else {
+        final ProTerritory moveTerritoryData = new ProTerritory(potentialTerritory);
+        final List<Unit> unitsToAdd = ProTransportUtils.findBestUnitsToLandTransport(myLandUnit, startTerritory);
+        moveTerritoryData.addMaxUnits(unitsToAdd);
+        moveMap.put(potentialTerritory, moveTerritoryData);
+      }
 
-          // Populate unit move options map
-          if (unitMoveMap.containsKey(myLandUnit)) {
-            unitMoveMap.get(myLandUnit).add(potentialTerritory);
-          } else {
-            final Set<Territory> unitMoveTerritories = new HashSet<>();
-            unitMoveTerritories.add(potentialTerritory);
-            unitMoveMap.put(myLandUnit, unitMoveTerritories);
-          }
+      // Populate unit move options map
+      if (unitMoveMap.containsKey(myLandUnit)) {
+        unitMoveMap.get(myLandUnit).add(potentialTerritory);
+      } else {
+        final Set<Territory> unitMoveTerritories = new HashSet<>();
+        unitMoveTerritories.add(potentialTerritory);
+        unitMoveMap.put(myLandUnit, unitMoveTerritories);
+      }
+    }
+  }
+
+  private static List<MoveOption> findLandMoveOptions(final PlayerID player, final Territory myUnitTerritory,
+      final Predicate<Territory> moveToTerritoryMatch, final List<Territory> enemyTerritories,
+      final List<Territory> clearedTerritories, final boolean isCombatMove, final boolean isCheckingEnemyAttacks,
+      final boolean isIgnoringRelationships) {
+    final GameData data = ProData.getData();
+    final List<MoveOption> moveOptions = new ArrayList<>();
+
+    // Find my land units that have movement left
+    final List<Unit> myLandUnits =
+        myUnitTerritory.getUnits().getMatches(ProMatches.unitCanBeMovedAndIsOwnedLand(player, isCombatMove));
+
+    // Check each land unit individually since they can have different ranges
+    for (final Unit myLandUnit : myLandUnits) {
+      final Territory startTerritory = ProData.unitTerritoryMap.get(myLandUnit);
+      final int range = TripleAUnit.get(myLandUnit).getMovementLeft();
+      Set<Territory> possibleMoveTerritories = data.getMap().getNeighbors(myUnitTerritory, range,
+          ProMatches.territoryCanMoveSpecificLandUnit(player, data, isCombatMove, myLandUnit));
+      if (isIgnoringRelationships) {
+        possibleMoveTerritories = data.getMap().getNeighbors(myUnitTerritory, range,
+            ProMatches.territoryCanPotentiallyMoveSpecificLandUnit(player, data, myLandUnit));
+      }
+      possibleMoveTerritories.add(myUnitTerritory);
+      final Set<Territory> potentialTerritories =
+          new HashSet<>(CollectionUtils.getMatches(possibleMoveTerritories, moveToTerritoryMatch));
+      if (!isCombatMove) {
+        potentialTerritories.add(myUnitTerritory);
+      }
+      for (final Territory potentialTerritory : potentialTerritories) {
+
+        // Find route over land checking whether unit can blitz
+        Route myRoute = data.getMap().getRoute_IgnoreEnd(myUnitTerritory, potentialTerritory,
+            ProMatches.territoryCanMoveLandUnitsThrough(player, data, myLandUnit, startTerritory, isCombatMove,
+                enemyTerritories));
+        if (isCheckingEnemyAttacks) {
+          myRoute = data.getMap().getRoute_IgnoreEnd(myUnitTerritory, potentialTerritory,
+              ProMatches.territoryCanMoveLandUnitsThroughIgnoreEnemyUnits(player, data, myLandUnit, startTerritory,
+                  isCombatMove, enemyTerritories, clearedTerritories));
+        }
+        if (myRoute == null) {
+          continue;
+        }
+        if (myRoute.hasMoreThenOneStep()
+            && myRoute.getMiddleSteps().stream().anyMatch(Matches.isTerritoryEnemy(player, data))
+            && Matches.unitIsOfTypes(TerritoryEffectHelper.getUnitTypesThatLostBlitz(myRoute.getAllTerritories()))
+                .test(myLandUnit)) {
+          continue; // If blitzing then make sure none of the territories cause blitz ability to be lost
         }
+        final int myRouteLength = myRoute.numberOfSteps();
+        if (myRouteLength > range) {
+          continue;
+        }
+        moveOptions.add(new MoveOption(myLandUnit, myUnitTerritory, potentialTerritory));
       }
     }
+    return moveOptions;
   }
 
   private static void findAirMoveOptions(final PlayerID player, final List<Territory> myUnitTerritories,
@@ -753,94 +803,147 @@ public class ProTerritoryManager {
       }
     }
 
-    for (final Territory myUnitTerritory : myUnitTerritories) {
+    final List<MoveOption> moveOptions = findInParallel(myUnitTerritories,
+        myUnitTerritory -> findAirMoveOptions(player, myUnitTerritory, moveToTerritoryMatch, enemyTerritories,
+            alliedTerritories, possibleCarrierTerritories, isCombatMove, isCheckingEnemyAttacks,
+            isIgnoringRelationships));
+    for (final MoveOption moveOption : moveOptions) {
+      final Unit myAirUnit = moveOption.unit;
+      final Territory potentialTerritory = moveOption.to;
+
+      // Populate enemy territories with air unit
+      if (moveMap.containsKey(potentialTerritory)) {
+        moveMap.get(potentialTerritory).addMaxUnit(myAirUnit);
+      } else {
+        final ProTerritory moveTerritoryData = new ProTerritory(potentialTerritory);
+        moveTerritoryData.addMaxUnit(myAirUnit);
+        moveMap.put(potentialTerritory, moveTerritoryData);
+      }
 
-      // Find my air units that have movement left
-      final List<Unit> myAirUnits =
-          myUnitTerritory.getUnits().getMatches(ProMatches.unitCanBeMovedAndIsOwnedAir(player, isCombatMove));
+      // Populate unit attack options map
+      if (unitMoveMap.containsKey(myAirUnit)) {
+        unitMoveMap.get(myAirUnit).add(potentialTerritory);
+      } else {
+        final Set<Territory> unitMoveTerritories = new HashSet<>();
+        unitMoveTerritories.add(potentialTerritory);
+        unitMoveMap.put(myAirUnit, unitMoveTerritories);
+      }
+    }
+  }
 
-      // Check each air unit individually since they can have different ranges
-      for (final Unit myAirUnit : myAirUnits) {
+  private static List<MoveOption> findAirMoveOptions(final PlayerID player, final Territory myUnitTerritory,
+      final Predicate<Territory> moveToTerritoryMatch, final List<Territory> enemyTerritories,
+      final List<Territory> alliedTerritories, final Set<Territory> possibleCarrierTerritories,
+      final boolean isCombatMove, final boolean isCheckingEnemyAttacks, final boolean isIgnoringRelationships) {
+    final GameData data = ProData.getData();
+    final List<MoveOption> moveOptions = new ArrayList<>();
+
+    // Find my air units that have movement left
+    final List<Unit> myAirUnits =
+        myUnitTerritory.getUnits().getMatches(ProMatches.unitCanBeMovedAndIsOwnedAir(player, isCombatMove));
+
+    // Check each air unit individually since they can have different ranges
+    for (final Unit myAirUnit : myAirUnits) {
+
+      // Find range
+      int range = TripleAUnit.get(myAirUnit).getMovementLeft();
+      if (isCheckingEnemyAttacks) {
+        range = UnitAttachment.get(myAirUnit.getType()).getMovement(player);
+        if (Matches.unitCanBeGivenBonusMovementByFacilitiesInItsTerritory(myUnitTerritory, player, data)
+            .test(myAirUnit)) {
+          range++; // assumes bonus of +1 for now
+        }
+      }
 
-        // Find range
-        int range = TripleAUnit.get(myAirUnit).getMovementLeft();
+      // Find potential territories to move to
+      Set<Territory> possibleMoveTerritories = data.getMap().getNeighbors(myUnitTerritory, range,
+          ProMatches.territoryCanMoveAirUnits(player, data, isCombatMove));
+      if (isIgnoringRelationships) {
+        possibleMoveTerritories = data.getMap().getNeighbors(myUnitTerritory, range,
+            ProMatches.territoryCanPotentiallyMoveAirUnits(player, data));
+      }
+      possibleMoveTerritories.add(myUnitTerritory);
+      final Set<Territory> potentialTerritories =
+          new HashSet<>(CollectionUtils.getMatches(possibleMoveTerritories, moveToTerritoryMatch));
+      if (!isCombatMove && Matches.unitCanLandOnCarrier().test(myAirUnit)) {
+        potentialTerritories.addAll(CollectionUtils.getMatches(possibleMoveTerritories,
+            Matches.territoryIsInList(possibleCarrierTerritories)));
+      }
+
+
+      for (final Territory potentialTerritory : potentialTerritories) {
+
+        // Find route ignoring impassable and territories with AA
+        Predicate<Territory> canFlyOverMatch = ProMatches.territoryCanMoveAirUnitsAndNoAa(player, data, isCombatMove);
         if (isCheckingEnemyAttacks) {
-          range = UnitAttachment.get(myAirUnit.getType()).getMovement(player);
-          if (Matches.unitCanBeGivenBonusMovementByFacilitiesInItsTerritory(myUnitTerritory, player, data)
-              .test(myAirUnit)) {
-            range++; // assumes bonus of +1 for now
-          }
+          canFlyOverMatch = ProMatches.territoryCanMoveAirUnits(player, data, isCombatMove);
         }
-
-        // Find potential territories to move to
-        Set<Territory> possibleMoveTerritories = data.getMap().getNeighbors(myUnitTerritory, range,
-            ProMatches.territoryCanMoveAirUnits(player, data, isCombatMove));
-        if (isIgnoringRelationships) {
-          possibleMoveTerritories = data.getMap().getNeighbors(myUnitTerritory, range,
-              ProMatches.territoryCanPotentiallyMoveAirUnits(player, data));
+        final Route myRoute = data.getMap().getRoute_IgnoreEnd(myUnitTerritory, potentialTerritory, canFlyOverMatch);
+        if (myRoute == null) {
+          continue;
         }
-        possibleMoveTerritories.add(myUnitTerritory);
-        final Set<Territory> potentialTerritories =
-            new HashSet<>(CollectionUtils.getMatches(possibleMoveTerritories, moveToTerritoryMatch));
-        if (!isCombatMove && Matches.unitCanLandOnCarrier().test(myAirUnit)) {
-          potentialTerritories.addAll(CollectionUtils.getMatches(possibleMoveTerritories,
-              Matches.territoryIsInList(possibleCarrierTerritories)));
+        final int myRouteLength = myRoute.numberOfSteps();
+        final int remainingMoves = range - myRouteLength;
+        if (remainingMoves < 0) {
+          continue;
         }
 
-
-        for (final Territory potentialTerritory : potentialTerritories) {
-
-          // Find route ignoring impassable and territories with AA
-          Predicate<Territory> canFlyOverMatch = ProMatches.territoryCanMoveAirUnitsAndNoAa(player, data, isCombatMove);
-          if (isCheckingEnemyAttacks) {
-            canFlyOverMatch = ProMatches.territoryCanMoveAirUnits(player, data, isCombatMove);
+        // Check if unit can land
+        if (isCombatMove && (remainingMoves < myRouteLength || myUnitTerritory.isWater())) {
+          final Set<Territory> possibleLandingTerritories =
+              data.getMap().getNeighbors(potentialTerritory, remainingMoves, canFlyOverMatch);
+          final List<Territory> landingTerritories = CollectionUtils.getMatches(possibleLandingTerritories,
+              ProMatches.territoryCanLandAirUnits(player, data, isCombatMove, enemyTerritories, alliedTerritories));
+          List<Territory> carrierTerritories = new ArrayList<>();
+          if (Matches.unitCanLandOnCarrier().test(myAirUnit)) {
+            carrierTerritories = CollectionUtils.getMatches(possibleLandingTerritories,
+                Matches.territoryIsInList(possibleCarrierTerritories));
           }
-          final Route myRoute = data.getMap().getRoute_IgnoreEnd(myUnitTerritory, potentialTerritory, canFlyOverMatch);
-          if (myRoute == null) {
+          if (landingTerritories.isEmpty() && carrierTerritories.isEmpty()) {
             continue;
           }
-          final int myRouteLength = myRoute.numberOfSteps();
-          final int remainingMoves = range - myRouteLength;
-          if (remainingMoves < 0) {
-            continue;
-          }
-
-          // Check if unit can land
-          if (isCombatMove && (remainingMoves < myRouteLength || myUnitTerritory.isWater())) {
-            final Set<Territory> possibleLandingTerritories =
-                data.getMap().getNeighbors(potentialTerritory, remainingMoves, canFlyOverMatch);
-            final List<Territory> landingTerritories = CollectionUtils.getMatches(possibleLandingTerritories,
-                ProMatches.territoryCanLandAirUnits(player, data, isCombatMove, enemyTerritories, alliedTerritories));
-            List<Territory> carrierTerritories = new ArrayList<>();
-            if (Matches.unitCanLandOnCarrier().test(myAirUnit)) {
-              carrierTerritories = CollectionUtils.getMatches(possibleLandingTerritories,
-                  Matches.territoryIsInList(possibleCarrierTerritories));
-            }
-            if (landingTerritories.isEmpty() && carrierTerritories.isEmpty()) {
-              continue;
-            }
-          }
-
-          // Populate enemy territories with air unit
-          if (moveMap.containsKey(potentialTerritory)) {
-            moveMap.get(potentialTerritory).addMaxUnit(myAirUnit);
-          } else {
-            final ProTerritory moveTerritoryData = new ProTerritory(potentialTerritory);
-            moveTerritoryData.addMaxUnit(myAirUnit);
-            moveMap.put(potentialTerritory, moveTerritoryData);
-          }
-
-          // Populate unit attack options map
-          if (unitMoveMap.containsKey(myAirUnit)) {
-            unitMoveMap.get(myAirUnit).add(potentialTerritory);
-          } else {
-            final Set<Territory> unitMoveTerritories = new HashSet<>();
-            unitMoveTerritories.add(potentialTerritory);
-            unitMoveMap.put(myAirUnit, unitMoveTerritories);
-          }
         }
+        moveOptions.add(new MoveOption(myAirUnit, myUnitTerritory, potentialTerritory));
       }
     }
+    return moveOptions;
+  }
+
+  /**
+   * Finds the move options from each of the specified territories in parallel, since the options from one territory
+   * do not depend on those from another, and returns them in the order of the territories. The callers merge the
+   * options into their maps in that order, which gives the same maps as searching the territories one by one.
+   *
+   * <p>
+   * The search only reads the game data, as it did when it ran on one thread. The game data read lock is not taken
+   * around the search: a worker thread asking for the read lock itself would then wait behind any queued writer, which
+   * would in turn wait for the read lock of the calling thread.
+   * </p>
+   */
+  private static List<MoveOption> findInParallel(final List<Territory> myUnitTerritories,
+      final Function<Territory, List<MoveOption>> findMoveOptions) {
+    final Stream<Territory> territories = myUnitTerritories.size() < MIN_PARALLEL_TERRITORIES
+        ? myUnitTerritories.stream()
+        : myUnitTerritories.parallelStream();
+    return territories
+        .map(findMoveOptions)
+        .flatMap(List::stream)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * A territory a unit can move to from the territory it is in.
+   */
+  private static final class MoveOption {
+    private final Unit unit;
+    private final Territory from;
+    private final Territory to;
+
+    MoveOption(final Unit unit, final Territory from, final Territory to) {
+      this.unit = unit;
+      this.from = from;
+      this.to = to;
+    }
   }
 
   private static void findAmphibMoveOptions(final PlayerID player, final List<Territory> myUnitTerritories,
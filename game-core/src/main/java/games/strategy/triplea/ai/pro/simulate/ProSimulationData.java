@@ -0,0 +1,179 @@
+package games.strategy.triplea.ai.pro.simulate;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import games.strategy.engine.data.Change;
+import games.strategy.engine.data.CompositeChange;
+import games.strategy.engine.data.GameData;
+import games.strategy.engine.data.GameSequence;
+import games.strategy.engine.data.events.GameDataChangeListener;
+import games.strategy.engine.delegate.IDelegate;
+import games.strategy.engine.framework.GameDataUtils;
+import games.strategy.engine.history.HistoryCheckpoint;
+import games.strategy.engine.history.HistorySegment;
+import games.strategy.triplea.ai.pro.logging.ProLogger;
+
+/**
+ * A copy of a game for the Pro AI to simulate its coming phases on, which is kept from one simulation to the next.
+ *
+ * <p>
+ * The game is copied once. Before each simulation the copy is brought up to date by performing the changes written to
+ * the history of the game since the previous simulation, and by taking over the position of the game sequence and the
+ * state of the delegates, which are not changed by {@link Change}s. The changes a simulation makes to the copy are
+ * recorded and undone once it ends. A simulation so costs in proportion to what happened in the game since the
+ * previous one and to what it simulates, not to the size of the game. The copy is made again whenever the history of
+ * the game was changed other than by writing to its end, or when a simulation or an update failed.
+ * </p>
+ *
+ * <p>
+ * The simulations are not run on the game itself, because the game is shared with the user interface and the network
+ * while the AI is thinking.
+ * </p>
+ *
+ * <p>
+ * There is one copy for each game, shared by all of its Pro AI players, as each simulation leaves the copy as it found
+ * it. Their simulations run one at a time.
+ * </p>
+ */
+@ThreadSafe
+public final class ProSimulationData {
+  @GuardedBy("simulationDataByGame")
+  private static final Map<GameData, ProSimulationData> simulationDataByGame = new IdentityHashMap<>();
+
+  private final GameData data;
+  @GuardedBy("this")
+  private @Nullable GameData dataCopy;
+  @GuardedBy("this")
+  private @Nullable HistoryCheckpoint checkpoint;
+
+  ProSimulationData(final GameData data) {
+    this.data = data;
+  }
+
+  /**
+   * Returns the copy of the specified game shared by all of its Pro AI players, creating it if it does not exist yet.
+   * The game data itself is only copied once a simulation is run.
+   */
+  public static ProSimulationData forGame(final GameData data) {
+    synchronized (simulationDataByGame) {
+      return simulationDataByGame.computeIfAbsent(data, ProSimulationData::new);
+    }
+  }
+
+  /**
+   * Releases the copy of the specified game, if there is one. A simulation still running on it completes.
+   */
+  public static void release(final GameData data) {
+    synchronized (simulationDataByGame) {
+      simulationDataByGame.remove(data);
+    }
+  }
+
+  /**
+   * Runs the specified simulation on the copy of the game, brought up to date with the game, then undoes the changes
+   * the simulation made to the copy. The simulation must make all of its changes to the game data through
+   * {@link GameData#performChange(Change)}.
+   *
+   * @throws IOException If the copy could not be made or brought up to date, in which case the simulation was not run.
+   */
+  public synchronized void simulate(final Consumer<GameData> simulation) throws IOException {
+    final GameData copy;
+    try {
+      copy = update();
+    } catch (final IOException | RuntimeException e) {
+      dataCopy = null;
+      throw e instanceof IOException ? (IOException) e : new IOException(e);
+    }
+
+    final List<Change> simulatedChanges = new ArrayList<>();
+    final GameDataChangeListener changeRecorder = simulatedChanges::add;
+    copy.addDataChangeListener(changeRecorder);
+    boolean completed = false;
+    try {
+      simulation.accept(copy);
+      completed = true;
+    } finally {
+      copy.removeDataChangeListener(changeRecorder);
+      // a change that failed halfway can not be undone, so the copy is only kept after a simulation that completed
+      dataCopy = completed ? rollBack(copy, simulatedChanges) : null;
+    }
+  }
+
+  @GuardedBy("this")
+  private GameData update() throws IOException {
+    final @Nullable GameData copy = dataCopy;
+    final Change changes;
+    final GameSequence.Position position;
+    final Map<String, Serializable> delegateStates;
+    data.acquireReadLock();
+    try {
+      final @Nullable HistorySegment segment =
+          copy != null && checkpoint != null ? data.getHistory().getSegmentSince(checkpoint) : null;
+      if (segment == null) {
+        return copy();
+      }
+      changes = GameDataUtils.translateIntoOtherGameData(segment.getChange(), copy);
+      position = data.getSequence().getPosition();
+      delegateStates = GameDataUtils.translateIntoOtherGameData(getDelegateStates(data), copy);
+      checkpoint = data.getHistory().getCheckpoint();
+    } finally {
+      data.releaseReadLock();
+    }
+
+    copy.performChange(changes);
+    copy.getSequence().setPosition(position);
+    for (final Map.Entry<String, Serializable> entry : delegateStates.entrySet()) {
+      final @Nullable IDelegate delegate = copy.getDelegateList().getDelegate(entry.getKey());
+      if (delegate != null) {
+        delegate.loadState(entry.getValue());
+      }
+    }
+    return copy;
+  }
+
+  @GuardedBy("this")
+  private GameData copy() throws IOException {
+    // copying resets the history of the game for a moment
+    data.acquireWriteLock();
+    try {
+      final @Nullable GameData copy = GameDataUtils.cloneGameDataWithoutHistory(data, true);
+      if (copy == null) {
+        throw new IOException("Failed to copy the game data");
+      }
+      checkpoint = data.getHistory().getCheckpoint();
+      return copy;
+    } finally {
+      data.releaseWriteLock();
+    }
+  }
+
+  private static LinkedHashMap<String, Serializable> getDelegateStates(final GameData data) {
+    final LinkedHashMap<String, Serializable> delegateStates = new LinkedHashMap<>();
+    for (final IDelegate delegate : data.getDelegateList()) {
+      delegateStates.put(delegate.getName(), delegate.saveState());
+    }
+    return delegateStates;
+  }
+
+  private static @Nullable GameData rollBack(final GameData copy, final List<Change> simulatedChanges) {
+    try {
+      copy.performChange(new CompositeChange(simulatedChanges).invert());
+      return copy;
+    } catch (final RuntimeException e) {
+      ProLogger.log(Level.WARNING, "Error undoing simulated changes, the game data will be copied again", e);
+      return null;
+    }
+  }
+}
@@ -0,0 +1,193 @@
+package games.strategy.triplea.ai.pro.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+import games.strategy.engine.data.PlayerID;
+import games.strategy.engine.data.Territory;
+import games.strategy.engine.data.TerritoryEffect;
+import games.strategy.engine.data.Unit;
+import games.strategy.triplea.TripleAUnit;
+import games.strategy.triplea.ai.pro.data.ProBattleResult;
+import games.strategy.triplea.delegate.Matches;
+import games.strategy.triplea.delegate.TerritoryEffectHelper;
+
+/**
+ * Bounded cache of battle calculator results, so the AI does not re-simulate the same battle each time it evaluates
+ * the same unit mix during a turn.
+ *
+ * <p>
+ * Battles are keyed by a signature of everything the odds depend on rather than by the units themselves, which differ
+ * between the many unit combinations the AI tries. The signature holds the attacking and defending players, and the
+ * owner, type and state of every unit. The least recently used results are evicted first. Remaining units of a cached
+ * result are mapped back onto the units of the battle being asked about, so callers never see units from another
+ * query.
+ * </p>
+ */
+class ProBattleResultCache {
+  private static final int DEFAULT_MAX_SIZE = 2000;
+
+  private final Map<String, ProBattleResult> results;
+  private long hits = 0;
+  private long misses = 0;
+  private long evictions = 0;
+
+  ProBattleResultCache() {
+    this(DEFAULT_MAX_SIZE);
+  }
+
+  ProBattleResultCache(final int maxSize) {
+    results = new LinkedHashMap<String, ProBattleResult>(16, 0.75f, true) {
+      private static final long serialVersionUID = 5049424961627934447L;
+
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<String, ProBattleResult> eldest) {
+        if (size() > maxSize) {
+          evictions++;
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Returns the cached result of the specified battle, if any.
+   */
+  synchronized Optional<ProBattleResult> get(final PlayerID attacker, final PlayerID defender, final Territory t,
+      final List<Unit> attackingUnits, final List<Unit> defendingUnits, final Collection<Unit> bombardingUnits,
+      final boolean retreatWhenOnlyAirLeft) {
+    final ProBattleResult result = results.get(newSignature(attacker, defender, t, attackingUnits, defendingUnits,
+        bombardingUnits, retreatWhenOnlyAirLeft));
+    if (result == null) {
+      misses++;
+      return Optional.empty();
+    }
+    hits++;
+    return Optional.of(new ProBattleResult(result.getWinPercentage(), result.getTuvSwing(),
+        result.isHasLandUnitRemaining(), getMatchingUnits(result.getAverageAttackersRemaining(), attackingUnits),
+        getMatchingUnits(result.getAverageDefendersRemaining(), defendingUnits), result.getBattleRounds()));
+  }
+
+  synchronized void put(final PlayerID attacker, final PlayerID defender, final Territory t,
+      final List<Unit> attackingUnits, final List<Unit> defendingUnits, final Collection<Unit> bombardingUnits,
+      final boolean retreatWhenOnlyAirLeft, final ProBattleResult result) {
+    results.put(newSignature(attacker, defender, t, attackingUnits, defendingUnits, bombardingUnits,
+        retreatWhenOnlyAirLeft), result);
+  }
+
+  synchronized void clear() {
+    results.clear();
+  }
+
+  synchronized int size() {
+    return results.size();
+  }
+
+  synchronized long getHits() {
+    return hits;
+  }
+
+  synchronized long getMisses() {
+    return misses;
+  }
+
+  synchronized long getEvictions() {
+    return evictions;
+  }
+
+  synchronized double getHitRate() {
+    final long lookups = hits + misses;
+    return lookups == 0 ? 0.0 : hits / (double) lookups;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "size=" + results.size() + ", hits=" + hits + ", misses=" + misses + ", evictions=" + evictions
+        + ", hitRate=" + String.format("%.2f", getHitRate());
+  }
+
+  /**
+   * Returns a key that is equal for any two battles the battle calculator can not tell apart.
+   */
+  static String newSignature(final PlayerID attacker, final PlayerID defender, final Territory t,
+      final Collection<Unit> attackingUnits, final Collection<Unit> defendingUnits,
+      final Collection<Unit> bombardingUnits, final boolean retreatWhenOnlyAirLeft) {
+    final StringBuilder signature = new StringBuilder();
+    signature.append(attacker.getName()).append(" vs ").append(defender.getName()).append('|');
+    signature.append(t.isWater() ? "water" : "land");
+    if (Matches.territoryIsNeutralButNotWater().test(t)) {
+      signature.append(",neutral");
+    }
+    if (retreatWhenOnlyAirLeft) {
+      signature.append(",retreatWhenOnlyAirLeft");
+    }
+    final List<String> effectNames = new ArrayList<>();
+    for (final TerritoryEffect effect : TerritoryEffectHelper.getEffects(t)) {
+      effectNames.add(effect.getName());
+    }
+    effectNames.sort(null);
+    signature.append('|').append(effectNames);
+    appendUnits(signature.append("|A"), attackingUnits);
+    appendUnits(signature.append("|D"), defendingUnits);
+    appendUnits(signature.append("|B"), bombardingUnits);
+    return signature.toString();
+  }
+
+  private static void appendUnits(final StringBuilder signature, final Collection<Unit> units) {
+    final Map<String, Integer> counts = new TreeMap<>();
+    for (final Unit unit : units) {
+      counts.merge(getKindAndState(unit) + ":hits=" + unit.getHits(), 1, Integer::sum);
+    }
+    signature.append(counts);
+  }
+
+  /**
+   * Returns the owner, type and everything about the state of the specified unit the battle calculator depends on,
+   * except for its hits.
+   */
+  private static String getKindAndState(final Unit unit) {
+    final TripleAUnit taUnit = TripleAUnit.get(unit);
+    return unit.getOwner().getName() + ':' + unit.getType().getName() + ":moved=" + taUnit.getAlreadyMoved()
+        + (Matches.unitIsBeingTransported().test(unit) ? ":transported" : "")
+        + (taUnit.getDisabled() ? ":disabled" : "")
+        + (taUnit.getSubmerged() ? ":submerged" : "")
+        + (taUnit.getWasAmphibious() ? ":amphibious" : "");
+  }
+
+  private static List<Unit> getMatchingUnits(final List<Unit> cachedUnits, final Collection<Unit> units) {
+    final List<Unit> available = new ArrayList<>(units);
+    final List<Unit> matchingUnits = new ArrayList<>(cachedUnits.size());
+    for (final Unit cachedUnit : cachedUnits) {
+      // hits are not compared since remaining units may have been damaged during the battle, and
+      // names are compared since the cached result may have been calculated on a copy of the game data
+      final String kindAndState = getKindAndState(cachedUnit);
+      Optional<Unit> match = removeFirstMatch(available, unit -> getKindAndState(unit).equals(kindAndState));
+      if (!match.isPresent()) {
+        // the battle itself changes the state of some units, e.g. submerging subs
+        match = removeFirstMatch(available, unit -> unit.getType().getName().equals(cachedUnit.getType().getName())
+            && unit.getOwner().getName().equals(cachedUnit.getOwner().getName()));
+      }
+      match.ifPresent(matchingUnits::add);
+    }
+    return matchingUnits;
+  }
+
+  private static Optional<Unit> removeFirstMatch(final List<Unit> units, final Predicate<Unit> match) {
+    for (final Iterator<Unit> it = units.iterator(); it.hasNext();) {
+      final Unit unit = it.next();
+      if (match.test(unit)) {
+        it.remove();
+        return Optional.of(unit);
+      }
+    }
+    return Optional.empty();
+  }
+}
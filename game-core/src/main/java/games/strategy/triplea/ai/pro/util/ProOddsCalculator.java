@@ -2,7 +2,11 @@ package games.strategy.triplea.ai.pro.util;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
 
 import games.strategy.engine.data.GameData;
 import games.strategy.engine.data.PlayerID;
@@ -11,6 +15,7 @@ import games.strategy.engine.data.Unit;
 import games.strategy.triplea.Properties;
 import games.strategy.triplea.ai.pro.ProData;
 import games.strategy.triplea.ai.pro.data.ProBattleResult;
+import games.strategy.triplea.ai.pro.logging.ProLogger;
 import games.strategy.triplea.delegate.Matches;
 import games.strategy.triplea.delegate.TerritoryEffectHelper;
 import games.strategy.triplea.odds.calculator.AggregateResults;
@@ -22,20 +27,53 @@ import games.strategy.util.CollectionUtils;
  * Pro AI odds calculator.
  */
 public class ProOddsCalculator {
-
-  private final IOddsCalculator calc;
+  // lopsided battles can stop after a few dozen runs instead of making all of them
+  private static final double TARGET_MARGIN_OF_ERROR = 0.05;
+
+  private final Supplier<IOddsCalculator> calcSupplier;
+  private @Nullable IOddsCalculator calc;
+  private final ProBattleResultCache cache = new ProBattleResultCache();
+  // the turn the cached results were calculated in, since unit strengths can change between turns (eg. technology)
+  private String cacheTurn = null;
   private boolean isCanceled = false;
 
   public ProOddsCalculator(final IOddsCalculator calc) {
-    this.calc = calc;
+    this(() -> calc);
+    getCalc();
+  }
+
+  /**
+   * Creates a Pro AI odds calculator that gets the odds calculator it uses from the specified supplier the first time
+   * data is set, for odds calculators that can not be chosen before the game is known.
+   */
+  public ProOddsCalculator(final Supplier<IOddsCalculator> calcSupplier) {
+    this.calcSupplier = calcSupplier;
+  }
+
+  private IOddsCalculator getCalc() {
+    if (calc == null) {
+      calc = calcSupplier.get();
+      calc.setTargetMarginOfError(TARGET_MARGIN_OF_ERROR);
+    }
+    return calc;
   }
 
   public void setData(final GameData data) {
-    calc.setGameData(data);
+    getCalc().setGameData(data);
+    final String turn = (data == null || data.getSequence().getStep() == null)
+        ? null
+        : data.getSequence().getRound() + ":" + data.getSequence().getStep().getPlayerId();
+    if (turn == null || !turn.equals(cacheTurn)) {
+      ProLogger.debug("Clearing battle result cache: " + cache);
+      cache.clear();
+      cacheTurn = turn;
+    }
   }
 
   public void cancelCalcs() {
-    calc.cancel();
+    if (calc != null) {
+      calc.cancel();
+    }
     isCanceled = true;
   }
 
@@ -117,18 +155,25 @@ public class ProOddsCalculator {
       return new ProBattleResult();
     }
 
-    final int minArmySize = Math.min(attackingUnits.size(), defendingUnits.size());
-    final int runCount = Math.max(16, 100 - minArmySize);
     final PlayerID attacker = attackingUnits.get(0).getOwner();
     final PlayerID defender = defendingUnits.get(0).getOwner();
+    final Optional<ProBattleResult> cachedResult =
+        cache.get(attacker, defender, t, attackingUnits, defendingUnits, bombardingUnits, retreatWhenOnlyAirLeft);
+    if (cachedResult.isPresent()) {
+      return cachedResult.get();
+    }
+
+    final int minArmySize = Math.min(attackingUnits.size(), defendingUnits.size());
+    final int runCount = Math.max(16, 100 - minArmySize);
+    final IOddsCalculator calculator = getCalc();
     if (retreatWhenOnlyAirLeft) {
-      calc.setRetreatWhenOnlyAirLeft(true);
+      calculator.setRetreatWhenOnlyAirLeft(true);
     }
-    final AggregateResults results = calc.setCalculateDataAndCalculate(attacker, defender,
+    final AggregateResults results = calculator.setCalculateDataAndCalculate(attacker, defender,
         t, attackingUnits, defendingUnits, new ArrayList<>(bombardingUnits),
         TerritoryEffectHelper.getEffects(t), runCount);
     if (retreatWhenOnlyAirLeft) {
-      calc.setRetreatWhenOnlyAirLeft(false);
+      calculator.setRetreatWhenOnlyAirLeft(false);
     }
 
     // Find battle result statistics
@@ -156,12 +201,19 @@ public class ProOddsCalculator {
     // Create battle result object
     final List<Territory> territoryList = new ArrayList<>();
     territoryList.add(t);
-    return (!territoryList.isEmpty() && territoryList.stream().allMatch(Matches.territoryIsLand()))
-        ? new ProBattleResult(winPercentage, tuvSwing,
-            averageAttackersRemaining.stream().anyMatch(Matches.unitIsLand()), averageAttackersRemaining,
-            averageDefendersRemaining, results.getAverageBattleRoundsFought())
-        : new ProBattleResult(winPercentage, tuvSwing, !averageAttackersRemaining.isEmpty(),
-            averageAttackersRemaining, averageDefendersRemaining, results.getAverageBattleRoundsFought());
+    final ProBattleResult result =
+        (!territoryList.isEmpty() && territoryList.stream().allMatch(Matches.territoryIsLand()))
+            ? new ProBattleResult(winPercentage, tuvSwing,
+                averageAttackersRemaining.stream().anyMatch(Matches.unitIsLand()), averageAttackersRemaining,
+                averageDefendersRemaining, results.getAverageBattleRoundsFought())
+            : new ProBattleResult(winPercentage, tuvSwing, !averageAttackersRemaining.isEmpty(),
+                averageAttackersRemaining, averageDefendersRemaining, results.getAverageBattleRoundsFought());
+    // a cancelled calculation only made some of its runs, so its odds should not be reused
+    if (!isCanceled) {
+      cache.put(attacker, defender, t, attackingUnits, defendingUnits, bombardingUnits, retreatWhenOnlyAirLeft,
+          result);
+    }
+    return result;
   }
 
 }
@@ -0,0 +1,447 @@
+package games.strategy.triplea.delegate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+
+import games.strategy.engine.data.GameData;
+import games.strategy.engine.data.PlayerID;
+import games.strategy.engine.data.Territory;
+import games.strategy.engine.data.TerritoryEffect;
+import games.strategy.engine.data.Unit;
+import games.strategy.engine.data.UnitType;
+import games.strategy.triplea.Properties;
+import games.strategy.triplea.attachments.UnitAttachment;
+import games.strategy.triplea.attachments.UnitSupportAttachment;
+import games.strategy.triplea.delegate.IBattle.WhoWon;
+import games.strategy.triplea.oddsCalculator.ta.BattleResults;
+import games.strategy.triplea.util.TuvUtils;
+import games.strategy.util.IntegerMap;
+
+/**
+ * A lightweight alternative to running a full {@link MustFightBattle} for each odds calculator run.
+ *
+ * <p>
+ * The attacking and defending units are compiled once into primitive arrays holding their combat values, hit points
+ * and support. Each simulated battle then only rolls dice against those arrays, so no changes, dice rolls or history
+ * nodes are created while rounds are fought.
+ * </p>
+ *
+ * <p>
+ * Like {@code MustFightBattle}, the units still alive are sorted for casualties again every round units were killed,
+ * as the order depends on the support the remaining units give each other. Each order is kept for the units it was
+ * sorted for, so it is only worked out once however many battles are simulated.
+ * </p>
+ *
+ * <p>
+ * Only plain battles can be compiled: no AA, submarines, transports, suicide units, bombardment, amphibious assaults,
+ * low luck, support that modifies rolls or is given by enemies, or more than one support rule of the same bonus type.
+ * Callers should fall back to {@code MustFightBattle} for everything else.
+ * </p>
+ *
+ * <p>
+ * Instances are not thread safe.
+ * </p>
+ */
+public final class BattleSimulator {
+  private final GameData data;
+  private final int diceSides;
+  private final int maxRounds;
+  private final Side attackers;
+  private final Side defenders;
+
+  private BattleSimulator(final GameData data, final int maxRounds, final Side attackers, final Side defenders) {
+    this.data = data;
+    diceSides = data.getDiceSides();
+    this.maxRounds = maxRounds;
+    this.attackers = attackers;
+    this.defenders = defenders;
+  }
+
+  /**
+   * Compiles the specified battle, or returns empty if the battle uses rules this simulator does not model.
+   */
+  public static Optional<BattleSimulator> compile(final GameData data, final PlayerID attacker, final PlayerID defender,
+      final Territory location, final Collection<Unit> attacking, final Collection<Unit> defending,
+      final Collection<TerritoryEffect> territoryEffects) {
+    if (Properties.getLowLuck(data)) {
+      return Optional.empty();
+    }
+    final boolean isWater = location.isWater();
+    final Optional<List<Unit>> attackingCombatants = getCombatants(attacking, defending, true, isWater, data);
+    final Optional<List<Unit>> defendingCombatants = getCombatants(defending, attacking, false, isWater, data);
+    if (!attackingCombatants.isPresent() || !defendingCombatants.isPresent()
+        || attackingCombatants.get().isEmpty() || defendingCombatants.get().isEmpty()) {
+      return Optional.empty();
+    }
+    final List<Unit> allCombatants = new ArrayList<>(attackingCombatants.get());
+    allCombatants.addAll(defendingCombatants.get());
+    if (allCombatants.stream().anyMatch(Matches.unitHasMoreThanOneHitPointTotal())
+        && (Properties.getBattleshipsRepairAtEndOfRound(data)
+            || Properties.getBattleshipsRepairAtBeginningOfRound(data))) {
+      return Optional.empty();
+    }
+    if (defendingCombatants.get().stream().anyMatch(u -> DiceRoll.isFirstTurnLimitedRoll(u.getOwner(), data))) {
+      return Optional.empty();
+    }
+    if (!canCompileSupport(attackingCombatants.get(), defendingCombatants.get(), data)) {
+      return Optional.empty();
+    }
+    final int maxRounds = isWater ? Properties.getSeaBattleRounds(data) : Properties.getLandBattleRounds(data);
+    final Side attackingSide = new Side(attackingCombatants.get(), defendingCombatants.get(), false, attacker,
+        location, territoryEffects, data);
+    final Side defendingSide = new Side(defendingCombatants.get(), attackingCombatants.get(), true, defender,
+        location, territoryEffects, data);
+    return Optional.of(new BattleSimulator(data, maxRounds, attackingSide, defendingSide));
+  }
+
+  /**
+   * Returns the units that will actually fight, mirroring the non-combatant removal done by {@code MustFightBattle},
+   * or empty if any of the units needs rules this simulator does not model.
+   */
+  private static Optional<List<Unit>> getCombatants(final Collection<Unit> units, final Collection<Unit> enemyUnits,
+      final boolean attacking, final boolean isWater, final GameData data) {
+    final boolean enemyHasAir = enemyUnits.stream().anyMatch(Matches.unitIsAir());
+    final List<Unit> combatants = new ArrayList<>(units.size());
+    for (final Unit unit : units) {
+      final UnitAttachment ua = UnitAttachment.get(unit.getType());
+      if (isWater && Matches.unitIsLand().test(unit)) {
+        continue;
+      }
+      if (Matches.unitIsAaForAnything().test(unit) && (enemyHasAir || !ua.getIsInfrastructure())) {
+        return Optional.empty();
+      }
+      if (!Matches.unitCanBeInBattle(attacking, !isWater, 2, true, false, true).test(unit)
+          || Matches.unitIsDisabled().test(unit)) {
+        continue;
+      }
+      if (ua.getIsInfrastructure() || ua.getIsSub() || ua.getIsSuicide() || ua.getIsSuicideOnHit()
+          || ua.getIsKamikaze() || ua.getHitPoints() < 1
+          || Matches.unitIsTransport().test(unit) || Matches.unitIsAirTransport().test(unit)
+          || (isWater && !attacking && ua.getIsAir())) {
+        return Optional.empty();
+      }
+      combatants.add(unit);
+    }
+    return Optional.of(combatants);
+  }
+
+  private static boolean canCompileSupport(final List<Unit> attacking, final List<Unit> defending,
+      final GameData data) {
+    for (final UnitSupportAttachment rule : UnitSupportAttachment.get(data)) {
+      if (rule.getEnemy() && (hasSupporter(rule, attacking) || hasSupporter(rule, defending))) {
+        return false;
+      }
+    }
+    return getSupportRules(attacking, false, data).isPresent() && getSupportRules(defending, true, data).isPresent();
+  }
+
+  private static boolean hasSupporter(final UnitSupportAttachment rule, final Collection<Unit> units) {
+    return !rule.getPlayers().isEmpty() && units.stream().anyMatch(u -> isSupporter(rule, u));
+  }
+
+  private static boolean isSupporter(final UnitSupportAttachment rule, final Unit unit) {
+    return unit.getType().equals(rule.getAttachedTo()) && rule.getPlayers().contains(unit.getOwner());
+  }
+
+  /**
+   * Returns the allied support rules given by the specified units, or empty if any of them is one this simulator does
+   * not model.
+   */
+  private static Optional<List<UnitSupportAttachment>> getSupportRules(final Collection<Unit> units,
+      final boolean defending, final GameData data) {
+    final List<UnitSupportAttachment> rules = new ArrayList<>();
+    final Set<String> bonusTypes = new HashSet<>();
+    for (final UnitSupportAttachment rule : UnitSupportAttachment.get(data)) {
+      if (!rule.getAllied() || !(defending ? rule.getDefence() : rule.getOffence()) || !hasSupporter(rule, units)) {
+        continue;
+      }
+      if (rule.getRoll() || !rule.getStrength() || !bonusTypes.add(rule.getBonusType())) {
+        return Optional.empty();
+      }
+      rules.add(rule);
+    }
+    return Optional.of(rules);
+  }
+
+  /**
+   * Fights one battle to completion and returns its result.
+   */
+  public BattleResults simulate(final Random random) {
+    attackers.reset();
+    defenders.reset();
+    int round = 1;
+    while (true) {
+      // casualties of both sides still get to fire this round, so roll for both before removing any units
+      final int attackerHits = attackers.rollHits(random, diceSides);
+      final int defenderHits = defenders.rollHits(random, diceSides);
+      defenders.takeHits(attackerHits);
+      attackers.takeHits(defenderHits);
+      if (attackers.isDestroyed()) {
+        return newBattleResults(round, WhoWon.DEFENDER);
+      } else if (defenders.isDestroyed()) {
+        return newBattleResults(round, WhoWon.ATTACKER);
+      } else if ((maxRounds > 0 && maxRounds <= round)
+          || (!attackers.hasCombatValue() && !defenders.hasCombatValue())
+          || (!attackers.canHit(diceSides) && !defenders.canHit(diceSides))) {
+        return newBattleResults(round, WhoWon.DRAW);
+      }
+      round++;
+    }
+  }
+
+  private BattleResults newBattleResults(final int round, final WhoWon whoWon) {
+    return new BattleResults(round, attackers.getRemainingUnits(), defenders.getRemainingUnits(), whoWon, data);
+  }
+
+  /**
+   * The compiled units of one side of the battle, indexed in the order they are first taken as casualties.
+   */
+  private static final class Side {
+    private final Unit[] units;
+    private final int[] strength;
+    private final int[] rolls;
+    private final boolean[] chooseBestRoll;
+    private final boolean[] hasCombatValue;
+    private final int[] hitPoints;
+    private final int[] initialHits;
+    // unit indexes from weakest to strongest, which is the order support is handed out in
+    private final int[] supportOrder;
+    private final int[] supportBonus;
+    // [rule][unit]
+    private final int[][] supportGiven;
+    private final boolean[][] supportReceived;
+
+    // what the casualties are sorted with
+    private final boolean defending;
+    private final PlayerID player;
+    private final List<Unit> enemyCombatants;
+    private final Territory location;
+    private final IntegerMap<UnitType> costs;
+    private final Collection<TerritoryEffect> territoryEffects;
+    private final GameData data;
+    private final Map<Unit, Integer> indexes = new HashMap<>();
+    private final int[] initialCasualtyOrder;
+    // the casualty order of each set of units left alive so far, the orders are never changed once sorted
+    private final Map<BitSet, int[]> casualtyOrders = new HashMap<>();
+
+    private final int[] hits;
+    private final int[] supportLeft;
+    private final BitSet alive;
+    // the indexes of the units in the order they are taken as casualties, the units still alive are those at or after
+    // firstAlive
+    private int[] casualtyOrder;
+    private int firstAlive;
+
+    Side(final List<Unit> combatants, final List<Unit> enemyCombatants, final boolean defending,
+        final PlayerID player, final Territory location, final Collection<TerritoryEffect> territoryEffects,
+        final GameData data) {
+      this.defending = defending;
+      this.player = player;
+      this.enemyCombatants = enemyCombatants;
+      this.location = location;
+      costs = TuvUtils.getCostsForTuv(player, data);
+      this.territoryEffects = territoryEffects;
+      this.data = data;
+      final List<Unit> sorted = sortForCasualties(combatants);
+      final boolean lhtrBombers = Properties.getLhtrHeavyBombers(data);
+      final int count = sorted.size();
+      units = sorted.toArray(new Unit[count]);
+      strength = new int[count];
+      rolls = new int[count];
+      chooseBestRoll = new boolean[count];
+      hasCombatValue = new boolean[count];
+      hitPoints = new int[count];
+      initialHits = new int[count];
+      initialCasualtyOrder = new int[count];
+      for (int i = 0; i < count; i++) {
+        final Unit unit = units[i];
+        final UnitAttachment ua = UnitAttachment.get(unit.getType());
+        final int baseStrength = defending ? ua.getDefense(unit.getOwner()) : ua.getAttack(unit.getOwner());
+        strength[i] = baseStrength
+            + TerritoryEffectHelper.getTerritoryCombatBonus(unit.getType(), territoryEffects, defending);
+        rolls[i] = defending ? ua.getDefenseRolls(unit.getOwner()) : ua.getAttackRolls(unit.getOwner());
+        chooseBestRoll[i] = rolls[i] > 1 && (lhtrBombers || ua.getChooseBestRoll());
+        hasCombatValue[i] = baseStrength >= 1;
+        hitPoints[i] = ua.getHitPoints();
+        initialHits[i] = unit.getHits();
+        indexes.put(unit, i);
+        initialCasualtyOrder[i] = i;
+      }
+      supportOrder = getSupportOrder(defending);
+
+      final List<UnitSupportAttachment> rules = getSupportRules(combatants, defending, data)
+          .orElseThrow(() -> new IllegalStateException("Battle support can not be compiled"));
+      supportBonus = new int[rules.size()];
+      supportGiven = new int[rules.size()][count];
+      supportReceived = new boolean[rules.size()][count];
+      for (int r = 0; r < rules.size(); r++) {
+        final UnitSupportAttachment rule = rules.get(r);
+        supportBonus[r] = rule.getBonus();
+        for (int i = 0; i < count; i++) {
+          if (isSupporter(rule, units[i])) {
+            final boolean improvedArtillery =
+                rule.getImpArtTech() && TechTracker.hasImprovedArtillerySupport(units[i].getOwner());
+            supportGiven[r][i] = rule.getNumber() * (improvedArtillery ? 2 : 1);
+          }
+          supportReceived[r][i] = rule.getUnitType() != null && rule.getUnitType().contains(units[i].getType());
+        }
+      }
+
+      hits = new int[count];
+      supportLeft = new int[rules.size()];
+      alive = new BitSet(count);
+      casualtyOrder = initialCasualtyOrder;
+    }
+
+    private List<Unit> sortForCasualties(final List<Unit> units) {
+      return BattleCalculator.sortUnitsForCasualtiesWithSupport(units, defending, player, enemyCombatants, false,
+          Collections.emptyList(), location, costs, territoryEffects, data, true);
+    }
+
+    private int[] getSupportOrder(final boolean defending) {
+      final List<Integer> order = new ArrayList<>(units.length);
+      for (int i = 0; i < units.length; i++) {
+        order.add(i);
+      }
+      order.sort((i1, i2) -> {
+        final UnitAttachment ua1 = UnitAttachment.get(units[i1].getType());
+        final UnitAttachment ua2 = UnitAttachment.get(units[i2].getType());
+        return defending
+            ? Integer.compare(ua1.getDefense(units[i1].getOwner()), ua2.getDefense(units[i2].getOwner()))
+            : Integer.compare(ua1.getAttack(units[i1].getOwner()), ua2.getAttack(units[i2].getOwner()));
+      });
+      return order.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    void reset() {
+      casualtyOrder = initialCasualtyOrder;
+      firstAlive = 0;
+      alive.set(0, units.length);
+      System.arraycopy(initialHits, 0, hits, 0, hits.length);
+    }
+
+    int rollHits(final Random random, final int diceSides) {
+      Arrays.fill(supportLeft, 0);
+      for (int r = 0; r < supportLeft.length; r++) {
+        for (int i = alive.nextSetBit(0); i >= 0; i = alive.nextSetBit(i + 1)) {
+          supportLeft[r] += supportGiven[r][i];
+        }
+      }
+      int hitCount = 0;
+      for (final int i : supportOrder) {
+        if (!alive.get(i)) {
+          continue;
+        }
+        int power = strength[i];
+        for (int r = 0; r < supportLeft.length; r++) {
+          if (supportReceived[r][i] && supportLeft[r] > 0) {
+            power += supportBonus[r];
+            supportLeft[r]--;
+          }
+        }
+        power = Math.min(Math.max(power, 0), diceSides);
+        if (power == 0) {
+          continue;
+        }
+        if (chooseBestRoll[i]) {
+          int bestDie = diceSides;
+          for (int roll = 0; roll < rolls[i]; roll++) {
+            bestDie = Math.min(bestDie, random.nextInt(diceSides));
+          }
+          if (bestDie < power) {
+            hitCount++;
+          }
+        } else {
+          for (int roll = 0; roll < rolls[i]; roll++) {
+            if (random.nextInt(diceSides) < power) {
+              hitCount++;
+            }
+          }
+        }
+      }
+      return hitCount;
+    }
+
+    void takeHits(final int hitCount) {
+      int hitsLeft = hitCount;
+      // units with more than one hit point left are damaged before anything is killed
+      for (int i = firstAlive; i < casualtyOrder.length && hitsLeft > 0; i++) {
+        final int unit = casualtyOrder[i];
+        final int damage = Math.min(hitsLeft, hitPoints[unit] - 1 - hits[unit]);
+        if (damage > 0) {
+          hits[unit] += damage;
+          hitsLeft -= damage;
+        }
+      }
+      final int killed = Math.min(hitsLeft, casualtyOrder.length - firstAlive);
+      for (int i = firstAlive; i < firstAlive + killed; i++) {
+        alive.clear(casualtyOrder[i]);
+      }
+      firstAlive += killed;
+      if (killed > 0 && !isDestroyed()) {
+        sortRemainingForCasualties();
+      }
+    }
+
+    private void sortRemainingForCasualties() {
+      final int[] sorted = casualtyOrders.get(alive);
+      if (sorted != null) {
+        casualtyOrder = sorted;
+      } else {
+        final List<Unit> remaining = new ArrayList<>(alive.cardinality());
+        for (int i = alive.nextSetBit(0); i >= 0; i = alive.nextSetBit(i + 1)) {
+          remaining.add(units[i]);
+        }
+        casualtyOrder = sortForCasualties(remaining).stream().mapToInt(indexes::get).toArray();
+        casualtyOrders.put((BitSet) alive.clone(), casualtyOrder);
+      }
+      firstAlive = 0;
+    }
+
+    boolean isDestroyed() {
+      return firstAlive >= casualtyOrder.length;
+    }
+
+    boolean hasCombatValue() {
+      for (int i = alive.nextSetBit(0); i >= 0; i = alive.nextSetBit(i + 1)) {
+        if (hasCombatValue[i]) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    boolean canHit(final int diceSides) {
+      for (int i = alive.nextSetBit(0); i >= 0; i = alive.nextSetBit(i + 1)) {
+        int maxPower = strength[i];
+        for (int r = 0; r < supportBonus.length; r++) {
+          if (supportReceived[r][i]) {
+            maxPower += Math.max(0, supportBonus[r]);
+          }
+        }
+        if (rolls[i] > 0 && Math.min(maxPower, diceSides) > 0) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    List<Unit> getRemainingUnits() {
+      final List<Unit> remaining = new ArrayList<>(casualtyOrder.length - firstAlive);
+      for (int i = firstAlive; i < casualtyOrder.length; i++) {
+        remaining.add(units[casualtyOrder[i]]);
+      }
+      return remaining;
+    }
+  }
+}
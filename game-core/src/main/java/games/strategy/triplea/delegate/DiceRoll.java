@@ -1004,7 +1004,7 @@ public class DiceRoll implements Externalizable {
     return diceRoll;
   }
 
-  private static boolean isFirstTurnLimitedRoll(final PlayerID player, final GameData data) {
+  static boolean isFirstTurnLimitedRoll(final PlayerID player, final GameData data) {
     // If player is null, Round > 1, or player has negate rule set: return false
     return !player.isNull()
         && data.getSequence().getRound() == 1
@@ -1536,8 +1536,9 @@ public class MoveValidator {
       } else {
         testMatch = t.and(noImpassableOrRestricted);
       }
-      final Route testRoute = data.getMap().getRouteIgnoreEndValidatingCanals(start, end, testMatch, units, player);
-      if ((testRoute != null) && (testRoute.numberOfSteps() <= defaultRoute.numberOfSteps())) {
+      final Route testRoute = data.getMap().getRouteIgnoreEndValidatingCanals(start, end, testMatch, units, player,
+          defaultRoute.numberOfSteps());
+      if (testRoute != null) {
         return testRoute;
       }
     }
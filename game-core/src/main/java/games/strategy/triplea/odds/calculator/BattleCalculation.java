@@ -0,0 +1,194 @@
+package games.strategy.triplea.odds.calculator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.CountDownLatch;
+
+import javax.annotation.Nullable;
+
+import games.strategy.engine.data.PlayerID;
+import games.strategy.engine.data.Territory;
+import games.strategy.engine.data.TerritoryEffect;
+import games.strategy.engine.data.Unit;
+import games.strategy.util.Interruptibles;
+
+/**
+ * One odds calculation submitted to a {@link ConcurrentOddsCalculator}. Its runs are handed out to the workers in
+ * small chunks, so a slow worker only delays the chunk it is working on, and workers that finish early simply pull
+ * more chunks.
+ */
+final class BattleCalculation {
+  private static final int MAX_CHUNK_SIZE = 32;
+  // aim for several chunks per worker, so the last chunks are spread out well
+  private static final int CHUNKS_PER_WORKER = 4;
+
+  private final Setup setup;
+  private final RunningOdds runningOdds;
+  private final int chunkSize;
+  private final long start = System.currentTimeMillis();
+  private final AggregateResults results;
+  private final CountDownLatch done = new CountDownLatch(1);
+  private int runsLeft;
+  private int chunksInProgress = 0;
+  // read without the lock by the workers making runs of this calculation
+  private volatile boolean isStopped = false;
+  private @Nullable RuntimeException failure = null;
+
+  BattleCalculation(final Setup setup, final RunningOdds runningOdds, final int workerCount) {
+    this.setup = setup;
+    this.runningOdds = runningOdds;
+    runsLeft = Math.max(0, setup.runCount);
+    chunkSize = Math.max(1, Math.min(MAX_CHUNK_SIZE, runsLeft / Math.max(1, workerCount * CHUNKS_PER_WORKER)));
+    results = new AggregateResults(runsLeft);
+    if (runsLeft == 0) {
+      done.countDown();
+    }
+  }
+
+  Setup getSetup() {
+    return setup;
+  }
+
+  RunningOdds getRunningOdds() {
+    return runningOdds;
+  }
+
+  /**
+   * Claims the next chunk of runs for a worker, who must call {@link #finishChunk(AggregateResults)} when it is done
+   * with them.
+   *
+   * @return The number of runs claimed, or 0 if there are none left to make.
+   */
+  synchronized int claimChunk() {
+    if (isStopped || runsLeft <= 0 || runningOdds.isPreciseEnough()) {
+      return 0;
+    }
+    final int runs = Math.min(chunkSize, runsLeft);
+    runsLeft -= runs;
+    chunksInProgress++;
+    return runs;
+  }
+
+  synchronized void finishChunk(final @Nullable AggregateResults chunkResults) {
+    if (chunkResults != null) {
+      results.addResults(chunkResults.getResults());
+    }
+    chunksInProgress--;
+    if (chunksInProgress == 0 && (isStopped || runsLeft <= 0 || runningOdds.isPreciseEnough())) {
+      done.countDown();
+    }
+  }
+
+  synchronized void fail(final RuntimeException e) {
+    if (failure == null) {
+      failure = e;
+    }
+    stop();
+  }
+
+  /**
+   * Stops handing out runs; chunks already in progress are still collected.
+   */
+  synchronized void stop() {
+    isStopped = true;
+    if (chunksInProgress == 0) {
+      done.countDown();
+    }
+  }
+
+  /**
+   * Returns whether this calculation was stopped, so the chunks in progress can stop making runs.
+   */
+  boolean isStopped() {
+    return isStopped;
+  }
+
+  synchronized boolean hasRunsLeft() {
+    return !isStopped && runsLeft > 0 && !runningOdds.isPreciseEnough();
+  }
+
+  /**
+   * Waits until all runs are made or the calculation is stopped, and returns the results.
+   *
+   * @throws IllegalStateException If a worker failed while making its runs.
+   */
+  AggregateResults await() {
+    if (!Interruptibles.await(done)) {
+      stop();
+    }
+    synchronized (this) {
+      if (failure != null) {
+        throw new IllegalStateException(failure);
+      }
+      results.setTime(System.currentTimeMillis() - start);
+      return results;
+    }
+  }
+
+  /**
+   * The battle and options of a calculation, captured when the calculation is set so later changes to the options do
+   * not affect it.
+   */
+  static final class Setup {
+    private final PlayerID attacker;
+    private final PlayerID defender;
+    private final Territory location;
+    private final Collection<Unit> attacking;
+    private final Collection<Unit> defending;
+    private final Collection<Unit> bombarding;
+    private final Collection<TerritoryEffect> territoryEffects;
+    private final int runCount;
+    private final boolean keepOneAttackingLandUnit;
+    private final boolean amphibious;
+    private final int retreatAfterRound;
+    private final int retreatAfterXUnitsLeft;
+    private final boolean retreatWhenOnlyAirLeft;
+    private final String attackerOrderOfLosses;
+    private final String defenderOrderOfLosses;
+    private final boolean useBattleSimulator;
+
+    Setup(final PlayerID attacker, final PlayerID defender, final Territory location,
+        final Collection<Unit> attacking, final Collection<Unit> defending, final Collection<Unit> bombarding,
+        final Collection<TerritoryEffect> territoryEffects, final int runCount,
+        final boolean keepOneAttackingLandUnit, final boolean amphibious, final int retreatAfterRound,
+        final int retreatAfterXUnitsLeft, final boolean retreatWhenOnlyAirLeft, final String attackerOrderOfLosses,
+        final String defenderOrderOfLosses, final boolean useBattleSimulator) {
+      this.attacker = attacker;
+      this.defender = defender;
+      this.location = location;
+      this.attacking = new ArrayList<>(attacking);
+      this.defending = new ArrayList<>(defending);
+      this.bombarding = new ArrayList<>(bombarding);
+      this.territoryEffects = new ArrayList<>(territoryEffects);
+      this.runCount = runCount;
+      this.keepOneAttackingLandUnit = keepOneAttackingLandUnit;
+      this.amphibious = amphibious;
+      this.retreatAfterRound = retreatAfterRound;
+      this.retreatAfterXUnitsLeft = retreatAfterXUnitsLeft;
+      this.retreatWhenOnlyAirLeft = retreatWhenOnlyAirLeft;
+      this.attackerOrderOfLosses = attackerOrderOfLosses;
+      this.defenderOrderOfLosses = defenderOrderOfLosses;
+      this.useBattleSimulator = useBattleSimulator;
+    }
+
+    int getRunCount() {
+      return runCount;
+    }
+
+    /**
+     * Sets up the specified worker to fight this battle.
+     */
+    void configure(final OddsCalculator worker) {
+      worker.setKeepOneAttackingLandUnit(keepOneAttackingLandUnit);
+      worker.setAmphibious(amphibious);
+      worker.setRetreatAfterRound(retreatAfterRound);
+      worker.setRetreatAfterXUnitsLeft(retreatAfterXUnitsLeft);
+      worker.setRetreatWhenOnlyAirLeft(retreatWhenOnlyAirLeft);
+      worker.setAttackerOrderOfLosses(attackerOrderOfLosses);
+      worker.setDefenderOrderOfLosses(defenderOrderOfLosses);
+      worker.setUseBattleSimulator(useBattleSimulator);
+      worker.setCalculateData(attacker, defender, location, attacking, defending, bombarding, territoryEffects,
+          runCount);
+    }
+  }
+}
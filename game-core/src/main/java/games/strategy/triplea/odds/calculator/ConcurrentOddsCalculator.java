@@ -1,46 +1,56 @@
 package games.strategy.triplea.odds.calculator;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 
+import javax.annotation.Nullable;
+
 import games.strategy.engine.data.GameData;
 import games.strategy.engine.data.PlayerID;
 import games.strategy.engine.data.Territory;
 import games.strategy.engine.data.TerritoryEffect;
 import games.strategy.engine.data.Unit;
+import games.strategy.engine.framework.GameDataCopier;
 import games.strategy.engine.framework.GameDataUtils;
 import games.strategy.util.CountUpAndDownLatch;
 import games.strategy.util.Interruptibles;
 import lombok.extern.java.Log;
 
 /**
- * Concurrent wrapper class for the OddsCalculator. It spawns multiple worker threads and splits up the run count
- * across these workers. This is mainly to be used by AIs since they call the OddsCalculator a lot.
+ * Concurrent wrapper class for the OddsCalculator. It spawns multiple worker threads, each with its own copy of the
+ * game data, which pull small chunks of runs until every run of a calculation is made. Several calculations may be in
+ * flight at the same time. This is mainly to be used by AIs since they call the OddsCalculator a lot; they get
+ * calculators sharing one pool of threads from the {@link OddsCalculatorRegistry}.
  */
 @Log
 public class ConcurrentOddsCalculator implements IOddsCalculator {
-  private static final int MAX_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+  static final int MAX_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
 
   private int currentThreads = MAX_THREADS;
   private final ExecutorService executor;
+  // a shared executor is shut down by its owner, not by the calculators using it
+  private final boolean ownsExecutor;
   private final List<OddsCalculator> workers = new CopyOnWriteArrayList<>();
+  // the copies of the game data beyond the first one that calculators sharing an executor may make together
+  private final @Nullable Semaphore copyBudget;
+  // the copies of the current workers taken from the copy budget, only changed while the workers are set
+  private int copiesFromBudget = 0;
   // do not let calc be set up til data is set
   private volatile boolean isDataSet = false;
-  // do not let calc start until it is set
-  private volatile boolean isCalcSet = false;
   // shortcut everything if we are shutting down
   private volatile boolean isShutDown = false;
   // shortcut setting of previous game data if we are trying to set it to a new one, or shutdown
@@ -53,9 +63,22 @@ public class ConcurrentOddsCalculator implements IOddsCalculator {
 
   // do not let setting of game data happen at same time
   private final Object mutexSetGameData = new Object();
-  // do not let multiple calculations or setting calc data happen at same time
-  private final Object mutexCalcIsRunning = new Object();
+  // do not let the options change while a calculation is being set up
+  private final Object mutexCalcData = new Object();
   private final Runnable dataLoadedAction;
+  // the workers of the current game data, replaced (never modified) whenever the game data is set
+  private volatile WorkerPool pool = new WorkerPool(Collections.emptyList());
+  private volatile @Nullable BattleCalculation.Setup preparedSetup = null;
+  private volatile boolean keepOneAttackingLandUnit = false;
+  private volatile boolean amphibious = false;
+  private volatile int retreatAfterRound = -1;
+  private volatile int retreatAfterXUnitsLeft = -1;
+  private volatile boolean retreatWhenOnlyAirLeft = false;
+  private volatile boolean useBattleSimulator = true;
+  private volatile String attackerOrderOfLosses = null;
+  private volatile String defenderOrderOfLosses = null;
+  private volatile double targetMarginOfError = 0;
+  private volatile @Nullable Consumer<OddsEstimate> estimateListener = null;
 
   public ConcurrentOddsCalculator(final String threadNamePrefix) {
     this(threadNamePrefix, () -> {
@@ -65,9 +88,27 @@ public class ConcurrentOddsCalculator implements IOddsCalculator {
   ConcurrentOddsCalculator(final String threadNamePrefix, final Runnable dataLoadedAction) {
     executor = Executors.newFixedThreadPool(MAX_THREADS,
         new DaemonThreadFactory(threadNamePrefix + " ConcurrentOddsCalculator Worker"));
+    ownsExecutor = true;
+    copyBudget = null;
     this.dataLoadedAction = dataLoadedAction;
   }
 
+  /**
+   * Creates a calculator whose workers run on the specified executor, which may be shared with other calculators.
+   * Shutting down the calculator leaves the executor running.
+   *
+   * @param copyBudget The permits for the copies of the game data, beyond its first one, the calculator may make for
+   *        its workers. Sharing the budget with the other calculators on the executor keeps the number of copies in
+   *        line with the number of threads rather than growing with every calculator.
+   */
+  ConcurrentOddsCalculator(final ExecutorService executor, final Semaphore copyBudget) {
+    this.executor = executor;
+    ownsExecutor = false;
+    this.copyBudget = copyBudget;
+    dataLoadedAction = () -> {
+    };
+  }
+
   @Override
   public void setGameData(final GameData data) {
     // increment so that a new calc doesn't take place (since they all wait on this latch)
@@ -86,9 +127,10 @@ public class ConcurrentOddsCalculator implements IOddsCalculator {
       }
       cancel();
       isDataSet = false;
-      isCalcSet = false;
+      preparedSetup = null;
       if (data == null || isShutDown) {
-        workers.clear();
+        clearWorkers();
+        pool = new WorkerPool(Collections.emptyList());
         cancelCurrentOperation.incrementAndGet();
         // allow calcing and other stuff to go ahead
         latchSetData.countDown();
@@ -106,85 +148,50 @@ public class ConcurrentOddsCalculator implements IOddsCalculator {
     return currentThreads;
   }
 
-  // use both time and memory left to determine how many copies to make
-  private static int getThreadsToUse(final long timeToCopyInMillis, final long memoryUsedBeforeCopy) {
-    if (timeToCopyInMillis > 20000 || MAX_THREADS == 1) {
-      // just use 1 thread if we took more than 20 seconds to copy
+  // use the memory left to determine how many copies to make
+  private static int getThreadsToUse(final long memoryUsedByCopy) {
+    if (MAX_THREADS == 1) {
       return 1;
     }
     final Runtime runtime = Runtime.getRuntime();
-    final long usedMemoryAfterCopy = runtime.totalMemory() - runtime.freeMemory();
-    // we cannot predict how the gc works
-    final long memoryLeftBeforeMax = runtime.maxMemory() - (Math.max(usedMemoryAfterCopy, memoryUsedBeforeCopy));
+    final long memoryLeftBeforeMax = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
     // make sure it is a decent size
-    final long memoryUsedByCopy = Math.max(100000, (usedMemoryAfterCopy - memoryUsedBeforeCopy));
-    // regardless of how stupid the gc is
-    // we leave some memory left over just in case
+    final long memoryUsedByEachCopy = Math.max(100000, memoryUsedByCopy);
     final int numberOfTimesWeCanCopyMax =
-        Math.max(1, (int) (Math.min(Integer.MAX_VALUE, (memoryLeftBeforeMax / memoryUsedByCopy))));
-
-    if (timeToCopyInMillis > 3000) {
-      // use half the number of threads available if we took
-      // more than 3 seconds to copy
-      return Math.min(numberOfTimesWeCanCopyMax, Math.max(1, (MAX_THREADS / 2)));
-    }
-    // use all threads
+        Math.max(1, (int) (Math.min(Integer.MAX_VALUE, (memoryLeftBeforeMax / memoryUsedByEachCopy))));
     return Math.min(numberOfTimesWeCanCopyMax, MAX_THREADS);
   }
 
+  private static long getUsedMemory() {
+    final Runtime runtime = Runtime.getRuntime();
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
   private void createWorkers(final GameData data) {
-    workers.clear();
+    clearWorkers();
     if (data != null && cancelCurrentOperation.get() >= 0) {
-      // see how long 1 copy takes (some games can get REALLY big)
-      final long startTime = System.currentTimeMillis();
-      final long startMemory = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
-      final GameData newData;
+      // capture the data once, then release the lock on it so the game can continue while the workers make their own
+      // copies from the snapshot (ie: we don't want to lock on it while we copy it 16 times, when once is enough)
+      GameDataCopier.Snapshot snapshot = null;
       try {
-        // make first copy, then release lock on it so game can continue (ie: we don't want to lock on it while we copy
-        // it 16 times, when once is enough) don't let the data change while we make the first copy
         data.acquireWriteLock();
-        newData = GameDataUtils.cloneGameDataWithoutHistory(data, false);
+        snapshot = GameDataUtils.snapshotGameDataWithoutHistory(data, false);
+      } catch (final IOException e) {
+        log.log(Level.SEVERE, "Failed to capture game data for battle calculator workers", e);
       } finally {
         data.releaseWriteLock();
       }
-      currentThreads = getThreadsToUse((System.currentTimeMillis() - startTime), startMemory);
-      try {
-        // make sure all workers are using the same data
-        newData.acquireReadLock();
-        int i = 0;
-        // we are already in 1 executor thread, so we have MAX_THREADS-1 threads left to use
-        if (currentThreads <= 2 || MAX_THREADS <= 2) {
-          // if 2 or fewer threads, do not multi-thread the copying (we have already copied it once above, so at most
-          // only 1 more copy to
-          // make)
-          while (cancelCurrentOperation.get() >= 0 && i < currentThreads) {
-            // the last one will use our already copied data from above, without copying it again
-            workers.add(new OddsCalculator(newData, (currentThreads == ++i)));
-          }
-        } else { // multi-thread our copying, cus why the heck not (it increases the speed of copying by about double)
-          final CountDownLatch workerLatch = new CountDownLatch(currentThreads - 1);
-          while (i < (currentThreads - 1)) {
-            ++i;
-            executor.execute(() -> {
-              if (cancelCurrentOperation.get() >= 0) {
-                workers.add(new OddsCalculator(newData, false));
-              }
-              workerLatch.countDown();
-            });
-          }
-          // the last one will use our already copied data from above, without copying it again
-          workers.add(new OddsCalculator(newData, true));
-          Interruptibles.await(workerLatch);
-        }
-      } finally {
-        newData.releaseReadLock();
+      if (snapshot != null) {
+        createWorkers(snapshot);
       }
     }
-    if (cancelCurrentOperation.get() < 0 || data == null) {
+    if (cancelCurrentOperation.get() < 0 || data == null || workers.isEmpty()) {
       // we could have cancelled while setting data, so clear the workers again if so
-      workers.clear();
+      clearWorkers();
+      pool = new WorkerPool(Collections.emptyList());
       isDataSet = false;
     } else {
+      pool = new WorkerPool(workers);
       // should make sure that all workers have their game data set before we can call calculate and other things
       isDataSet = true;
       dataLoadedAction.run();
@@ -195,12 +202,88 @@ public class ConcurrentOddsCalculator implements IOddsCalculator {
     latchSetData.countDown();
   }
 
+  private void createWorkers(final GameDataCopier.Snapshot snapshot) {
+    // see how much memory 1 copy takes (some games can get REALLY big), the snapshot size is a lower bound in case the
+    // gc ran while we were copying
+    final long startMemory = getUsedMemory();
+    final OddsCalculator firstWorker = newWorker(snapshot);
+    if (firstWorker == null) {
+      return;
+    }
+    workers.add(firstWorker);
+    final int threadsToUse = getThreadsToUse(Math.max(snapshot.size(), getUsedMemory() - startMemory));
+    currentThreads = 1 + takeCopiesFromBudget(threadsToUse - 1);
+    // every worker materializes its own copy from the shared snapshot, so all copies can be made at the same time.
+    // each copy is made by whichever thread claims it first, this one included, so we only ever wait for copies that
+    // are already being made; an executor shared with other calculators may be too busy to start our tasks
+    final AtomicInteger copiesLeft = new AtomicInteger(currentThreads - 1);
+    final CountDownLatch copiesMade = new CountDownLatch(currentThreads - 1);
+    final Runnable makeCopies = () -> {
+      while (copiesLeft.getAndDecrement() > 0) {
+        if (cancelCurrentOperation.get() >= 0) {
+          final OddsCalculator worker = newWorker(snapshot);
+          if (worker != null) {
+            workers.add(worker);
+          }
+        }
+        copiesMade.countDown();
+      }
+    };
+    try {
+      for (int i = 2; i < currentThreads; i++) {
+        executor.execute(makeCopies);
+      }
+    } catch (final RejectedExecutionException e) {
+      // we are shutting down, this thread makes the rest of the copies
+    }
+    makeCopies.run();
+    Interruptibles.await(copiesMade);
+    // copies that failed or were cancelled go back to the budget
+    returnCopiesToBudget(copiesFromBudget - (workers.size() - 1));
+    currentThreads = Math.max(1, workers.size());
+  }
+
+  private int takeCopiesFromBudget(final int copies) {
+    if (copyBudget == null) {
+      return copies;
+    }
+    int taken = 0;
+    while (taken < copies && copyBudget.tryAcquire()) {
+      taken++;
+    }
+    copiesFromBudget += taken;
+    return taken;
+  }
+
+  private void returnCopiesToBudget(final int copies) {
+    if (copyBudget != null && copies > 0) {
+      copyBudget.release(copies);
+      copiesFromBudget -= copies;
+    }
+  }
+
+  private void clearWorkers() {
+    workers.clear();
+    returnCopiesToBudget(copiesFromBudget);
+  }
+
+  private static @Nullable OddsCalculator newWorker(final GameDataCopier.Snapshot snapshot) {
+    try {
+      return new OddsCalculator(snapshot.newCopy(), true);
+    } catch (final IOException e) {
+      log.log(Level.SEVERE, "Failed to copy game data for battle calculator worker", e);
+      return null;
+    }
+  }
+
   @Override
   public void shutdown() {
     isShutDown = true;
     cancelCurrentOperation.set(Integer.MIN_VALUE / 2);
     cancel();
-    executor.shutdown();
+    if (ownsExecutor) {
+      executor.shutdown();
+    }
   }
 
   private void awaitLatch() {
@@ -216,201 +299,232 @@ public class ConcurrentOddsCalculator implements IOddsCalculator {
   @Override
   public void setCalculateData(final PlayerID attacker, final PlayerID defender, final Territory location,
       final Collection<Unit> attacking, final Collection<Unit> defending, final Collection<Unit> bombarding,
-      final Collection<TerritoryEffect> territoryEffects, final int initialRunCount) {
-    synchronized (mutexCalcIsRunning) {
-      awaitLatch();
-      isCalcSet = false;
-      int runCount = initialRunCount;
-      final int workerNum = workers.size();
-      final int workerRunCount = Math.max(1, (runCount / Math.max(1, workerNum)));
-      for (final OddsCalculator worker : workers) {
-        if (!isDataSet || isShutDown) {
-          // we could have attempted to set a new game data, while the old one was still being set, causing it to abort
-          // with null data
-          return;
-        }
-        worker.setCalculateData(attacker, defender, location, attacking, defending, bombarding, territoryEffects,
-            (runCount <= 0 ? 0 : workerRunCount));
-        runCount -= workerRunCount;
-      }
-      if (!isDataSet || isShutDown || workerNum <= 0) {
-        return;
-      }
-      isCalcSet = true;
+      final Collection<TerritoryEffect> territoryEffects, final int runCount) {
+    awaitLatch();
+    synchronized (mutexCalcData) {
+      preparedSetup = newSetup(attacker, defender, location, attacking, defending, bombarding, territoryEffects,
+          runCount);
     }
   }
 
+  private BattleCalculation.Setup newSetup(final PlayerID attacker, final PlayerID defender, final Territory location,
+      final Collection<Unit> attacking, final Collection<Unit> defending, final Collection<Unit> bombarding,
+      final Collection<TerritoryEffect> territoryEffects, final int runCount) {
+    return new BattleCalculation.Setup(attacker, defender, location, attacking, defending, bombarding,
+        territoryEffects, runCount, keepOneAttackingLandUnit, amphibious, retreatAfterRound, retreatAfterXUnitsLeft,
+        retreatWhenOnlyAirLeft, attackerOrderOfLosses, defenderOrderOfLosses, useBattleSimulator);
+  }
+
   /**
-   * Concurrently calculates odds using the OddsCalculatorWorker. It uses Executor to process the results. Then waits
-   * for all the future
-   * results and combines them together.
+   * Concurrently calculates odds using the OddsCalculator workers. The runs are split into small chunks that idle
+   * workers pull one at a time, and the results of all chunks are combined once every run is made.
    */
   @Override
   public AggregateResults calculate() throws IllegalStateException {
-    synchronized (mutexCalcIsRunning) {
-      awaitLatch();
-      final long start = System.currentTimeMillis();
-      // Create worker thread pool and start all workers
-      int totalRunCount = 0;
-      final List<Future<AggregateResults>> list = new ArrayList<>();
-      for (final OddsCalculator worker : workers) {
-        if (!getIsReady()) {
-          // we could have attempted to set a new game data, while the old one was still being set, causing it to abort
-          // with null data
-          return new AggregateResults(0);
-        }
-        if (!worker.getIsReady()) {
-          throw new IllegalStateException("Called calculate before setting calculate data!");
-        }
-        if (worker.getRunCount() > 0) {
-          totalRunCount += worker.getRunCount();
-          final Future<AggregateResults> workerResult = executor.submit(worker);
-          list.add(workerResult);
-        }
-      }
-      // Wait for all worker futures to complete and combine results
-      final AggregateResults results = new AggregateResults(totalRunCount);
-      final Set<InterruptedException> interruptExceptions = new HashSet<>();
-      final Map<String, Set<ExecutionException>> executionExceptions = new HashMap<>();
-      for (final Future<AggregateResults> future : list) {
-        try {
-          final AggregateResults result = future.get();
-          results.addResults(result.getResults());
-        } catch (final InterruptedException e) {
-          Thread.currentThread().interrupt();
-          interruptExceptions.add(e);
-        } catch (final ExecutionException e) {
-          final String cause = e.getCause().getLocalizedMessage();
-          Set<ExecutionException> exceptions = executionExceptions.get(cause);
-          if (exceptions == null) {
-            exceptions = new HashSet<>();
-          }
-          exceptions.add(e);
-          executionExceptions.put(cause, exceptions);
-        }
-      }
-      // we don't want to scare the user with 8+ errors all for the same thing
-      if (!interruptExceptions.isEmpty()) {
-        log.log(Level.SEVERE, interruptExceptions.size() + " Battle results workers interrupted",
-            interruptExceptions.iterator().next());
-      }
-      if (!executionExceptions.isEmpty()) {
-        Exception e = null;
-        for (final Set<ExecutionException> entry : executionExceptions.values()) {
-          if (!entry.isEmpty()) {
-            e = entry.iterator().next();
-            log.log(Level.SEVERE, entry.size() + " Battle results workers aborted by exception", e.getCause());
-          }
-        }
-        if (e != null) {
-          throw new IllegalStateException(e.getCause());
-        }
-      }
-      results.setTime(System.currentTimeMillis() - start);
-      return results;
+    awaitLatch();
+    final BattleCalculation.Setup setup = preparedSetup;
+    if (setup == null) {
+      throw new IllegalStateException("Called calculate before setting calculate data!");
     }
+    return calculate(setup);
   }
 
   @Override
   public AggregateResults setCalculateDataAndCalculate(final PlayerID attacker, final PlayerID defender,
       final Territory location, final Collection<Unit> attacking, final Collection<Unit> defending,
       final Collection<Unit> bombarding, final Collection<TerritoryEffect> territoryEffects, final int runCount) {
-    synchronized (mutexCalcIsRunning) {
-      setCalculateData(attacker, defender, location, attacking, defending, bombarding, territoryEffects, runCount);
-      return calculate();
+    awaitLatch();
+    final BattleCalculation.Setup setup;
+    synchronized (mutexCalcData) {
+      setup = newSetup(attacker, defender, location, attacking, defending, bombarding, territoryEffects, runCount);
+      preparedSetup = setup;
+    }
+    // only setting up the calculation is synchronized, so other callers can have their own calculations in flight
+    return calculate(setup);
+  }
+
+  private AggregateResults calculate(final BattleCalculation.Setup setup) {
+    final WorkerPool pool = this.pool;
+    if (!isDataSet || isShutDown || pool.workers.isEmpty()) {
+      // we could have attempted to set a new game data, while the old one was still being set, causing it to abort
+      // with null data
+      return new AggregateResults(0);
+    }
+    final BattleCalculation calculation = new BattleCalculation(setup,
+        new RunningOdds(targetMarginOfError, estimateListener), pool.workers.size());
+    pool.pendingCalculations.add(calculation);
+    dispatch(pool);
+    try {
+      return calculation.await();
+    } catch (final IllegalStateException e) {
+      log.log(Level.SEVERE, "Battle results workers aborted by exception", e.getCause());
+      throw e;
+    } finally {
+      pool.pendingCalculations.remove(calculation);
+    }
+  }
+
+  /**
+   * Starts a task for each idle worker while there are runs left to make.
+   */
+  private void dispatch(final WorkerPool pool) {
+    while (!isShutDown && pool.hasRunsLeft()) {
+      final Worker worker = pool.idleWorkers.poll();
+      if (worker == null) {
+        return;
+      }
+      try {
+        executor.execute(() -> runWorker(pool, worker));
+      } catch (final RejectedExecutionException e) {
+        // we are shutting down, and shutting down stops all calculations
+        pool.idleWorkers.add(worker);
+        return;
+      }
+    }
+  }
+
+  /**
+   * Lets the specified worker pull chunks of runs, oldest calculation first, until there are none left.
+   */
+  private void runWorker(final WorkerPool pool, final Worker worker) {
+    try {
+      for (BattleCalculation calculation = pool.nextCalculation(); calculation != null;
+          calculation = pool.nextCalculation()) {
+        final int runs = calculation.claimChunk();
+        if (runs == 0) {
+          pool.pendingCalculations.remove(calculation);
+          continue;
+        }
+        AggregateResults chunkResults = null;
+        try {
+          if (worker.configuredFor != calculation.getSetup()) {
+            calculation.getSetup().configure(worker.calculator);
+            worker.configuredFor = calculation.getSetup();
+          }
+          // the chunk stops with its own calculation, a cancel never carries over to the next chunk of the worker
+          chunkResults = worker.calculator.calculate(runs, calculation.getRunningOdds(), calculation::isStopped);
+        } catch (final RuntimeException e) {
+          calculation.fail(e);
+        } finally {
+          calculation.finishChunk(chunkResults);
+        }
+      }
+    } finally {
+      pool.idleWorkers.add(worker);
+      // a calculation could have been added after we found none left, but before we were idle again
+      dispatch(pool);
     }
   }
 
   @Override
   public boolean getIsReady() {
-    return isDataSet && isCalcSet && !isShutDown;
+    return isDataSet && preparedSetup != null && !isShutDown;
   }
 
   @Override
   public int getRunCount() {
-    int totalRunCount = 0;
-    for (final OddsCalculator worker : workers) {
-      totalRunCount += worker.getRunCount();
-    }
-    return totalRunCount;
+    final BattleCalculation.Setup setup = preparedSetup;
+    return setup == null ? 0 : setup.getRunCount();
   }
 
   @Override
   public void setKeepOneAttackingLandUnit(final boolean bool) {
-    synchronized (mutexCalcIsRunning) {
-      awaitLatch();
-      for (final OddsCalculator worker : workers) {
-        worker.setKeepOneAttackingLandUnit(bool);
-      }
-    }
+    keepOneAttackingLandUnit = bool;
   }
 
   @Override
   public void setAmphibious(final boolean bool) {
-    synchronized (mutexCalcIsRunning) {
-      awaitLatch();
-      for (final OddsCalculator worker : workers) {
-        worker.setAmphibious(bool);
-      }
-    }
+    amphibious = bool;
   }
 
   @Override
   public void setRetreatAfterRound(final int value) {
-    synchronized (mutexCalcIsRunning) {
-      awaitLatch();
-      for (final OddsCalculator worker : workers) {
-        worker.setRetreatAfterRound(value);
-      }
-    }
+    retreatAfterRound = value;
   }
 
   @Override
   public void setRetreatAfterXUnitsLeft(final int value) {
-    synchronized (mutexCalcIsRunning) {
-      awaitLatch();
-      for (final OddsCalculator worker : workers) {
-        worker.setRetreatAfterXUnitsLeft(value);
-      }
-    }
+    retreatAfterXUnitsLeft = value;
   }
 
   @Override
   public void setRetreatWhenOnlyAirLeft(final boolean value) {
-    synchronized (mutexCalcIsRunning) {
-      awaitLatch();
-      for (final OddsCalculator worker : workers) {
-        worker.setRetreatWhenOnlyAirLeft(value);
-      }
-    }
+    retreatWhenOnlyAirLeft = value;
   }
 
-
   @Override
   public void setAttackerOrderOfLosses(final String attackerOrderOfLosses) {
-    synchronized (mutexCalcIsRunning) {
-      awaitLatch();
-      for (final OddsCalculator worker : workers) {
-        worker.setAttackerOrderOfLosses(attackerOrderOfLosses);
-      }
-    }
+    this.attackerOrderOfLosses = attackerOrderOfLosses;
   }
 
   @Override
   public void setDefenderOrderOfLosses(final String defenderOrderOfLosses) {
-    synchronized (mutexCalcIsRunning) {
-      awaitLatch();
-      for (final OddsCalculator worker : workers) {
-        worker.setDefenderOrderOfLosses(defenderOrderOfLosses);
-      }
-    }
+    this.defenderOrderOfLosses = defenderOrderOfLosses;
+  }
+
+  @Override
+  public void setUseBattleSimulator(final boolean useBattleSimulator) {
+    this.useBattleSimulator = useBattleSimulator;
+  }
+
+  @Override
+  public void setTargetMarginOfError(final double marginOfError) {
+    targetMarginOfError = marginOfError;
+  }
+
+  @Override
+  public void setEstimateListener(final @Nullable Consumer<OddsEstimate> listener) {
+    estimateListener = listener;
   }
 
   // not on purpose, we need to be able to cancel at any time
   @Override
   public void cancel() {
-    for (final OddsCalculator worker : workers) {
-      worker.cancel();
+    final WorkerPool pool = this.pool;
+    // the chunks in progress see their calculation stopped and stop making runs
+    for (final BattleCalculation calculation : pool.pendingCalculations) {
+      calculation.stop();
+    }
+  }
+
+  /**
+   * The workers created for one game data, and the calculations waiting for them.
+   */
+  private static final class WorkerPool {
+    private final List<Worker> workers = new ArrayList<>();
+    private final Queue<Worker> idleWorkers = new ConcurrentLinkedQueue<>();
+    private final Queue<BattleCalculation> pendingCalculations = new ConcurrentLinkedQueue<>();
+
+    WorkerPool(final Collection<OddsCalculator> calculators) {
+      for (final OddsCalculator calculator : calculators) {
+        final Worker worker = new Worker(calculator);
+        workers.add(worker);
+        idleWorkers.add(worker);
+      }
+    }
+
+    boolean hasRunsLeft() {
+      return nextCalculation() != null;
+    }
+
+    @Nullable
+    BattleCalculation nextCalculation() {
+      for (final BattleCalculation calculation : pendingCalculations) {
+        if (calculation.hasRunsLeft()) {
+          return calculation;
+        }
+      }
+      return null;
+    }
+  }
+
+  private static final class Worker {
+    private final OddsCalculator calculator;
+    // only ever touched by the thread the worker is running on
+    private @Nullable BattleCalculation.Setup configuredFor = null;
+
+    Worker(final OddsCalculator calculator) {
+      this.calculator = calculator;
     }
   }
 }
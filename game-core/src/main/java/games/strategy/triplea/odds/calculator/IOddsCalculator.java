@@ -1,6 +1,9 @@
 package games.strategy.triplea.odds.calculator;
 
 import java.util.Collection;
+import java.util.function.Consumer;
+
+import javax.annotation.Nullable;
 
 import games.strategy.engine.data.GameData;
 import games.strategy.engine.data.PlayerID;
@@ -42,6 +45,26 @@ public interface IOddsCalculator {
 
   void setDefenderOrderOfLosses(final String defenderOrderOfLosses);
 
+  /**
+   * Sets whether battles that need none of the rules missing from the {@code BattleSimulator} are fought by it instead
+   * of by a full battle, which gives the same odds much faster. On by default, turn it off to have every run fight the
+   * full battle, e.g. to compare the two.
+   */
+  void setUseBattleSimulator(final boolean useBattleSimulator);
+
+  /**
+   * Lets a calculation stop before making all of its runs once the 95% confidence interval of every outcome is within
+   * the specified margin of the estimate (e.g. 0.02 for 2%). The run count then becomes the maximum number of runs.
+   * Set to 0, the default, to always make every run.
+   */
+  void setTargetMarginOfError(final double marginOfError);
+
+  /**
+   * Sets the listener receiving the running estimate while a calculation is in progress. The listener may be called
+   * from any worker thread, and should not block.
+   */
+  void setEstimateListener(final @Nullable Consumer<OddsEstimate> listener);
+
   void cancel();
 
   void shutdown();
@@ -3,7 +3,14 @@ package games.strategy.triplea.odds.calculator;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import javax.annotation.Nullable;
 
 import games.strategy.engine.data.CompositeChange;
 import games.strategy.engine.data.GameData;
@@ -13,12 +20,16 @@ import games.strategy.engine.data.TerritoryEffect;
 import games.strategy.engine.data.Unit;
 import games.strategy.engine.data.changefactory.ChangeFactory;
 import games.strategy.engine.framework.GameDataUtils;
+import games.strategy.triplea.delegate.BattleSimulator;
 import games.strategy.triplea.delegate.BattleTracker;
 import games.strategy.triplea.delegate.GameDelegateBridge;
 import games.strategy.triplea.delegate.MustFightBattle;
 import games.strategy.triplea.oddsCalculator.ta.BattleResults;
 
 class OddsCalculator implements IOddsCalculator, Callable<AggregateResults> {
+  // how many runs a worker makes before reporting them, so concurrent workers rarely contend on the shared odds
+  private static final int REPORT_INTERVAL = 16;
+
   private GameData gameData = null;
   private PlayerID attacker = null;
   private PlayerID defender = null;
@@ -34,8 +45,15 @@ class OddsCalculator implements IOddsCalculator, Callable<AggregateResults> {
   private boolean retreatWhenOnlyAirLeft = false;
   private String attackerOrderOfLosses = null;
   private String defenderOrderOfLosses = null;
+  private boolean useBattleSimulator = true;
+  private double targetMarginOfError = 0;
+  private @Nullable Consumer<OddsEstimate> estimateListener = null;
   private int runCount = 0;
-  private volatile boolean cancelled = false;
+  // compiled on first use, and discarded whenever the battle or an option changes
+  private @Nullable BattleSimulator simulator = null;
+  private boolean isSimulatorCompiled = false;
+  // the cancellation of the latest calculation, each calculation has its own so a cancel never outlives it
+  private volatile AtomicBoolean cancellation = new AtomicBoolean();
   private volatile boolean isDataSet = false;
   private volatile boolean isCalcSet = false;
   private volatile boolean isRunning = false;
@@ -68,6 +86,7 @@ class OddsCalculator implements IOddsCalculator, Callable<AggregateResults> {
     bombardingUnits = new ArrayList<>();
     territoryEffects = new ArrayList<>();
     runCount = 0;
+    isSimulatorCompiled = false;
     isDataSet = data != null;
   }
 
@@ -98,6 +117,7 @@ class OddsCalculator implements IOddsCalculator, Callable<AggregateResults> {
     gameData.performChange(ChangeFactory.addUnits(this.location, attackingUnits));
     gameData.performChange(ChangeFactory.addUnits(this.location, defendingUnits));
     this.runCount = runCount;
+    isSimulatorCompiled = false;
     isCalcSet = true;
   }
 
@@ -111,13 +131,20 @@ class OddsCalculator implements IOddsCalculator, Callable<AggregateResults> {
 
   @Override
   public AggregateResults calculate() {
+    final AtomicBoolean cancelled = new AtomicBoolean();
+    cancellation = cancelled;
+    return calculate(runCount, new RunningOdds(targetMarginOfError, estimateListener), cancelled::get);
+  }
+
+  /**
+   * Makes the specified number of runs, ignoring the run count of the calculate data, and stops early once the
+   * specified running odds, which may be shared with other workers, are precise enough or the calculation the runs
+   * belong to is cancelled.
+   */
+  AggregateResults calculate(final int count, final RunningOdds runningOdds, final BooleanSupplier isCancelled) {
     if (!getIsReady()) {
       throw new IllegalStateException("Called calculate before setting calculate data!");
     }
-    return calculate(runCount);
-  }
-
-  private AggregateResults calculate(final int count) {
     isRunning = true;
     final long start = System.currentTimeMillis();
     final AggregateResults aggregateResults = new AggregateResults(count);
@@ -128,34 +155,67 @@ class OddsCalculator implements IOddsCalculator, Callable<AggregateResults> {
     // TODO: first, see how much it actually speeds stuff up by, and if it does make a difference then convert it to a
     // per-thread, per-calc
     // caching
-    final List<Unit> attackerOrderOfLosses =
-        OrderOfLossesInputPanel.getUnitListByOrderOfLoss(this.attackerOrderOfLosses, attackingUnits, gameData);
-    final List<Unit> defenderOrderOfLosses =
-        OrderOfLossesInputPanel.getUnitListByOrderOfLoss(this.defenderOrderOfLosses, defendingUnits, gameData);
-    for (int i = 0; i < count && !cancelled; i++) {
-      final CompositeChange allChanges = new CompositeChange();
-      final DummyDelegateBridge bridge1 =
-          new DummyDelegateBridge(attacker, gameData, allChanges, attackerOrderOfLosses, defenderOrderOfLosses,
-              keepOneAttackingLandUnit, retreatAfterRound, retreatAfterXUnitsLeft, retreatWhenOnlyAirLeft);
-      final GameDelegateBridge bridge = new GameDelegateBridge(bridge1);
-      final MustFightBattle battle = new MustFightBattle(location, attacker, gameData, battleTracker);
-      battle.setHeadless(true);
-      battle.setUnits(defendingUnits, attackingUnits, bombardingUnits,
-          (amphibious ? attackingUnits : new ArrayList<>()), defender, territoryEffects);
-      bridge1.setBattle(battle);
-      battle.fight(bridge);
-      aggregateResults.addResult(new BattleResults(battle, gameData));
-      // restore the game to its original state
-      gameData.performChange(allChanges.invert());
-      battleTracker.clear();
-      battleTracker.clearBattleRecords();
+    final RunningOdds.Tally tally = new RunningOdds.Tally();
+    if (!isSimulatorCompiled) {
+      simulator = newBattleSimulator().orElse(null);
+      isSimulatorCompiled = true;
+    }
+    if (simulator != null) {
+      for (int i = 0; i < count && !isCancelled.getAsBoolean() && !runningOdds.isPreciseEnough(); i++) {
+        addResult(simulator.simulate(ThreadLocalRandom.current()), aggregateResults, tally, runningOdds);
+      }
+    } else {
+      final List<Unit> attackerOrderOfLosses =
+          OrderOfLossesInputPanel.getUnitListByOrderOfLoss(this.attackerOrderOfLosses, attackingUnits, gameData);
+      final List<Unit> defenderOrderOfLosses =
+          OrderOfLossesInputPanel.getUnitListByOrderOfLoss(this.defenderOrderOfLosses, defendingUnits, gameData);
+      for (int i = 0; i < count && !isCancelled.getAsBoolean() && !runningOdds.isPreciseEnough(); i++) {
+        final CompositeChange allChanges = new CompositeChange();
+        final DummyDelegateBridge bridge1 =
+            new DummyDelegateBridge(attacker, gameData, allChanges, attackerOrderOfLosses, defenderOrderOfLosses,
+                keepOneAttackingLandUnit, retreatAfterRound, retreatAfterXUnitsLeft, retreatWhenOnlyAirLeft);
+        final GameDelegateBridge bridge = new GameDelegateBridge(bridge1);
+        final MustFightBattle battle = new MustFightBattle(location, attacker, gameData, battleTracker);
+        battle.setHeadless(true);
+        battle.setUnits(defendingUnits, attackingUnits, bombardingUnits,
+            (amphibious ? attackingUnits : new ArrayList<>()), defender, territoryEffects);
+        bridge1.setBattle(battle);
+        battle.fight(bridge);
+        addResult(new BattleResults(battle, gameData), aggregateResults, tally, runningOdds);
+        // restore the game to its original state
+        gameData.performChange(allChanges.invert());
+        battleTracker.clear();
+        battleTracker.clearBattleRecords();
+      }
     }
+    runningOdds.add(tally);
     aggregateResults.setTime(System.currentTimeMillis() - start);
     isRunning = false;
-    cancelled = false;
     return aggregateResults;
   }
 
+  private static void addResult(final BattleResults result, final AggregateResults aggregateResults,
+      final RunningOdds.Tally tally, final RunningOdds runningOdds) {
+    aggregateResults.addResult(result);
+    tally.add(result);
+    if (tally.size() >= REPORT_INTERVAL) {
+      runningOdds.add(tally);
+    }
+  }
+
+  /**
+   * Returns a simulator for the current battle if none of the calculation options require the full battle to be fought.
+   */
+  private Optional<BattleSimulator> newBattleSimulator() {
+    if (!useBattleSimulator || !bombardingUnits.isEmpty() || amphibious || keepOneAttackingLandUnit
+        || retreatAfterRound != -1 || retreatAfterXUnitsLeft != -1 || retreatWhenOnlyAirLeft
+        || attackerOrderOfLosses != null || defenderOrderOfLosses != null) {
+      return Optional.empty();
+    }
+    return BattleSimulator.compile(gameData, attacker, defender, location, attackingUnits, defendingUnits,
+        territoryEffects);
+  }
+
   @Override
   public AggregateResults call() {
     return calculate();
@@ -174,41 +234,64 @@ class OddsCalculator implements IOddsCalculator, Callable<AggregateResults> {
   @Override
   public void setKeepOneAttackingLandUnit(final boolean bool) {
     keepOneAttackingLandUnit = bool;
+    isSimulatorCompiled = false;
   }
 
   @Override
   public void setAmphibious(final boolean bool) {
     amphibious = bool;
+    isSimulatorCompiled = false;
   }
 
   @Override
   public void setRetreatAfterRound(final int value) {
     retreatAfterRound = value;
+    isSimulatorCompiled = false;
   }
 
   @Override
   public void setRetreatAfterXUnitsLeft(final int value) {
     retreatAfterXUnitsLeft = value;
+    isSimulatorCompiled = false;
   }
 
   @Override
   public void setRetreatWhenOnlyAirLeft(final boolean value) {
     retreatWhenOnlyAirLeft = value;
+    isSimulatorCompiled = false;
   }
 
   @Override
   public void setAttackerOrderOfLosses(final String attackerOrderOfLosses) {
     this.attackerOrderOfLosses = attackerOrderOfLosses;
+    isSimulatorCompiled = false;
   }
 
   @Override
   public void setDefenderOrderOfLosses(final String defenderOrderOfLosses) {
     this.defenderOrderOfLosses = defenderOrderOfLosses;
+    isSimulatorCompiled = false;
+  }
+
+  @Override
+  public void setUseBattleSimulator(final boolean useBattleSimulator) {
+    this.useBattleSimulator = useBattleSimulator;
+    isSimulatorCompiled = false;
+  }
+
+  @Override
+  public void setTargetMarginOfError(final double marginOfError) {
+    targetMarginOfError = marginOfError;
+  }
+
+  @Override
+  public void setEstimateListener(final @Nullable Consumer<OddsEstimate> listener) {
+    estimateListener = listener;
   }
 
   @Override
   public void cancel() {
-    cancelled = true;
+    cancellation.set(true);
   }
 
   @Override
@@ -59,6 +59,8 @@ import lombok.extern.java.Log;
 class OddsCalculatorPanel extends JPanel {
   private static final long serialVersionUID = -3559687618320469183L;
   private static final String NO_EFFECTS = "*None*";
+  private static final double PRECISE_MARGIN_OF_ERROR = 0.01;
+
   private final JLabel attackerWin = new JLabel();
   private final JLabel defenderWin = new JLabel();
   private final JLabel draw = new JLabel();
@@ -78,6 +80,7 @@ class OddsCalculatorPanel extends JPanel {
   private final JCheckBox amphibiousCheckBox = new JCheckBox("Battle is Amphibious");
   private final JCheckBox landBattleCheckBox = new JCheckBox("Land Battle");
   private final JCheckBox retreatWhenOnlyAirLeftCheckBox = new JCheckBox("Retreat when only air left");
+  private final JCheckBox stopWhenPreciseCheckBox = new JCheckBox("Stop when odds are within 1%", true);
   private final UiContext uiContext;
   private final GameData data;
   private final IOddsCalculator calculator;
@@ -320,6 +323,8 @@ class OddsCalculatorPanel extends JPanel {
         GridBagConstraints.NONE, new Insets(2, 10, 0, 5), 0, 0));
     resultsText.add(landBattleCheckBox, new GridBagConstraints(1, row2++, 1, 1, 0, 0, GridBagConstraints.WEST,
         GridBagConstraints.NONE, new Insets(2, 10, 0, 5), 0, 0));
+    resultsText.add(stopWhenPreciseCheckBox, new GridBagConstraints(1, row2++, 1, 1, 0, 0, GridBagConstraints.WEST,
+        GridBagConstraints.NONE, new Insets(2, 10, 0, 5), 0, 0));
 
     final JPanel resultsPanel = new JPanel();
     resultsPanel.add(resultsText);
@@ -519,6 +524,7 @@ class OddsCalculatorPanel extends JPanel {
         calculator::cancel);
     final AtomicReference<Collection<Unit>> defenders = new AtomicReference<>();
     final AtomicReference<Collection<Unit>> attackers = new AtomicReference<>();
+    final AtomicReference<OddsEstimate> estimates = new AtomicReference<>();
     new Thread(() -> {
       try {
         // find a territory to fight in
@@ -562,12 +568,19 @@ class OddsCalculatorPanel extends JPanel {
         }
         calculator.setAttackerOrderOfLosses(attackerOrderOfLosses);
         calculator.setDefenderOrderOfLosses(defenderOrderOfLosses);
+        calculator.setTargetMarginOfError(stopWhenPreciseCheckBox.isSelected() ? PRECISE_MARGIN_OF_ERROR : 0);
+        // show the odds as they come in, since a long calculation may be cancelled before it is done
+        calculator.setEstimateListener(estimate -> {
+          estimates.set(estimate);
+          SwingUtilities.invokeLater(() -> showEstimate(estimate));
+        });
         final Collection<TerritoryEffect> territoryEffects = getTerritoryEffects();
         defenders.set(defending);
         attackers.set(attacking);
         results.set(calculator.setCalculateDataAndCalculate(getAttacker(), getDefender(), location, attacking,
             defending, bombarding, territoryEffects, numRuns.getValue()));
       } finally {
+        calculator.setEstimateListener(null);
         SwingUtilities.invokeLater(() -> {
           dialog.setVisible(false);
           dialog.dispose();
@@ -581,9 +594,10 @@ class OddsCalculatorPanel extends JPanel {
     if (results.get() == null) {
       setResultsToBlank();
     } else {
-      attackerWin.setText(formatPercentage(results.get().getAttackerWinPercent()));
-      defenderWin.setText(formatPercentage(results.get().getDefenderWinPercent()));
-      draw.setText(formatPercentage(results.get().getDrawPercent()));
+      final double marginOfError = estimates.get() == null ? 0 : estimates.get().getMarginOfError();
+      attackerWin.setText(formatPercentage(results.get().getAttackerWinPercent(), marginOfError));
+      defenderWin.setText(formatPercentage(results.get().getDefenderWinPercent(), marginOfError));
+      draw.setText(formatPercentage(results.get().getDrawPercent(), marginOfError));
       final boolean isLand = isLand();
       final List<Unit> mainCombatAttackers =
           CollectionUtils.getMatches(attackers.get(), Matches.unitCanBeInBattle(true, isLand, 1, false, true, true));
@@ -614,6 +628,17 @@ class OddsCalculatorPanel extends JPanel {
     return new DecimalFormat("#%").format(percentage);
   }
 
+  private static String formatPercentage(final double percentage, final double marginOfError) {
+    return formatPercentage(percentage) + " \u00B1 " + new DecimalFormat("#0.#%").format(marginOfError);
+  }
+
+  private void showEstimate(final OddsEstimate estimate) {
+    attackerWin.setText(formatPercentage(estimate.getAttackerWinPercent(), estimate.getMarginOfError()));
+    defenderWin.setText(formatPercentage(estimate.getDefenderWinPercent(), estimate.getMarginOfError()));
+    draw.setText(formatPercentage(estimate.getDrawPercent(), estimate.getMarginOfError()));
+    count.setText(estimate.getRunCount() + "");
+  }
+
   private static String formatValue(final double value) {
     return new DecimalFormat("#0.##").format(value);
   }
@@ -0,0 +1,93 @@
+package games.strategy.triplea.odds.calculator;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import games.strategy.engine.data.GameData;
+
+/**
+ * The odds calculators of the games running in this JVM, one for each game and owner (e.g. an AI player), so that the
+ * players of one game, and the games hosted in one JVM, can calculate odds at the same time without replacing each
+ * other's copies of the game data.
+ *
+ * <p>
+ * The workers of all of these calculators run on one pool of threads, as large as the number of processors, so more
+ * calculators do not mean more threads. Their copies of the game data come from one budget as well: each calculator
+ * makes one copy, and the copies for further workers are shared among all of them, so more calculators do not mean
+ * a copy per processor each.
+ * </p>
+ */
+@ThreadSafe
+public final class OddsCalculatorRegistry {
+  private static final ExecutorService sharedExecutor = Executors.newFixedThreadPool(
+      ConcurrentOddsCalculator.MAX_THREADS, new DaemonThreadFactory("Shared ConcurrentOddsCalculator Worker"));
+  private static final Semaphore sharedCopyBudget = new Semaphore(ConcurrentOddsCalculator.MAX_THREADS - 1);
+  @GuardedBy("calculatorsByGame")
+  private static final Map<GameData, Map<String, ConcurrentOddsCalculator>> calculatorsByGame =
+      new IdentityHashMap<>();
+
+  private OddsCalculatorRegistry() {}
+
+  /**
+   * Returns the odds calculator of the specified owner in the specified game, creating it if it does not exist yet.
+   * The calculator is still to be given the game data to calculate with.
+   *
+   * @param game The game the calculator is used in, which is not necessarily the game data it calculates with (e.g.
+   *        an AI may calculate with a copy of the game data it simulates its turn on).
+   * @param owner The name of the owner of the calculator, unique within the game.
+   */
+  public static IOddsCalculator getCalculator(final GameData game, final String owner) {
+    synchronized (calculatorsByGame) {
+      return calculatorsByGame.computeIfAbsent(game, k -> new HashMap<>())
+          .computeIfAbsent(owner, k -> new ConcurrentOddsCalculator(sharedExecutor, sharedCopyBudget));
+    }
+  }
+
+  /**
+   * Shuts down the odds calculator of the specified owner in the specified game, if there is one, which releases its
+   * copies of the game data.
+   */
+  public static void releaseCalculator(final GameData game, final String owner) {
+    final @Nullable ConcurrentOddsCalculator calculator;
+    synchronized (calculatorsByGame) {
+      final @Nullable Map<String, ConcurrentOddsCalculator> calculators = calculatorsByGame.get(game);
+      if (calculators == null) {
+        return;
+      }
+      calculator = calculators.remove(owner);
+      if (calculators.isEmpty()) {
+        calculatorsByGame.remove(game);
+      }
+    }
+    if (calculator != null) {
+      shutDown(calculator);
+    }
+  }
+
+  /**
+   * Shuts down the odds calculators of all owners in the specified game, leaving those of other games running.
+   */
+  public static void releaseCalculators(final GameData game) {
+    final @Nullable Map<String, ConcurrentOddsCalculator> calculators;
+    synchronized (calculatorsByGame) {
+      calculators = calculatorsByGame.remove(game);
+    }
+    if (calculators != null) {
+      calculators.values().forEach(OddsCalculatorRegistry::shutDown);
+    }
+  }
+
+  private static void shutDown(final ConcurrentOddsCalculator calculator) {
+    // waits for the workers of the calculator to be created, if they are being created, and releases them
+    calculator.setGameData(null);
+    calculator.shutdown();
+  }
+}
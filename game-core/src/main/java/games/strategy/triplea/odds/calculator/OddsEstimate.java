@@ -0,0 +1,69 @@
+package games.strategy.triplea.odds.calculator;
+
+/**
+ * An estimate of the outcome of a battle taken from the simulation runs completed so far, together with how far the
+ * estimated percentages may be from the true odds.
+ */
+public final class OddsEstimate {
+  // z-score of a 95% confidence level
+  private static final double Z = 1.96;
+
+  private final int runCount;
+  private final int attackerWins;
+  private final int defenderWins;
+  private final int draws;
+
+  OddsEstimate(final int attackerWins, final int defenderWins, final int draws) {
+    this.attackerWins = attackerWins;
+    this.defenderWins = defenderWins;
+    this.draws = draws;
+    runCount = attackerWins + defenderWins + draws;
+  }
+
+  public int getRunCount() {
+    return runCount;
+  }
+
+  public double getAttackerWinPercent() {
+    return getPercent(attackerWins);
+  }
+
+  public double getDefenderWinPercent() {
+    return getPercent(defenderWins);
+  }
+
+  public double getDrawPercent() {
+    return getPercent(draws);
+  }
+
+  private double getPercent(final int outcomeCount) {
+    return runCount == 0 ? 0.0 : outcomeCount / (double) runCount;
+  }
+
+  /**
+   * Returns the half-width of the widest 95% confidence interval of the attacker win, defender win and draw percents,
+   * i.e. each true percent is within this value of its estimate with 95% confidence.
+   */
+  public double getMarginOfError() {
+    if (runCount == 0) {
+      return 1.0;
+    }
+    return Math.max(getMarginOfError(attackerWins), Math.max(getMarginOfError(defenderWins), getMarginOfError(draws)));
+  }
+
+  /**
+   * Uses the Wilson score interval, which unlike the normal approximation does not collapse to zero width when a
+   * lopsided battle has only ever produced one outcome.
+   */
+  private double getMarginOfError(final int outcomeCount) {
+    final double p = getPercent(outcomeCount);
+    final double n = runCount;
+    return Z * Math.sqrt(p * (1 - p) / n + Z * Z / (4 * n * n)) / (1 + Z * Z / n);
+  }
+
+  @Override
+  public String toString() {
+    return "OddsEstimate{runCount=" + runCount + ", attackerWins=" + attackerWins + ", defenderWins=" + defenderWins
+        + ", draws=" + draws + ", marginOfError=" + getMarginOfError() + "}";
+  }
+}
@@ -0,0 +1,95 @@
+package games.strategy.triplea.odds.calculator;
+
+import java.util.function.Consumer;
+
+import javax.annotation.Nullable;
+
+import games.strategy.triplea.oddsCalculator.ta.BattleResults;
+
+/**
+ * Collects the outcomes of one calculation, which may be shared by several workers, and decides when enough runs have
+ * been made to meet the requested precision.
+ */
+final class RunningOdds {
+  /**
+   * The confidence interval is not meaningful for very few runs, so never stop before this many.
+   */
+  static final int MIN_RUN_COUNT = 30;
+
+  private final double targetMarginOfError;
+  private final @Nullable Consumer<OddsEstimate> estimateListener;
+  private int attackerWins = 0;
+  private int defenderWins = 0;
+  private int draws = 0;
+  private volatile boolean isPreciseEnough = false;
+
+  /**
+   * @param targetMarginOfError The margin of error at which the calculation may stop, or 0 to always make every run.
+   * @param estimateListener Receives each new estimate, on the thread of the worker reporting it.
+   */
+  RunningOdds(final double targetMarginOfError, final @Nullable Consumer<OddsEstimate> estimateListener) {
+    this.targetMarginOfError = targetMarginOfError;
+    this.estimateListener = estimateListener;
+  }
+
+  /**
+   * Adds the outcomes of a batch of runs and publishes the resulting estimate.
+   */
+  void add(final Tally tally) {
+    if (tally.isEmpty()) {
+      return;
+    }
+    final OddsEstimate estimate;
+    synchronized (this) {
+      attackerWins += tally.attackerWins;
+      defenderWins += tally.defenderWins;
+      draws += tally.draws;
+      estimate = new OddsEstimate(attackerWins, defenderWins, draws);
+    }
+    tally.clear();
+    if (targetMarginOfError > 0 && estimate.getRunCount() >= MIN_RUN_COUNT
+        && estimate.getMarginOfError() <= targetMarginOfError) {
+      isPreciseEnough = true;
+    }
+    if (estimateListener != null) {
+      estimateListener.accept(estimate);
+    }
+  }
+
+  boolean isPreciseEnough() {
+    return isPreciseEnough;
+  }
+
+  /**
+   * The outcomes a single worker has not reported yet, so workers only need to synchronize once per batch.
+   */
+  static final class Tally {
+    private int attackerWins = 0;
+    private int defenderWins = 0;
+    private int draws = 0;
+
+    void add(final BattleResults result) {
+      if (result.attackerWon()) {
+        attackerWins++;
+      } else if (result.defenderWon()) {
+        defenderWins++;
+      } else {
+        draws++;
+      }
+    }
+
+    int size() {
+      return attackerWins + defenderWins + draws;
+    }
+
+    boolean isEmpty() {
+      return size() == 0;
+    }
+
+    private void clear() {
+      attackerWins = 0;
+      defenderWins = 0;
+      draws = 0;
+    }
+  }
+}
@@ -50,6 +50,17 @@ public class BattleResults extends GameDataComponent {
     m_whoWon = scriptedWhoWon;
   }
 
+  /**
+   * Use this for battles that were simulated without an {@link IBattle} instance, such as by the odds calculator.
+   */
+  public BattleResults(final int battleRoundsFought, final List<Unit> remainingAttackingUnits,
+      final List<Unit> remainingDefendingUnits, final WhoWon whoWon, final GameData data) {
+    super(data);
+    m_battleRoundsFought = battleRoundsFought;
+    m_remainingAttackingUnits = remainingAttackingUnits;
+    m_remainingDefendingUnits = remainingDefendingUnits;
+    m_whoWon = whoWon;
+  }
 
   public List<Unit> getRemainingAttackingUnits() {
     return m_remainingAttackingUnits;
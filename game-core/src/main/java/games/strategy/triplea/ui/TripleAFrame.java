@@ -147,6 +147,7 @@ import games.strategy.triplea.delegate.remote.IPoliticsDelegate;
 import games.strategy.triplea.delegate.remote.IUserActionDelegate;
 import games.strategy.triplea.formatter.MyFormatter;
 import games.strategy.triplea.image.TileImageFactory;
+import games.strategy.triplea.odds.calculator.OddsCalculatorRegistry;
 import games.strategy.triplea.settings.ClientSetting;
 import games.strategy.triplea.ui.export.ScreenshotExporter;
 import games.strategy.triplea.ui.history.HistoryDetailsPanel;
@@ -602,6 +603,8 @@ public final class TripleAFrame extends JFrame {
       historySyncher = null;
     }
     ProAi.gameOverClearCache();
+    // only the calculators of this game, other games may still be running in this JVM
+    OddsCalculatorRegistry.releaseCalculators(data);
   }
 
   /**
@@ -1,5 +1,9 @@
 package games.strategy.util;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.LinkedHashMap;
@@ -11,23 +15,35 @@ import java.util.Set;
  * A utility class for mapping Objects to ints. <br>
  * Supports adding and comparing of maps.
  *
+ * <p>
+ * Keys are iterated in insertion order. The values are stored as primitive ints, so getting and adding values does
+ * not box them.
+ * </p>
+ *
  * @param <T> The type of the map key.
  */
 public final class IntegerMap<T> implements Cloneable, Serializable {
   private static final long serialVersionUID = 6856531659284300930L;
-  private final Map<T, Integer> mapValues;
+  // written as the LinkedHashMap this class used to hold, so saved games stay readable by older versions
+  private static final ObjectStreamField[] serialPersistentFields = {
+      new ObjectStreamField("mapValues", Map.class)
+  };
+  private transient ObjectIntHashMap<T> mapValues;
 
   /** Creates new IntegerMap. */
   public IntegerMap() {
-    mapValues = new LinkedHashMap<>();
+    mapValues = new ObjectIntHashMap<>();
   }
 
   public IntegerMap(final int size) {
-    mapValues = new LinkedHashMap<>(size);
+    mapValues = new ObjectIntHashMap<>(size);
   }
 
-  public IntegerMap(final int size, final float loadFactor) {
-    mapValues = new LinkedHashMap<>(size, loadFactor);
+  /**
+   * Creates a new IntegerMap with room for the specified number of keys. The load factor is no longer used.
+   */
+  public IntegerMap(final int size, @SuppressWarnings("unused") final float loadFactor) {
+    this(size);
   }
 
   public IntegerMap(final T object, final int value) {
@@ -45,14 +61,28 @@ public final class IntegerMap<T> implements Cloneable, Serializable {
    * The Objects will be linked, but the integers mapped to them will not be linked.
    */
   public IntegerMap(final IntegerMap<T> integerMap) {
-    mapValues = new LinkedHashMap<>(integerMap.size());
-    for (final T t : integerMap.keySet()) {
-      mapValues.put(t, integerMap.getInt(t));
-    }
+    mapValues = new ObjectIntHashMap<>(integerMap.mapValues);
   }
 
   public IntegerMap(final Map<T, Integer> map) {
-    mapValues = new LinkedHashMap<>(map);
+    mapValues = new ObjectIntHashMap<>(map);
+  }
+
+  private void writeObject(final ObjectOutputStream out) throws IOException {
+    final ObjectOutputStream.PutField fields = out.putFields();
+    fields.put("mapValues", new LinkedHashMap<>(mapValues));
+    out.writeFields();
+  }
+
+  @SuppressWarnings("unchecked")
+  private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+    // set first, so a reference back to this map read along with its entries finds it usable, if still empty
+    mapValues = new ObjectIntHashMap<>();
+    final ObjectInputStream.GetField fields = in.readFields();
+    final Map<T, Integer> map = (Map<T, Integer>) fields.get("mapValues", null);
+    if (map != null) {
+      map.forEach((key, value) -> mapValues.putInt(key, value));
+    }
   }
 
   public Map<T, Integer> toMap() {
@@ -64,7 +94,7 @@ public final class IntegerMap<T> implements Cloneable, Serializable {
   }
 
   public void put(final T key, final int value) {
-    mapValues.put(key, value);
+    mapValues.putInt(key, value);
   }
 
   private void addAll(final Collection<T> keys, final int value) {
@@ -75,26 +105,15 @@ public final class IntegerMap<T> implements Cloneable, Serializable {
    * returns 0 if no key found.
    */
   public int getInt(final T key) {
-    if (!mapValues.containsKey(key)) {
-      return 0;
-    }
-    return mapValues.get(key);
+    return mapValues.getInt(key);
   }
 
   public void add(final T key, final int value) {
-    if (mapValues.get(key) == null) {
-      put(key, value);
-    } else {
-      final int oldVal = mapValues.get(key);
-      final int newVal = oldVal + value;
-      put(key, newVal);
-    }
+    mapValues.addInt(key, value);
   }
 
   public void add(final IntegerMap<T> map) {
-    for (final T key : map.keySet()) {
-      add(key, map.getInt(key));
-    }
+    addMultiple(map, 1);
   }
 
   /**
@@ -105,8 +124,12 @@ public final class IntegerMap<T> implements Cloneable, Serializable {
    * @param roundType (1 = floor, 2 = round, 3 = ceil)
    */
   public void multiplyAllValuesBy(final double multiplyBy, final int roundType) {
-    for (final T t : keySet()) {
-      double val = mapValues.get(t);
+    final ObjectIntHashMap<T> values = mapValues;
+    for (int i = 0; i < values.entryLimit(); i++) {
+      if (!values.isEntry(i)) {
+        continue;
+      }
+      double val = values.valueAt(i);
       switch (roundType) {
         case 1:
           val = Math.floor(val * multiplyBy);
@@ -121,7 +144,7 @@ public final class IntegerMap<T> implements Cloneable, Serializable {
           val = val * multiplyBy;
           break;
       }
-      put(t, (int) val);
+      values.setValueAt(i, (int) val);
     }
   }
 
@@ -139,9 +162,16 @@ public final class IntegerMap<T> implements Cloneable, Serializable {
    * @return true if all values are equal to the given integer.
    */
   public boolean allValuesEqual(final int integer) {
-    return !mapValues.isEmpty()
-        && mapValues.values().stream()
-            .noneMatch(value -> integer != value);
+    final ObjectIntHashMap<T> values = mapValues;
+    if (values.isEmpty()) {
+      return false;
+    }
+    for (int i = 0; i < values.entryLimit(); i++) {
+      if (values.isEntry(i) && values.valueAt(i) != integer) {
+        return false;
+      }
+    }
+    return true;
   }
 
   /**
@@ -151,12 +181,13 @@ public final class IntegerMap<T> implements Cloneable, Serializable {
     if (mapValues.isEmpty()) {
       return null;
     }
+    final ObjectIntHashMap<T> values = mapValues;
     int minValue = Integer.MAX_VALUE;
     T minKey = null;
-    for (final Map.Entry<T, Integer> entry : mapValues.entrySet()) {
-      if (entry.getValue() < minValue) {
-        minValue = entry.getValue();
-        minKey = entry.getKey();
+    for (int i = 0; i < values.entryLimit(); i++) {
+      if (values.isEntry(i) && values.valueAt(i) < minValue) {
+        minValue = values.valueAt(i);
+        minKey = values.keyAt(i);
       }
     }
     return minKey;
@@ -166,15 +197,18 @@ public final class IntegerMap<T> implements Cloneable, Serializable {
    * Returns the sum of all keys.
    */
   public int totalValues() {
-    return mapValues.values().stream()
-        .mapToInt(value -> value)
-        .sum();
+    final ObjectIntHashMap<T> values = mapValues;
+    int total = 0;
+    for (int i = 0; i < values.entryLimit(); i++) {
+      if (values.isEntry(i)) {
+        total += values.valueAt(i);
+      }
+    }
+    return total;
   }
 
   public void subtract(final IntegerMap<T> map) {
-    for (final T key : map.keySet()) {
-      add(key, -map.getInt(key));
-    }
+    addMultiple(map, -1);
   }
 
   /**
@@ -186,22 +220,30 @@ public final class IntegerMap<T> implements Cloneable, Serializable {
    * that a and b are not equal.
    */
   public boolean greaterThanOrEqualTo(final IntegerMap<T> map) {
-    return map.keySet().stream()
-        .allMatch(key -> this.getInt(key) >= map.getInt(key));
+    final ObjectIntHashMap<T> other = map.mapValues;
+    for (int i = 0; i < other.entryLimit(); i++) {
+      if (other.isEntry(i) && getInt(other.keyAt(i)) < other.valueAt(i)) {
+        return false;
+      }
+    }
+    return true;
   }
 
   /**
    * True if all values are >= 0.
    */
   public boolean isPositive() {
-    return mapValues.keySet().stream()
-        .noneMatch(key -> getInt(key) < 0);
+    final ObjectIntHashMap<T> values = mapValues;
+    for (int i = 0; i < values.entryLimit(); i++) {
+      if (values.isEntry(i) && values.valueAt(i) < 0) {
+        return false;
+      }
+    }
+    return true;
   }
 
   public IntegerMap<T> copy() {
-    final IntegerMap<T> copy = new IntegerMap<>();
-    copy.add(this);
-    return copy;
+    return new IntegerMap<>(this);
   }
 
   @Override
@@ -213,13 +255,18 @@ public final class IntegerMap<T> implements Cloneable, Serializable {
    * Add map * multiple.
    */
   public void addMultiple(final IntegerMap<T> map, final int multiple) {
-    for (final T key : map.keySet()) {
-      add(key, map.getInt(key) * multiple);
+    final ObjectIntHashMap<T> other = map.mapValues;
+    // a map added to itself would see its own additions, so work from a copy in that case
+    final ObjectIntHashMap<T> source = (other == mapValues) ? new ObjectIntHashMap<>(other) : other;
+    for (int i = 0; i < source.entryLimit(); i++) {
+      if (source.isEntry(i)) {
+        add(source.keyAt(i), source.valueAt(i) * multiple);
+      }
     }
   }
 
   public void removeKey(final T key) {
-    mapValues.remove(key);
+    mapValues.removeKey(key);
   }
 
   public boolean containsKey(final T key) {
@@ -241,8 +288,11 @@ public final class IntegerMap<T> implements Cloneable, Serializable {
     if (mapValues.isEmpty()) {
       buf.append("empty\n");
     }
-    for (final T current : mapValues.keySet()) {
-      buf.append(current).append(" -> ").append(getInt(current)).append("\n");
+    final ObjectIntHashMap<T> values = mapValues;
+    for (int i = 0; i < values.entryLimit(); i++) {
+      if (values.isEntry(i)) {
+        buf.append(values.keyAt(i)).append(" -> ").append(values.valueAt(i)).append("\n");
+      }
     }
     return buf.toString();
   }
@@ -0,0 +1,467 @@
+package games.strategy.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A map from objects to primitive ints, iterated in insertion order like a {@link LinkedHashMap}. This is the
+ * storage behind {@link IntegerMap}.
+ *
+ * <p>
+ * Entries are kept in parallel arrays in insertion order and found through an open addressing table with linear
+ * probing, so the primitive operations ({@link #getInt(Object)}, {@link #putInt(Object, int)} and
+ * {@link #addInt(Object, int)}) never box their values. The {@link Map} methods box as usual.
+ * </p>
+ *
+ * @param <K> The type of the map key.
+ */
+final class ObjectIntHashMap<K> extends AbstractMap<K, Integer> {
+  private static final int MIN_CAPACITY = 4;
+  // stands in for the null key, so a null in the key array always means a removed entry
+  private static final Object NULL_KEY = new Object();
+
+  // entries in insertion order; a removed entry leaves a null key behind until the entries are compacted
+  private Object[] keys;
+  private int[] values;
+  private int[] hashes;
+  private int entryCount = 0;
+  private int size = 0;
+  // open addressing table holding the entry index + 1 of each key at its probe position, or 0 if the slot is free
+  private int[] table;
+  private int modCount = 0;
+
+  ObjectIntHashMap() {
+    this(MIN_CAPACITY);
+  }
+
+  ObjectIntHashMap(final int expectedSize) {
+    allocate(Math.max(MIN_CAPACITY, expectedSize));
+  }
+
+  ObjectIntHashMap(final Map<? extends K, Integer> map) {
+    this(map.size());
+    map.forEach((key, value) -> putInt(key, value));
+  }
+
+  ObjectIntHashMap(final ObjectIntHashMap<? extends K> other) {
+    keys = Arrays.copyOf(other.keys, other.keys.length);
+    values = Arrays.copyOf(other.values, other.values.length);
+    hashes = Arrays.copyOf(other.hashes, other.hashes.length);
+    entryCount = other.entryCount;
+    size = other.size;
+    table = Arrays.copyOf(other.table, other.table.length);
+  }
+
+  private void allocate(final int capacity) {
+    keys = new Object[capacity];
+    values = new int[capacity];
+    hashes = new int[capacity];
+    // keep the table at most half full, so probe sequences stay short
+    table = new int[Integer.highestOneBit(capacity * 2 - 1) << 1];
+  }
+
+  private static Object maskNull(final Object key) {
+    return key == null ? NULL_KEY : key;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <K> K unmaskNull(final Object key) {
+    return key == NULL_KEY ? null : (K) key;
+  }
+
+  private static int hash(final Object maskedKey) {
+    final int h = maskedKey.hashCode() * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * Returns the entry index of the specified key, or -1 if it is not in this map.
+   */
+  private int indexOf(final Object key) {
+    final Object maskedKey = maskNull(key);
+    final int hash = hash(maskedKey);
+    final int mask = table.length - 1;
+    for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+      final int entry = table[slot];
+      if (entry == 0) {
+        return -1;
+      }
+      final int index = entry - 1;
+      if (hashes[index] == hash && maskedKey.equals(keys[index])) {
+        return index;
+      }
+    }
+  }
+
+  /**
+   * Returns the entry index of the specified key, adding it with a value of 0 if it is not in this map yet.
+   */
+  private int indexOfOrAdd(final K key) {
+    if (entryCount == keys.length) {
+      resize();
+    }
+    final Object maskedKey = maskNull(key);
+    final int hash = hash(maskedKey);
+    final int mask = table.length - 1;
+    int slot = hash & mask;
+    for (int entry = table[slot]; entry != 0; entry = table[slot]) {
+      final int index = entry - 1;
+      if (hashes[index] == hash && maskedKey.equals(keys[index])) {
+        return index;
+      }
+      slot = (slot + 1) & mask;
+    }
+    final int index = entryCount++;
+    keys[index] = maskedKey;
+    values[index] = 0;
+    hashes[index] = hash;
+    table[slot] = index + 1;
+    size++;
+    modCount++;
+    return index;
+  }
+
+  /**
+   * Makes room for another entry, either by dropping the removed entries or, if there are few of them, by growing.
+   */
+  private void resize() {
+    final Object[] oldKeys = keys;
+    final int[] oldValues = values;
+    final int[] oldHashes = hashes;
+    final int oldEntryCount = entryCount;
+    allocate(size < oldKeys.length / 2 ? oldKeys.length : oldKeys.length * 2);
+    final int mask = table.length - 1;
+    entryCount = 0;
+    for (int i = 0; i < oldEntryCount; i++) {
+      if (oldKeys[i] != null) {
+        final int index = entryCount++;
+        keys[index] = oldKeys[i];
+        values[index] = oldValues[i];
+        hashes[index] = oldHashes[i];
+        int slot = oldHashes[i] & mask;
+        while (table[slot] != 0) {
+          slot = (slot + 1) & mask;
+        }
+        table[slot] = index + 1;
+      }
+    }
+  }
+
+  private void removeIndex(final int index) {
+    final int mask = table.length - 1;
+    int free = hashes[index] & mask;
+    while (table[free] != index + 1) {
+      free = (free + 1) & mask;
+    }
+    // shift later entries of the probe sequence back, so no lookup stops early at the freed slot
+    for (int slot = (free + 1) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+      final int home = hashes[table[slot] - 1] & mask;
+      if (((slot - home) & mask) >= ((slot - free) & mask)) {
+        table[free] = table[slot];
+        free = slot;
+      }
+    }
+    table[free] = 0;
+    keys[index] = null;
+    size--;
+    modCount++;
+    if (size == 0) {
+      entryCount = 0;
+    }
+  }
+
+  /**
+   * Returns the value of the specified key, or 0 if it is not in this map.
+   */
+  int getInt(final Object key) {
+    final int index = indexOf(key);
+    return index < 0 ? 0 : values[index];
+  }
+
+  void putInt(final K key, final int value) {
+    // the index must be found before reading the values field, since adding a key may replace the array
+    final int index = indexOfOrAdd(key);
+    values[index] = value;
+  }
+
+  /**
+   * Adds the specified value to the value of the specified key, which is 0 if it is not in this map yet.
+   */
+  void addInt(final K key, final int value) {
+    final int index = indexOfOrAdd(key);
+    values[index] += value;
+  }
+
+  boolean removeKey(final Object key) {
+    final int index = indexOf(key);
+    if (index < 0) {
+      return false;
+    }
+    removeIndex(index);
+    return true;
+  }
+
+  /**
+   * Returns the number of entry indexes, including those of removed entries. Together with {@link #isEntry(int)},
+   * {@link #keyAt(int)} and {@link #valueAt(int)} this allows iterating over the entries in insertion order without
+   * creating iterators or boxing values.
+   */
+  int entryLimit() {
+    return entryCount;
+  }
+
+  boolean isEntry(final int index) {
+    return keys[index] != null;
+  }
+
+  K keyAt(final int index) {
+    return unmaskNull(keys[index]);
+  }
+
+  int valueAt(final int index) {
+    return values[index];
+  }
+
+  void setValueAt(final int index, final int value) {
+    values[index] = value;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    return indexOf(key) >= 0;
+  }
+
+  @Override
+  public Integer get(final Object key) {
+    final int index = indexOf(key);
+    return index < 0 ? null : values[index];
+  }
+
+  @Override
+  public Integer put(final K key, final Integer value) {
+    final int index = indexOf(key);
+    final Integer previous = index < 0 ? null : values[index];
+    putInt(key, value);
+    return previous;
+  }
+
+  @Override
+  public Integer remove(final Object key) {
+    final int index = indexOf(key);
+    if (index < 0) {
+      return null;
+    }
+    final int previous = values[index];
+    removeIndex(index);
+    return previous;
+  }
+
+  @Override
+  public void clear() {
+    if (entryCount > 0) {
+      Arrays.fill(keys, 0, entryCount, null);
+      Arrays.fill(table, 0);
+      entryCount = 0;
+      size = 0;
+      modCount++;
+    }
+  }
+
+  @Override
+  public Set<K> keySet() {
+    return new AbstractSet<K>() {
+      @Override
+      public Iterator<K> iterator() {
+        return new EntryIndexIterator<K>() {
+          @Override
+          K get(final int index) {
+            return keyAt(index);
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+
+      @Override
+      public boolean contains(final Object key) {
+        return containsKey(key);
+      }
+
+      @Override
+      public boolean remove(final Object key) {
+        return removeKey(key);
+      }
+
+      @Override
+      public void clear() {
+        ObjectIntHashMap.this.clear();
+      }
+    };
+  }
+
+  @Override
+  public Set<Map.Entry<K, Integer>> entrySet() {
+    return new AbstractSet<Map.Entry<K, Integer>>() {
+      @Override
+      public Iterator<Map.Entry<K, Integer>> iterator() {
+        return new EntryIndexIterator<Map.Entry<K, Integer>>() {
+          @Override
+          Map.Entry<K, Integer> get(final int index) {
+            return new Entry(index);
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+
+      @Override
+      public void clear() {
+        ObjectIntHashMap.this.clear();
+      }
+    };
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (!(o instanceof ObjectIntHashMap)) {
+      return super.equals(o);
+    }
+    final ObjectIntHashMap<?> other = (ObjectIntHashMap<?>) o;
+    if (other.size != size) {
+      return false;
+    }
+    for (int i = 0; i < entryCount; i++) {
+      if (keys[i] != null) {
+        final int otherIndex = other.indexOf(unmaskNull(keys[i]));
+        if (otherIndex < 0 || other.values[otherIndex] != values[i]) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    // same as the hash code of any other map with these entries
+    int hashCode = 0;
+    for (int i = 0; i < entryCount; i++) {
+      if (keys[i] != null) {
+        hashCode += Objects.hashCode(unmaskNull(keys[i])) ^ values[i];
+      }
+    }
+    return hashCode;
+  }
+
+  private abstract class EntryIndexIterator<E> implements Iterator<E> {
+    private int next = 0;
+    private int current = -1;
+    private int expectedModCount = modCount;
+
+    abstract E get(int index);
+
+    @Override
+    public boolean hasNext() {
+      while (next < entryCount && keys[next] == null) {
+        next++;
+      }
+      return next < entryCount;
+    }
+
+    @Override
+    public E next() {
+      if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      current = next++;
+      return get(current);
+    }
+
+    @Override
+    public void remove() {
+      if (current < 0) {
+        throw new IllegalStateException();
+      }
+      if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+      removeIndex(current);
+      current = -1;
+      expectedModCount = modCount;
+    }
+  }
+
+  /**
+   * An entry that reads and writes through to this map, like the entries of a {@link LinkedHashMap}.
+   */
+  private final class Entry implements Map.Entry<K, Integer> {
+    private final int index;
+
+    Entry(final int index) {
+      this.index = index;
+    }
+
+    @Override
+    public K getKey() {
+      return keyAt(index);
+    }
+
+    @Override
+    public Integer getValue() {
+      return values[index];
+    }
+
+    @Override
+    public Integer setValue(final Integer value) {
+      final int previous = values[index];
+      values[index] = value;
+      return previous;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (!(o instanceof Map.Entry)) {
+        return false;
+      }
+      final Map.Entry<?, ?> other = (Map.Entry<?, ?>) o;
+      return Objects.equals(getKey(), other.getKey()) && Objects.equals(getValue(), other.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(getKey()) ^ values[index];
+    }
+
+    @Override
+    public String toString() {
+      return getKey() + "=" + values[index];
+    }
+  }
+}
@@ -5,7 +5,13 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -238,4 +244,73 @@ public class MapTest {
     assertTrue(neighbors.contains(bb));
     assertTrue(neighbors.contains(ca));
   }
+
+  @Test
+  public void testIndexedDistancesMatchSearchedDistances() {
+    for (final Territory from : map) {
+      for (final Territory to : map) {
+        assertEquals(map.getDistance(from, to, t -> !t.isWater()), map.getLandDistance(from, to));
+        assertEquals(map.getDistance(from, to, Territory::isWater), map.getWaterDistance(from, to));
+        assertEquals(map.getDistance(from, to, t -> true), map.getDistance(from, to));
+        assertEquals(map.getDistance_IgnoreEndForCondition(from, to, t -> !t.isWater()),
+            map.getDistance_IgnoreEndForCondition(from, to, Matches.territoryIsLand()));
+      }
+    }
+  }
+
+  @Test
+  public void testLandDistanceIgnoringEnd() {
+    assertEquals(2, map.getDistance_IgnoreEndForCondition(ab, bc, Matches.territoryIsLand()));
+    assertEquals(-1, map.getDistance_IgnoreEndForCondition(ca, cd, Matches.territoryIsLand()));
+  }
+
+  @Test
+  public void testNewConnectionUpdatesDistances() {
+    assertEquals(-1, map.getLandDistance(ca, cd));
+    map.addConnection(db, cd);
+    assertEquals(3, map.getLandDistance(ca, cd));
+    assertEquals(3, map.getLandRoute(ca, cd).numberOfSteps());
+  }
+
+  @Test
+  public void testNeighborsWithDistanceAndCondition() {
+    final Set<Territory> neighbors = map.getNeighbors(aa, 3, Matches.territoryIsLand());
+    assertEquals(new HashSet<>(Arrays.asList(ab, ba, ac, bb, ca, ad, cb, da)), neighbors);
+  }
+
+  @Test
+  public void testNeighborsOfFrontier() {
+    final Set<Territory> neighbors =
+        map.getNeighbors(new HashSet<>(Arrays.asList(aa, ab)), 1, Matches.territoryIsLand());
+    assertEquals(new HashSet<>(Arrays.asList(ac, ba, bb)), neighbors);
+  }
+
+  @Test
+  public void testTerritoryIds() {
+    for (int id = 0; id < map.getTerritories().size(); id++) {
+      assertEquals(id, map.getTerritoryId(map.getTerritories().get(id)));
+      assertEquals(map.getTerritories().get(id), map.getTerritoryById(id));
+    }
+    assertEquals(0, map.getTerritoryId(new Territory("aa", false, null)));
+    assertEquals(-1, map.getTerritoryId(nowhere));
+  }
+
+  @Test
+  public void testCompositeRouteAvoidsExpensiveTerritories() {
+    final Map<Predicate<Territory>, Integer> scores = new HashMap<>();
+    scores.put(Matches.territoryIsLand().and(Matches.territoryIs(ab).negate()), 1);
+    scores.put(Matches.territoryIs(ab), 10);
+    final Route route = map.getCompositeRoute(aa, bb, scores);
+    assertEquals(Arrays.asList(aa, ba, bb), route.getAllTerritories());
+  }
+
+  @Test
+  public void testRouteLongerThanMaxStepsIsNotFound() {
+    assertNull(map.getRouteIgnoreEndValidatingCanals(ad, da, Matches.territoryIsLand(), Collections.emptyList(),
+        null, 5));
+    final Route route = map.getRouteIgnoreEndValidatingCanals(ad, da, Matches.territoryIsLand(),
+        Collections.emptyList(), null, 6);
+    assertEquals(6, route.numberOfSteps());
+    assertTrue(map.isValidRoute(route));
+  }
 }
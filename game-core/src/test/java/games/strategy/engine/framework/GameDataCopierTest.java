@@ -0,0 +1,100 @@
+package games.strategy.engine.framework;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.Test;
+import org.triplea.test.common.Integration;
+
+import games.strategy.engine.data.GameData;
+import games.strategy.engine.data.Territory;
+import games.strategy.io.IoUtils;
+import games.strategy.triplea.settings.AbstractClientSettingTestCase;
+import games.strategy.triplea.xml.TestMapGameData;
+
+public class GameDataCopierTest extends AbstractClientSettingTestCase {
+  private static final Logger logger = Logger.getLogger(GameDataCopierTest.class.getName());
+
+  @Test
+  public void copyShouldCreateIndependentGameDataWithSameState() throws Exception {
+    final GameData data = TestMapGameData.GLOBAL1940.getGameData();
+
+    final GameData copy = GameDataCopier.copy(data, false);
+
+    assertThat(copy, is(not(sameInstance(data))));
+    assertThat(copy.getProperties().get(GameData.GAME_UUID), is(data.getProperties().get(GameData.GAME_UUID)));
+    assertThat(copy.getMap().getTerritories().size(), is(data.getMap().getTerritories().size()));
+    assertThat(copy.getUnits().getUnits().size(), is(data.getUnits().getUnits().size()));
+    for (final Territory territory : data.getMap().getTerritories()) {
+      final Territory copiedTerritory = copy.getMap().getTerritory(territory.getName());
+      assertThat(copiedTerritory, is(not(sameInstance(territory))));
+      assertThat(copiedTerritory.getOwner().getName(), is(territory.getOwner().getName()));
+      assertThat(copiedTerritory.getUnits().size(), is(territory.getUnits().size()));
+    }
+  }
+
+  @Test
+  public void copyShouldIncludeDelegatesOnlyWhenRequested() throws Exception {
+    final GameData data = TestMapGameData.REVISED.getGameData();
+
+    assertThat(GameDataCopier.copy(data, true).getDelegateList().size(), is(data.getDelegateList().size()));
+    assertThat(GameDataCopier.copy(data, false).getDelegateList().size(), is(0));
+  }
+
+  @Test
+  public void snapshotShouldCreateIndependentCopies() throws Exception {
+    final GameData data = TestMapGameData.REVISED.getGameData();
+    final GameDataCopier.Snapshot snapshot = GameDataCopier.snapshot(data, false);
+
+    final GameData first = snapshot.newCopy();
+    final GameData second = snapshot.newCopy();
+
+    assertThat(first, is(not(sameInstance(second))));
+    final Territory germany = first.getMap().getTerritory("Germany");
+    assertThat(germany, is(not(sameInstance(second.getMap().getTerritory("Germany")))));
+    germany.getUnits().clear();
+    assertThat(second.getMap().getTerritory("Germany").getUnits().size(),
+        is(data.getMap().getTerritory("Germany").getUnits().size()));
+  }
+
+  @Integration
+  @Test
+  public void reportCopyAndSaveGameRoundTripTimes() throws Exception {
+    final GameData data = TestMapGameData.GLOBAL1940.getGameData();
+    final int iterations = 10;
+    // warm up both paths so the comparison is not dominated by class loading and JIT compilation
+    for (int i = 0; i < iterations; i++) {
+      GameDataCopier.copy(data, false);
+      saveGameRoundTrip(data);
+    }
+
+    GameData copy = null;
+    final long copyStart = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      copy = GameDataCopier.copy(data, false);
+    }
+    final long copyNanos = System.nanoTime() - copyStart;
+
+    GameData roundTrip = null;
+    final long roundTripStart = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      roundTrip = saveGameRoundTrip(data);
+    }
+    final long roundTripNanos = System.nanoTime() - roundTripStart;
+
+    // the times depend too much on the machine to be compared, so they are only reported
+    logger.info(String.format("Copying %s took %d ms, a save game round trip %d ms (%d iterations)",
+        data.getGameName(), copyNanos / 1_000_000, roundTripNanos / 1_000_000, iterations));
+    assertThat(copy.getUnits().getUnits().size(), is(roundTrip.getUnits().getUnits().size()));
+  }
+
+  private static GameData saveGameRoundTrip(final GameData data) throws Exception {
+    final byte[] bytes =
+        IoUtils.writeToMemory(os -> GameDataManager.saveGame(os, data, false, GameDataManager.DEFAULT_CODEC));
+    return IoUtils.readFromMemory(bytes, GameDataManager::loadGame);
+  }
+}
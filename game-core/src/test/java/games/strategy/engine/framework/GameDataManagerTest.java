@@ -2,11 +2,17 @@ package games.strategy.engine.framework;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import org.junit.jupiter.api.Test;
 
+import games.strategy.engine.ClientContext;
 import games.strategy.engine.data.GameData;
+import games.strategy.io.ChunkedOutputStream;
 import games.strategy.io.IoUtils;
 import games.strategy.triplea.settings.AbstractClientSettingTestCase;
 
@@ -18,4 +24,37 @@ public class GameDataManagerTest extends AbstractClientSettingTestCase {
     final GameData loaded = IoUtils.readFromMemory(bytes, GameDataManager::loadGame);
     assertEquals(loaded.getProperties().get(GameData.GAME_UUID), data.getProperties().get(GameData.GAME_UUID));
   }
+
+  @Test
+  public void shouldSaveAsPlainGzipStreamReadableByEnginesBeforeSaveGameContainer() throws IOException {
+    final byte[] bytes = IoUtils.writeToMemory(os -> GameDataManager.saveGame(os, new GameData()));
+
+    assertEquals(GZIPInputStream.GZIP_MAGIC, (bytes[0] & 0xFF) | ((bytes[1] & 0xFF) << 8));
+  }
+
+  @Test
+  public void shouldLoadGzipSaveWrittenBeforeSaveGameContainer() throws IOException {
+    final GameData data = new GameData();
+    final byte[] bytes = IoUtils.writeToMemory(os -> {
+      try (ObjectOutputStream out = new ObjectOutputStream(new GZIPOutputStream(os))) {
+        out.writeObject(ClientContext.engineVersion());
+        GameDataManager.writeGameData(out, data, true);
+      }
+    });
+
+    final GameData loaded = IoUtils.readFromMemory(bytes, GameDataManager::loadGame);
+
+    assertEquals(loaded.getProperties().get(GameData.GAME_UUID), data.getProperties().get(GameData.GAME_UUID));
+  }
+
+  @Test
+  public void shouldLoadGameSavedInParts() throws IOException {
+    final GameData data = new GameData();
+    final ByteArrayOutputStream received = new ByteArrayOutputStream();
+    GameDataManager.saveGame(new ChunkedOutputStream(100, received::write), data);
+
+    final GameData loaded = IoUtils.readFromMemory(received.toByteArray(), GameDataManager::loadGame);
+
+    assertEquals(loaded.getProperties().get(GameData.GAME_UUID), data.getProperties().get(GameData.GAME_UUID));
+  }
 }
@@ -0,0 +1,85 @@
+package games.strategy.engine.framework;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import games.strategy.engine.data.Change;
+import games.strategy.engine.data.CompositeChange;
+import games.strategy.engine.data.GameData;
+import games.strategy.engine.data.PlayerID;
+import games.strategy.engine.data.Territory;
+import games.strategy.engine.data.changefactory.ChangeFactory;
+import games.strategy.io.IoUtils;
+import games.strategy.net.SchemaObjectInputStream;
+import games.strategy.net.SchemaObjectOutputStream;
+import games.strategy.triplea.Constants;
+import games.strategy.triplea.xml.TestMapGameData;
+
+public final class GameObjectStreamFactoryTest {
+  private GameData gameData;
+  private GameObjectStreamFactory streamFactory;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    gameData = TestMapGameData.TEST.getGameData();
+    streamFactory = new GameObjectStreamFactory(gameData);
+  }
+
+  private byte[] write(final Object object, final boolean enableSchema) throws IOException {
+    return IoUtils.writeToMemory(os -> {
+      try (ObjectOutputStream output = streamFactory.create(os)) {
+        if (enableSchema) {
+          SchemaObjectOutputStream.enableSchema(output);
+        }
+        output.writeObject(object);
+      }
+    });
+  }
+
+  private Object read(final byte[] bytes, final boolean enableSchema) throws IOException {
+    return IoUtils.readFromMemory(bytes, is -> {
+      try (ObjectInputStream input = streamFactory.create(is)) {
+        if (enableSchema) {
+          SchemaObjectInputStream.enableSchema(input);
+        }
+        return input.readObject();
+      } catch (final ClassNotFoundException e) {
+        throw new IOException(e);
+      }
+    });
+  }
+
+  private Change newChange() {
+    final Territory canada = gameData.getMap().getTerritory("canada");
+    final PlayerID bush = gameData.getPlayerList().getPlayerId("bush");
+    return new CompositeChange(
+        ChangeFactory.addUnits(canada, gameData.getUnitTypeList().getUnitType(Constants.UNIT_TYPE_INF).create(3, bush)),
+        ChangeFactory.changeOwner(gameData.getMap().getTerritory("greenland"), bush));
+  }
+
+  @Test
+  public void changeShouldBeReadWithSchema() throws IOException {
+    final Change change = (Change) read(write(newChange(), true), true);
+
+    gameData.performChange(change);
+
+    assertThat(gameData.getMap().getTerritory("canada").getUnits().getUnitCount(), is(8));
+    assertThat(gameData.getMap().getTerritory("greenland").getOwner(),
+        is(gameData.getPlayerList().getPlayerId("bush")));
+  }
+
+  @Test
+  public void changeShouldTakeFewerBytesWithSchema() throws IOException {
+    final Change change = newChange();
+
+    assertThat(write(change, true).length, is(lessThan(write(change, false).length)));
+  }
+}
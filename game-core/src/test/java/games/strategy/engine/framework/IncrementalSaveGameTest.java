@@ -0,0 +1,115 @@
+package games.strategy.engine.framework;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junitpioneer.jupiter.TempDirectory;
+import org.junitpioneer.jupiter.TempDirectory.TempDir;
+
+import games.strategy.engine.data.Change;
+import games.strategy.engine.data.GameData;
+import games.strategy.engine.data.changefactory.ChangeFactory;
+import games.strategy.engine.history.HistoryWriter;
+import games.strategy.triplea.settings.AbstractClientSettingTestCase;
+
+@ExtendWith(TempDirectory.class)
+public class IncrementalSaveGameTest extends AbstractClientSettingTestCase {
+  private final IncrementalSaveGame incrementalSaveGame = new IncrementalSaveGame();
+  private final GameData data = new GameData();
+  private File file;
+
+  @BeforeEach
+  public void setUp(@TempDir final Path tempDirPath) {
+    file = tempDirPath.resolve("autosave.tsvg").toFile();
+    // large enough that the deltas of the tests are appended rather than written as a new base
+    for (int i = 0; i < 1000; i++) {
+      data.getProperties().set("property" + i, "value" + i);
+    }
+  }
+
+  private void writeEvent(final String property, final String value) {
+    final HistoryWriter historyWriter = data.getHistory().getHistoryWriter();
+    historyWriter.startEvent("set " + property);
+    final Change change = ChangeFactory.setProperty(property, value, data);
+    data.performChange(change);
+    historyWriter.addChange(change);
+  }
+
+  @Test
+  public void shouldLoadBaseOnly() throws IOException {
+    incrementalSaveGame.save(file, data);
+
+    final GameData loaded = GameDataManager.loadGame(file);
+
+    assertThat(loaded.getProperties().get("property1"), is("value1"));
+  }
+
+  @Test
+  public void shouldReplayDeltasWhenLoading() throws IOException {
+    data.getHistory().getHistoryWriter().startNextRound(1);
+    data.getHistory().getHistoryWriter().startNextStep("step", "delegate", null, "Step");
+    incrementalSaveGame.save(file, data);
+    final long baseLength = file.length();
+    writeEvent("first", "1");
+    incrementalSaveGame.save(file, data);
+    writeEvent("second", "2");
+    incrementalSaveGame.save(file, data);
+
+    final GameData loaded = GameDataManager.loadGame(file);
+
+    assertThat(file.length() > baseLength, is(true));
+    assertThat(loaded.getProperties().get("first"), is("1"));
+    assertThat(loaded.getProperties().get("second"), is("2"));
+    assertThat(loaded.getHistory().getLastNode().getTitle(), is("set second"));
+  }
+
+  @Test
+  public void shouldIgnoreIncompleteLastDelta() throws IOException {
+    data.getHistory().getHistoryWriter().startNextRound(1);
+    data.getHistory().getHistoryWriter().startNextStep("step", "delegate", null, "Step");
+    writeEvent("first", "1");
+    incrementalSaveGame.save(file, data);
+    writeEvent("second", "2");
+    incrementalSaveGame.save(file, data);
+    try (RandomAccessFile truncated = new RandomAccessFile(file, "rw")) {
+      truncated.setLength(file.length() - 1);
+    }
+
+    final GameData loaded = GameDataManager.loadGame(file);
+
+    assertThat(loaded.getProperties().get("first"), is("1"));
+    assertThat(loaded.getProperties().get("second"), is(nullValue()));
+  }
+
+  @Test
+  public void shouldWriteNewBaseWhenFileChangedBeforeWritingDelta() throws IOException {
+    data.getHistory().getHistoryWriter().startNextRound(1);
+    data.getHistory().getHistoryWriter().startNextStep("step", "delegate", null, "Step");
+    incrementalSaveGame.save(file, data);
+    writeEvent("first", "1");
+    final IncrementalSaveGame.Snapshot delta = incrementalSaveGame.snapshot(file, data);
+    try (OutputStream os = new FileOutputStream(file)) {
+      // a regular save over the autosave, which the delta must not be appended to
+      GameDataManager.saveGame(os, data);
+    }
+    IncrementalSaveGame.write(delta);
+    writeEvent("second", "2");
+    incrementalSaveGame.save(file, data);
+
+    final GameData loaded = GameDataManager.loadGame(file);
+
+    assertThat(loaded.getProperties().get("first"), is("1"));
+    assertThat(loaded.getProperties().get("second"), is("2"));
+  }
+}
@@ -0,0 +1,112 @@
+package games.strategy.engine.framework;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.Test;
+import org.triplea.test.common.Integration;
+
+import com.google.common.io.ByteStreams;
+
+import games.strategy.engine.ClientContext;
+import games.strategy.engine.data.GameData;
+import games.strategy.io.IoUtils;
+import games.strategy.triplea.settings.AbstractClientSettingTestCase;
+import games.strategy.triplea.xml.TestMapGameData;
+
+public class SaveGameContainerTest extends AbstractClientSettingTestCase {
+  private static final Logger logger = Logger.getLogger(SaveGameContainerTest.class.getName());
+
+  private static byte[] newContent(final int length) {
+    // compressible, but not trivially
+    final Random random = new Random(42);
+    final byte[] content = new byte[length];
+    for (int i = 0; i < length; i++) {
+      content[i] = (byte) ('a' + random.nextInt(8));
+    }
+    return content;
+  }
+
+  private static byte[] roundTrip(final SaveGameContainer.Codec codec, final byte[] content) throws IOException {
+    final byte[] container = IoUtils.writeToMemory(os -> SaveGameContainer.write(os, codec, content));
+    try (InputStream is = SaveGameContainer.read(new ByteArrayInputStream(container))) {
+      return ByteStreams.toByteArray(is);
+    }
+  }
+
+  @Test
+  public void shouldReadWhatWasWrittenWithEachCodec() throws IOException {
+    // more than one block of the block codec, with a shorter last one
+    final byte[] content = newContent(2 * 1024 * 1024 + 17);
+
+    for (final SaveGameContainer.Codec codec : SaveGameContainer.Codec.values()) {
+      assertThat(codec.toString(), Arrays.equals(roundTrip(codec, content), content), is(true));
+      assertThat(codec.toString(), roundTrip(codec, new byte[0]).length, is(0));
+    }
+  }
+
+  @Test
+  public void shouldRejectCorruptBlock() throws IOException {
+    final byte[] container = IoUtils.writeToMemory(
+        os -> SaveGameContainer.write(os, SaveGameContainer.Codec.DEFLATE_BLOCKS, newContent(1000)));
+    // the compressed data of the only block starts after the header, the block count and the block lengths
+    container[4 + 2 + 4 + 4 + 4 + 5] ^= 0xFF;
+
+    assertThrows(IOException.class, () -> SaveGameContainer.read(new ByteArrayInputStream(container)));
+  }
+
+  @Test
+  public void shouldRejectUnknownCodec() throws IOException {
+    final byte[] container =
+        IoUtils.writeToMemory(os -> SaveGameContainer.write(os, SaveGameContainer.Codec.NONE, newContent(10)));
+    container[5] = 99;
+
+    assertThrows(IOException.class, () -> SaveGameContainer.read(new ByteArrayInputStream(container)));
+  }
+
+  @Integration
+  @Test
+  public void reportGzipAndDeflateBlocksTimesForLargeSave() throws Exception {
+    final GameData data = TestMapGameData.GLOBAL1940.getGameData();
+    final byte[] content = IoUtils.writeToMemory(os -> {
+      try (ObjectOutputStream out = new ObjectOutputStream(os)) {
+        out.writeObject(ClientContext.engineVersion());
+        GameDataManager.writeGameData(out, data, true);
+      }
+    });
+    final int iterations = 10;
+    // warm up both codecs so the comparison is not dominated by class loading and JIT compilation
+    for (int i = 0; i < iterations; i++) {
+      roundTrip(SaveGameContainer.Codec.GZIP, content);
+      roundTrip(SaveGameContainer.Codec.DEFLATE_BLOCKS, content);
+    }
+
+    final long gzipStart = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      roundTrip(SaveGameContainer.Codec.GZIP, content);
+    }
+    final long gzipNanos = System.nanoTime() - gzipStart;
+
+    byte[] deflateBlocksContent = null;
+    final long deflateBlocksStart = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      deflateBlocksContent = roundTrip(SaveGameContainer.Codec.DEFLATE_BLOCKS, content);
+    }
+    final long deflateBlocksNanos = System.nanoTime() - deflateBlocksStart;
+
+    // the times depend on the machine, and for the block codec on its number of cores, so they are only reported
+    logger.info(String.format("Round trips of a %d byte save took %d ms with gzip, %d ms with deflate blocks on %d "
+        + "cores (%d iterations)", content.length, gzipNanos / 1_000_000, deflateBlocksNanos / 1_000_000,
+        Runtime.getRuntime().availableProcessors(), iterations));
+    assertThat(Arrays.equals(deflateBlocksContent, content), is(true));
+  }
+}
@@ -10,11 +10,18 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.net.InetAddress;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -160,6 +167,120 @@ public class RemoteMessengerTest {
     }
   }
 
+  @Test
+  public void testRemoteCallRunsOnGivenExecutor() throws Exception {
+    final RemoteName test = new RemoteName("test", ITestRemote.class);
+    IServerMessenger server = null;
+    ClientMessenger client = null;
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      server = new TestServerMessenger("server", 0);
+      server.setAcceptNewConnections(true);
+      final int serverPort = server.getLocalNode().getSocketAddress().getPort();
+      final String mac = MacFinder.getHashedMacAddress();
+      client = new ClientMessenger("localhost", serverPort, "client", mac);
+      final AtomicInteger executed = new AtomicInteger();
+      final UnifiedMessenger serverUnifiedMessenger = new UnifiedMessenger(server, task -> {
+        executed.incrementAndGet();
+        executor.execute(task);
+      });
+      final RemoteMessenger serverRemoteMessenger = new RemoteMessenger(serverUnifiedMessenger);
+      serverRemoteMessenger.registerRemote(new TestRemote(), test);
+      final UnifiedMessenger clientUnifiedMessenger = new UnifiedMessenger(client);
+      final RemoteMessenger clientRemoteMessenger = new RemoteMessenger(clientUnifiedMessenger);
+
+      assertEquals(2, ((ITestRemote) clientRemoteMessenger.getRemote(test)).increment(1));
+      assertEquals(1, executed.get());
+      assertEquals(1, serverUnifiedMessenger.getStatistics().getDeliveredCount());
+      assertEquals(0, serverUnifiedMessenger.getStatistics().getQueuedDeliveryCount());
+      assertEquals(1, clientUnifiedMessenger.getStatistics().getCompletedInvocationCount());
+      assertEquals(0, clientUnifiedMessenger.getStatistics().getPendingInvocationCount());
+    } finally {
+      shutdownServerAndClient(server, client);
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testAsyncRemoteCallsRunInOrder() throws Exception {
+    final RemoteName test = new RemoteName("test", IOrderRemote.class);
+    IServerMessenger server = null;
+    ClientMessenger client = null;
+    try {
+      server = new TestServerMessenger("server", 0);
+      server.setAcceptNewConnections(true);
+      final int serverPort = server.getLocalNode().getSocketAddress().getPort();
+      final String mac = MacFinder.getHashedMacAddress();
+      client = new ClientMessenger("localhost", serverPort, "client", mac);
+      final RemoteMessenger serverRemoteMessenger = new RemoteMessenger(new UnifiedMessenger(server));
+      final List<Integer> received = new CopyOnWriteArrayList<>();
+      serverRemoteMessenger.registerRemote((IOrderRemote) value -> {
+        received.add(value);
+        return value * 2;
+      }, test);
+      final RemoteMessenger clientRemoteMessenger = new RemoteMessenger(new UnifiedMessenger(client));
+
+      final List<CompletableFuture<Integer>> futures = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        final int value = i;
+        futures.add(clientRemoteMessenger.invokeAsync(test, (IOrderRemote remote) -> remote.receive(value)));
+      }
+      for (int i = 0; i < 100; i++) {
+        assertEquals(2 * i, (int) futures.get(i).get(10, TimeUnit.SECONDS));
+      }
+      assertEquals(IntStream.range(0, 100).boxed().collect(Collectors.toList()), received);
+    } finally {
+      shutdownServerAndClient(server, client);
+    }
+  }
+
+  @Test
+  public void testAsyncRemoteCallCompletesOnExecutor() throws Exception {
+    final RemoteName test = new RemoteName("test", IOrderRemote.class);
+    IServerMessenger server = null;
+    ClientMessenger client = null;
+    final ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "Client Executor"));
+    try {
+      server = new TestServerMessenger("server", 0);
+      server.setAcceptNewConnections(true);
+      final int serverPort = server.getLocalNode().getSocketAddress().getPort();
+      final String mac = MacFinder.getHashedMacAddress();
+      client = new ClientMessenger("localhost", serverPort, "client", mac);
+      final RemoteMessenger serverRemoteMessenger = new RemoteMessenger(new UnifiedMessenger(server));
+      final CountDownLatch received = new CountDownLatch(1);
+      final CountDownLatch chained = new CountDownLatch(1);
+      serverRemoteMessenger.registerRemote((IOrderRemote) value -> {
+        received.countDown();
+        Interruptibles.await(chained);
+        return value;
+      }, test);
+      final RemoteMessenger clientRemoteMessenger = new RemoteMessenger(new UnifiedMessenger(client, executor));
+
+      final CompletableFuture<String> completingThread = clientRemoteMessenger
+          .invokeAsync(test, (IOrderRemote remote) -> remote.receive(1))
+          .thenApply(value -> Thread.currentThread().getName());
+      assertTrue(received.await(10, TimeUnit.SECONDS));
+      chained.countDown();
+
+      assertEquals("Client Executor", completingThread.get(10, TimeUnit.SECONDS));
+    } finally {
+      shutdownServerAndClient(server, client);
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testAsyncRemoteCallCompletesExceptionally() {
+    final RemoteName test = new RemoteName("test", IOrderRemote.class);
+    remoteMessenger.registerRemote((IOrderRemote) value -> {
+      throw new IllegalStateException(TestRemote.EXCEPTION_STRING);
+    }, test);
+    final CompletableFuture<Integer> future =
+        remoteMessenger.invokeAsync(test, (IOrderRemote remote) -> remote.receive(1));
+    final Exception e = assertThrows(ExecutionException.class, future::get);
+    assertEquals(TestRemote.EXCEPTION_STRING, e.getCause().getCause().getMessage());
+  }
+
   private static void shutdownServerAndClient(final IServerMessenger server, final ClientMessenger client) {
     if (server != null) {
       server.shutDown();
@@ -265,6 +386,10 @@ public class RemoteMessengerTest {
     void foo();
   }
 
+  private interface IOrderRemote extends IRemote {
+    int receive(int value);
+  }
+
   private interface ITestRemote extends IRemote {
     int increment(int testVal);
 
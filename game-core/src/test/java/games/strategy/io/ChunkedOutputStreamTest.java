@@ -0,0 +1,41 @@
+package games.strategy.io;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public final class ChunkedOutputStreamTest {
+  private final List<byte[]> chunks = new ArrayList<>();
+  private final ChunkedOutputStream chunkedOutputStream = new ChunkedOutputStream(4, chunks::add);
+
+  @Test
+  public void write_ShouldHandOverFullChunks() throws Exception {
+    chunkedOutputStream.write(new byte[] {0, 1, 2});
+    chunkedOutputStream.write(new byte[] {3, 4, 5, 6, 7, 8, 9});
+
+    assertThat(chunks, contains(new byte[] {0, 1, 2, 3}, new byte[] {4, 5, 6, 7}));
+    assertThat(chunkedOutputStream.getLength(), is(8L));
+  }
+
+  @Test
+  public void close_ShouldHandOverLastPartialChunk() throws Exception {
+    chunkedOutputStream.write(new byte[] {0, 1, 2, 3, 4});
+    chunkedOutputStream.close();
+    chunkedOutputStream.close();
+
+    assertThat(chunks, contains(new byte[] {0, 1, 2, 3}, new byte[] {4}));
+  }
+
+  @Test
+  public void close_ShouldNotHandOverEmptyChunk() throws Exception {
+    chunkedOutputStream.close();
+
+    assertThat(chunks, is(empty()));
+  }
+}
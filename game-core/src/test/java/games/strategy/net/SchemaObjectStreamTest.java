@@ -0,0 +1,152 @@
+package games.strategy.net;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+import games.strategy.io.IoUtils;
+
+public final class SchemaObjectStreamTest {
+  private static final ClassSchema SCHEMA =
+      ClassSchema.of(Arrays.asList(ArrayList.class, HashMap.class, Number.class, Integer.class, Point.class));
+
+  private static byte[] write(final Object object, final ClassSchema schema, final boolean enableSchema)
+      throws IOException {
+    return IoUtils.writeToMemory(os -> {
+      try (SchemaObjectOutputStream output = new SchemaObjectOutputStream(os, schema)) {
+        if (enableSchema) {
+          output.enableSchema();
+        }
+        output.writeObject(object);
+      }
+    });
+  }
+
+  private static Object read(final byte[] bytes, final ClassSchema schema, final boolean enableSchema)
+      throws IOException {
+    return IoUtils.readFromMemory(bytes, is -> {
+      try (SchemaObjectInputStream input = new SchemaObjectInputStream(is, schema)) {
+        if (enableSchema) {
+          input.enableSchema();
+        }
+        return input.readObject();
+      } catch (final ClassNotFoundException e) {
+        throw new IOException(e);
+      }
+    });
+  }
+
+  private static Object newMessage() {
+    final Map<String, Object> map = new HashMap<>();
+    map.put("point", new Point(1, 2));
+    map.put("count", 3);
+    // not part of the schema, so written with a full descriptor
+    map.put("sorted", new TreeMap<>(Collections.singletonMap("a", 1L)));
+    final List<Object> message = new ArrayList<>();
+    message.add(map);
+    message.add(new Point(3, 4));
+    return message;
+  }
+
+  @Test
+  public void shouldReadWhatWasWrittenWithSchema() throws IOException {
+    final Object message = newMessage();
+
+    assertThat(read(write(message, SCHEMA, true), SCHEMA, true), is(message));
+  }
+
+  @Test
+  public void shouldWriteFewerBytesWithSchema() throws IOException {
+    final Object message = newMessage();
+
+    assertThat(write(message, SCHEMA, true).length, is(lessThan(write(message, SCHEMA, false).length)));
+  }
+
+  @Test
+  public void shouldWriteSameBytesAsObjectOutputStreamUntilSchemaIsEnabled() throws IOException {
+    final Object message = newMessage();
+    final byte[] expected = IoUtils.writeToMemory(os -> {
+      try (ObjectOutputStream output = new ObjectOutputStream(os)) {
+        output.writeObject(message);
+      }
+    });
+
+    assertThat(write(message, SCHEMA, false), is(expected));
+  }
+
+  @Test
+  public void shouldFailToReadClassIdOutsideOfSchema() throws IOException {
+    final byte[] bytes = write(new Point(1, 2), SCHEMA, true);
+    final ClassSchema smallerSchema = ClassSchema.of(Arrays.asList(ArrayList.class));
+
+    assertThrows(StreamCorruptedException.class, () -> read(bytes, smallerSchema, true));
+  }
+
+  @Test
+  public void shouldRejectClassesThatAreNotSerializable() {
+    assertThrows(IllegalArgumentException.class, () -> ClassSchema.of(Arrays.asList(Object.class)));
+    assertThrows(IllegalArgumentException.class, () -> ClassSchema.of(Arrays.asList(Point.class, Point.class)));
+  }
+
+  @Test
+  public void shouldHaveSameFingerprintOnlyForSameClassesInSameOrder() {
+    final ClassSchema sameSchema =
+        ClassSchema.of(Arrays.asList(ArrayList.class, HashMap.class, Number.class, Integer.class, Point.class));
+    final ClassSchema reorderedSchema =
+        ClassSchema.of(Arrays.asList(HashMap.class, ArrayList.class, Number.class, Integer.class, Point.class));
+    final ClassSchema otherFieldsSchema =
+        ClassSchema.of(Arrays.asList(ArrayList.class, HashMap.class, Number.class, Integer.class, OtherPoint.class));
+
+    assertThat(sameSchema.getFingerprint(), is(SCHEMA.getFingerprint()));
+    assertThat(reorderedSchema.getFingerprint(), is(not(SCHEMA.getFingerprint())));
+    assertThat(otherFieldsSchema.getFingerprint(), is(not(SCHEMA.getFingerprint())));
+  }
+
+  private static final class Point implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private final int x;
+    private final int y;
+
+    Point(final int x, final int y) {
+      this.x = x;
+      this.y = y;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      return o instanceof Point && ((Point) o).x == x && ((Point) o).y == y;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * x + y;
+    }
+  }
+
+  private static final class OtherPoint implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private final long x;
+    private final long y;
+
+    OtherPoint(final long x, final long y) {
+      this.x = x;
+      this.y = y;
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package games.strategy.net.nio;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+import games.strategy.net.nio.ByteBufferPool.PooledBuffer;
+
+public final class ByteBufferPoolTest {
+  private final ByteBufferPool pool = new ByteBufferPool(1);
+
+  @Test
+  public void acquireShouldLimitBufferToRequestedCapacity() {
+    final PooledBuffer pooledBuffer = pool.acquire(700);
+
+    assertThat(pooledBuffer.getBuffer().position(), is(0));
+    assertThat(pooledBuffer.getBuffer().limit(), is(700));
+    assertThat(pooledBuffer.getBuffer().capacity(), is(1024));
+    assertThat(pooledBuffer.getBuffer().isDirect(), is(true));
+  }
+
+  @Test
+  public void acquireShouldReuseReleasedBufferOfSameSizeClass() {
+    final PooledBuffer first = pool.acquire(600);
+    final ByteBuffer buffer = first.getBuffer();
+    first.release();
+
+    final PooledBuffer second = pool.acquire(1000);
+
+    assertThat(second.getBuffer(), is(sameInstance(buffer)));
+    assertThat(second.getBuffer().limit(), is(1000));
+  }
+
+  @Test
+  public void acquireShouldNotReuseBufferThatIsStillRetained() {
+    final PooledBuffer first = pool.acquire(600).retain(1);
+    first.release();
+
+    final PooledBuffer second = pool.acquire(600);
+
+    assertThat(second.getBuffer(), is(not(sameInstance(first.getBuffer()))));
+    assertThat(pool.getLeasedCount(), is(2));
+  }
+
+  @Test
+  public void acquireShouldUseHeapBufferAboveLargestSizeClass() {
+    final PooledBuffer pooledBuffer = pool.acquire(3 * 1024 * 1024);
+
+    assertThat(pooledBuffer.getBuffer().isDirect(), is(false));
+    assertThat(pooledBuffer.getBuffer().capacity(), is(3 * 1024 * 1024));
+    pooledBuffer.release();
+    assertThat(pool.getLeasedCount(), is(0));
+  }
+
+  @Test
+  public void releaseShouldFailWhenReleasedTooOften() {
+    final PooledBuffer pooledBuffer = pool.acquire(16);
+    pooledBuffer.release();
+
+    assertThrows(IllegalStateException.class, pooledBuffer::release);
+    assertThrows(IllegalStateException.class, () -> pooledBuffer.retain(1));
+  }
+
+  @Test
+  public void outputStreamShouldKeepContentWhenGrowing() throws IOException {
+    final byte[] content = new byte[5000];
+    for (int i = 0; i < content.length; i++) {
+      content[i] = (byte) i;
+    }
+    final PooledBuffer frame;
+    try (PooledOutputStream os = new PooledOutputStream(pool, SocketWriteData.HEADER_SIZE, 1 << 16)) {
+      os.write(content, 0, 3000);
+      os.write(content, 3000, 2000);
+      frame = os.finish();
+    }
+    SocketWriteData.writeHeader(frame.getBuffer());
+
+    final ByteBuffer buffer = frame.getBuffer();
+    assertThat(buffer.remaining(), is(SocketWriteData.HEADER_SIZE + content.length));
+    assertThat(buffer.getInt(0), is(content.length ^ SocketReadData.MAGIC));
+    final byte[] written = new byte[content.length];
+    ((ByteBuffer) buffer.duplicate().position(SocketWriteData.HEADER_SIZE)).get(written);
+    assertThat(written, is(content));
+    frame.release();
+    assertThat(pool.getLeasedCount(), is(0));
+  }
+
+  @Test
+  public void outputStreamShouldRejectContentAboveMaximumSize() {
+    try (PooledOutputStream os = new PooledOutputStream(pool, SocketWriteData.HEADER_SIZE, 1000)) {
+      assertThrows(IllegalStateException.class, () -> os.write(new byte[1000], 0, 1000));
+    }
+    assertThat(pool.getLeasedCount(), is(0));
+  }
+
+  @Test
+  public void readShouldFailOnceReleased() {
+    final SocketReadData packet = new SocketReadData(null, pool);
+
+    packet.release();
+
+    assertThrows(IOException.class, () -> packet.read(null));
+  }
+}
@@ -0,0 +1,101 @@
+package games.strategy.triplea.ai.pro.simulate;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import games.strategy.engine.data.Change;
+import games.strategy.engine.data.GameData;
+import games.strategy.engine.data.changefactory.ChangeFactory;
+import games.strategy.engine.history.HistoryWriter;
+import games.strategy.triplea.settings.AbstractClientSettingTestCase;
+
+public class ProSimulationDataTest extends AbstractClientSettingTestCase {
+  private final GameData data = new GameData();
+  private final ProSimulationData simulationData = new ProSimulationData(data);
+
+  @BeforeEach
+  public void setUp() {
+    data.getHistory().getHistoryWriter().startNextRound(1);
+    data.getHistory().getHistoryWriter().startNextStep("step", "delegate", null, "Step");
+  }
+
+  private void writeEvent(final String property, final String value) {
+    final HistoryWriter historyWriter = data.getHistory().getHistoryWriter();
+    historyWriter.startEvent("set " + property);
+    final Change change = ChangeFactory.setProperty(property, value, data);
+    data.performChange(change);
+    historyWriter.addChange(change);
+  }
+
+  private GameData simulateSettingProperty(final String property, final String value) throws IOException {
+    final AtomicReference<GameData> dataCopy = new AtomicReference<>();
+    simulationData.simulate(copy -> {
+      dataCopy.set(copy);
+      copy.performChange(ChangeFactory.setProperty(property, value, copy));
+    });
+    return dataCopy.get();
+  }
+
+  @Test
+  public void shouldUndoSimulatedChangesWithoutChangingGame() throws IOException {
+    final GameData dataCopy = simulateSettingProperty("simulated", "1");
+
+    assertThat(dataCopy, is(not(sameInstance(data))));
+    assertThat(dataCopy.getProperties().get("simulated"), is(nullValue()));
+    assertThat(data.getProperties().get("simulated"), is(nullValue()));
+  }
+
+  @Test
+  public void shouldKeepCopyUpToDateWithChangesToGame() throws IOException {
+    writeEvent("first", "1");
+    final GameData dataCopy = simulateSettingProperty("simulated", "1");
+    writeEvent("second", "2");
+
+    final GameData updatedCopy = simulateSettingProperty("simulated", "2");
+
+    assertThat(updatedCopy, is(sameInstance(dataCopy)));
+    assertThat(updatedCopy.getProperties().get("first"), is("1"));
+    assertThat(updatedCopy.getProperties().get("second"), is("2"));
+    assertThat(updatedCopy.getProperties().get("simulated"), is(nullValue()));
+  }
+
+  @Test
+  public void shouldCopyGameAgainAfterFailedSimulation() throws IOException {
+    final GameData dataCopy = simulateSettingProperty("simulated", "1");
+    assertThrows(IllegalStateException.class, () -> simulationData.simulate(copy -> {
+      throw new IllegalStateException();
+    }));
+    writeEvent("first", "1");
+
+    final GameData newCopy = simulateSettingProperty("simulated", "2");
+
+    assertThat(newCopy, is(not(sameInstance(dataCopy))));
+    assertThat(newCopy.getProperties().get("first"), is("1"));
+  }
+
+  @Test
+  public void forGameShouldShareOneCopyPerGameUntilReleased() {
+    final GameData otherData = new GameData();
+    try {
+      final ProSimulationData shared = ProSimulationData.forGame(data);
+
+      assertThat(ProSimulationData.forGame(data), is(sameInstance(shared)));
+      assertThat(ProSimulationData.forGame(otherData), is(not(sameInstance(shared))));
+      ProSimulationData.release(data);
+      assertThat(ProSimulationData.forGame(data), is(not(sameInstance(shared))));
+    } finally {
+      ProSimulationData.release(data);
+      ProSimulationData.release(otherData);
+    }
+  }
+}
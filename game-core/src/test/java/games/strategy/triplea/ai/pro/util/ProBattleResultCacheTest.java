@@ -0,0 +1,128 @@
+package games.strategy.triplea.ai.pro.util;
+
+import static games.strategy.triplea.delegate.GameDataTestUtil.armour;
+import static games.strategy.triplea.delegate.GameDataTestUtil.british;
+import static games.strategy.triplea.delegate.GameDataTestUtil.germans;
+import static games.strategy.triplea.delegate.GameDataTestUtil.infantry;
+import static games.strategy.triplea.delegate.GameDataTestUtil.russians;
+import static games.strategy.triplea.delegate.GameDataTestUtil.territory;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import games.strategy.engine.data.GameData;
+import games.strategy.engine.data.PlayerID;
+import games.strategy.engine.data.Territory;
+import games.strategy.engine.data.Unit;
+import games.strategy.triplea.TripleAUnit;
+import games.strategy.triplea.ai.pro.data.ProBattleResult;
+import games.strategy.triplea.xml.TestMapGameData;
+
+public class ProBattleResultCacheTest {
+  private GameData data;
+  private Territory germany;
+  private PlayerID russians;
+  private PlayerID germans;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    data = TestMapGameData.REVISED.getGameData();
+    germany = territory("Germany", data);
+    russians = russians(data);
+    germans = germans(data);
+  }
+
+  private String newSignature(final Territory t, final List<Unit> attacking, final List<Unit> defending,
+      final List<Unit> bombarding, final boolean retreatWhenOnlyAirLeft) {
+    return ProBattleResultCache.newSignature(russians, germans, t, attacking, defending, bombarding,
+        retreatWhenOnlyAirLeft);
+  }
+
+  @Test
+  public void signatureShouldNotDependOnUnitInstancesOrOrder() {
+    final List<Unit> attacking = infantry(data).create(2, russians);
+    attacking.addAll(armour(data).create(1, russians));
+    final List<Unit> sameAttackingMix = armour(data).create(1, russians);
+    sameAttackingMix.addAll(infantry(data).create(2, russians));
+    final List<Unit> defending = infantry(data).create(3, germans);
+
+    assertThat(
+        newSignature(germany, attacking, defending, Collections.emptyList(), false),
+        is(newSignature(germany, sameAttackingMix, defending, Collections.emptyList(), false)));
+    assertThat(
+        newSignature(germany, attacking, defending, Collections.emptyList(), false),
+        is(not(newSignature(germany, attacking, defending, Collections.emptyList(), true))));
+    assertThat(
+        newSignature(germany, attacking, defending, Collections.emptyList(), false),
+        is(not(newSignature(germany, defending, attacking, Collections.emptyList(), false))));
+  }
+
+  @Test
+  public void signatureShouldDependOnPlayersAndUnitState() {
+    final List<Unit> attacking = armour(data).create(2, russians);
+    final List<Unit> defending = infantry(data).create(3, germans);
+    final String signature = newSignature(germany, attacking, defending, Collections.emptyList(), false);
+    final List<Unit> movedAttacking = armour(data).create(2, russians);
+    TripleAUnit.get(movedAttacking.get(0)).setAlreadyMoved(1);
+    final List<Unit> submergedDefending = infantry(data).create(3, germans);
+    TripleAUnit.get(submergedDefending.get(0)).setSubmerged(true);
+
+    assertThat(newSignature(germany, movedAttacking, defending, Collections.emptyList(), false),
+        is(not(signature)));
+    assertThat(newSignature(germany, attacking, submergedDefending, Collections.emptyList(), false),
+        is(not(signature)));
+    assertThat(ProBattleResultCache.newSignature(british(data), germans, germany, attacking, defending,
+        Collections.emptyList(), false), is(not(signature)));
+  }
+
+  @Test
+  public void getShouldReturnCachedResultWithUnitsOfTheQuery() {
+    final ProBattleResultCache cache = new ProBattleResultCache();
+    final List<Unit> attacking = infantry(data).create(2, russians);
+    final List<Unit> defending = infantry(data).create(1, germans);
+    cache.put(russians, germans, germany, attacking, defending, Collections.emptyList(), false,
+        new ProBattleResult(75, 3, true, new ArrayList<>(attacking.subList(0, 1)), new ArrayList<>(), 2));
+    final List<Unit> otherAttacking = infantry(data).create(2, russians);
+    final List<Unit> otherDefending = infantry(data).create(1, germans);
+
+    final Optional<ProBattleResult> result =
+        cache.get(russians, germans, germany, otherAttacking, otherDefending, Collections.emptyList(), false);
+
+    assertThat(result.isPresent(), is(true));
+    assertThat(result.get().getWinPercentage(), is(75.0));
+    assertThat(result.get().getAverageAttackersRemaining(), contains(otherAttacking.get(0)));
+    assertThat(cache.getHits(), is(1L));
+    assertThat(cache.getMisses(), is(0L));
+  }
+
+  @Test
+  public void putShouldEvictLeastRecentlyUsedResult() {
+    final ProBattleResultCache cache = new ProBattleResultCache(2);
+    final List<Unit> defending = infantry(data).create(1, germans);
+    final List<Unit> one = infantry(data).create(1, russians);
+    final List<Unit> two = infantry(data).create(2, russians);
+    final List<Unit> three = infantry(data).create(3, russians);
+    cache.put(russians, germans, germany, one, defending, Collections.emptyList(), false, new ProBattleResult());
+    cache.put(russians, germans, germany, two, defending, Collections.emptyList(), false, new ProBattleResult());
+    cache.get(russians, germans, germany, one, defending, Collections.emptyList(), false);
+
+    cache.put(russians, germans, germany, three, defending, Collections.emptyList(), false,
+        new ProBattleResult());
+
+    assertThat(cache.size(), is(2));
+    assertThat(cache.getEvictions(), is(1L));
+    assertThat(cache.get(russians, germans, germany, one, defending, Collections.emptyList(), false).isPresent(),
+        is(true));
+    assertThat(cache.get(russians, germans, germany, two, defending, Collections.emptyList(), false).isPresent(),
+        is(false));
+  }
+}
@@ -0,0 +1,152 @@
+package games.strategy.triplea.delegate;
+
+import static games.strategy.triplea.delegate.GameDataTestUtil.aaGun;
+import static games.strategy.triplea.delegate.GameDataTestUtil.armour;
+import static games.strategy.triplea.delegate.GameDataTestUtil.battleship;
+import static games.strategy.triplea.delegate.GameDataTestUtil.bomber;
+import static games.strategy.triplea.delegate.GameDataTestUtil.destroyer;
+import static games.strategy.triplea.delegate.GameDataTestUtil.fighter;
+import static games.strategy.triplea.delegate.GameDataTestUtil.germans;
+import static games.strategy.triplea.delegate.GameDataTestUtil.infantry;
+import static games.strategy.triplea.delegate.GameDataTestUtil.russians;
+import static games.strategy.triplea.delegate.GameDataTestUtil.submarine;
+import static games.strategy.triplea.delegate.GameDataTestUtil.territory;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+
+import games.strategy.engine.data.GameData;
+import games.strategy.engine.data.PlayerID;
+import games.strategy.engine.data.Territory;
+import games.strategy.engine.data.Unit;
+import games.strategy.triplea.Constants;
+import games.strategy.triplea.odds.calculator.AggregateResults;
+import games.strategy.triplea.odds.calculator.ConcurrentOddsCalculator;
+import games.strategy.triplea.odds.calculator.IOddsCalculator;
+import games.strategy.triplea.oddsCalculator.ta.BattleResults;
+import games.strategy.triplea.xml.TestMapGameData;
+
+public class BattleSimulatorTest {
+  private static final int RUN_COUNT = 2000;
+  private static final double TOLERANCE = 0.05;
+
+  @Test
+  public void shouldNotCompileBattlesWithSubmarines() throws Exception {
+    final GameData data = TestMapGameData.REVISED.getGameData();
+    final Territory seaZone = territory("1 Sea Zone", data);
+
+    assertThat(BattleSimulator.compile(data, russians(data), germans(data), seaZone,
+        submarine(data).create(2, russians(data)), destroyer(data).create(2, germans(data)),
+        Collections.emptyList()).isPresent(), is(false));
+  }
+
+  @Test
+  public void shouldNotCompileBattlesWithAaAgainstAir() throws Exception {
+    final GameData data = TestMapGameData.REVISED.getGameData();
+    final Territory germany = territory("Germany", data);
+    final List<Unit> defending = infantry(data).create(2, germans(data));
+    defending.addAll(aaGun(data).create(1, germans(data)));
+
+    assertThat(BattleSimulator.compile(data, russians(data), germans(data), germany,
+        fighter(data).create(2, russians(data)), defending, TerritoryEffectHelper.getEffects(germany)).isPresent(),
+        is(false));
+  }
+
+  @Test
+  public void shouldMatchMustFightBattleForLandBattle() throws Exception {
+    final GameData data = TestMapGameData.REVISED.getGameData();
+    final List<Unit> attacking = infantry(data).create(6, russians(data));
+    attacking.addAll(armour(data).create(3, russians(data)));
+    attacking.addAll(fighter(data).create(1, russians(data)));
+    final List<Unit> defending = infantry(data).create(7, germans(data));
+    defending.addAll(armour(data).create(1, germans(data)));
+
+    assertSameOdds(data, russians(data), germans(data), territory("Germany", data), attacking, defending);
+  }
+
+  @Test
+  public void shouldMatchMustFightBattleWithArtillerySupport() throws Exception {
+    final GameData data = TestMapGameData.WW2V3_1941.getGameData();
+    final List<Unit> attacking = infantry(data).create(5, russians(data));
+    attacking.addAll(data.getUnitTypeList().getUnitType("artillery").create(3, russians(data)));
+    attacking.addAll(bomber(data).create(1, russians(data)));
+    final List<Unit> defending = infantry(data).create(6, germans(data));
+    defending.addAll(fighter(data).create(1, germans(data)));
+
+    assertSameOdds(data, russians(data), germans(data), territory("Germany", data), attacking, defending);
+  }
+
+  @Test
+  public void shouldMatchMustFightBattleForSeaBattleWithTwoHitUnits() throws Exception {
+    final GameData data = TestMapGameData.WW2V3_1941.getGameData();
+    final List<Unit> attacking = battleship(data).create(1, russians(data));
+    attacking.addAll(destroyer(data).create(2, russians(data)));
+    final List<Unit> defending = destroyer(data).create(3, germans(data));
+
+    assertSameOdds(data, russians(data), germans(data), territory("5 Sea Zone", data), attacking, defending);
+  }
+
+  @Test
+  public void shouldMatchMustFightBattleForSeaBattleWithDamagedTwoHitUnits() throws Exception {
+    final GameData data = TestMapGameData.WW2V3_1941.getGameData();
+    final List<Unit> attacking = battleship(data).create(2, russians(data));
+    attacking.get(0).setHits(1);
+    attacking.addAll(destroyer(data).create(1, russians(data)));
+    final List<Unit> defending = battleship(data).create(1, germans(data));
+    defending.get(0).setHits(1);
+    defending.addAll(destroyer(data).create(3, germans(data)));
+
+    assertSameOdds(data, russians(data), germans(data), territory("5 Sea Zone", data), attacking, defending);
+  }
+
+  @Test
+  public void shouldMatchMustFightBattleWithSupportInBattleLimitedToRounds() throws Exception {
+    final GameData data = TestMapGameData.WW2V3_1941.getGameData();
+    data.getProperties().set(Constants.LAND_BATTLE_ROUNDS, 2);
+    // more artillery than infantry, so which units are left to support each other changes from one round to the next
+    final List<Unit> attacking = infantry(data).create(3, russians(data));
+    attacking.addAll(data.getUnitTypeList().getUnitType("artillery").create(5, russians(data)));
+    attacking.addAll(armour(data).create(2, russians(data)));
+    final List<Unit> defending = infantry(data).create(8, germans(data));
+
+    assertSameOdds(data, russians(data), germans(data), territory("Germany", data), attacking, defending);
+  }
+
+  private static void assertSameOdds(final GameData data, final PlayerID attacker, final PlayerID defender,
+      final Territory location, final List<Unit> attacking, final List<Unit> defending) {
+    final BattleSimulator simulator = BattleSimulator.compile(data, attacker, defender, location, attacking,
+        defending, TerritoryEffectHelper.getEffects(location))
+        .orElseThrow(() -> new AssertionError("Battle should compile"));
+    final Random random = new Random(42);
+    final List<BattleResults> simulated = new ArrayList<>();
+    for (int i = 0; i < RUN_COUNT; i++) {
+      simulated.add(simulator.simulate(random));
+    }
+
+    final IOddsCalculator calculator = new ConcurrentOddsCalculator("Test");
+    calculator.setGameData(data);
+    calculator.setUseBattleSimulator(false);
+    final AggregateResults fought = calculator.setCalculateDataAndCalculate(attacker, defender, location, attacking,
+        defending, Collections.emptyList(), TerritoryEffectHelper.getEffects(location), RUN_COUNT);
+    calculator.shutdown();
+
+    assertThat(getPercent(simulated, BattleResults::attackerWon),
+        is(closeTo(fought.getAttackerWinPercent(), TOLERANCE)));
+    assertThat(getPercent(simulated, BattleResults::defenderWon),
+        is(closeTo(fought.getDefenderWinPercent(), TOLERANCE)));
+    assertThat(getPercent(simulated, BattleResults::draw),
+        is(closeTo(fought.getDrawPercent(), TOLERANCE)));
+  }
+
+  private static double getPercent(final List<BattleResults> results, final Predicate<BattleResults> outcome) {
+    return results.stream().filter(outcome).count() / (double) results.size();
+  }
+}
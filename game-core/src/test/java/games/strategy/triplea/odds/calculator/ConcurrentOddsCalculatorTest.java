@@ -0,0 +1,144 @@
+package games.strategy.triplea.odds.calculator;
+
+import static games.strategy.triplea.delegate.GameDataTestUtil.germans;
+import static games.strategy.triplea.delegate.GameDataTestUtil.infantry;
+import static games.strategy.triplea.delegate.GameDataTestUtil.russians;
+import static games.strategy.triplea.delegate.GameDataTestUtil.territory;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import games.strategy.engine.data.GameData;
+import games.strategy.engine.data.Territory;
+import games.strategy.engine.data.Unit;
+import games.strategy.triplea.delegate.TerritoryEffectHelper;
+import games.strategy.triplea.xml.TestMapGameData;
+
+public class ConcurrentOddsCalculatorTest {
+  private GameData data;
+  private ConcurrentOddsCalculator calculator;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    data = TestMapGameData.REVISED.getGameData();
+    calculator = new ConcurrentOddsCalculator("Test");
+    calculator.setGameData(data);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    calculator.shutdown();
+  }
+
+  private AggregateResults calculate(final int attackingInfantry, final int defendingInfantry, final int runCount) {
+    return calculate(calculator, attackingInfantry, defendingInfantry, runCount);
+  }
+
+  private AggregateResults calculate(final IOddsCalculator calculator, final int attackingInfantry,
+      final int defendingInfantry, final int runCount) {
+    final Territory germany = territory("Germany", data);
+    final List<Unit> attacking = infantry(data).create(attackingInfantry, russians(data));
+    final List<Unit> defending = infantry(data).create(defendingInfantry, germans(data));
+    return calculator.setCalculateDataAndCalculate(russians(data), germans(data), germany, attacking, defending,
+        Collections.emptyList(), TerritoryEffectHelper.getEffects(germany), runCount);
+  }
+
+  @Test
+  public void calculateShouldMakeEveryRun() {
+    final AggregateResults results = calculate(5, 5, 500);
+
+    assertThat(results.getRollCount(), is(500));
+  }
+
+  @Test
+  public void calculateShouldMakeEveryRunAfterEarlierCalculationWasCancelled() {
+    final CompletableFuture<AggregateResults> cancelledAttack =
+        CompletableFuture.supplyAsync(() -> calculate(5, 5, 5000));
+    calculator.cancel();
+    cancelledAttack.join();
+
+    final AggregateResults results = calculate(5, 5, 500);
+
+    assertThat(results.getRollCount(), is(500));
+  }
+
+  @Test
+  public void calculationsShouldRunIndependentlyAtTheSameTime() {
+    final CompletableFuture<AggregateResults> strongAttack = CompletableFuture.supplyAsync(() -> calculate(20, 2, 300));
+    final CompletableFuture<AggregateResults> weakAttack = CompletableFuture.supplyAsync(() -> calculate(2, 20, 400));
+
+    assertThat(strongAttack.join().getRollCount(), is(300));
+    assertThat(strongAttack.join().getAttackerWinPercent(), is(greaterThan(0.9)));
+    assertThat(weakAttack.join().getRollCount(), is(400));
+    assertThat(weakAttack.join().getAttackerWinPercent(), is(lessThan(0.1)));
+  }
+
+  @Test
+  public void calculateShouldStopOnceTargetMarginOfErrorIsReached() {
+    calculator.setTargetMarginOfError(0.05);
+
+    final AggregateResults results = calculate(30, 1, 5000);
+
+    assertThat(results.getRollCount(), is(lessThan(5000)));
+  }
+
+  @Test
+  public void calculatorsShouldShareExecutorWithFewerThreadsThanWorkers() {
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    final ConcurrentOddsCalculator first = new ConcurrentOddsCalculator(executor, new Semaphore(3));
+    final ConcurrentOddsCalculator second = new ConcurrentOddsCalculator(executor, new Semaphore(3));
+    try {
+      first.setGameData(data);
+      second.setGameData(data);
+      final CompletableFuture<AggregateResults> firstResults =
+          CompletableFuture.supplyAsync(() -> calculate(first, 10, 5, 200));
+      final CompletableFuture<AggregateResults> secondResults =
+          CompletableFuture.supplyAsync(() -> calculate(second, 5, 10, 300));
+
+      assertThat(firstResults.join().getRollCount(), is(200));
+      assertThat(secondResults.join().getRollCount(), is(300));
+    } finally {
+      first.shutdown();
+      second.shutdown();
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void calculatorsSharingCopyBudgetShouldMakeOneCopyEachPlusBudget() {
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    final Semaphore copyBudget = new Semaphore(1);
+    final ConcurrentOddsCalculator first = new ConcurrentOddsCalculator(executor, copyBudget);
+    final ConcurrentOddsCalculator second = new ConcurrentOddsCalculator(executor, copyBudget);
+    try {
+      first.setGameData(data);
+      second.setGameData(data);
+      assertThat(calculate(first, 10, 5, 100).getRollCount(), is(100));
+      assertThat(calculate(second, 5, 10, 100).getRollCount(), is(100));
+
+      assertThat(first.getThreadCount() + second.getThreadCount(), is(lessThanOrEqualTo(3)));
+
+      first.setGameData(null);
+      second.setGameData(null);
+
+      assertThat(copyBudget.availablePermits(), is(1));
+    } finally {
+      first.shutdown();
+      second.shutdown();
+      executor.shutdown();
+    }
+  }
+}
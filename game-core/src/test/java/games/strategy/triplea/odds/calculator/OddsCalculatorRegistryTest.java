@@ -0,0 +1,57 @@
+package games.strategy.triplea.odds.calculator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import games.strategy.engine.data.GameData;
+
+public final class OddsCalculatorRegistryTest {
+  private final GameData game = new GameData();
+  private final GameData otherGame = new GameData();
+
+  @AfterEach
+  public void tearDown() {
+    OddsCalculatorRegistry.releaseCalculators(game);
+    OddsCalculatorRegistry.releaseCalculators(otherGame);
+  }
+
+  @Test
+  public void getCalculator_ShouldReturnSameCalculatorForSameGameAndOwner() {
+    assertThat(OddsCalculatorRegistry.getCalculator(game, "Germans"),
+        sameInstance(OddsCalculatorRegistry.getCalculator(game, "Germans")));
+  }
+
+  @Test
+  public void getCalculator_ShouldReturnDifferentCalculatorsForDifferentOwnersOrGames() {
+    final IOddsCalculator calculator = OddsCalculatorRegistry.getCalculator(game, "Germans");
+
+    assertThat(OddsCalculatorRegistry.getCalculator(game, "Russians"), not(sameInstance(calculator)));
+    assertThat(OddsCalculatorRegistry.getCalculator(otherGame, "Germans"), not(sameInstance(calculator)));
+  }
+
+  @Test
+  public void releaseCalculator_ShouldLetNextCallCreateNewCalculator() {
+    final IOddsCalculator calculator = OddsCalculatorRegistry.getCalculator(game, "Germans");
+
+    OddsCalculatorRegistry.releaseCalculator(game, "Germans");
+
+    assertThat(OddsCalculatorRegistry.getCalculator(game, "Germans"), not(sameInstance(calculator)));
+  }
+
+  @Test
+  public void releaseCalculators_ShouldOnlyReleaseCalculatorsOfSpecifiedGame() {
+    final IOddsCalculator germans = OddsCalculatorRegistry.getCalculator(game, "Germans");
+    final IOddsCalculator russians = OddsCalculatorRegistry.getCalculator(game, "Russians");
+    final IOddsCalculator otherGermans = OddsCalculatorRegistry.getCalculator(otherGame, "Germans");
+
+    OddsCalculatorRegistry.releaseCalculators(game);
+
+    assertThat(OddsCalculatorRegistry.getCalculator(game, "Germans"), not(sameInstance(germans)));
+    assertThat(OddsCalculatorRegistry.getCalculator(game, "Russians"), not(sameInstance(russians)));
+    assertThat(OddsCalculatorRegistry.getCalculator(otherGame, "Germans"), sameInstance(otherGermans));
+  }
+}
@@ -49,6 +49,27 @@ public class OddsCalculatorTest {
     assertTrue(results.getDrawPercent() < 0.1);
   }
 
+  @Test
+  public void testUnbalancedFightStopsOnceTargetMarginOfErrorIsReached() {
+    final Territory germany = gameData.getMap().getTerritory("Germany");
+    final Collection<Unit> defendingUnits = new ArrayList<>(germany.getUnits().getUnits());
+    final PlayerID russians = GameDataTestUtil.russians(gameData);
+    final PlayerID germans = GameDataTestUtil.germans(gameData);
+    final List<Unit> attackingUnits = GameDataTestUtil.infantry(gameData).create(100, russians);
+    final List<OddsEstimate> estimates = new ArrayList<>();
+    final IOddsCalculator calculator = new OddsCalculator(gameData);
+    calculator.setTargetMarginOfError(0.05);
+    calculator.setEstimateListener(estimates::add);
+    final AggregateResults results = calculator.setCalculateDataAndCalculate(russians, germans, germany, attackingUnits,
+        defendingUnits, Collections.emptyList(), TerritoryEffectHelper.getEffects(germany), 2000);
+    calculator.shutdown();
+    assertTrue(results.getRollCount() < 2000);
+    assertTrue(results.getAttackerWinPercent() > 0.99);
+    final OddsEstimate lastEstimate = estimates.get(estimates.size() - 1);
+    assertEquals(results.getRollCount(), lastEstimate.getRunCount());
+    assertTrue(lastEstimate.getMarginOfError() <= 0.05);
+  }
+
   @Test
   public void testKeepOneAttackingLand() {
     // 1 bomber and 1 infantry attacking
@@ -1,11 +1,24 @@
 package games.strategy.util;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
 import org.junit.jupiter.api.Test;
 
 import com.google.common.collect.ImmutableMap;
@@ -43,7 +56,10 @@ public class IntegerMapTest {
   @Test
   public void shouldBeEquatableAndHashable() {
     EqualsVerifier.forClass(IntegerMap.class)
-        .suppress(Warning.NULL_FIELDS)
+        .withPrefabValues(ObjectIntHashMap.class, new ObjectIntHashMap<>(ImmutableMap.of(v1, 1)),
+            new ObjectIntHashMap<>(ImmutableMap.of(v2, 2)))
+        // the map is only set outside of the constructors when deserialized, and written by hand then
+        .suppress(Warning.NULL_FIELDS, Warning.NONFINAL_FIELDS, Warning.TRANSIENT_FIELDS)
         .verify();
 
     // We need to explicitly test this case because EqualsVerifier's internal prefab values for HashMap use the
@@ -110,4 +126,88 @@ public class IntegerMapTest {
     map1.add(v3, 3);
     assertTrue(map1.greaterThanOrEqualTo(map2));
   }
+
+  @Test
+  public void shouldBehaveLikeLinkedHashMapAcrossRemovalsAndGrowth() {
+    final IntegerMap<String> map = new IntegerMap<>();
+    final Map<String, Integer> expected = new LinkedHashMap<>();
+    final Random random = new Random(42);
+    for (int i = 0; i < 5000; i++) {
+      final String key = "key" + random.nextInt(300);
+      if (random.nextInt(4) == 0) {
+        map.removeKey(key);
+        expected.remove(key);
+      } else {
+        map.add(key, i);
+        expected.merge(key, i, Integer::sum);
+      }
+    }
+
+    assertThat(map.toMap(), is(expected));
+    assertThat(new ArrayList<>(map.keySet()), is(new ArrayList<>(expected.keySet())));
+    assertThat(map.hashCode(), is(expected.hashCode()));
+  }
+
+  @Test
+  public void shouldSupportNullKey() {
+    final IntegerMap<Object> map = new IntegerMap<>();
+    map.add(null, 2);
+    map.add(v1, 1);
+    map.add(null, 3);
+
+    assertThat(map.getInt(null), is(5));
+    assertThat(map.keySet(), contains(null, v1));
+  }
+
+  @Test
+  public void shouldBeReadFromItsFormerLinkedHashMapForm() throws Exception {
+    final IntegerMap<String> map = new IntegerMap<>();
+    map.add("b", 2);
+    map.add("a", 1);
+
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(map);
+    }
+    final IntegerMap<?> copy;
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      copy = (IntegerMap<?>) in.readObject();
+    }
+
+    assertThat(copy, is(map));
+    assertThat(new ArrayList<>(copy.keySet()), is(Arrays.asList("b", "a")));
+    assertThat(bytes.toString("ISO-8859-1").contains(ObjectIntHashMap.class.getName()), is(false));
+  }
+
+  @Test
+  public void shouldBeUsableByEntriesReferringBackToItWhileRead() throws Exception {
+    final IntegerMap<KeyReferringToMap> map = new IntegerMap<>();
+    final KeyReferringToMap key = new KeyReferringToMap(map);
+    map.add(key, 3);
+
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(map);
+    }
+    final IntegerMap<KeyReferringToMap> copy;
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      @SuppressWarnings("unchecked")
+      final IntegerMap<KeyReferringToMap> read = (IntegerMap<KeyReferringToMap>) in.readObject();
+      copy = read;
+    }
+    final KeyReferringToMap copiedKey = copy.keySet().iterator().next();
+
+    // the key was read while the map was, so it refers to the map as it was before its entries were read
+    assertThat(copiedKey.map, is(sameInstance(copy)));
+    assertThat(copiedKey.map.getInt(copiedKey), is(3));
+  }
+
+  private static final class KeyReferringToMap implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private final IntegerMap<KeyReferringToMap> map;
+
+    KeyReferringToMap(final IntegerMap<KeyReferringToMap> map) {
+      this.map = map;
+    }
+  }
 }
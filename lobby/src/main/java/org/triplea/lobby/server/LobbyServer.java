@@ -5,6 +5,8 @@ import java.io.IOException;
 import org.triplea.lobby.common.ILobbyGameBroadcaster;
 import org.triplea.lobby.common.LobbyConstants;
 import org.triplea.lobby.server.config.LobbyPropertyReader;
+import org.triplea.lobby.server.db.Database;
+import org.triplea.lobby.server.db.ModerationCache;
 import org.triplea.lobby.server.login.LobbyLoginValidator;
 
 import games.strategy.engine.chat.ChatController;
@@ -38,12 +40,18 @@ public final class LobbyServer {
   static void start(final LobbyPropertyReader lobbyPropertyReader) throws IOException {
     ClipPlayer.setBeSilentInPreferencesWithoutAffectingCurrent(true);
 
-    final IServerMessenger server = new LobbyServerMessenger(LobbyConstants.ADMIN_USERNAME, lobbyPropertyReader);
+    // one database for the whole lobby, so that all share its connection pool
+    final Database database = new Database(lobbyPropertyReader);
+    // bad words, bans and mutes are checked against memory; moderator actions write through to the database
+    final ModerationCache moderationCache = new ModerationCache(database);
+    final IServerMessenger server =
+        new LobbyServerMessenger(LobbyConstants.ADMIN_USERNAME, lobbyPropertyReader, moderationCache);
     final Messengers messengers = new Messengers(server);
-    server.setLoginValidator(new LobbyLoginValidator(lobbyPropertyReader));
+    server.setLoginValidator(new LobbyLoginValidator(lobbyPropertyReader, database, moderationCache));
     // setup common objects
-    new UserManager(lobbyPropertyReader).register(messengers.getRemoteMessenger());
-    final ModeratorController moderatorController = new ModeratorController(server, messengers, lobbyPropertyReader);
+    new UserManager(database).register(messengers.getRemoteMessenger());
+    final ModeratorController moderatorController =
+        new ModeratorController(server, messengers, database, moderationCache);
     moderatorController.register(messengers.getRemoteMessenger());
     new ChatController(LobbyConstants.LOBBY_CHAT, messengers, moderatorController::isPlayerAdmin);
 
@@ -7,12 +7,8 @@ import javax.annotation.Nullable;
 
 import org.triplea.lobby.common.IModeratorController;
 import org.triplea.lobby.common.IRemoteHostUtils;
-import org.triplea.lobby.server.config.LobbyPropertyReader;
-import org.triplea.lobby.server.db.BannedMacController;
-import org.triplea.lobby.server.db.BannedUsernameController;
 import org.triplea.lobby.server.db.Database;
-import org.triplea.lobby.server.db.MutedMacController;
-import org.triplea.lobby.server.db.MutedUsernameController;
+import org.triplea.lobby.server.db.ModerationCache;
 import org.triplea.lobby.server.db.UserController;
 
 import games.strategy.engine.lobby.server.userDB.DBUser;
@@ -36,14 +32,17 @@ final class ModeratorController implements IModeratorController {
   private final IServerMessenger serverMessenger;
   private final Messengers allMessengers;
   private final Database database;
+  private final ModerationCache moderationCache;
 
   ModeratorController(
       final IServerMessenger serverMessenger,
       final Messengers messengers,
-      final LobbyPropertyReader lobbyPropertyReader) {
+      final Database database,
+      final ModerationCache moderationCache) {
     this.serverMessenger = serverMessenger;
     allMessengers = messengers;
-    database = new Database(lobbyPropertyReader);
+    this.database = database;
+    this.moderationCache = moderationCache;
   }
 
   @Override
@@ -59,7 +58,7 @@ final class ModeratorController implements IModeratorController {
 
     final User bannedUser = getUserForNode(node);
     final User moderator = getUserForNode(MessageContext.getSender());
-    new BannedUsernameController(database).addBannedUsername(bannedUser, banExpires, moderator);
+    moderationCache.addBannedUsername(bannedUser, banExpires, moderator);
     log.info(String.format(
         "User was banned from the lobby (by username); "
             + "Username: %s, IP: %s, MAC: %s, Mod Username: %s, Mod IP: %s, Mod MAC: %s, Expires: %s",
@@ -126,7 +125,7 @@ final class ModeratorController implements IModeratorController {
 
     final User bannedUser = getUserForNode(node).withHashedMacAddress(hashedMac);
     final User moderator = getUserForNode(MessageContext.getSender());
-    new BannedMacController(database).addBannedMac(bannedUser, banExpires, moderator);
+    moderationCache.addBannedMac(bannedUser, banExpires, moderator);
     log.info(String.format(
         "User was banned from the lobby (by MAC); "
             + "Username: %s, IP: %s, MAC: %s, Mod Username: %s, Mod IP: %s, Mod MAC: %s, Expires: %s",
@@ -148,7 +147,7 @@ final class ModeratorController implements IModeratorController {
 
     final User mutedUser = getUserForNode(node);
     final User moderator = getUserForNode(MessageContext.getSender());
-    new MutedUsernameController(database).addMutedUsername(mutedUser, muteExpires, moderator);
+    moderationCache.addMutedUsername(mutedUser, muteExpires, moderator);
     serverMessenger.notifyUsernameMutingOfPlayer(mutedUser.getUsername(), muteExpires);
     log.info(String.format(
         "User was muted in the lobby (by username); "
@@ -171,7 +170,7 @@ final class ModeratorController implements IModeratorController {
 
     final User mutedUser = getUserForNode(node);
     final User moderator = getUserForNode(MessageContext.getSender());
-    new MutedMacController(database).addMutedMac(mutedUser, muteExpires, moderator);
+    moderationCache.addMutedMac(mutedUser, muteExpires, moderator);
     serverMessenger.notifyMacMutingOfPlayer(mutedUser.getHashedMacAddress(), muteExpires);
     log.info(String.format(
         "User was muted in the lobby (by MAC); "
@@ -34,6 +34,11 @@ public final class LobbyPropertyReader {
     return propertyReader.readProperty(PropertyKeys.POSTGRES_PASSWORD);
   }
 
+  public int getPostgresMaxConnections() {
+    return propertyReader.readIntegerPropertyOrDefault(
+        PropertyKeys.POSTGRES_MAX_CONNECTIONS, DefaultValues.POSTGRES_MAX_CONNECTIONS);
+  }
+
   public int getPostgresPort() {
     return propertyReader.readIntegerPropertyOrDefault(PropertyKeys.POSTGRES_PORT, DefaultValues.POSTGRES_PORT);
   }
@@ -55,6 +60,7 @@ public final class LobbyPropertyReader {
     String PORT = "port";
     String POSTGRES_DATABASE = "postgres_database";
     String POSTGRES_HOST = "postgres_host";
+    String POSTGRES_MAX_CONNECTIONS = "postgres_max_connections";
     String POSTGRES_PASSWORD = "postgres_password";
     String POSTGRES_PORT = "postgres_port";
     String POSTGRES_USER = "postgres_user";
@@ -66,6 +72,7 @@ public final class LobbyPropertyReader {
     int PORT = 3304;
     String POSTGRES_DATABASE = "ta_users";
     String POSTGRES_HOST = "localhost";
+    int POSTGRES_MAX_CONNECTIONS = 10;
     int POSTGRES_PORT = 5432;
   }
 }
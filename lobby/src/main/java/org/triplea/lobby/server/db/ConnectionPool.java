@@ -0,0 +1,430 @@
+package org.triplea.lobby.server.db;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import games.strategy.util.function.ThrowingSupplier;
+import lombok.extern.java.Log;
+
+/**
+ * A bounded pool of database connections, so that a database call does not have to open a connection of its own.
+ *
+ * <p>
+ * The connections handed out are wrappers, which return the underlying connection to the pool when they are closed,
+ * after rolling back whatever was not committed. At most {@code maxSize} connections are handed out at once; asking
+ * for more waits until one is returned. A connection that was idle for longer than the health check interval is
+ * validated before it is handed out again, and a connection that failed with a connection error is not returned to
+ * the pool.
+ * </p>
+ *
+ * <p>
+ * Each connection keeps its most recently used prepared statements open, so preparing the same SQL again on a
+ * connection from the pool reuses the statement instead of preparing it anew. Closing such a statement only clears
+ * its parameters.
+ * </p>
+ */
+@Log
+@ThreadSafe
+final class ConnectionPool implements AutoCloseable {
+  private static final int HEALTH_CHECK_TIMEOUT_SECONDS = 5;
+  // the SQL state class of connection exceptions
+  private static final String CONNECTION_EXCEPTION_SQL_STATE_CLASS = "08";
+
+  private final ThrowingSupplier<Connection, SQLException> connectionFactory;
+  private final int maxSize;
+  private final long borrowTimeoutMillis;
+  private final long healthCheckIntervalMillis;
+  private final int statementCacheSize;
+  private final Semaphore permits;
+  @GuardedBy("idleConnections")
+  private final Deque<PooledConnection> idleConnections = new ArrayDeque<>();
+  @GuardedBy("idleConnections")
+  private boolean closed;
+  private final AtomicInteger connectionCount = new AtomicInteger();
+  private final AtomicLong borrowCount = new AtomicLong();
+  private final AtomicLong totalWaitNanos = new AtomicLong();
+  private final AtomicLong maxWaitNanos = new AtomicLong();
+  private final AtomicLong createdCount = new AtomicLong();
+  private final AtomicLong discardedCount = new AtomicLong();
+  private final AtomicLong statementCacheHitCount = new AtomicLong();
+  private final AtomicLong statementCacheMissCount = new AtomicLong();
+
+  /**
+   * @param connectionFactory Opens a new connection to the database.
+   * @param maxSize The maximum number of connections handed out at once.
+   * @param borrowTimeoutMillis How long to wait for a connection before giving up.
+   * @param healthCheckIntervalMillis How long a connection may be idle before it is validated again.
+   * @param statementCacheSize The maximum number of prepared statements kept open per connection.
+   */
+  ConnectionPool(
+      final ThrowingSupplier<Connection, SQLException> connectionFactory,
+      final int maxSize,
+      final long borrowTimeoutMillis,
+      final long healthCheckIntervalMillis,
+      final int statementCacheSize) {
+    checkNotNull(connectionFactory);
+    checkArgument(maxSize > 0, "max size must be positive: " + maxSize);
+    checkArgument(borrowTimeoutMillis >= 0, "negative borrow timeout: " + borrowTimeoutMillis);
+    checkArgument(healthCheckIntervalMillis >= 0, "negative health check interval: " + healthCheckIntervalMillis);
+    checkArgument(statementCacheSize >= 0, "negative statement cache size: " + statementCacheSize);
+
+    this.connectionFactory = connectionFactory;
+    this.maxSize = maxSize;
+    this.borrowTimeoutMillis = borrowTimeoutMillis;
+    this.healthCheckIntervalMillis = healthCheckIntervalMillis;
+    this.statementCacheSize = statementCacheSize;
+    permits = new Semaphore(maxSize, true);
+  }
+
+  /**
+   * Returns a connection from the pool, which must be closed to return it.
+   *
+   * @throws SQLException If no connection became available in time, or if opening a new connection failed.
+   */
+  Connection getConnection() throws SQLException {
+    final long startNanos = System.nanoTime();
+    try {
+      if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+        throw new SQLException("Timed out waiting for a database connection, all " + maxSize + " are in use");
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLException("Interrupted while waiting for a database connection", e);
+    }
+    final long waitNanos = System.nanoTime() - startNanos;
+    borrowCount.incrementAndGet();
+    totalWaitNanos.addAndGet(waitNanos);
+    maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    try {
+      return takeConnection().newHandle();
+    } catch (final SQLException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  private PooledConnection takeConnection() throws SQLException {
+    for (@Nullable PooledConnection pooledConnection = pollIdleConnection(); pooledConnection != null;
+        pooledConnection = pollIdleConnection()) {
+      if (System.currentTimeMillis() - pooledConnection.idleSinceMillis < healthCheckIntervalMillis
+          || isValid(pooledConnection.connection)) {
+        return pooledConnection;
+      }
+      log.info("Discarding a database connection that failed its health check");
+      discard(pooledConnection);
+    }
+    final PooledConnection pooledConnection = new PooledConnection(connectionFactory.get());
+    connectionCount.incrementAndGet();
+    createdCount.incrementAndGet();
+    return pooledConnection;
+  }
+
+  private @Nullable PooledConnection pollIdleConnection() throws SQLException {
+    synchronized (idleConnections) {
+      if (closed) {
+        throw new SQLException("Connection pool closed");
+      }
+      // the most recently used connection is the least likely to have gone stale
+      return idleConnections.pollFirst();
+    }
+  }
+
+  private static boolean isValid(final Connection connection) {
+    try {
+      return connection.isValid(HEALTH_CHECK_TIMEOUT_SECONDS);
+    } catch (final SQLException e) {
+      return false;
+    }
+  }
+
+  private void giveBack(final PooledConnection pooledConnection) {
+    try {
+      if (!pooledConnection.broken) {
+        try {
+          final Connection connection = pooledConnection.connection;
+          if (!connection.getAutoCommit()) {
+            connection.rollback();
+          }
+          if (connection.getAutoCommit() != pooledConnection.initialAutoCommit) {
+            connection.setAutoCommit(pooledConnection.initialAutoCommit);
+          }
+          pooledConnection.idleSinceMillis = System.currentTimeMillis();
+          synchronized (idleConnections) {
+            if (!closed) {
+              idleConnections.addFirst(pooledConnection);
+              return;
+            }
+          }
+          retire(pooledConnection);
+          return;
+        } catch (final SQLException e) {
+          log.log(Level.INFO, "Discarding a database connection that failed to reset", e);
+        }
+      }
+      discard(pooledConnection);
+    } finally {
+      permits.release();
+    }
+  }
+
+  private void discard(final PooledConnection pooledConnection) {
+    discardedCount.incrementAndGet();
+    retire(pooledConnection);
+  }
+
+  private void retire(final PooledConnection pooledConnection) {
+    connectionCount.decrementAndGet();
+    pooledConnection.closeQuietly();
+  }
+
+  ConnectionPoolStatistics getStatistics() {
+    final long borrows = borrowCount.get();
+    final int idleCount;
+    synchronized (idleConnections) {
+      idleCount = idleConnections.size();
+    }
+    return new ConnectionPoolStatistics(
+        connectionCount.get(),
+        idleCount,
+        maxSize - permits.availablePermits(),
+        permits.getQueueLength(),
+        borrows,
+        borrows == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get() / borrows),
+        TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()),
+        createdCount.get(),
+        discardedCount.get(),
+        statementCacheHitCount.get(),
+        statementCacheMissCount.get());
+  }
+
+  /**
+   * Closes the idle connections, and each connection still handed out once it is returned.
+   */
+  @Override
+  public void close() {
+    final List<PooledConnection> connections;
+    synchronized (idleConnections) {
+      closed = true;
+      connections = new ArrayList<>(idleConnections);
+      idleConnections.clear();
+    }
+    connections.forEach(this::retire);
+  }
+
+  private static Object invoke(final Object target, final Method method, final Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (final InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  private static boolean isConnectionException(final Throwable e) {
+    return e instanceof SQLException
+        && ((SQLException) e).getSQLState() != null
+        && ((SQLException) e).getSQLState().startsWith(CONNECTION_EXCEPTION_SQL_STATE_CLASS);
+  }
+
+  /**
+   * A connection of the pool with the statements prepared on it, only used by the thread it is handed out to.
+   */
+  private final class PooledConnection {
+    private final Connection connection;
+    private final boolean initialAutoCommit;
+    private final Map<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+    private long idleSinceMillis = System.currentTimeMillis();
+    private boolean broken;
+
+    PooledConnection(final Connection connection) throws SQLException {
+      this.connection = connection;
+      initialAutoCommit = connection.getAutoCommit();
+    }
+
+    Connection newHandle() {
+      return (Connection) Proxy.newProxyInstance(
+          Connection.class.getClassLoader(), new Class<?>[] {Connection.class}, new ConnectionHandler(this));
+    }
+
+    PreparedStatement prepareStatement(final String sql) throws SQLException {
+      final @Nullable CachedStatement cached = statements.get(sql);
+      if (cached != null && !cached.inUse) {
+        statementCacheHitCount.incrementAndGet();
+        cached.inUse = true;
+        return cached.newHandle();
+      }
+      statementCacheMissCount.incrementAndGet();
+      final PreparedStatement statement = connection.prepareStatement(sql);
+      if (cached != null || statementCacheSize == 0) {
+        // the cached statement is still open in an enclosing use, so this one is not cached
+        return statement;
+      }
+      final CachedStatement added = new CachedStatement(this, statement);
+      added.inUse = true;
+      statements.put(sql, added);
+      evictStatements();
+      return added.newHandle();
+    }
+
+    private void evictStatements() {
+      for (final Iterator<CachedStatement> it = statements.values().iterator();
+          statements.size() > statementCacheSize && it.hasNext();) {
+        final CachedStatement eldest = it.next();
+        if (!eldest.inUse) {
+          it.remove();
+          closeQuietly(eldest.statement);
+        }
+      }
+    }
+
+    void closeQuietly() {
+      statements.values().forEach(cached -> closeQuietly(cached.statement));
+      statements.clear();
+      try {
+        connection.close();
+      } catch (final SQLException e) {
+        log.log(Level.FINE, "Failed to close a database connection", e);
+      }
+    }
+
+    private void closeQuietly(final PreparedStatement statement) {
+      try {
+        statement.close();
+      } catch (final SQLException e) {
+        log.log(Level.FINE, "Failed to close a prepared statement", e);
+      }
+    }
+  }
+
+  private static final class CachedStatement {
+    private final PooledConnection owner;
+    private final PreparedStatement statement;
+    private boolean inUse;
+
+    CachedStatement(final PooledConnection owner, final PreparedStatement statement) {
+      this.owner = owner;
+      this.statement = statement;
+    }
+
+    PreparedStatement newHandle() {
+      return (PreparedStatement) Proxy.newProxyInstance(
+          PreparedStatement.class.getClassLoader(), new Class<?>[] {PreparedStatement.class},
+          new StatementHandler(this));
+    }
+  }
+
+  /**
+   * Hands out the connection until it is closed, then returns it to the pool.
+   */
+  private final class ConnectionHandler implements InvocationHandler {
+    private final PooledConnection pooledConnection;
+    private boolean closed;
+
+    ConnectionHandler(final PooledConnection pooledConnection) {
+      this.pooledConnection = pooledConnection;
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+      switch (method.getName()) {
+        case "close":
+          if (!closed) {
+            closed = true;
+            giveBack(pooledConnection);
+          }
+          return null;
+        case "isClosed":
+          return closed || pooledConnection.connection.isClosed();
+        case "equals":
+          return proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        case "toString":
+          return "Pooled " + pooledConnection.connection;
+        default:
+          break;
+      }
+      if (closed) {
+        throw new SQLException("Connection returned to the pool");
+      }
+      try {
+        if (method.getName().equals("prepareStatement") && method.getParameterCount() == 1) {
+          return pooledConnection.prepareStatement((String) args[0]);
+        }
+        return ConnectionPool.invoke(pooledConnection.connection, method, args);
+      } catch (final Throwable e) {
+        if (isConnectionException(e)) {
+          pooledConnection.broken = true;
+        }
+        throw e;
+      }
+    }
+  }
+
+  /**
+   * Hands out a cached statement until it is closed, then keeps it open for the next use.
+   */
+  private static final class StatementHandler implements InvocationHandler {
+    private final CachedStatement cachedStatement;
+    private boolean closed;
+
+    StatementHandler(final CachedStatement cachedStatement) {
+      this.cachedStatement = cachedStatement;
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+      switch (method.getName()) {
+        case "close":
+          if (!closed) {
+            closed = true;
+            cachedStatement.inUse = false;
+            cachedStatement.statement.clearParameters();
+          }
+          return null;
+        case "isClosed":
+          return closed || cachedStatement.statement.isClosed();
+        case "equals":
+          return proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        default:
+          break;
+      }
+      if (closed) {
+        throw new SQLException("Statement closed");
+      }
+      try {
+        return ConnectionPool.invoke(cachedStatement.statement, method, args);
+      } catch (final Throwable e) {
+        if (isConnectionException(e)) {
+          cachedStatement.owner.broken = true;
+        }
+        throw e;
+      }
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package org.triplea.lobby.server.db;
+
+import lombok.Value;
+
+/**
+ * How busy the connection pool of a {@link Database} is, and how well it saves opening connections and preparing
+ * statements.
+ */
+@Value
+public class ConnectionPoolStatistics {
+  /**
+   * The number of open connections, whether idle or in use.
+   */
+  private final int connectionCount;
+  private final int idleCount;
+  private final int inUseCount;
+  /**
+   * The number of threads waiting for a connection, since all are in use.
+   */
+  private final int waitingCount;
+  private final long borrowCount;
+  private final long averageWaitMillis;
+  private final long maxWaitMillis;
+  private final long createdCount;
+  /**
+   * The number of connections closed since they failed a health check or a connection error occurred on them.
+   */
+  private final long discardedCount;
+  private final long statementCacheHitCount;
+  private final long statementCacheMissCount;
+}
@@ -6,6 +6,7 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -15,25 +16,61 @@ import org.triplea.lobby.server.config.LobbyPropertyReader;
  * Utility to get connections to the Postgres lobby database.
  *
  * <p>
+ * Connections come from a pool of at most {@link LobbyPropertyReader#getPostgresMaxConnections()} connections, which
+ * also keeps the statements prepared on them, so the lobby should share one instance of this class.
+ * </p>
+ *
+ * <p>
  * Instances of this class are thread-safe if the underlying {@link LobbyPropertyReader} is thread-safe.
  * </p>
  */
 @ThreadSafe
-public final class Database {
+public final class Database implements AutoCloseable {
+  private static final long BORROW_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+  private static final long HEALTH_CHECK_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(30);
+  private static final int STATEMENT_CACHE_SIZE = 32;
+
   private final LobbyPropertyReader lobbyPropertyReader;
+  private final ConnectionPool connectionPool;
 
   public Database(final LobbyPropertyReader lobbyPropertyReader) {
     checkNotNull(lobbyPropertyReader);
 
     this.lobbyPropertyReader = lobbyPropertyReader;
+    connectionPool = new ConnectionPool(
+        this::openConnection,
+        lobbyPropertyReader.getPostgresMaxConnections(),
+        BORROW_TIMEOUT_MILLIS,
+        HEALTH_CHECK_INTERVAL_MILLIS,
+        STATEMENT_CACHE_SIZE);
   }
 
+  /**
+   * Returns a connection from the pool, with auto-commit disabled. Closing the connection returns it to the pool and
+   * rolls back what was not committed.
+   */
   public Connection newConnection() throws SQLException {
+    return connectionPool.getConnection();
+  }
+
+  private Connection openConnection() throws SQLException {
     final Connection connection = DriverManager.getConnection(getConnectionUrl(), getConnectionProperties());
     connection.setAutoCommit(false);
     return connection;
   }
 
+  public ConnectionPoolStatistics getConnectionPoolStatistics() {
+    return connectionPool.getStatistics();
+  }
+
+  /**
+   * Closes the connections of the pool, each one still in use once it is returned.
+   */
+  @Override
+  public void close() {
+    connectionPool.close();
+  }
+
   private String getConnectionUrl() {
     return String.format(
         "jdbc:postgresql://%s:%d/%s",
@@ -0,0 +1,262 @@
+package org.triplea.lobby.server.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Level;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.triplea.lobby.server.User;
+
+import games.strategy.util.Tuple;
+import lombok.extern.java.Log;
+
+/**
+ * An in-memory copy of the bad words, bans and mutes, which change only when a moderator acts, so that checking a login
+ * or a chat participant does not have to query the database.
+ *
+ * <p>
+ * Changes made through this cache are written to the database before they are applied to the cache. The whole cache
+ * is reloaded from the database once it is older than {@link #REFRESH_INTERVAL}, which picks up changes made to the
+ * database by other means. Bans and mutes that have expired are treated as absent without querying the database.
+ * </p>
+ */
+@Log
+@ThreadSafe
+public class ModerationCache extends TimedController implements BadWordDao, BannedMacDao, BannedUsernameDao {
+  static final Duration REFRESH_INTERVAL = Duration.ofMinutes(5);
+  // the expiry of bans and mutes that never expire
+  private static final Instant FOREVER = Instant.MAX;
+
+  private final BadWordController badWordController;
+  private final BannedMacController bannedMacController;
+  private final BannedUsernameController bannedUsernameController;
+  private final MutedMacController mutedMacController;
+  private final MutedUsernameController mutedUsernameController;
+  @GuardedBy("this")
+  private @Nullable Instant loadedAt;
+  @GuardedBy("this")
+  private List<String> badWords = new ArrayList<>();
+  @GuardedBy("this")
+  private Map<String, Instant> bannedMacs = new HashMap<>();
+  @GuardedBy("this")
+  private Map<String, Instant> bannedUsernames = new HashMap<>();
+  @GuardedBy("this")
+  private Map<String, Instant> mutedMacs = new HashMap<>();
+  @GuardedBy("this")
+  private Map<String, Instant> mutedUsernames = new HashMap<>();
+
+  public ModerationCache(final Database database) {
+    super(database);
+
+    badWordController = new BadWordController(database);
+    bannedMacController = new BannedMacController(database);
+    bannedUsernameController = new BannedUsernameController(database);
+    mutedMacController = new MutedMacController(database);
+    mutedUsernameController = new MutedUsernameController(database);
+  }
+
+  @Override
+  public synchronized void addBadWord(final String word) {
+    badWordController.addBadWord(word);
+    refreshIfStale();
+    if (!badWords.contains(word)) {
+      badWords.add(word);
+    }
+  }
+
+  @Override
+  public synchronized List<String> list() {
+    refreshIfStale();
+    return new ArrayList<>(badWords);
+  }
+
+  @Override
+  public synchronized void addBannedMac(final User bannedUser, final @Nullable Instant banTill, final User moderator) {
+    bannedMacController.addBannedMac(bannedUser, banTill, moderator);
+    refreshIfStale();
+    put(bannedMacs, bannedUser.getHashedMacAddress(), banTill);
+  }
+
+  @Override
+  public synchronized Tuple<Boolean, /* @Nullable */ Timestamp> isMacBanned(final String mac) {
+    refreshIfStale();
+    return isBanned(bannedMacs, mac);
+  }
+
+  @Override
+  public synchronized void addBannedUsername(
+      final User bannedUser,
+      final @Nullable Instant banTill,
+      final User moderator) {
+    bannedUsernameController.addBannedUsername(bannedUser, banTill, moderator);
+    refreshIfStale();
+    put(bannedUsernames, bannedUser.getUsername(), banTill);
+  }
+
+  @Override
+  public synchronized Tuple<Boolean, /* @Nullable */ Timestamp> isUsernameBanned(final String username) {
+    refreshIfStale();
+    return isBanned(bannedUsernames, username);
+  }
+
+  /**
+   * Mutes the MAC of the specified user, see {@link MutedMacController#addMutedMac(User, Instant, User)}.
+   */
+  public synchronized void addMutedMac(final User mutedUser, final @Nullable Instant muteTill, final User moderator) {
+    mutedMacController.addMutedMac(mutedUser, muteTill, moderator);
+    refreshIfStale();
+    put(mutedMacs, mutedUser.getHashedMacAddress(), muteTill);
+  }
+
+  public boolean isMacMuted(final String mac) {
+    return getMacUnmuteTime(mac).map(now()::isBefore).orElse(false);
+  }
+
+  /**
+   * Returns the instant at which the mute of the specified MAC expires, which is {@link Instant#MAX} if it never
+   * expires, or empty if the MAC is not muted.
+   */
+  public synchronized Optional<Instant> getMacUnmuteTime(final String mac) {
+    refreshIfStale();
+    return getExpiry(mutedMacs, mac);
+  }
+
+  /**
+   * Mutes the username of the specified user, see
+   * {@link MutedUsernameController#addMutedUsername(User, Instant, User)}.
+   */
+  public synchronized void addMutedUsername(
+      final User mutedUser,
+      final @Nullable Instant muteTill,
+      final User moderator) {
+    mutedUsernameController.addMutedUsername(mutedUser, muteTill, moderator);
+    refreshIfStale();
+    put(mutedUsernames, mutedUser.getUsername(), muteTill);
+  }
+
+  public boolean isUsernameMuted(final String username) {
+    return getUsernameUnmuteTime(username).map(now()::isBefore).orElse(false);
+  }
+
+  /**
+   * Returns the instant at which the mute of the specified username expires, which is {@link Instant#MAX} if it never
+   * expires, or empty if the username is not muted.
+   */
+  public synchronized Optional<Instant> getUsernameUnmuteTime(final String username) {
+    refreshIfStale();
+    return getExpiry(mutedUsernames, username);
+  }
+
+  @GuardedBy("this")
+  private void put(final Map<String, Instant> expiries, final String key, final @Nullable Instant expiry) {
+    if (expiry == null) {
+      expiries.put(key, FOREVER);
+    } else if (expiry.isBefore(now())) {
+      // an expiry in the past lifts the ban or mute
+      expiries.remove(key);
+    } else {
+      expiries.put(key, expiry);
+    }
+  }
+
+  @GuardedBy("this")
+  private Tuple<Boolean, /* @Nullable */ Timestamp> isBanned(final Map<String, Instant> bans, final String key) {
+    final @Nullable Instant banTill = bans.get(key);
+    if (banTill == null) {
+      return Tuple.of(false, null);
+    }
+    if (banTill.isBefore(now())) {
+      bans.remove(key);
+      return Tuple.of(false, Timestamp.from(banTill));
+    }
+    return Tuple.of(true, banTill.equals(FOREVER) ? null : Timestamp.from(banTill));
+  }
+
+  @GuardedBy("this")
+  private Optional<Instant> getExpiry(final Map<String, Instant> mutes, final String key) {
+    final @Nullable Instant muteTill = mutes.get(key);
+    if (muteTill != null && muteTill.isBefore(now())) {
+      mutes.remove(key);
+      return Optional.empty();
+    }
+    return Optional.ofNullable(muteTill);
+  }
+
+  @GuardedBy("this")
+  private void refreshIfStale() {
+    final Instant now = now();
+    if (loadedAt != null && now.isBefore(loadedAt.plus(REFRESH_INTERVAL))) {
+      return;
+    }
+    try {
+      reload(now);
+    } catch (final SQLException e) {
+      if (loadedAt == null) {
+        throw new IllegalStateException("Error loading bad words, bans and mutes", e);
+      }
+      // keep what was loaded before rather than failing every login until the database is back
+      log.log(Level.WARNING, "Error reloading bad words, bans and mutes, will retry in " + REFRESH_INTERVAL, e);
+      loadedAt = now;
+    }
+  }
+
+  @GuardedBy("this")
+  private void reload(final Instant now) throws SQLException {
+    try (Connection con = newDatabaseConnection()) {
+      final List<String> loadedBadWords = new ArrayList<>();
+      try (PreparedStatement ps = con.prepareStatement("select word from bad_words");
+          ResultSet rs = ps.executeQuery()) {
+        while (rs.next()) {
+          loadedBadWords.add(rs.getString(1));
+        }
+      }
+      final Map<String, Instant> loadedBannedMacs = loadExpiries(con, "select mac, ban_till from banned_macs", now);
+      final Map<String, Instant> loadedBannedUsernames =
+          loadExpiries(con, "select username, ban_till from banned_usernames", now);
+      final Map<String, Instant> loadedMutedMacs = loadExpiries(con, "select mac, mute_till from muted_macs", now);
+      final Map<String, Instant> loadedMutedUsernames =
+          loadExpiries(con, "select username, mute_till from muted_usernames", now);
+
+      badWords = loadedBadWords;
+      bannedMacs = loadedBannedMacs;
+      bannedUsernames = loadedBannedUsernames;
+      mutedMacs = loadedMutedMacs;
+      mutedUsernames = loadedMutedUsernames;
+      loadedAt = now;
+    }
+  }
+
+  /**
+   * Returns the expiries that have not passed yet from the specified query, which is expected to return the key in
+   * the first column and the expiry in the second column.
+   */
+  private static Map<String, Instant> loadExpiries(final Connection con, final String sql, final Instant now)
+      throws SQLException {
+    final Map<String, Instant> expiries = new HashMap<>();
+    try (PreparedStatement ps = con.prepareStatement(sql);
+        ResultSet rs = ps.executeQuery()) {
+      while (rs.next()) {
+        final @Nullable Timestamp expiry = rs.getTimestamp(2);
+        if (expiry == null) {
+          expiries.put(rs.getString(1), FOREVER);
+        } else if (!expiry.toInstant().isBefore(now)) {
+          expiries.put(rs.getString(1), expiry.toInstant());
+        }
+      }
+    }
+    return expiries;
+  }
+}
@@ -18,14 +18,12 @@ import org.triplea.lobby.common.login.RsaAuthenticator;
 import org.triplea.lobby.server.User;
 import org.triplea.lobby.server.config.LobbyPropertyReader;
 import org.triplea.lobby.server.db.AccessLogController;
-import org.triplea.lobby.server.db.BadWordController;
 import org.triplea.lobby.server.db.BadWordDao;
-import org.triplea.lobby.server.db.BannedMacController;
 import org.triplea.lobby.server.db.BannedMacDao;
-import org.triplea.lobby.server.db.BannedUsernameController;
 import org.triplea.lobby.server.db.BannedUsernameDao;
 import org.triplea.lobby.server.db.Database;
 import org.triplea.lobby.server.db.HashedPassword;
+import org.triplea.lobby.server.db.ModerationCache;
 import org.triplea.lobby.server.db.UserController;
 import org.triplea.lobby.server.db.UserDao;
 
@@ -69,16 +67,15 @@ public final class LobbyLoginValidator implements ILoginValidator {
   private final RsaAuthenticator rsaAuthenticator;
   private final UserDao userDao;
 
-  public LobbyLoginValidator(final LobbyPropertyReader lobbyPropertyReader) {
-    this(lobbyPropertyReader, new Database(lobbyPropertyReader));
-  }
-
-  private LobbyLoginValidator(final LobbyPropertyReader lobbyPropertyReader, final Database database) {
+  public LobbyLoginValidator(
+      final LobbyPropertyReader lobbyPropertyReader,
+      final Database database,
+      final ModerationCache moderationCache) {
     this(
         lobbyPropertyReader,
-        new BadWordController(database),
-        new BannedMacController(database),
-        new BannedUsernameController(database),
+        moderationCache,
+        moderationCache,
+        moderationCache,
         new UserController(database),
         new CompositeAccessLog(new AccessLogController(database)),
         new RsaAuthenticator(),
@@ -11,6 +11,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mindrot.jbcrypt.BCrypt;
@@ -18,6 +19,7 @@ import org.mockito.stubbing.Answer;
 import org.triplea.lobby.server.config.TestLobbyPropertyReaders;
 import org.triplea.lobby.server.db.Database;
 import org.triplea.lobby.server.db.HashedPassword;
+import org.triplea.lobby.server.db.ModerationCache;
 import org.triplea.lobby.server.db.UserController;
 import org.triplea.test.common.Integration;
 
@@ -33,6 +35,7 @@ import games.strategy.util.Util;
 @Integration
 public class ModeratorControllerIntegrationTest {
   private final IServerMessenger serverMessenger = mock(IServerMessenger.class);
+  private final Database database = new Database(TestLobbyPropertyReaders.INTEGRATION_TEST);
   private ModeratorController moderatorController;
   private ConnectionChangeListener connectionChangeListener;
   private INode adminNode;
@@ -45,12 +48,12 @@ public class ModeratorControllerIntegrationTest {
 
   @BeforeEach
   public void setUp() throws UnknownHostException {
-    moderatorController = new ModeratorController(serverMessenger, null, TestLobbyPropertyReaders.INTEGRATION_TEST);
+    moderatorController = new ModeratorController(serverMessenger, null, database, new ModerationCache(database));
     final String adminName = Util.createUniqueTimeStamp();
 
     final DBUser dbUser = new DBUser(new DBUser.UserName(adminName), new DBUser.UserEmail("n@n.n"), DBUser.Role.ADMIN);
 
-    final UserController userController = new UserController(new Database(TestLobbyPropertyReaders.INTEGRATION_TEST));
+    final UserController userController = new UserController(database);
     userController.createUser(dbUser, new HashedPassword(BCrypt.hashpw(adminName, BCrypt.gensalt())));
     userController.makeAdmin(dbUser);
 
@@ -58,6 +61,11 @@ public class ModeratorControllerIntegrationTest {
     when(serverMessenger.getPlayerMac(adminName)).thenReturn(newHashedMacAddress());
   }
 
+  @AfterEach
+  public void tearDown() {
+    database.close();
+  }
+
   @Test
   public void testBoot() throws UnknownHostException {
     MessageContext.setSenderNodeForThread(adminNode);
@@ -68,6 +68,24 @@ public final class LobbyPropertyReaderTest {
     }
   }
 
+  @Nested
+  public final class GetPostgresMaxConnectionsTest {
+    @Test
+    public void shouldReturnValueWhenPresent() {
+      final int value = 42;
+      memoryPropertyReader.setProperty(PropertyKeys.POSTGRES_MAX_CONNECTIONS, String.valueOf(value));
+
+      assertThat(lobbyPropertyReader.getPostgresMaxConnections(), is(value));
+    }
+
+    @Test
+    public void shouldReturnDefaultValueWhenAbsent() {
+      memoryPropertyReader.setProperty(PropertyKeys.POSTGRES_MAX_CONNECTIONS, "");
+
+      assertThat(lobbyPropertyReader.getPostgresMaxConnections(), is(DefaultValues.POSTGRES_MAX_CONNECTIONS));
+    }
+  }
+
   @Nested
   public final class GetPostgresPasswordTest {
     @Test
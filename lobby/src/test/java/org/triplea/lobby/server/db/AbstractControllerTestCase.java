@@ -1,5 +1,6 @@
 package org.triplea.lobby.server.db;
 
+import org.junit.jupiter.api.AfterEach;
 import org.triplea.lobby.server.config.TestLobbyPropertyReaders;
 import org.triplea.test.common.Integration;
 
@@ -11,4 +12,9 @@ public abstract class AbstractControllerTestCase {
   protected final Database database = new Database(TestLobbyPropertyReaders.INTEGRATION_TEST);
 
   protected AbstractControllerTestCase() {}
+
+  @AfterEach
+  public void closeDatabase() {
+    database.close();
+  }
 }
@@ -0,0 +1,135 @@
+package org.triplea.lobby.server.db;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the pool against mock connections, which stand in for the lobby database.
+ */
+public final class ConnectionPoolTest {
+  private static final String SQL = "select word from bad_words";
+
+  private final List<Connection> openedConnections = new ArrayList<>();
+
+  private Connection openConnection() throws SQLException {
+    final Connection connection = mock(Connection.class);
+    when(connection.isValid(anyInt())).thenReturn(true);
+    when(connection.prepareStatement(anyString())).thenAnswer(invocation -> mock(PreparedStatement.class));
+    openedConnections.add(connection);
+    return connection;
+  }
+
+  private ConnectionPool newConnectionPool(final int maxSize, final long healthCheckIntervalMillis) {
+    return new ConnectionPool(this::openConnection, maxSize, 0, healthCheckIntervalMillis, 8);
+  }
+
+  @Test
+  public void shouldReuseReturnedConnectionAfterRollingItBack() throws Exception {
+    final ConnectionPool connectionPool = newConnectionPool(1, 60_000);
+
+    connectionPool.getConnection().close();
+    connectionPool.getConnection().close();
+
+    assertThat(openedConnections, hasSize(1));
+    verify(openedConnections.get(0), times(2)).rollback();
+    assertThat(connectionPool.getStatistics().getBorrowCount(), is(2L));
+    assertThat(connectionPool.getStatistics().getIdleCount(), is(1));
+  }
+
+  @Test
+  public void shouldNotHandOutMoreThanMaxSizeConnections() throws Exception {
+    final ConnectionPool connectionPool = newConnectionPool(1, 60_000);
+
+    try (Connection connection = connectionPool.getConnection()) {
+      assertThrows(SQLException.class, connectionPool::getConnection);
+      assertThat(connectionPool.getStatistics().getInUseCount(), is(1));
+    }
+    assertThat(connectionPool.getStatistics().getInUseCount(), is(0));
+  }
+
+  @Test
+  public void shouldDiscardIdleConnectionFailingHealthCheck() throws Exception {
+    final ConnectionPool connectionPool = newConnectionPool(1, 0);
+    connectionPool.getConnection().close();
+    when(openedConnections.get(0).isValid(anyInt())).thenReturn(false);
+
+    connectionPool.getConnection().close();
+
+    assertThat(openedConnections, hasSize(2));
+    verify(openedConnections.get(0)).close();
+    assertThat(connectionPool.getStatistics().getDiscardedCount(), is(1L));
+  }
+
+  @Test
+  public void shouldDiscardConnectionAfterConnectionError() throws Exception {
+    final ConnectionPool connectionPool = newConnectionPool(1, 60_000);
+    try (Connection connection = connectionPool.getConnection()) {
+      when(openedConnections.get(0).createStatement()).thenThrow(new SQLException("connection lost", "08006"));
+      assertThrows(SQLException.class, connection::createStatement);
+    }
+
+    connectionPool.getConnection().close();
+
+    assertThat(openedConnections, hasSize(2));
+    verify(openedConnections.get(0)).close();
+  }
+
+  @Test
+  public void shouldReuseStatementPreparedOnSameConnection() throws Exception {
+    final ConnectionPool connectionPool = newConnectionPool(1, 60_000);
+
+    try (Connection connection = connectionPool.getConnection();
+        PreparedStatement statement = connection.prepareStatement(SQL)) {
+      statement.setString(1, "word");
+    }
+    try (Connection connection = connectionPool.getConnection();
+        PreparedStatement statement = connection.prepareStatement(SQL)) {
+      statement.setString(1, "other word");
+    }
+
+    verify(openedConnections.get(0)).prepareStatement(SQL);
+    assertThat(connectionPool.getStatistics().getStatementCacheHitCount(), is(1L));
+    assertThat(connectionPool.getStatistics().getStatementCacheMissCount(), is(1L));
+  }
+
+  @Test
+  public void shouldPrepareNewStatementWhileCachedOneIsInUse() throws Exception {
+    final ConnectionPool connectionPool = newConnectionPool(1, 60_000);
+
+    try (Connection connection = connectionPool.getConnection();
+        PreparedStatement statement = connection.prepareStatement(SQL);
+        PreparedStatement nestedStatement = connection.prepareStatement(SQL)) {
+      verify(openedConnections.get(0), times(2)).prepareStatement(SQL);
+    }
+  }
+
+  @Test
+  public void shouldCloseIdleConnectionsWhenClosed() throws Exception {
+    final ConnectionPool connectionPool = newConnectionPool(2, 60_000);
+    final Connection inUse = connectionPool.getConnection();
+    connectionPool.getConnection().close();
+
+    connectionPool.close();
+    verify(openedConnections.get(1)).close();
+    inUse.close();
+
+    verify(openedConnections.get(0)).close();
+    assertThrows(SQLException.class, connectionPool::getConnection);
+  }
+}
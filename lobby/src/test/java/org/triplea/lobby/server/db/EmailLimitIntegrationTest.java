@@ -6,6 +6,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.mindrot.jbcrypt.BCrypt;
 import org.triplea.lobby.server.config.TestLobbyPropertyReaders;
@@ -24,6 +25,11 @@ import games.strategy.util.Util;
 public class EmailLimitIntegrationTest {
   private final Database database = new Database(TestLobbyPropertyReaders.INTEGRATION_TEST);
 
+  @AfterEach
+  public void tearDown() {
+    database.close();
+  }
+
   @Test
   public void testAllowsMaximumLength() {
     assertNotThrows(() -> createAccountWithEmail(getStringWithLength(60) + "@" + getStringWithLength(193)));
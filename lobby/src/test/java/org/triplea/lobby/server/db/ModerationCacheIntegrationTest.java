@@ -0,0 +1,72 @@
+package org.triplea.lobby.server.db;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import games.strategy.util.Tuple;
+import games.strategy.util.Util;
+
+public final class ModerationCacheIntegrationTest extends AbstractModeratorServiceControllerTestCase {
+  private final ModerationCache cache = spy(new ModerationCache(database));
+
+  @Test
+  public void testAddBadWord() {
+    final String word = Util.createUniqueTimeStamp();
+    cache.addBadWord(word);
+    assertTrue(cache.list().contains(word));
+    assertTrue(new BadWordController(database).list().contains(word));
+  }
+
+  @Test
+  public void testBanMacForever() {
+    cache.addBannedMac(user, null, moderator);
+    final Tuple<Boolean, Timestamp> macBanned = cache.isMacBanned(user.getHashedMacAddress());
+    assertTrue(macBanned.getFirst());
+    assertNull(macBanned.getSecond());
+    assertTrue(new BannedMacController(database).isMacBanned(user.getHashedMacAddress()).getFirst());
+  }
+
+  @Test
+  public void testBanUsernameExpires() {
+    final Instant banUntil = Instant.now().plusSeconds(100L);
+    cache.addBannedUsername(user, banUntil, moderator);
+    assertTrue(cache.isUsernameBanned(user.getUsername()).getFirst());
+    when(cache.now()).thenReturn(banUntil.plusSeconds(1L));
+    assertFalse(cache.isUsernameBanned(user.getUsername()).getFirst());
+  }
+
+  @Test
+  public void testUnmuteMac() {
+    cache.addMutedMac(user, Instant.now().plusSeconds(100L), moderator);
+    assertTrue(cache.isMacMuted(user.getHashedMacAddress()));
+    cache.addMutedMac(user, Instant.now().minusSeconds(10L), moderator);
+    assertFalse(cache.isMacMuted(user.getHashedMacAddress()));
+    assertFalse(new MutedMacController(database).isMacMuted(user.getHashedMacAddress()));
+  }
+
+  @Test
+  public void testMuteUsernameForever() {
+    cache.addMutedUsername(user, null, moderator);
+    assertTrue(cache.isUsernameMuted(user.getUsername()));
+    assertEquals(Optional.of(Instant.MAX), cache.getUsernameUnmuteTime(user.getUsername()));
+  }
+
+  @Test
+  public void testChangeMadeElsewhereIsSeenAfterRefreshInterval() {
+    assertFalse(cache.isMacMuted(user.getHashedMacAddress()));
+    new MutedMacController(database).addMutedMac(user, null, moderator);
+    assertFalse(cache.isMacMuted(user.getHashedMacAddress()));
+    when(cache.now()).thenReturn(Instant.now().plus(ModerationCache.REFRESH_INTERVAL));
+    assertTrue(cache.isMacMuted(user.getHashedMacAddress()));
+  }
+}
@@ -18,15 +18,16 @@ import java.util.function.Function;
 
 import javax.annotation.Nullable;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.mindrot.jbcrypt.BCrypt;
 import org.triplea.lobby.common.LobbyConstants;
 import org.triplea.lobby.common.login.LobbyLoginResponseKeys;
 import org.triplea.lobby.common.login.RsaAuthenticator;
 import org.triplea.lobby.server.config.TestLobbyPropertyReaders;
-import org.triplea.lobby.server.db.BadWordController;
 import org.triplea.lobby.server.db.Database;
 import org.triplea.lobby.server.db.HashedPassword;
+import org.triplea.lobby.server.db.ModerationCache;
 import org.triplea.lobby.server.db.UserController;
 import org.triplea.test.common.Integration;
 
@@ -39,7 +40,14 @@ import games.strategy.util.Util;
 @Integration
 public class LobbyLoginValidatorIntegrationTest {
   private final Database database = new Database(TestLobbyPropertyReaders.INTEGRATION_TEST);
-  private final ILoginValidator loginValidator = new LobbyLoginValidator(TestLobbyPropertyReaders.INTEGRATION_TEST);
+  private final ModerationCache moderationCache = new ModerationCache(database);
+  private final ILoginValidator loginValidator =
+      new LobbyLoginValidator(TestLobbyPropertyReaders.INTEGRATION_TEST, database, moderationCache);
+
+  @AfterEach
+  public void tearDown() {
+    database.close();
+  }
 
   @Test
   public void testLegacyCreateNewUser() {
@@ -126,7 +134,7 @@ public class LobbyLoginValidatorIntegrationTest {
   public void testAnonymousLoginBadName() {
     final String name = "bitCh" + Util.createUniqueTimeStamp();
     try {
-      new BadWordController(database).addBadWord("bitCh");
+      moderationCache.addBadWord("bitCh");
     } catch (final Exception ignore) {
       // this is probably a duplicate insertion error, we can ignore that as it only means we already added the bad
       // word previously